@@ -0,0 +1,364 @@
+package benchmark.database;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import database.Database;
+import database.DatabaseConfig;
+import entityClasses.Post;
+import entityClasses.User;
+
+/*******
+ * <p> Title: DatabaseLoadBenchmark Class. </p>
+ *
+ * <p> Description: A load harness for database.Database.  It creates a throwaway H2 database
+ * (in memory, or in a temporary directory that is deleted afterwards), seeds it with users and
+ * posts, and then drives each operation in turn from a configurable number of concurrent threads.
+ * For every operation it reports the throughput and the p50, p95, p99, and p99.9 latency, so
+ * deployments can be sized and query plan regressions show up as a jump in one line of the
+ * report.
+ *
+ * Options (all optional):
+ *
+ *     --threads=8          concurrent callers
+ *     --warmup=3           seconds of unmeasured calls before each operation is measured
+ *     --seconds=10         seconds each operation is measured for
+ *     --users=1000         users created before the run
+ *     --posts=1000         posts created before the run
+ *     --profile=in-memory-bench  the DatabaseConfig profile to run under; an on-disk profile
+ *                          such as durable-prod or low-memory gets a temporary directory
+ *     --ops=a,b,...        only run the named operations (default: all of them)
+ *
+ * Run it with the application classes and the H2 jar on the classpath:
+ *
+ *     java -cp &lt;classpath&gt; benchmark.database.DatabaseLoadBenchmark --threads=16</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-22 Initial version
+ *
+ */
+
+public class DatabaseLoadBenchmark {
+
+	/*******
+	 * <p> Interface: Operation </p>
+	 *
+	 * <p> Description: One call of the operation being measured.</p>
+	 */
+	public interface Operation {
+		void call() throws Exception;
+	}
+
+	/*******
+	 * <p> Class: Result </p>
+	 *
+	 * <p> Description: The measurements of one operation.</p>
+	 */
+	public static class Result {
+		public final String name;
+		public final int threads;
+		public final long elapsedNanos;
+		public final long errors;
+		public final LatencyRecorder latencies;
+
+		Result(String name, int threads, long elapsedNanos, long errors, LatencyRecorder latencies) {
+			this.name = name;
+			this.threads = threads;
+			this.elapsedNanos = elapsedNanos;
+			this.errors = errors;
+			this.latencies = latencies;
+		}
+
+		public double throughput() {
+			return latencies.count() / (elapsedNanos / 1e9);
+		}
+	}
+
+	// The console is silenced during the run (the data layer prints on several paths), so the
+	// report is written to the stream that was the console when the harness started
+	private static final PrintStream report = System.out;
+
+	private final Database database;
+	private final int users;
+	private final int posts;
+	private final AtomicInteger sequence = new AtomicInteger();
+	private final List<String> postIds = new ArrayList<String>();
+
+	public DatabaseLoadBenchmark(Database database, int users, int posts) {
+		this.database = database;
+		this.users = users;
+		this.posts = posts;
+	}
+
+	/*-*******************************************************************************************
+
+	The workload
+
+	*/
+
+	// The seeded users are bench0 .. bench(users-1), all with the same password
+	public static final String PASSWORD = "Bench!Passw0rd";
+
+	private User seededUser(int n) {
+		return new User("bench" + n, PASSWORD, "", "", "", "", "bench" + n + "@example.com",
+				n == 0, false, false, true);
+	}
+
+	private User anySeededUser() {
+		return seededUser(ThreadLocalRandom.current().nextInt(users));
+	}
+
+	private String anyPostId() {
+		return postIds.get(ThreadLocalRandom.current().nextInt(postIds.size()));
+	}
+
+	// Post and reply IDs must be unique, fit the 10 character columns, and not collide with the
+	// random IDs the application generates
+	private String nextId(String prefix) {
+		return prefix + Integer.toString(sequence.incrementAndGet(), 36).toUpperCase();
+	}
+
+	private Post newPost() {
+		Post p = new Post("bench" + ThreadLocalRandom.current().nextInt(users),
+				"Benchmark question", "How should the load harness be configured?", "General");
+		p.__setPostId(nextId("B-"));
+		return p;
+	}
+
+	/*******
+	 * <p> Method: void seed() </p>
+	 *
+	 * <p> Description: Create the users and posts the read operations work against.</p>
+	 *
+	 * @throws Exception if the database cannot be seeded
+	 */
+	public void seed() throws Exception {
+		for (int n = 0; n < users; n++) database.register(seededUser(n));
+		for (int n = 0; n < posts; n++) {
+			Post p = newPost();
+			database.savePost(p);
+			postIds.add(p.getPostId());
+		}
+	}
+
+	/*******
+	 * <p> Method: Map<String, Operation> operations() </p>
+	 *
+	 * <p> Description: The operations in the order they are run.  Reads come first so that the
+	 * rows added by the write operations do not change what the reads are measured against.</p>
+	 *
+	 * @return the operations by name
+	 */
+	public Map<String, Operation> operations() {
+		Map<String, Operation> ops = new LinkedHashMap<String, Operation>();
+		ops.put("getUserAccountDetails", () -> database.getUserAccountDetails(
+				"bench" + ThreadLocalRandom.current().nextInt(users)));
+		ops.put("loginAdmin", () -> database.loginAdmin(anySeededUser()));
+		ops.put("loginStudent", () -> database.loginStudent(anySeededUser()));
+		ops.put("doesUserExist", () -> database.doesUserExist(
+				"bench" + ThreadLocalRandom.current().nextInt(users * 2)));
+		ops.put("getAllPosts", () -> database.getAllPosts());
+		ops.put("getRepliesForPost", () -> database.getRepliesForPost(anyPostId()));
+		ops.put("updateFirstName", () -> database.updateFirstName(
+				"bench" + ThreadLocalRandom.current().nextInt(users), 
+				"First" + ThreadLocalRandom.current().nextInt(1000)));
+		ops.put("generateInvitationCode", () -> database.generateInvitationCode(
+				"invitee" + sequence.incrementAndGet() + "@example.com", "Student"));
+		ops.put("register", () -> database.register(new User("new" + sequence.incrementAndGet(),
+				PASSWORD, "", "", "", "", "", false, false, false, true)));
+		ops.put("savePost", () -> database.savePost(newPost()));
+		ops.put("saveReply", () -> database.saveReply(nextId("Q-"), anyPostId(),
+				"bench" + ThreadLocalRandom.current().nextInt(users), "Benchmark reply text."));
+		ops.put("addReply", () -> database.addReply(nextId("Q-"), anyPostId(),
+				"bench" + ThreadLocalRandom.current().nextInt(users), "Benchmark reply text."));
+		ops.put("markPostDeleted", () -> database.markPostDeleted(anyPostId()));
+		return ops;
+	}
+
+	/*-*******************************************************************************************
+
+	The measurement loop
+
+	*/
+
+	/*******
+	 * <p> Method: Result measure(String name, Operation op, int threads, long warmupMillis,
+	 * long measureMillis) </p>
+	 *
+	 * <p> Description: Call the operation from the given number of platform threads, first for
+	 * the warmup period (not recorded) and then for the measurement period.  Every call is timed
+	 * individually.  A call that throws is counted as an error and not recorded.</p>
+	 *
+	 * @param name is the operation's name for the report
+	 * @param op is the operation
+	 * @param threads is the number of concurrent callers
+	 * @param warmupMillis is the length of the unmeasured warmup
+	 * @param measureMillis is the length of the measurement
+	 *
+	 * @return the measurements
+	 *
+	 * @throws InterruptedException if the harness is interrupted while waiting for the workers
+	 */
+	public static Result measure(String name, Operation op, int threads, long warmupMillis,
+			long measureMillis) throws InterruptedException {
+		LatencyRecorder[] recorders = new LatencyRecorder[threads];
+		AtomicLong errors = new AtomicLong();
+		CountDownLatch ready = new CountDownLatch(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		long[] window = new long[2];		// measurement start and end, set once start opens
+		Thread[] workers = new Thread[threads];
+
+		for (int t = 0; t < threads; t++) {
+			LatencyRecorder recorder = recorders[t] = new LatencyRecorder();
+			workers[t] = new Thread(() -> {
+				ready.countDown();
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				long measureFrom = window[0];
+				long measureTo = window[1];
+				long now = System.nanoTime();
+				while (now < measureTo) {
+					try {
+						op.call();
+						long end = System.nanoTime();
+						if (now >= measureFrom) recorder.record(end - now);
+						now = end;
+					} catch (Exception e) {
+						if (now >= measureFrom) errors.incrementAndGet();
+						now = System.nanoTime();
+					}
+				}
+			}, "bench-" + name + "-" + t);
+			workers[t].start();
+		}
+
+		ready.await();
+		window[0] = System.nanoTime() + warmupMillis * 1_000_000L;
+		window[1] = window[0] + measureMillis * 1_000_000L;
+		start.countDown();
+		for (Thread w : workers) w.join();
+
+		LatencyRecorder all = new LatencyRecorder();
+		for (LatencyRecorder r : recorders) all.addAll(r);
+		return new Result(name, threads, window[1] - window[0], errors.get(), all);
+	}
+
+	/*******
+	 * <p> Method: void printHeader() / printResult(Result r) </p>
+	 *
+	 * <p> Description: The report is one line per operation; latencies are in microseconds.</p>
+	 */
+	public static void printHeader() {
+		report.printf("%-24s %7s %10s %12s %9s %9s %9s %9s %9s %7s%n", "operation", "threads",
+				"calls", "ops/sec", "p50 us", "p95 us", "p99 us", "p99.9 us", "max us", "errors");
+	}
+
+	public static void printResult(Result r) {
+		LatencyRecorder l = r.latencies;
+		report.printf("%-24s %7d %10d %12.1f %9.1f %9.1f %9.1f %9.1f %9.1f %7d%n", r.name,
+				r.threads, l.count(), r.throughput(), l.percentile(50) / 1e3,
+				l.percentile(95) / 1e3, l.percentile(99) / 1e3, l.percentile(99.9) / 1e3,
+				l.max() / 1e3, r.errors);
+	}
+
+	/*-*******************************************************************************************
+
+	Command line
+
+	*/
+
+	// Read "--name=value" from the arguments, or return the default
+	public static String option(String[] args, String name, String defaultValue) {
+		for (String a : args)
+			if (a.startsWith("--" + name + "=")) return a.substring(name.length() + 3);
+		return defaultValue;
+	}
+
+	/*******
+	 * <p> Method: DatabaseConfig throwawayConfig(String profile, Path[] directory) </p>
+	 *
+	 * <p> Description: The named profile pointed at a fresh database.  The profile's engine
+	 * options are kept; only the URL is replaced.  A file database lives in a new temporary
+	 * directory, which is returned through the holder so it can be deleted.</p>
+	 *
+	 * @param profile is a DatabaseConfig profile name
+	 * @param directory receives the temporary directory of a file database
+	 *
+	 * @return the configuration to run under
+	 *
+	 * @throws IOException if the temporary directory cannot be created
+	 */
+	public static DatabaseConfig throwawayConfig(String profile, Path[] directory) throws IOException {
+		DatabaseConfig config = DatabaseConfig.forProfile(profile);
+		if (config.getUrl().startsWith("jdbc:h2:mem:")) {
+			config.set(DatabaseConfig.KEY_URL,
+					"jdbc:h2:mem:bench" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+		} else {
+			directory[0] = Files.createTempDirectory("foundations-bench");
+			config.set(DatabaseConfig.KEY_URL,
+					"jdbc:h2:" + directory[0].toAbsolutePath() + File.separator + "bench");
+		}
+		return config;
+	}
+
+	public static void deleteDirectory(Path directory) throws IOException {
+		if (directory == null) return;
+		try (var paths = Files.walk(directory)) {
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		int threads = Integer.parseInt(option(args, "threads", "8"));
+		long warmup = Long.parseLong(option(args, "warmup", "3")) * 1000;
+		long seconds = Long.parseLong(option(args, "seconds", "10")) * 1000;
+		int users = Integer.parseInt(option(args, "users", "1000"));
+		int posts = Integer.parseInt(option(args, "posts", "1000"));
+		String profile = option(args, "profile", DatabaseConfig.PROFILE_IN_MEMORY_BENCH);
+		String only = option(args, "ops", "");
+
+		Path[] directory = new Path[1];
+		DatabaseConfig config = throwawayConfig(profile, directory);
+		Database database = new Database(config);
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		try {
+			database.connectToDatabase();
+			DatabaseLoadBenchmark bench = new DatabaseLoadBenchmark(database, users, posts);
+			bench.seed();
+
+			report.println("H2 " + config + ", " + users + " users, " + posts
+					+ " posts, " + threads + " threads, " + warmup / 1000 + "s warmup, "
+					+ seconds / 1000 + "s per operation");
+			printHeader();
+			List<String> selected = only.isEmpty() ? null : Arrays.asList(only.split(","));
+			for (Map.Entry<String, Operation> e : bench.operations().entrySet()) {
+				if (selected != null && !selected.contains(e.getKey())) continue;
+				printResult(measure(e.getKey(), e.getValue(), threads, warmup, seconds));
+			}
+		} finally {
+			database.closeConnection();
+			System.setOut(report);
+			deleteDirectory(directory[0]);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package benchmark.database;
+
+import java.util.Arrays;
+
+/*******
+ * <p> Title: LatencyRecorder Class. </p>
+ *
+ * <p> Description: Records every latency sample (in nanoseconds) taken by one benchmark worker
+ * thread so exact percentiles can be computed when the run is over.  Each worker owns its own
+ * recorder, so recording never contends; the recorders are merged once the workers have
+ * stopped.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-22 Initial version
+ *
+ */
+
+public class LatencyRecorder {
+
+	private long[] samples = new long[1 << 14];
+	private int count = 0;
+	private boolean sorted = true;
+
+	/*******
+	 * <p> Method: void record(long nanos) </p>
+	 *
+	 * <p> Description: Add one latency sample.</p>
+	 *
+	 * @param nanos is the elapsed time of one call, in nanoseconds
+	 */
+	public void record(long nanos) {
+		if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+		samples[count++] = nanos;
+		sorted = false;
+	}
+
+	/*******
+	 * <p> Method: void addAll(LatencyRecorder other) </p>
+	 *
+	 * <p> Description: Merge the samples of another recorder into this one.</p>
+	 *
+	 * @param other is the recorder whose samples are added
+	 */
+	public void addAll(LatencyRecorder other) {
+		if (count + other.count > samples.length)
+			samples = Arrays.copyOf(samples, Math.max(samples.length * 2, count + other.count));
+		System.arraycopy(other.samples, 0, samples, count, other.count);
+		count += other.count;
+		sorted = false;
+	}
+
+	/*******
+	 * <p> Method: int count() </p>
+	 *
+	 * @return the number of samples recorded
+	 */
+	public int count() {
+		return count;
+	}
+
+	/*******
+	 * <p> Method: long percentile(double p) </p>
+	 *
+	 * <p> Description: The nearest-rank percentile of the recorded samples.</p>
+	 *
+	 * @param p is the percentile wanted, from 0 to 100 (e.g., 99.9)
+	 *
+	 * @return the latency in nanoseconds at that percentile, or 0 if nothing was recorded
+	 */
+	public long percentile(double p) {
+		if (count == 0) return 0;
+		if (!sorted) {
+			Arrays.sort(samples, 0, count);
+			sorted = true;
+		}
+		int rank = (int) Math.ceil(p / 100.0 * count);
+		return samples[Math.max(0, Math.min(count - 1, rank - 1))];
+	}
+
+	/*******
+	 * <p> Method: long max() </p>
+	 *
+	 * @return the largest sample in nanoseconds, or 0 if nothing was recorded
+	 */
+	public long max() {
+		return percentile(100);
+	}
+}
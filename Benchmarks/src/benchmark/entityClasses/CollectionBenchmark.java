@@ -0,0 +1,286 @@
+package benchmark.entityClasses;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import entityClasses.Post;
+import entityClasses.PostCollection;
+import entityClasses.Reply;
+import entityClasses.ReplyCollection;
+
+/*******
+ * <p> Title: CollectionBenchmark Class. </p>
+ *
+ * <p> Description: JMH benchmarks that track how the cost of the public PostCollection and
+ * ReplyCollection operations grows with the size of the discussion board.  Every benchmark runs at
+ * 10k, 100k, and 1M posts (and the same number of replies), so the report gives the scaling curve
+ * of each operation directly.  Times are reported as the average time per call.
+ *
+ * The collections are built once per trial through the list constructors.  Building through
+ * addPost would itself be quadratic (each add scans for a duplicate ID) and, with the 5 character
+ * random IDs, a million posts would contain thousands of colliding IDs.  The posts are therefore
+ * given sequential IDs and spread over THREAD_COUNT threads and REPLIES_PER_POST replies per
+ * post; one post in DELETED_EVERY is soft deleted so the "active" filters have work to do.
+ *
+ * The main method runs the suite with the GC profiler enabled.  The 1M case needs a large heap,
+ * so each fork is started with -Xmx4g:
+ *
+ *     java -cp &lt;classpath&gt; benchmark.entityClasses.CollectionBenchmark [regex]</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-21 Initial version
+ *
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class CollectionBenchmark {
+
+	// The shape of the generated board
+	static final int THREAD_COUNT = 50;				// Distinct thread names
+	static final int REPLIES_PER_POST = 10;			// Replies are spread over size/10 posts
+	static final int DELETED_EVERY = 20;			// Every 20th post and reply is soft deleted
+
+	@Param({"10000", "100000", "1000000"})
+	public int size;
+
+	PostCollection posts;
+	ReplyCollection replies;
+	String[] postIds;
+	String[] threads;
+	Random random;
+
+	// The post added by addPost, created before and removed after each invocation
+	Post pendingPost;
+	int nextPostNumber;
+
+	private PrintStream originalOut;
+
+	/*-*******************************************************************************************
+
+	Board construction
+
+	*/
+
+	@Setup(Level.Trial)
+	public void buildBoard() {
+		// The Post and Reply constructors print every new ID; discard that while building
+		originalOut = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+		random = new Random(360);
+		threads = new String[THREAD_COUNT];
+		for (int t = 0; t < THREAD_COUNT; t++) threads[t] = "Thread " + t;
+
+		postIds = new String[size];
+		List<Post> postList = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Post p = new Post("user" + (i % 5000), "Question number " + i + " about homework",
+					"I am stuck on part " + (i % 7) + " of the assignment and would like a hint.",
+					threads[i % THREAD_COUNT]);
+			p.__setPostId("P-" + i);
+			if (i % DELETED_EVERY == 0) p.markAsDeleted();
+			postIds[i] = p.getPostId();
+			postList.add(p);
+		}
+		posts = new PostCollection(postList);
+
+		int repliedPosts = Math.max(1, size / REPLIES_PER_POST);
+		List<Reply> replyList = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Reply r = new Reply(postIds[i % repliedPosts], "user" + (i % 5000),
+					"Try re-reading section " + (i % 12) + " of the notes.");
+			if (i % DELETED_EVERY == 0) r.markAsDeleted();
+			replyList.add(r);
+		}
+		replies = new ReplyCollection(replyList);
+		nextPostNumber = size;
+	}
+
+	@TearDown(Level.Trial)
+	public void restoreConsole() {
+		System.setOut(originalOut);
+	}
+
+	// A post ID chosen at random from the whole board, so lookups are not biased to the front
+	private String anyPostId() {
+		return postIds[random.nextInt(size)];
+	}
+
+	// A post ID that has replies
+	private String repliedPostId() {
+		return postIds[random.nextInt(Math.max(1, size / REPLIES_PER_POST))];
+	}
+
+	/*-*******************************************************************************************
+
+	PostCollection
+
+	*/
+
+	/*******
+	 * <p> Class: AddPostState </p>
+	 *
+	 * <p> Description: Creates the post to add before each call and removes it afterwards, so
+	 * every call sees a board of exactly "size" posts and only the add is timed.</p>
+	 */
+	@State(Scope.Benchmark)
+	public static class AddPostState {
+		@Setup(Level.Invocation)
+		public void createPost(CollectionBenchmark board) {
+			Post p = new Post("newcomer", "A brand new question", "Where do I find the rubric?",
+					"General");
+			p.__setPostId("P-" + board.nextPostNumber++);
+			board.pendingPost = p;
+		}
+
+		@TearDown(Level.Invocation)
+		public void removePost(CollectionBenchmark board) {
+			board.posts.permanentlyRemovePost(board.pendingPost.getPostId());
+		}
+	}
+
+	@Benchmark
+	public boolean addPost(AddPostState state) {
+		return posts.addPost(pendingPost);
+	}
+
+	@Benchmark
+	public Post findPostById() {
+		return posts.findPostById(anyPostId());
+	}
+
+	@Benchmark
+	public Post findPostByIdMissing() {
+		return posts.findPostById("P-MISSING");
+	}
+
+	@Benchmark
+	public PostCollection getPostsByThread() {
+		return posts.getPostsByThread(threads[random.nextInt(THREAD_COUNT)]);
+	}
+
+	@Benchmark
+	public PostCollection getActivePostsByThread() {
+		return posts.getActivePostsByThread(threads[random.nextInt(THREAD_COUNT)]);
+	}
+
+	@Benchmark
+	public PostCollection getPostsByAuthor() {
+		return posts.getPostsByAuthor("user" + random.nextInt(5000));
+	}
+
+	@Benchmark
+	public PostCollection searchPosts() {
+		return posts.searchPosts("part " + random.nextInt(7));
+	}
+
+	@Benchmark
+	public List<Post> getActivePosts() {
+		return posts.getActivePosts();
+	}
+
+	@Benchmark
+	public int countAllPosts() {
+		return posts.countAllPosts();
+	}
+
+	@Benchmark
+	public int countActivePosts() {
+		return posts.countActivePosts();
+	}
+
+	@Benchmark
+	public int activePostCount() {
+		return posts.activePostCount();
+	}
+
+	@Benchmark
+	public int countPostsInThread() {
+		return posts.countPostsInThread(threads[random.nextInt(THREAD_COUNT)]);
+	}
+
+	/*-*******************************************************************************************
+
+	ReplyCollection
+
+	*/
+
+	@Benchmark
+	public ReplyCollection getActiveRepliesByPostId() {
+		return replies.getActiveRepliesByPostId(repliedPostId());
+	}
+
+	@Benchmark
+	public ReplyCollection getRepliesByPostId() {
+		return replies.getRepliesByPostId(repliedPostId());
+	}
+
+	@Benchmark
+	public ReplyCollection searchReplies() {
+		return replies.searchReplies("section " + random.nextInt(12));
+	}
+
+	@Benchmark
+	public int countRepliesForPost() {
+		return replies.countRepliesForPost(repliedPostId());
+	}
+
+	@Benchmark
+	public int countActiveRepliesForPost() {
+		return replies.countActiveRepliesForPost(repliedPostId());
+	}
+
+	@Benchmark
+	public int activeReplyCount() {
+		return replies.activeReplyCount();
+	}
+
+	/*******
+	 * <p> Method: main(String[] args) </p>
+	 *
+	 * <p> Description: Run the suite for every board size with the GC profiler enabled.</p>
+	 *
+	 * @param args an optional regular expression that selects which benchmarks to run
+	 *
+	 * @throws RunnerException if JMH is unable to run the benchmarks
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(CollectionBenchmark.class.getSimpleName() + "."
+						+ (args.length > 0 ? args[0] : ""))
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,152 @@
+package benchmark.service;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import benchmark.database.DatabaseLoadBenchmark;
+import database.Database;
+import database.DatabaseConfig;
+import service.FoundationsService;
+import service.RequestExecutors;
+
+/*******
+ * <p> Title: ThreadModelBenchmark Class. </p>
+ *
+ * <p> Description: Compares the HTTP service's two execution modes, a fixed pool of platform
+ * threads and a virtual thread per request.  Both run the login and post-listing workloads
+ * end to end over HTTP, against the same seeded throwaway database.
+ *
+ * For each mode the service is started on a free port with a fresh database.  Then the given
+ * number of concurrent clients calls one endpoint in a closed loop: each client sends a request,
+ * waits for the answer, and sends the next.  The report has one line per mode and workload, with
+ * the throughput and the latency percentiles seen by the clients.  The connection pool size
+ * (foundations.db.poolSize) is the same for both modes, so the comparison isolates the thread
+ * model.
+ *
+ * Options (all optional):
+ *
+ *     --clients=200        concurrent HTTP clients
+ *     --workers=32         platform threads for the platform mode
+ *     --pool=16            database connections, for both modes
+ *     --warmup=3           seconds of unmeasured calls before each workload is measured
+ *     --seconds=10         seconds each workload is measured for
+ *     --users=1000         users created before the run
+ *     --posts=200          posts created before the run
+ *     --profile=in-memory-bench  the DatabaseConfig profile
+ *
+ * Virtual threads need Java 21 or later.  On an older JVM the virtual mode falls back to
+ * platform threads, and its report lines are marked with "(fallback)".  Run with
+ * -Djdk.tracePinnedThreads=full to have the JVM report any virtual thread that blocks while it
+ * holds a monitor.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-25 Initial version
+ *
+ */
+
+public class ThreadModelBenchmark {
+
+	private static final PrintStream report = System.out;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+	private final String base;
+	private final int users;
+	private final List<String> tokens = new ArrayList<String>();
+
+	private ThreadModelBenchmark(int port, int users) {
+		this.base = "http://localhost:" + port + "/api/";
+		this.users = users;
+	}
+
+	// Send one request and fail unless the service answered with the expected status
+	private String call(HttpRequest request) throws Exception {
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200)
+			throw new IllegalStateException(response.statusCode() + " " + response.body());
+		return response.body();
+	}
+
+	private HttpRequest login(int n) {
+		String body = "{\"username\":\"bench" + n + "\",\"password\":\""
+				+ DatabaseLoadBenchmark.PASSWORD + "\"}";
+		return HttpRequest.newBuilder(URI.create(base + "login"))
+				.POST(HttpRequest.BodyPublishers.ofString(body)).build();
+	}
+
+	private void loginAny() throws Exception {
+		call(login(ThreadLocalRandom.current().nextInt(users)));
+	}
+
+	private void listPosts() throws Exception {
+		String token = tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+		call(HttpRequest.newBuilder(URI.create(base + "posts"))
+				.header("Authorization", "Bearer " + token).GET().build());
+	}
+
+	// Log in a set of users up front so post listing measures only the listing
+	private void openSessions(int count) throws Exception {
+		for (int n = 0; n < count; n++) {
+			String body = call(login(n % users));
+			int start = body.indexOf("\"token\":\"") + 9;
+			tokens.add(body.substring(start, body.indexOf('"', start)));
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		int clients = Integer.parseInt(DatabaseLoadBenchmark.option(args, "clients", "200"));
+		int workers = Integer.parseInt(DatabaseLoadBenchmark.option(args, "workers", "32"));
+		String pool = DatabaseLoadBenchmark.option(args, "pool", "16");
+		long warmup = Long.parseLong(DatabaseLoadBenchmark.option(args, "warmup", "3")) * 1000;
+		long seconds = Long.parseLong(DatabaseLoadBenchmark.option(args, "seconds", "10")) * 1000;
+		int users = Integer.parseInt(DatabaseLoadBenchmark.option(args, "users", "1000"));
+		int posts = Integer.parseInt(DatabaseLoadBenchmark.option(args, "posts", "200"));
+		String profile = DatabaseLoadBenchmark.option(args, "profile",
+				DatabaseConfig.PROFILE_IN_MEMORY_BENCH);
+
+		report.println("HTTP service, " + clients + " clients, " + pool + " database connections, "
+				+ workers + " platform workers, " + users + " users, " + posts + " posts, "
+				+ warmup / 1000 + "s warmup, " + seconds / 1000 + "s per workload, profile " + profile);
+		DatabaseLoadBenchmark.printHeader();
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+		for (RequestExecutors.Mode mode : RequestExecutors.Mode.values()) {
+			String label = mode.name().toLowerCase();
+			if (mode == RequestExecutors.Mode.VIRTUAL && !RequestExecutors.virtualThreadsAvailable())
+				label += " (fallback)";
+
+			Path[] directory = new Path[1];
+			DatabaseConfig config = DatabaseLoadBenchmark.throwawayConfig(profile, directory);
+			config.set(DatabaseConfig.KEY_POOL_SIZE, pool);
+			Database database = new Database(config);
+			FoundationsService service = null;
+			try {
+				database.connectToDatabase();
+				new DatabaseLoadBenchmark(database, users, posts).seed();
+				service = new FoundationsService(database);
+				service.start(0, mode, workers);
+
+				ThreadModelBenchmark bench = new ThreadModelBenchmark(service.getPort(), users);
+				bench.openSessions(Math.min(users, clients));
+				DatabaseLoadBenchmark.printResult(DatabaseLoadBenchmark.measure(label + " login",
+						bench::loginAny, clients, warmup, seconds));
+				DatabaseLoadBenchmark.printResult(DatabaseLoadBenchmark.measure(label + " listPosts",
+						bench::listPosts, clients, warmup, seconds));
+			} finally {
+				if (service != null) service.stop();
+				database.closeConnection();
+				DatabaseLoadBenchmark.deleteDirectory(directory[0]);
+			}
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package benchmark.validate;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import validate.EmailValidator;
+import validate.PasswordValidator;
+import validate.UserNameRecognizer;
+
+/*******
+ * <p> Title: ValidatorBenchmark Class. </p>
+ *
+ * <p> Description: JMH benchmarks for the three validators in the validate package.  These sit on
+ * the signup, profile update, and bulk import paths, so a regression in any of them shows up as
+ * slower account creation for every user.
+ *
+ * Each validator is measured against a corpus of realistic valid inputs and a corpus of realistic
+ * invalid inputs, because the invalid inputs stop the validators at different points and so have a
+ * different cost profile.  Every call consumes the next entry of its corpus so the JIT cannot
+ * specialise on a single string.
+ *
+ * The main method runs the suite twice, single-threaded and with THREADS concurrent callers, with
+ * the JMH GC profiler attached so the report includes the allocation rate (gc.alloc.rate.norm is
+ * the bytes allocated per call).  Run it with the application classes, the JMH core jar, and its
+ * annotation processor on the classpath:
+ *
+ *     java -cp &lt;classpath&gt; benchmark.validate.ValidatorBenchmark
+ *
+ * or pass a regular expression to run a subset, e.g. "password".
+ *
+ * The validators keep each call's working state to that call, so the multi-threaded run measures
+ * how their throughput scales rather than a lock.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-21 Initial version
+ * @version 1.01		2025-10-27 The validators no longer print, so System.out is left alone
+ *
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ValidatorBenchmark {
+
+	// The number of concurrent callers used for the multi-threaded run
+	public static final int THREADS = 4;
+
+	/*-*******************************************************************************************
+
+	Input corpora
+
+	*/
+
+	static final String[] VALID_EMAILS = {
+		"jane.doe@asu.edu", "jsmith42@gmail.com", "first_last@cs.example.org",
+		"ta-office@engineering.asu.edu", "m.wong@students.university.ac.uk",
+		"admin@foundations.io", "r2d2@droid-repair.net", "pat.lee-kim@mail.company.com"
+	};
+
+	static final String[] INVALID_EMAILS = {
+		"", "plainaddress", "@missing-local.org", "user@", "user@domain",
+		"user@@example.com", "first..last@example.com", "user@.example.com",
+		"user@example.com.", ".leadingdot@example.com", "user name@example.com",
+		"user@exa_mple.com"
+	};
+
+	static final String[] VALID_USERNAMES = {
+		"jdoe", "JaneDoe2025", "ta.office", "m_wong", "pat-lee", "Student1234",
+		"a1b2c3d4e5f6g7h8", "Admin"
+	};
+
+	static final String[] INVALID_USERNAMES = {
+		"", "abc", "1student", "_leading", "double..dot", "trailing.",
+		"seventeenchars123", "has space", "emoji☺", "x-"
+	};
+
+	static final String[] VALID_PASSWORDS = {
+		"Passw0rd!", "CSE360-Rocks", "Tr0ub4dor&3x", "correct.Horse9Battery",
+		"A1b2C3d4!", "Zz9_zZ9_zZ9_", "Spring2025#Term", "qW3$erty"
+	};
+
+	static final String[] INVALID_PASSWORDS = {
+		"", "short1!", "alllowercase1!", "ALLUPPERCASE1!", "NoDigits!!", "NoSpecial123",
+		"Has Space1!", "ThisPasswordIsMuchTooLongToBeAccepted1!", "tab\tChar1A"
+	};
+
+	/*******
+	 * <p> Class: Cursor </p>
+	 *
+	 * <p> Description: Per-thread position in each corpus, so concurrent callers walk the corpora
+	 * independently without sharing a counter.</p>
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+		int email, userName, password;
+
+		static String next(String[] corpus, int index) {
+			return corpus[index % corpus.length];
+		}
+	}
+
+	/*-*******************************************************************************************
+
+	Benchmarks
+
+	*/
+
+	@Benchmark
+	public EmailValidator.ValidationResult emailValid(Cursor c) {
+		return EmailValidator.validateEmail(Cursor.next(VALID_EMAILS, c.email++));
+	}
+
+	@Benchmark
+	public EmailValidator.ValidationResult emailInvalid(Cursor c) {
+		return EmailValidator.validateEmail(Cursor.next(INVALID_EMAILS, c.email++));
+	}
+
+	@Benchmark
+	public String userNameValid(Cursor c) {
+		return UserNameRecognizer.checkForValidUserName(
+				Cursor.next(VALID_USERNAMES, c.userName++));
+	}
+
+	@Benchmark
+	public String userNameInvalid(Cursor c) {
+		return UserNameRecognizer.checkForValidUserName(
+				Cursor.next(INVALID_USERNAMES, c.userName++));
+	}
+
+	@Benchmark
+	public String passwordValid(Cursor c) {
+		return PasswordValidator.evaluatePassword(Cursor.next(VALID_PASSWORDS, c.password++));
+	}
+
+	@Benchmark
+	public String passwordInvalid(Cursor c) {
+		return PasswordValidator.evaluatePassword(Cursor.next(INVALID_PASSWORDS, c.password++));
+	}
+
+	/*******
+	 * <p> Method: main(String[] args) </p>
+	 *
+	 * <p> Description: Run the suite single-threaded and then with THREADS threads, both with the
+	 * GC profiler enabled.</p>
+	 *
+	 * @param args an optional regular expression that selects which benchmarks to run
+	 *
+	 * @throws RunnerException if JMH is unable to run the benchmarks
+	 */
+	public static void main(String[] args) throws RunnerException {
+		String include = ValidatorBenchmark.class.getSimpleName() + "."
+				+ (args.length > 0 ? args[0] : "");
+		for (int threads : new int[] {1, THREADS}) {
+			Options options = new OptionsBuilder()
+					.include(include)
+					.threads(threads)
+					.addProfiler(GCProfiler.class)
+					.build();
+			new Runner(options).run();
+		}
+	}
+}
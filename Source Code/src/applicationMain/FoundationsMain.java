@@ -1,8 +1,18 @@
 package applicationMain;
 	
 import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import database.Database;
+import database.DatabaseConfig;
+import guiTools.ViewRegistry;
+import logging.Log;
+import metrics.MetricsRegistry;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
@@ -24,9 +34,12 @@ import javafx.scene.control.Alert.AlertType;
  *             sometimes frustrating, if not painful, experimentation until you get it working.
  *             This is especially true when the obvious way to do something does not work!
  *
- * On startup, the application tries to connect with the Foundations in-memory database.  If a
- * connection to the database is currently active, an alert is displayed explaining the situation
- * to the users and the application quits when the user acknowledges the alert.
+ * On startup, the application shows the login page at once and connects with the Foundations
+ * database on a background thread, while other threads load the classes of the first pages and
+ * then ready the database connections.  The login page's buttons are enabled when the database is
+ * open.  Each phase is recorded in the StartupTimeline, which logs the time to interactive.  If
+ * a connection to the database is currently active, an alert is displayed explaining the
+ * situation to the users and the application quits when the user acknowledges the alert.
  *
  * If the connection is successful, a check is made to see if the database is empty. If so, this
  * must be the first execution of the application and the person running the application is assumed
@@ -55,6 +68,12 @@ import javafx.scene.control.Alert.AlertType;
  *
  * @version 3.00	2025-08-17 Rewrite of this application for the Fall offering of CSE 360 and
  * other ASU courses.
+ * @version 3.01	2025-10-26 Print the metrics at exit with -Dfoundations.metrics.dump=true
+ * @version 3.02	2025-10-27 Build the role pages ahead of time once the first page is showing
+ * @version 3.03	2025-10-27 Staged startup: the login page first, the database, class loading
+ * 							and connection warm-up in the background, and a startup timeline
+ * @version 3.04	2025-10-27 Audit the database indexes after the connections are warmed up
+ * @version 3.05	2025-10-27 Build the thread browser ahead of time
  */
 
 public class FoundationsMain extends Application {
@@ -77,35 +96,213 @@ public class FoundationsMain extends Application {
     private Alert databaseInUse = new Alert(AlertType.INFORMATION);
 
 	public static int activeHomePage = 0;		// Which role's home page is currently active?
+
+	private static final Log log = Log.get(FoundationsMain.class);
+
+	// Startup runs the database, the class preloading and the database warm-up side by side
+	private static final int STARTUP_THREADS = 3;
+	private static final AtomicInteger startupThreads = new AtomicInteger();
+	private static long mainStartNanos = System.nanoTime();	// Reset when main() is entered
+
+	// The classes of the pages a user reaches first, loaded while the database opens
+	private static final List<String> PRELOAD_CLASSES = List.of(
+			"guiUserLogin.ControllerUserLogin", "guiFirstAdmin.ViewFirstAdmin",
+			"guiFirstAdmin.ControllerFirstAdmin", "guiAdminHome.ViewAdminHome",
+			"guiAdminHome.ControllerAdminHome", "guiStudentHome.ViewStudentHome",
+			"guiStudentHome.ControllerStudentHome", "guiRole1.ViewRole1Home",
+			"guiRole1.ControllerRole1Home", "guiRole2.ViewRole2Home", "guiRole2.ControllerRole2Home",
+			"guiMultipleRoleDispatch.ViewMultipleRoleDispatch",
+			"guiMultipleRoleDispatch.ControllerMultipleRoleDispatch", "guiUserUpdate.ViewUserUpdate",
+			"guiUserUpdate.ControllerUserUpdate", "entityClasses.Post", "entityClasses.PostCollection",
+			"javafx.scene.control.ComboBox", "javafx.scene.control.TextArea",
+			"javafx.scene.control.Tooltip", "javafx.scene.control.ListView");
 	
 	@Override
 	public void start(Stage theStage) {
+		StartupTimeline.phase("launch", mainStartNanos);
 		
-		// Connect to the in-memory database
+		// Show the login page at once, before the database is open.  Its buttons stay disabled
+		// until the database is ready.
+		long firstPage = System.nanoTime();
+		guiUserLogin.ViewUserLogin.displayUserLogin(theStage);
+		guiUserLogin.ViewUserLogin.setDatabaseReady(false);
+		StartupTimeline.whenShown(theStage.getScene(),
+				() -> StartupTimeline.phase("firstPage", firstPage));
+		
+		// Open the database and load the classes of the first pages side by side.  Once the
+		// database is open, its connections are readied alongside the check for an empty database.
+		ExecutorService startup = Executors.newFixedThreadPool(STARTUP_THREADS, runnable -> {
+			Thread t = new Thread(runnable, "startup-" + startupThreads.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		startup.execute(FoundationsMain::preloadClasses);
+		startup.execute(() -> openDatabase(theStage, startup));
+		
+		// With the JavaFX pages set up, this thread of the execution comes to an end.
+	}
+
+	/*******
+	 * <p> Method: void openDatabase(Stage theStage, ExecutorService startup) </p>
+	 * 
+	 * <p> Description: Connect to the database, which also creates any missing tables, and find
+	 * out which page the user should see.  This runs on a startup thread; the page is changed
+	 * on the JavaFX thread.</p>
+	 * 
+	 * @param theStage is the application's window
+	 * 
+	 * @param startup runs the database warm-up in parallel with the empty check
+	 */
+	private void openDatabase(Stage theStage, ExecutorService startup) {
+		long start = System.nanoTime();
 		try {
-			// Connect to the database
 			database.connectToDatabase();
 		} catch (SQLException e) {
-			// If the connection request fails, it usually means some other app is using it
-			databaseInUse.setTitle("*** ERROR ***");
-			databaseInUse.setHeaderText("Database Is Already Being Used");
-			databaseInUse.setContentText("Please stop the other instance and try again!");
-			databaseInUse.showAndWait();
-			System.exit(0);
+			startup.shutdown();
+			Platform.runLater(() -> reportDatabaseError(e));
+			return;
 		}
+		StartupTimeline.phase("connect", start);
+		
+		startup.execute(FoundationsMain::warmUpDatabase);
+		startup.shutdown();		// The tasks already given to it still run
+		
+		long check = System.nanoTime();
+		boolean empty = database.isDatabaseEmpty();
+		StartupTimeline.phase("checkEmpty", check);
+		Platform.runLater(() -> showFirstPage(theStage, empty));
+	}
+
+	/*******
+	 * <p> Method: void showFirstPage(Stage theStage, boolean empty) </p>
+	 * 
+	 * <p> Description: If the database is empty, no users have been established, so this user
+	 * must be an admin user doing initial system startup activities and we need to set that
+	 * admin's username and password using a special start up page.  Either way the login page,
+	 * which is already showing, is made usable.  Once the page has been laid out, the application
+	 * is interactive and the pages after the login page are built ahead of time.</p>
+	 * 
+	 * @param theStage is the application's window
+	 * 
+	 * @param empty is true when the database has no users
+	 */
+	private static void showFirstPage(Stage theStage, boolean empty) {
+		long start = System.nanoTime();
 		
-		// If the database is empty, no users have been established, so this user must be an admin
-		// user doing initial system startup activities and we need to set that admin's username
-		// and password using a special start you page.
-		if (database.isDatabaseEmpty()) {
+		// The database is open either way, so the login page is usable from now on, including
+		// when the first admin is sent to it after setting up their account
+		guiUserLogin.ViewUserLogin.setDatabaseReady(true);
+		if (empty)
 			// This is a first use, so have the user set up the admin account
-			guiFirstAdmin.ViewFirstAdmin.displayFirstAdmin(theStage);	
+			guiFirstAdmin.ViewFirstAdmin.displayFirstAdmin(theStage);
+		
+		StartupTimeline.whenShown(theStage.getScene(), () -> {
+			StartupTimeline.phase("showFirstPage", start);
+			StartupTimeline.interactive();
+			
+			// While the user reads the first page, build the pages they can go to next so the
+			// first visit to each is as quick as later ones
+			registerViews();
+			ViewRegistry.warmUp();
+		});
+	}
+
+	/*******
+	 * <p> Method: void reportDatabaseError(SQLException e) </p>
+	 * 
+	 * <p> Description: Connecting has already been retried with a backoff, so report why it
+	 * failed and quit when the user acknowledges the alert.  In embedded mode it usually means
+	 * some other app is using the database file.</p>
+	 * 
+	 * @param e is the reason the connection failed
+	 */
+	private void reportDatabaseError(SQLException e) {
+		String mode = database.getConfig().getMode();
+		databaseInUse.setTitle("*** ERROR ***");
+		if (mode.equals(DatabaseConfig.MODE_EMBEDDED)) {
+			databaseInUse.setHeaderText("Database Is Already Being Used");
+			databaseInUse.setContentText("Please stop the other instance and try again, or " +
+					"run every instance with foundations.db.mode=auto-server so they can " +
+					"share the database.");
+		} else if (mode.equals(DatabaseConfig.MODE_CLIENT)) {
+			databaseInUse.setHeaderText("Unable To Reach The Database Server");
+			databaseInUse.setContentText("No database server answered at " +
+					database.getConfig().getServerHost() + ":" +
+					database.getConfig().getServerPort() + ".  Please check that the " +
+					"hosting instance is running and try again!\n\n" + e.getMessage());
+		} else {
+			databaseInUse.setHeaderText("Unable To Open The Database");
+			databaseInUse.setContentText(e.getMessage());
+		}
+		databaseInUse.showAndWait();
+		System.exit(0);
+	}
+
+	/*******
+	 * <p> Method: void warmUpDatabase() </p>
+	 * 
+	 * <p> Description: Open the pooled connections and ready the login queries on each
+	 * connection, then check that the data layer's queries use an index.  A failure here only
+	 * costs speed, so it is logged and startup carries on.</p>
+	 */
+	private static void warmUpDatabase() {
+		long start = System.nanoTime();
+		try {
+			int opened = database.warmUp();
+			log.debug(() -> "Opened " + opened + " pooled connections ahead of time");
+		} catch (SQLException e) {
+			log.warn("Could not warm up the database connections", e);
 		}
-		else
-			// This is not a first use, so set up for the user to log in or create a new account
-			guiUserLogin.ViewUserLogin.displayUserLogin(theStage);
+		StartupTimeline.phase("warmDatabase", start);
 		
-		// With the JavaFX pages set up, this thread of the execution comes to an end.
+		long audit = System.nanoTime();
+		try {
+			database.auditIndexes();
+		} catch (Exception e) {
+			log.warn("Could not audit the database indexes", e);
+		}
+		StartupTimeline.phase("indexAudit", audit);
+	}
+
+	/*******
+	 * <p> Method: void preloadClasses() </p>
+	 * 
+	 * <p> Description: Load the classes of the pages a user reaches first, so the JavaFX thread
+	 * does not stop to read them when the user logs in.  The classes are only loaded, not
+	 * initialized: initializing a page creates its widgets, which is left to the JavaFX thread.
+	 * </p>
+	 */
+	private static void preloadClasses() {
+		long start = System.nanoTime();
+		ClassLoader loader = FoundationsMain.class.getClassLoader();
+		for (String name : PRELOAD_CLASSES) {
+			try {
+				Class.forName(name, false, loader);
+			} catch (ClassNotFoundException e) {
+				log.debug(() -> "Could not preload " + name);
+			}
+		}
+		StartupTimeline.phase("preloadClasses", start);
+	}
+
+	/*******
+	 * <p> Method: void registerViews() </p>
+	 * 
+	 * <p> Description: Tell the ViewRegistry how to build each page that is reached after
+	 * logging in.</p>
+	 */
+	private static void registerViews() {
+		ViewRegistry.register("AdminHome", guiAdminHome.ViewAdminHome::buildView);
+		ViewRegistry.register("StudentHome", guiStudentHome.ViewStudentHome::buildView);
+		ViewRegistry.register("Role1Home", guiRole1.ViewRole1Home::buildView);
+		ViewRegistry.register("Role2Home", guiRole2.ViewRole2Home::buildView);
+		ViewRegistry.register("MultipleRoleDispatch",
+				guiMultipleRoleDispatch.ViewMultipleRoleDispatch::buildView);
+		ViewRegistry.register("UserUpdate", guiUserUpdate.ViewUserUpdate::buildView);
+		ViewRegistry.register("ManageInvitations",
+				guiManageInvitations.ViewManageInvitations::buildView);
+		ViewRegistry.register("AddRemoveRoles", guiAddRemoveRoles.ViewAddRemoveRoles::buildView);
+		ViewRegistry.register("ThreadBrowser", guiStudentHome.ViewThreadBrowser::buildView);
 	}
 
 	/*******
@@ -119,6 +316,14 @@ public class FoundationsMain extends Application {
 	 * @param String[] args   The array of command lines parameters.  These are not used.
 	 */
 	public static void main(String[] args) {
+		mainStartNanos = System.nanoTime();
+		StartupTimeline.phase("jvm", StartupTimeline.getJvmStartNanos());
+		
+		// The login, post and search timings and the per-query database latencies are printed
+		// when the application exits, however it exits, if this property is set
+		if (Boolean.getBoolean("foundations.metrics.dump"))
+			Runtime.getRuntime().addShutdownHook(new Thread(
+					() -> System.out.print(MetricsRegistry.snapshotText()), "metrics-dump"));
 		launch(args);	// The launch method loads JavaFX and invokes its initialization.  When it
 						// is done, it calls the start method shown above.
 	}
@@ -0,0 +1,188 @@
+package applicationMain;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import logging.Log;
+import metrics.MetricsRegistry;
+
+/*******
+ * <p> Title: StartupTimeline Class. </p>
+ *
+ * <p> Description: Records how long each phase of starting the application takes and when the
+ * user can first use it.
+ *
+ * Times are measured from when the JVM started, as reported by the operating system, so the time
+ * Java and JavaFX take to start counts too.  Each phase records when it started and ended and the
+ * thread it ran on, so phases that overlap show as overlapping, and its length also goes into the
+ * "startup.&lt;phase&gt;" histogram.  interactive() marks the moment the first page the user can
+ * act on has been laid out.  It records "startup.timeToInteractive" and logs the whole timeline,
+ * e.g.
+ *
+ *     launch          0 ms ..   412 ms  (412 ms)  main
+ *     connect       431 ms ..   655 ms  (224 ms)  startup-1</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-27 Initial version
+ *
+ */
+
+public final class StartupTimeline {
+
+	private static final Log log = Log.get(StartupTimeline.class);
+
+	// One phase, in nanoseconds from the start of the JVM
+	public static final class Phase {
+		private final String name;
+		private final String thread;
+		private final long startNanos;
+		private final long endNanos;
+
+		Phase(String name, String thread, long startNanos, long endNanos) {
+			this.name = name;
+			this.thread = thread;
+			this.startNanos = startNanos;
+			this.endNanos = endNanos;
+		}
+
+		public String getName() { return name; }
+
+		public String getThread() { return thread; }
+
+		public long getStartMillis() { return startNanos / 1_000_000; }
+
+		public long getEndMillis() { return endNanos / 1_000_000; }
+
+		public long getMillis() { return (endNanos - startNanos) / 1_000_000; }
+
+		@Override
+		public String toString() {
+			return String.format("%-20s %6d ms .. %6d ms  (%d ms)  %s", name, getStartMillis(),
+					getEndMillis(), getMillis(), thread);
+		}
+	}
+
+	// The System.nanoTime() at which the JVM started
+	private static final long originNanos = System.nanoTime() - ProcessHandle.current().info()
+			.startInstant().map(start -> Duration.between(start, Instant.now()).toNanos())
+			.orElse(0L);
+
+	private static final List<Phase> phases = new ArrayList<Phase>();	// Guarded by phases
+	private static final AtomicBoolean interactive = new AtomicBoolean();
+	private static volatile long timeToInteractiveNanos = -1;
+
+	private StartupTimeline() {
+	}
+
+	/*******
+	 * <p> Method: void phase(String name, long startNanos) </p>
+	 *
+	 * <p> Description: Record a phase that ends now.</p>
+	 *
+	 * @param name is the phase, e.g. "connect"
+	 *
+	 * @param startNanos is the System.nanoTime() when the phase started
+	 */
+	public static void phase(String name, long startNanos) {
+		long end = System.nanoTime();
+		MetricsRegistry.histogram("startup." + name).record(end - startNanos);
+		synchronized (phases) {
+			phases.add(new Phase(name, Thread.currentThread().getName(), startNanos - originNanos,
+					end - originNanos));
+		}
+	}
+
+	/*******
+	 * <p> Method: long getJvmStartNanos() </p>
+	 *
+	 * <p> Description: When the JVM started, on the System.nanoTime() clock, for a phase that
+	 * begins with the JVM.</p>
+	 *
+	 * @return the start time in System.nanoTime() terms
+	 */
+	public static long getJvmStartNanos() {
+		return originNanos;
+	}
+
+	/*******
+	 * <p> Method: void whenShown(Scene scene, Runnable then) </p>
+	 *
+	 * <p> Description: Run something on the JavaFX thread once a Scene that has just been put on
+	 * the stage has been laid out, which is when the user can see it.</p>
+	 *
+	 * @param scene is the Scene
+	 *
+	 * @param then is run once, after the next layout
+	 */
+	public static void whenShown(Scene scene, Runnable then) {
+		Runnable[] listener = new Runnable[1];
+		listener[0] = () -> {
+			scene.removePostLayoutPulseListener(listener[0]);
+			then.run();
+		};
+		scene.addPostLayoutPulseListener(listener[0]);
+		Platform.requestNextPulse();
+	}
+
+	/*******
+	 * <p> Method: void interactive() </p>
+	 *
+	 * <p> Description: Mark the application as ready for the user, record the time to
+	 * interactive and log the timeline.  Only the first call counts.</p>
+	 */
+	public static void interactive() {
+		if (!interactive.compareAndSet(false, true)) return;
+		timeToInteractiveNanos = System.nanoTime() - originNanos;
+		MetricsRegistry.histogram("startup.timeToInteractive").record(timeToInteractiveNanos);
+		log.info(() -> "Interactive " + getTimeToInteractiveMillis() + " ms after the JVM "
+				+ "started\n" + describe());
+	}
+
+	/*******
+	 * <p> Method: long getTimeToInteractiveMillis() </p>
+	 *
+	 * <p> Description: How long after the JVM started the application became interactive.</p>
+	 *
+	 * @return the time in milliseconds, or -1 if it is not interactive yet
+	 */
+	public static long getTimeToInteractiveMillis() {
+		long nanos = timeToInteractiveNanos;
+		return nanos < 0 ? -1 : nanos / 1_000_000;
+	}
+
+	/*******
+	 * <p> Method: List&lt;Phase&gt; getPhases() </p>
+	 *
+	 * <p> Description: The phases recorded so far, in the order they ended.</p>
+	 *
+	 * @return a copy of the phases
+	 */
+	public static List<Phase> getPhases() {
+		synchronized (phases) {
+			return new ArrayList<Phase>(phases);
+		}
+	}
+
+	/*******
+	 * <p> Method: String describe() </p>
+	 *
+	 * <p> Description: The phases as a table, one line per phase, in the order they started.</p>
+	 *
+	 * @return the table
+	 */
+	public static String describe() {
+		List<Phase> sorted = getPhases();
+		sorted.sort((a, b) -> Long.compare(a.startNanos, b.startNanos));
+		StringBuilder table = new StringBuilder();
+		for (Phase phase : sorted) table.append("    ").append(phase).append('\n');
+		return table.toString();
+	}
+}
@@ -0,0 +1,246 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/*******
+ * <p> Title: ConnectionPool Class. </p>
+ *
+ * <p> Description: A fixed-size pool of JDBC connections to the application's database.  The
+ * pool size is the real limit on how many database calls run at once: callers beyond that wait
+ * for a connection in FIFO order, however many threads (or virtual threads) are making calls.
+ *
+ * The pool is built on a fair Semaphore and a lock-free deque rather than synchronized blocks, so
+ * a virtual thread that waits for a connection unmounts from its carrier thread instead of pinning
+ * it.  H2's own JdbcConnectionPool is not used because it waits for a free connection by sleeping
+ * and polling, which is neither fair nor prompt under load.
+ *
+ * Connections are opened lazily, up to the pool size, and kept open until the pool is closed.
+ * prestart() opens them all ahead of time instead, e.g. while the application starts up.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-25 Initial version
+ * @version 1.01		2025-10-27 Open and ready the connections ahead of time with prestart()
+ * @version 1.02		2025-10-27 prestart() takes a permit for each connection it opens
+ *
+ */
+
+public class ConnectionPool {
+
+	private final DatabaseConfig config;
+	private final int size;
+	private final Semaphore permits;
+	private final ConcurrentLinkedDeque<Connection> idle = new ConcurrentLinkedDeque<Connection>();
+	private volatile boolean closed = false;
+
+	/*******
+	 * <p> Method: ConnectionPool(DatabaseConfig config) </p>
+	 *
+	 * <p> Description: Establish an empty pool.  No connection is opened until one is needed.</p>
+	 *
+	 * @param config supplies the URL, the credentials, the pool size and the acquire timeout
+	 */
+	public ConnectionPool(DatabaseConfig config) {
+		this.config = config;
+		this.size = config.getPoolSize();
+		this.permits = new Semaphore(size, true);
+	}
+
+	/*******
+	 * <p> Method: Connection acquire() </p>
+	 *
+	 * <p> Description: Borrow a connection, waiting up to the configured timeout for one to be
+	 * returned if all of them are in use.  Every connection acquired must be given back with
+	 * release().</p>
+	 *
+	 * @return a connection in auto-commit mode
+	 *
+	 * @throws SQLTransientConnectionException when no connection became free in time; the caller
+	 *		may report that the system is busy and try again later
+	 *
+	 * @throws SQLException when a new connection cannot be opened
+	 */
+	public Connection acquire() throws SQLException {
+		if (closed) throw new SQLException("The connection pool has been closed");
+		try {
+			if (!permits.tryAcquire(config.getPoolTimeoutMillis(), TimeUnit.MILLISECONDS))
+				throw new SQLTransientConnectionException("Timed out after "
+						+ config.getPoolTimeoutMillis() + " ms waiting for a database connection");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted waiting for a database connection");
+		}
+		try {
+			Connection connection;
+			while ((connection = idle.pollFirst()) != null) {
+				if (!connection.isClosed()) return connection;
+			}
+			return open();
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/*******
+	 * <p> Method: void release(Connection connection) </p>
+	 *
+	 * <p> Description: Give back a borrowed connection.  Any transaction left open is rolled back,
+	 * so the next borrower always starts in auto-commit mode.</p>
+	 *
+	 * @param connection is the connection returned by acquire()
+	 */
+	public void release(Connection connection) {
+		try {
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+			if (closed) connection.close();
+			else idle.offerFirst(connection);
+		} catch (SQLException e) {
+			// A connection in an unknown state is dropped; a fresh one is opened when needed
+			e.printStackTrace();
+			try {
+				connection.close();
+			} catch (SQLException ignored) {
+			}
+		} finally {
+			permits.release();
+		}
+	}
+
+	/*******
+	 * <p> Method: int prestart(List&lt;String&gt; queries) </p>
+	 *
+	 * <p> Description: Open connections until the pool holds as many as it will ever hand out,
+	 * so the first callers do not pay for opening one.  A permit is taken for each connection, as
+	 * acquire() does, so callers borrowing at the same time never bring the pool above its size;
+	 * prestart() stops, without waiting, when no permit is free.  Each new connection runs the
+	 * queries once, as warm() does, before it joins the idle connections.</p>
+	 *
+	 * @param queries are the reads to ready on each new connection
+	 *
+	 * @return the number of connections opened
+	 *
+	 * @throws SQLException when a connection cannot be opened
+	 */
+	public int prestart(List<String> queries) throws SQLException {
+		List<Connection> held = new ArrayList<Connection>();
+		int taken = 0;
+		int opened = 0;
+		try {
+			while (!closed && taken < size && permits.tryAcquire()) {
+				taken++;
+				Connection connection = idle.pollFirst();
+				if (connection == null || connection.isClosed()) {
+					connection = open();
+					try {
+						warm(connection, queries);
+					} catch (SQLException e) {
+						connection.close();
+						throw e;
+					}
+					opened++;
+				}
+				held.add(connection);
+			}
+		} finally {
+			for (Connection connection : held) {
+				if (closed) connection.close();
+				else idle.offerLast(connection);
+			}
+			permits.release(taken);
+		}
+		return opened;
+	}
+
+	/*******
+	 * <p> Method: void warm(Connection connection, List&lt;String&gt; queries) </p>
+	 *
+	 * <p> Description: Prepare and run each query once with an empty string for its one
+	 * parameter, which matches no row.  H2 then has each query parsed and planned in that
+	 * connection's query cache, and the driver code the queries need is loaded.</p>
+	 *
+	 * @param connection is the connection to ready
+	 *
+	 * @param queries are SELECTs that take one String parameter
+	 *
+	 * @throws SQLException when a query cannot be run
+	 */
+	static void warm(Connection connection, List<String> queries) throws SQLException {
+		for (String query : queries) {
+			try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+				pstmt.setString(1, "");
+				pstmt.executeQuery().close();
+			}
+		}
+	}
+
+	/*******
+	 * <p> Method: int getSize() </p>
+	 *
+	 * <p> Description: The most connections the pool will hand out at once.</p>
+	 *
+	 * @return the pool size
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/*******
+	 * <p> Method: int getInUse() </p>
+	 *
+	 * <p> Description: How many connections are borrowed right now.</p>
+	 *
+	 * @return the number of connections in use
+	 */
+	public int getInUse() {
+		return size - permits.availablePermits();
+	}
+
+	/*******
+	 * <p> Method: int getWaiting() </p>
+	 *
+	 * <p> Description: An estimate of how many callers are waiting for a connection.</p>
+	 *
+	 * @return the number of waiting callers
+	 */
+	public int getWaiting() {
+		return permits.getQueueLength();
+	}
+
+	/*******
+	 * <p> Method: void close() </p>
+	 *
+	 * <p> Description: Close every idle connection.  Connections still borrowed are closed when
+	 * they are released.</p>
+	 */
+	public void close() {
+		closed = true;
+		Connection connection;
+		while ((connection = idle.pollFirst()) != null) {
+			try {
+				connection.close();
+			} catch (SQLException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private Connection open() throws SQLException {
+		return DriverManager.getConnection(config.getEffectiveUrl(), config.getUser(),
+				config.getPassword());
+	}
+}
@@ -5,11 +5,28 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
+import org.h2.api.ErrorCode;
+
+import entityClasses.Post;
+import entityClasses.Reply;
+import entityClasses.ThreadSummary;
 import entityClasses.User;
+import logging.Log;
+import metrics.MetricsRegistry;
 
 /*******
  * <p> Title: Database Class. </p>
@@ -34,17 +51,89 @@ import entityClasses.User;
  */
 public class Database {
 
-	// JDBC driver name and database URL 
+	// JDBC driver name.  The URL, credentials and engine options come from a DatabaseConfig.
 	static final String JDBC_DRIVER = "org.h2.Driver";   
-	static final String DB_URL = "jdbc:h2:~/FoundationDatabase";  
 
-	//  Database credentials 
-	static final String USER = "sa"; 
-	static final String PASS = ""; 
+	private static final Log log = Log.get(Database.class);
+
+	// Invitations are valid for a fixed window after they are issued.  Expired invitations can no
+	// longer be redeemed and are removed in the background by the InvitationPurgeJob.
+	public static final long INVITATION_TTL_MILLIS = 7L * 24 * 60 * 60 * 1000;	// 7 days
+
+	// The rows of the DashboardCounters table.  Each role has a "users.<role>" counter, named with
+	// the role names updateUserRole takes, e.g. "users.Admin".
+	public static final String COUNTER_USERS = "users";
+	public static final String COUNTER_INVITATIONS = "invitations";
+	public static final String[] ROLE_NAMES = {"Admin", "Role1", "Role2", "Student"};
+
+	// inTransaction runs a unit of work at most this many times when it loses lock conflicts,
+	// waiting about this long times the number of attempts so far between runs
+	public static final int TRANSACTION_ATTEMPTS = 3;
+	public static final long TRANSACTION_RETRY_MILLIS = 20;
+
+	// The reads on the login path.  warmUp() readies them on every pooled connection before the
+	// first login, so each takes one String parameter.
+	private static final String SQL_FIND_USER = "SELECT userName, password, firstName, "
+			+ "middleName, lastName, preferredFirstName, emailAddress, adminRole, newRole1, "
+			+ "newRole2, newStudent FROM userDB WHERE userName = ?";
+	private static final String SQL_GET_OTP = "SELECT otp, otpExpiresAt FROM userDB WHERE userName = ?";
+	private static final String SQL_IS_MUST_RESET =
+			"SELECT mustResetOnNextLogin FROM userDB WHERE userName = ?";
+	private static final String SQL_GET_ROLES =
+			"SELECT adminRole, newRole1, newRole2, newStudent FROM userDB WHERE userName = ?";
+	private static final String SQL_GET_COUNTER = "SELECT amount FROM DashboardCounters WHERE name = ?";
+	private static final List<String> WARM_UP_QUERIES =
+			List.of(SQL_FIND_USER, SQL_GET_OTP, SQL_IS_MUST_RESET, SQL_GET_COUNTER);
+
+	// Lookups by username and email address ignore case.  They compare the generated lower-case
+	// userNameKey and emailKey columns, which are indexed, with the lower-cased parameter.
+	private static final String SQL_DOES_USER_EXIST =
+			"SELECT COUNT(*) FROM userDB WHERE userNameKey = LOWER(?)";
+	private static final String SQL_USER_EXISTS_BY_EMAIL =
+			"SELECT COUNT(*) FROM userDB WHERE emailKey = LOWER(?)";
+	private static final String SQL_USERNAME_BY_EMAIL =
+			"SELECT userName FROM userDB WHERE emailKey = LOWER(?) LIMIT 1";
+	private static final String SQL_STORE_OTP_BY_EMAIL = "UPDATE userDB SET otp = ?, "
+			+ "otpExpiresAt = ?, mustResetOnNextLogin = ? WHERE emailKey = LOWER(?)";
+	private static final String SQL_EMAIL_INVITED = "SELECT 1 FROM InvitationCodes "
+			+ "WHERE emailKey = LOWER(?) AND expiresAt > ? LIMIT 1";
+
+	// The queries auditIndexes() checks at startup, by operation.  Every other statement is
+	// checked the first time prepare() sees it.
+	private static final Map<String, String> AUDITED_QUERIES = Map.of(
+			"findUser", SQL_FIND_USER,
+			"verifyAndConsumeOtpByUsername", SQL_GET_OTP,
+			"isMustResetOnNextLogin", SQL_IS_MUST_RESET,
+			"getCounter", SQL_GET_COUNTER,
+			"getUserRoles", SQL_GET_ROLES,
+			"doesUserExist", SQL_DOES_USER_EXIST,
+			"userExistsByEmail", SQL_USER_EXISTS_BY_EMAIL,
+			"getUsernameByEmail", SQL_USERNAME_BY_EMAIL,
+			"storeOneTimePasswordByEmail", SQL_STORE_OTP_BY_EMAIL,
+			"emailaddressHasBeenUsed", SQL_EMAIL_INVITED);
+
+	// What submitReply returns when the reply was queued and its count is not known yet
+	public static final int REPLY_QUEUED = -1;
+
+	// The operations that read a whole table on purpose, whose table scans are not flagged
+	private static final Set<String> FULL_TABLE_READS = Set.of("getAllUsersDetailed",
+			"getAllPosts", "getThreadSummaries");
 
 	//  Shared variables used within this class
 	private Connection connection = null;		// Singleton to access the database 
+	private ConnectionPool connectionPool = null;	// Connections for concurrent callers
+	private SlowQueryLog slowQueryLog = null;	// Statements slower than the configured threshold
+	private final IndexAudit indexAudit = new IndexAudit(FULL_TABLE_READS);	// Table scans found
+	private final UserCache userCache;			// Recently read user accounts, by username
+	private final HotPosts hotPosts = new HotPosts();	// The hottest posts, overall and by thread
+	
+	// The pooled connection lent to the calling thread by withPooledConnection, if any
+	private final ThreadLocal<Connection> boundConnection = new ThreadLocal<Connection>();
 	private Statement statement = null;			// The H2 Statement is used to construct queries
+	private InvitationPurgeJob invitationPurgeJob = null;	// Removes expired invitations
+	private volatile WriteBehindQueue writeBehind = null;	// Saves posts and replies, when on
+	private final DatabaseConfig config;		// The H2 database this object connects to
+	private DatabaseServer databaseServer = null;	// Hosts the database for other clients
 	
 	// These are the easily accessible attributes of the currently logged-in user
 	// This is only useful for single user applications
@@ -68,7 +157,23 @@ public class Database {
 	 */
 	
 	public Database () {
-		
+		this(DatabaseConfig.load());
+	}
+	
+	
+	/*******
+	 * <p> Method: Database(DatabaseConfig config) </p>
+	 * 
+	 * <p> Description: Establish a database object that uses the specified storage settings
+	 * rather than the externally configured ones (e.g., the in-memory-bench profile for
+	 * benchmarks).</p>
+	 * 
+	 * @param config is the URL, credentials and H2 engine options to connect with
+	 * 
+	 */
+	public Database (DatabaseConfig config) {
+		this.config = config;
+		this.userCache = new UserCache(config.getUserCacheSize(), config.getUserCacheTtlMillis());
 	}
 	
 	
@@ -84,19 +189,386 @@ public class Database {
 	public void connectToDatabase() throws SQLException {
 		try {
 			Class.forName(JDBC_DRIVER); // Load the JDBC driver
-			connection = DriverManager.getConnection(DB_URL, USER, PASS);
+			log.info("Database configuration: " + config);
+			connection = openConnection();
+			
+			// In server mode this process also hosts the database for the other clients.  The
+			// server is started after the embedded connection so the database file is created
+			// here rather than by a remote client.
+			if (config.getMode().equals(DatabaseConfig.MODE_SERVER)) {
+				databaseServer = new DatabaseServer(config.getServerPort(),
+						config.isServerAllowOthers());
+				try {
+					databaseServer.start();
+				} catch (SQLException e) {
+					databaseServer = null;
+					connection.close();
+					throw e;
+				}
+			}
 			statement = connection.createStatement(); 
+			connectionPool = new ConnectionPool(config);
+			MetricsRegistry.gauge("db.pool.size", connectionPool::getSize);
+			MetricsRegistry.gauge("db.pool.inUse", connectionPool::getInUse);
+			MetricsRegistry.gauge("db.pool.waiting", connectionPool::getWaiting);
+			slowQueryLog = new SlowQueryLog(config, connectionPool);
+			MetricsRegistry.gauge("db.userCache.size", userCache::size);
+			MetricsRegistry.gauge("db.userCache.hits", userCache::getHits);
+			MetricsRegistry.gauge("db.userCache.misses", userCache::getMisses);
+			MetricsRegistry.gauge("db.userCache.evictions", userCache::getEvictions);
 			// You can use this command to clear the database and restart from fresh.
 			//statement.execute("DROP ALL OBJECTS");
 
 			createTables();  // Create the necessary tables if they don't exist
+			seedDashboardCounters();
+			seedThreadSummaries();
+			
+			// Expired invitations are deleted in small batches by a background daemon thread
+			invitationPurgeJob = new InvitationPurgeJob(this);
+			invitationPurgeJob.start();
+			
+			// With writeBehind on, the Student Home page's posts and replies are queued and
+			// committed in groups by a background daemon thread.  Only one process can use the
+			// journal, so another client started from the same directory saves them directly.
+			if (config.isWriteBehind()) {
+				WriteBehindQueue queue = new WriteBehindQueue(this, config);
+				if (queue.start()) {
+					writeBehind = queue;
+					MetricsRegistry.gauge("db.writeBehind.depth", queue::getDepth);
+				} else
+					log.warn("The write-behind journal " + queue.getJournal() + " is in use by "
+							+ "another process; posts and replies will be saved directly");
+			}
 		} catch (ClassNotFoundException e) {
-			System.err.println("JDBC Driver not found: " + e.getMessage());
+			log.error("JDBC Driver not found: " + e.getMessage());
 		}
 		
 	}
 
 	
+/*******
+ * <p> Method: DatabaseConfig getConfig() </p>
+ * 
+ * <p> Description: The storage settings this object connects with.</p>
+ * 
+ * @return the configuration
+ */
+	public DatabaseConfig getConfig() {
+		return config;
+	}
+
+	
+/*******
+ * <p> Method: Connection connection() </p>
+ * 
+ * <p> Description: The connection the calling thread should use.  Inside withPooledConnection
+ * this is the pooled connection lent to the thread; everywhere else (e.g., the JavaFX pages) it
+ * is the application's own single connection, exactly as before.</p>
+ * 
+ * @return the connection for this thread
+ */
+	private Connection connection() {
+		Connection bound = boundConnection.get();
+		return bound != null ? bound : connection;
+	}
+
+
+/*******
+ * <p> Method: PreparedStatement prepare(String operation, String sql) </p>
+ * 
+ * <p> Description: Prepare a statement on this thread's connection whose executions are timed
+ * in the "db.operation" latency histogram (see TimedStatements), and recorded in the slow-query
+ * log when they reach its threshold.  The first time a statement text is seen, its plan is
+ * checked by the IndexAudit.  Every method of this class prepares its statements this way,
+ * naming itself as the operation.</p>
+ * 
+ * @param operation is the name of the calling method
+ * 
+ * @param sql is the statement text
+ * 
+ * @return the timed statement
+ * 
+ * @throws SQLException when the statement cannot be prepared
+ */
+	private PreparedStatement prepare(String operation, String sql) throws SQLException {
+		Connection connection = connection();
+		indexAudit.check(connection, operation, sql);
+		return TimedStatements.wrap(PreparedStatement.class, connection.prepareStatement(sql),
+				operation, sql, slowQueryLog);
+	}
+
+
+/*******
+ * <p> Method: Statement createStatement(String operation) </p>
+ * 
+ * <p> Description: The same as prepare(), for a plain Statement.</p>
+ * 
+ * @param operation is the name of the calling method
+ * 
+ * @return the timed statement
+ * 
+ * @throws SQLException when the statement cannot be created
+ */
+	private Statement createStatement(String operation) throws SQLException {
+		return TimedStatements.wrap(Statement.class, connection().createStatement(), operation,
+				null, slowQueryLog);
+	}
+
+
+/*******
+ * <p> Method: T withPooledConnection(Callable<T> work) </p>
+ * 
+ * <p> Description: Run a piece of work with a connection of its own from the pool.  Every
+ * Database method called by the work, on this thread, uses that connection, so concurrent
+ * callers (e.g., the HTTP service's request threads) no longer queue behind one connection.
+ * The pool size bounds how many such pieces of work reach the database at once.
+ * 
+ * Nested calls reuse the connection already lent to the thread.  The "current user"
+ * attributes are still shared, so work run this way must not rely on them.</p>
+ * 
+ * @param work is the code to run
+ * 
+ * @return what the work returns
+ * 
+ * @throws Exception whatever the work throws, or a SQLTransientConnectionException when no
+ *		connection became free within the pool timeout
+ */
+	public <T> T withPooledConnection(Callable<T> work) throws Exception {
+		if (boundConnection.get() != null || connectionPool == null) return work.call();
+		Connection pooled = connectionPool.acquire();
+		boundConnection.set(pooled);
+		try {
+			return work.call();
+		} finally {
+			boundConnection.remove();
+			connectionPool.release(pooled);
+		}
+	}
+
+
+/*******
+ * <p> Title: Work Interface. </p>
+ * 
+ * <p> Description: Statements run by inTransaction.  The work may be run more than once, so
+ * whatever it changes outside the database must come out the same each time.</p>
+ */
+	@FunctionalInterface
+	public interface Work<T> {
+		T run() throws SQLException;
+	}
+
+
+/*******
+ * <p> Method: T inTransaction(String operation, Work<T> work) </p>
+ * 
+ * <p> Description: Run several statements as one unit of work on this thread's connection: all
+ * of them are committed together, with one commit and one flush of H2's log rather than one per
+ * statement, or none of them is.  If the work throws anything, including an unchecked
+ * exception or an Error, the transaction is rolled back and the exception passed on; if the
+ * rollback fails too, its exception is added to the work's as a suppressed exception.
+ * 
+ * When the work loses a lock conflict with another transaction (a lock timeout, a deadlock or
+ * a concurrent update of the same row), the transaction is rolled back and the work run again,
+ * up to TRANSACTION_ATTEMPTS times in all, after a short random delay so the two do not collide
+ * again.  Commits, rollbacks and retries are counted in "db.tx.*", and the time of each unit,
+ * retries included, goes into "db.tx.operation".
+ * 
+ * A call made while a transaction is already open on the connection, e.g. from work that is
+ * itself running in inTransaction, joins that transaction, and the outer call commits or
+ * retries.</p>
+ * 
+ * @param operation is the name of the calling method
+ * 
+ * @param work is the statements to run
+ * 
+ * @return what the work returns
+ * 
+ * @throws SQLException what the work threw, once it can no longer be retried
+ */
+	public <T> T inTransaction(String operation, Work<T> work) throws SQLException {
+		Connection c = connection();
+		if (!c.getAutoCommit()) return work.run();
+		
+		long start = System.nanoTime();
+		c.setAutoCommit(false);
+		try {
+			for (int attempt = 1; ; attempt++) {
+				try {
+					T result = work.run();
+					c.commit();
+					MetricsRegistry.counter("db.tx.commits").increment();
+					return result;
+				} catch (SQLException e) {
+					rollback(c, e);
+					if (attempt >= TRANSACTION_ATTEMPTS || !isLockConflict(e)) throw e;
+					MetricsRegistry.counter("db.tx.retries").increment();
+					long delay = TRANSACTION_RETRY_MILLIS * attempt
+							+ (long) (Math.random() * TRANSACTION_RETRY_MILLIS);
+					log.debug(() -> operation + " lost a lock conflict (" 
+							+ e.getMessage().split("\n")[0] + "), retrying in " + delay + " ms");
+					try {
+						Thread.sleep(delay);
+					} catch (InterruptedException ie) {
+						Thread.currentThread().interrupt();
+						throw e;
+					}
+				} catch (RuntimeException | Error e) {
+					// Not retried, but never committed by turning autocommit back on below
+					rollback(c, e);
+					throw e;
+				}
+			}
+		} finally {
+			c.setAutoCommit(true);
+			MetricsRegistry.recordSince("db.tx." + operation, start);
+		}
+	}
+
+
+	// Roll back after the work failed; a failure to roll back is attached to the work's failure
+	// rather than replacing it
+	private static void rollback(Connection c, Throwable cause) {
+		try {
+			c.rollback();
+		} catch (SQLException e) {
+			cause.addSuppressed(e);
+		}
+		MetricsRegistry.counter("db.tx.rollbacks").increment();
+	}
+
+
+	// Whether a statement failed because another transaction held or changed the rows it needed
+	private static boolean isLockConflict(SQLException e) {
+		for (SQLException next = e; next != null; next = next.getNextException()) {
+			int code = next.getErrorCode();
+			if (code == ErrorCode.LOCK_TIMEOUT_1 || code == ErrorCode.DEADLOCK_1
+					|| code == ErrorCode.CONCURRENT_UPDATE_1 || "40001".equals(next.getSQLState()))
+				return true;
+		}
+		return false;
+	}
+
+
+/*******
+ * <p> Method: ConnectionPool getConnectionPool() </p>
+ * 
+ * <p> Description: The pool used by withPooledConnection, for reporting its use.</p>
+ * 
+ * @return the pool, or null before the database is connected
+ */
+	public ConnectionPool getConnectionPool() {
+		return connectionPool;
+	}
+
+
+/*******
+ * <p> Method: int warmUp() </p>
+ * 
+ * <p> Description: Get the database ready for the first login while the user is still reading
+ * the login page.  Every connection the pool can hand out is opened now, and on each of them the
+ * reads on the login path are prepared and run once, so H2 has parsed and planned them before
+ * they are needed.  The main connection is left alone: it belongs to the thread that runs the
+ * pages, so it is readied there by the first real read.  Call it after connectToDatabase(), from
+ * any thread.</p>
+ * 
+ * @return the number of pooled connections opened
+ * 
+ * @throws SQLException when a connection cannot be opened or readied
+ */
+	public int warmUp() throws SQLException {
+		return connectionPool == null ? 0 : connectionPool.prestart(WARM_UP_QUERIES);
+	}
+
+
+/*******
+ * <p> Method: int auditIndexes() </p>
+ * 
+ * <p> Description: Check that the catalogued queries find their rows through an index, on a
+ * pooled connection.  Table scans are logged as warnings.  Call it after connectToDatabase(),
+ * from any thread.</p>
+ * 
+ * @return the number of catalogued queries that scan a table
+ * 
+ * @throws Exception when no connection can be had for the audit
+ */
+	public int auditIndexes() throws Exception {
+		return withPooledConnection(() -> indexAudit.audit(connection(), AUDITED_QUERIES));
+	}
+
+
+/*******
+ * <p> Method: IndexAudit getIndexAudit() </p>
+ * 
+ * <p> Description: The statements found to scan a table, for reporting.</p>
+ * 
+ * @return the audit
+ */
+	public IndexAudit getIndexAudit() {
+		return indexAudit;
+	}
+
+
+/*******
+ * <p> Method: SlowQueryLog getSlowQueryLog() </p>
+ * 
+ * <p> Description: The log of statements slower than the configured threshold, for the admin
+ * home page.</p>
+ * 
+ * @return the log, or null before the database is connected
+ */
+	public SlowQueryLog getSlowQueryLog() {
+		return slowQueryLog;
+	}
+
+
+/*******
+ * <p> Method: UserCache getUserCache() </p>
+ * 
+ * <p> Description: The cache of recently read user accounts, for reporting its hit rate.</p>
+ * 
+ * @return the cache
+ */
+	public UserCache getUserCache() {
+		return userCache;
+	}
+
+
+/*******
+ * <p> Method: Connection openConnection() </p>
+ * 
+ * <p> Description: Open the JDBC connection, retrying with an exponential backoff.  A client may
+ * start while the host is still opening the database, and in auto-server mode the process that
+ * owns the file may be in the middle of handing it over, so a failed first attempt is often only
+ * a matter of timing.  The delay doubles after each failure, up to eight seconds, with a little
+ * random jitter so clients that failed together do not all retry at the same instant.</p>
+ * 
+ * @return the open connection
+ * 
+ * @throws SQLException from the last attempt when every attempt has failed
+ */
+	private Connection openConnection() throws SQLException {
+		long backoff = config.getRetryBackoffMillis();
+		for (int attempt = 0; ; attempt++) {
+			try {
+				return DriverManager.getConnection(config.getEffectiveUrl(), config.getUser(),
+						config.getPassword());
+			} catch (SQLException e) {
+				if (attempt >= config.getConnectRetries()) throw e;
+				long delay = backoff + (long) (Math.random() * backoff / 4);
+				log.warn("Database connection failed (" + e.getMessage().split("\n")[0]
+						+ "), retrying in " + delay + " ms");
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw e;
+				}
+				backoff = Math.min(backoff * 2, 8000);
+			}
+		}
+	}
+
+	
 /*******
  * <p> Method: createTables </p>
  * 
@@ -130,7 +602,359 @@ public class Database {
 	    statement.execute("ALTER TABLE userDB ADD COLUMN IF NOT EXISTS otpExpiresAt BIGINT");
 	    statement.execute("ALTER TABLE userDB ADD COLUMN IF NOT EXISTS mustResetOnNextLogin BOOL DEFAULT FALSE");
 	    statement.execute("ALTER TABLE userDB ADD COLUMN IF NOT EXISTS newStudent BOOL DEFAULT FALSE");
+	    
+	    // Invitations carry their issue and expiry times (epoch milliseconds, like otpExpiresAt).
+	    // Rows created before these columns existed are given a fresh validity window.
+	    statement.execute("ALTER TABLE InvitationCodes ADD COLUMN IF NOT EXISTS createdAt BIGINT");
+	    statement.execute("ALTER TABLE InvitationCodes ADD COLUMN IF NOT EXISTS expiresAt BIGINT");
+	    long now = System.currentTimeMillis();
+	    statement.execute("UPDATE InvitationCodes SET createdAt = " + now + ", expiresAt = " + 
+	    		(now + INVITATION_TTL_MILLIS) + " WHERE expiresAt IS NULL");
+	    
+	    // Whether an address already has an outstanding invitation ignores case
+	    statement.execute("ALTER TABLE InvitationCodes ADD COLUMN IF NOT EXISTS emailKey "
+	    		+ "VARCHAR(255) GENERATED ALWAYS AS (LOWER(emailAddress))");
+	    statement.execute("CREATE INDEX IF NOT EXISTS idx_InvitationCodes_emailKey_expires "
+	    		+ "ON InvitationCodes (emailKey, expiresAt)");
+	    
+	    // The Manage Invitations page reads a page at a time in email or expiry order, optionally
+	    // for one role, continuing from the last row shown.  Each of these indexes serves one of
+	    // those orders, with the code to break ties, so an ascending page is a short range scan
+	    // however many invitations there are.  getInvitationPage names them in USE INDEX.  Email
+	    // order and the email filter ignore case, like every other email lookup, so they use
+	    // emailKey.  The expiry index also serves the purge of expired invitations.
+	    statement.execute("CREATE INDEX IF NOT EXISTS idx_InvitationCodes_emailKey_code "
+	    		+ "ON InvitationCodes (emailKey, code)");
+	    statement.execute("CREATE INDEX IF NOT EXISTS idx_InvitationCodes_expires_code "
+	    		+ "ON InvitationCodes (expiresAt, code)");
+	    statement.execute("CREATE INDEX IF NOT EXISTS idx_InvitationCodes_role_emailKey_code "
+	    		+ "ON InvitationCodes (role, emailKey, code)");
+	    statement.execute("CREATE INDEX IF NOT EXISTS idx_InvitationCodes_role_expires_code "
+	    		+ "ON InvitationCodes (role, expiresAt, code)");
+	    statement.execute("DROP INDEX IF EXISTS idx_InvitationCodes_email_code");
+	    statement.execute("DROP INDEX IF EXISTS idx_InvitationCodes_role_email_code");
+	    statement.execute("DROP INDEX IF EXISTS idx_InvitationCodes_emailAddress");
+	    statement.execute("DROP INDEX IF EXISTS idx_InvitationCodes_expiresAt");
+	    
+	    // Create the discussion tables.  Posts and replies are soft deleted, so rows are never
+	    // removed; the replies of a post are always fetched by postId.
+	    String postsTable = "CREATE TABLE IF NOT EXISTS Posts ("
+	    		+ "postId VARCHAR(10) PRIMARY KEY, "
+	    		+ "authorUsername VARCHAR(255), "
+	    		+ "title VARCHAR(" + Post.MAX_TITLE_LENGTH + "), "
+	    		+ "content VARCHAR(" + Post.MAX_CONTENT_LENGTH + "), "
+	    		+ "thread VARCHAR(255), "
+	    		+ "createdAt TIMESTAMP, "
+	    		+ "updatedAt TIMESTAMP, "
+	    		+ "isDeleted BOOL DEFAULT FALSE, "
+	    		+ "replyCount INT DEFAULT 0)";
+	    statement.execute(postsTable);
+	    
+	    String repliesTable = "CREATE TABLE IF NOT EXISTS Replies ("
+	    		+ "replyId VARCHAR(10) PRIMARY KEY, "
+	    		+ "postId VARCHAR(10), "
+	    		+ "authorUsername VARCHAR(255), "
+	    		+ "content VARCHAR(" + Reply.MAX_CONTENT_LENGTH + "), "
+	    		+ "createdAt TIMESTAMP, "
+	    		+ "isDeleted BOOL DEFAULT FALSE)";
+	    statement.execute(repliesTable);
+	    statement.execute("CREATE INDEX IF NOT EXISTS idx_Replies_postId ON Replies (postId)");
+	    
+	    // Each post's hot score (see HotPosts), with the thread compared without regard to case.
+	    // Posts from before the score existed are scored as if their replies came with them.
+	    statement.execute("ALTER TABLE Posts ADD COLUMN IF NOT EXISTS threadKey VARCHAR(255) "
+	    		+ "GENERATED ALWAYS AS (LOWER(thread))");
+	    statement.execute("ALTER TABLE Posts ADD COLUMN IF NOT EXISTS hotScore DOUBLE");
+	    statement.execute("UPDATE Posts SET hotScore = LN(1 + replyCount) + DATEDIFF('SECOND', "
+	    		+ "TIMESTAMP '" + Timestamp.valueOf(HotPosts.EPOCH) + "', createdAt) * "
+	    		+ HotPosts.GROWTH_PER_SECOND + " WHERE hotScore IS NULL");
+	    statement.execute("CREATE INDEX IF NOT EXISTS idx_Posts_hotScore ON Posts (hotScore DESC)");
+	    statement.execute("CREATE INDEX IF NOT EXISTS idx_Posts_threadKey_hotScore "
+	    		+ "ON Posts (threadKey, hotScore DESC)");
+	    
+	    // One row per thread for the thread browser, kept in step by the methods that add posts,
+	    // delete them and add replies, in the same transaction as the change
+	    statement.execute("CREATE TABLE IF NOT EXISTS ThreadSummaries ("
+	    		+ "threadKey VARCHAR(255) PRIMARY KEY, "
+	    		+ "thread VARCHAR(255), "
+	    		+ "postCount BIGINT NOT NULL DEFAULT 0, "
+	    		+ "activeCount BIGINT NOT NULL DEFAULT 0, "
+	    		+ "replyCount BIGINT NOT NULL DEFAULT 0, "
+	    		+ "lastActivity TIMESTAMP, "
+	    		+ "lastAuthor VARCHAR(255))");
+	    statement.execute("CREATE INDEX IF NOT EXISTS idx_ThreadSummaries_lastActivity "
+	    		+ "ON ThreadSummaries (lastActivity DESC)");
+	    
+	    // Usernames and email addresses are looked up without regard to case, through lower-case
+	    // copies that H2 keeps up to date.  No two usernames may differ only in case; a database
+	    // that already has such a pair gets a plain index and a warning instead.  The user picker
+	    // on the Add/Remove Roles page searches by prefix on the same indexes.
+	    statement.execute("ALTER TABLE userDB ADD COLUMN IF NOT EXISTS userNameKey VARCHAR(255) "
+	    		+ "GENERATED ALWAYS AS (LOWER(userName))");
+	    statement.execute("ALTER TABLE userDB ADD COLUMN IF NOT EXISTS emailKey VARCHAR(255) "
+	    		+ "GENERATED ALWAYS AS (LOWER(emailAddress))");
+	    try {
+	    	statement.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_userDB_userNameKey "
+	    			+ "ON userDB (userNameKey)");
+	    } catch (SQLException e) {
+	    	log.warn("Some usernames differ only in case, so they are not made unique: "
+	    			+ e.getMessage().split("\n")[0]);
+	    	statement.execute("CREATE INDEX IF NOT EXISTS idx_userDB_userNameKey "
+	    			+ "ON userDB (userNameKey)");
+	    }
+	    statement.execute("CREATE INDEX IF NOT EXISTS idx_userDB_emailKey ON userDB (emailKey)");
+	    statement.execute("DROP INDEX IF EXISTS idx_userDB_emailAddress");
+	    
+	    // Row counts for the admin home page, kept in step by the methods that add and remove
+	    // users and invitations so the page never has to count the tables
+	    statement.execute("CREATE TABLE IF NOT EXISTS DashboardCounters ("
+	    		+ "name VARCHAR(40) PRIMARY KEY, "
+	    		+ "amount BIGINT NOT NULL DEFAULT 0)");
+
+	}
+
+
+/*******
+ * <p> Method: seedDashboardCounters </p>
+ * 
+ * <p> Description: Count the users, the users playing each role and the invitations once, and
+ * store the counts in DashboardCounters with one commit.  From then on the methods that change
+ * those tables adjust the counters as they go, in the same transaction as the change.  Recounting
+ * at every start also corrects any drift, e.g. from a counter changed by hand.</p>
+ * 
+ */
+	private void seedDashboardCounters() throws SQLException {
+		String countUsers = "SELECT COUNT(*), "
+				+ "COUNT(CASE WHEN adminRole THEN 1 END), COUNT(CASE WHEN newRole1 THEN 1 END), "
+				+ "COUNT(CASE WHEN newRole2 THEN 1 END), COUNT(CASE WHEN newStudent THEN 1 END), "
+				+ "(SELECT COUNT(*) FROM InvitationCodes) FROM userDB";
+		String merge = "MERGE INTO DashboardCounters (name, amount) KEY (name) VALUES (?, ?)";
+		inTransaction("seedDashboardCounters", () -> {
+			try (Statement count = createStatement("seedDashboardCounters");
+					PreparedStatement pstmt = prepare("seedDashboardCounters", merge)) {
+				ResultSet rs = count.executeQuery(countUsers);
+				rs.next();
+				pstmt.setString(1, COUNTER_USERS);
+				pstmt.setLong(2, rs.getLong(1));
+				pstmt.addBatch();
+				for (int i = 0; i < ROLE_NAMES.length; i++) {
+					pstmt.setString(1, COUNTER_USERS + "." + ROLE_NAMES[i]);
+					pstmt.setLong(2, rs.getLong(2 + i));
+					pstmt.addBatch();
+				}
+				pstmt.setString(1, COUNTER_INVITATIONS);
+				pstmt.setLong(2, rs.getLong(2 + ROLE_NAMES.length));
+				pstmt.addBatch();
+				pstmt.executeBatch();
+			}
+			return null;
+		});
+	}
+
+
+/*******
+ * <p> Method: seedThreadSummaries </p>
+ * 
+ * <p> Description: Summarize the threads of a database that has posts but no thread summaries
+ * yet, e.g. the first time a database made before the summaries existed is opened.  From then on
+ * the summaries are kept in step with the posts and replies.</p>
+ * 
+ */
+	private void seedThreadSummaries() throws SQLException {
+		String query = "SELECT (SELECT COUNT(*) FROM ThreadSummaries), "
+				+ "EXISTS (SELECT 1 FROM Posts)";
+		try (Statement count = createStatement("seedThreadSummaries");
+				ResultSet rs = count.executeQuery(query)) {
+			rs.next();
+			if (rs.getLong(1) > 0 || !rs.getBoolean(2)) return;
+		}
+		int threads = rebuildThreadSummaries();
+		log.info(() -> "Summarized " + threads + " discussion threads");
+	}
+
+
+/*******
+ * <p> Method: int rebuildThreadSummaries() </p>
+ * 
+ * <p> Description: Replace every thread summary with one counted from the Posts and Replies
+ * tables, in one transaction.  This reads every post and reply, so it is only for a database
+ * whose summaries are missing or have been changed by hand.</p>
+ * 
+ * @return the number of threads summarized
+ * 
+ * @throws SQLException when there is an issue creating the SQL command or executing it.
+ * 
+ */
+	public int rebuildThreadSummaries() throws SQLException {
+		// The latest post or reply in each thread gives its last activity and author
+		String summarize = "INSERT INTO ThreadSummaries (threadKey, thread, postCount, "
+				+ "activeCount, replyCount, lastActivity, lastAuthor) "
+				+ "SELECT s.threadKey, s.thread, s.postCount, s.activeCount, s.replyCount, "
+				+ "e.createdAt, e.authorUsername FROM ("
+				+ "SELECT threadKey, MIN(thread) AS thread, COUNT(*) AS postCount, "
+				+ "COUNT(CASE WHEN NOT isDeleted THEN 1 END) AS activeCount, "
+				+ "COALESCE(SUM(replyCount), 0) AS replyCount "
+				+ "FROM Posts WHERE threadKey IS NOT NULL GROUP BY threadKey) s "
+				+ "LEFT JOIN (SELECT threadKey, createdAt, authorUsername, ROW_NUMBER() OVER "
+				+ "(PARTITION BY threadKey ORDER BY createdAt DESC) AS n FROM ("
+				+ "SELECT threadKey, createdAt, authorUsername FROM Posts UNION ALL "
+				+ "SELECT p.threadKey, r.createdAt, r.authorUsername FROM Replies r "
+				+ "JOIN Posts p ON p.postId = r.postId) events) e "
+				+ "ON e.threadKey = s.threadKey AND e.n = 1";
+		return inTransaction("rebuildThreadSummaries", () -> {
+			try (Statement rebuild = createStatement("rebuildThreadSummaries")) {
+				rebuild.executeUpdate("DELETE FROM ThreadSummaries");
+				return rebuild.executeUpdate(summarize);
+			}
+		});
+	}
+
 
+/*******
+ * <p> Method: void adjustThreadSummary(String thread, int posts, int active, int replies,
+ *		LocalDateTime at, String author) </p>
+ * 
+ * <p> Description: Apply one change to a thread's summary, creating the summary for a thread's
+ * first post.  The counts are added by the database, so clients sharing it do not overwrite one
+ * another's changes.  Callers make it in the same transaction as the change it records.</p>
+ * 
+ * @param thread is the thread's name; it is compared without regard to case
+ * 
+ * @param posts is the change in the number of posts
+ * 
+ * @param active is the change in the number of active posts
+ * 
+ * @param replies is the change in the number of replies
+ * 
+ * @param at is when the post or reply was made, or null for a change that is not activity,
+ *		e.g. a deletion
+ * 
+ * @param author is who made the post or reply
+ * 
+ * @throws SQLException when there is an issue creating the SQL command or executing it.  When
+ *		two transactions make the first post in a new thread at once, the second to insert the
+ *		summary fails as a serialization failure, so inTransaction runs its unit again and this
+ *		time finds the summary to update.
+ */
+	private void adjustThreadSummary(String thread, int posts, int active, int replies,
+			LocalDateTime at, String author) throws SQLException {
+		String query = "MERGE INTO ThreadSummaries t USING (SELECT LOWER(CAST(? AS VARCHAR(255))) "
+				+ "AS threadKey, CAST(? AS VARCHAR(255)) AS thread, CAST(? AS INT) AS posts, "
+				+ "CAST(? AS INT) AS active, CAST(? AS INT) AS replies, "
+				+ "CAST(? AS TIMESTAMP) AS at, CAST(? AS VARCHAR(255)) AS author) v "
+				+ "ON t.threadKey = v.threadKey "
+				+ "WHEN MATCHED THEN UPDATE SET postCount = t.postCount + v.posts, "
+				+ "activeCount = t.activeCount + v.active, replyCount = t.replyCount + v.replies, "
+				+ "lastAuthor = CASE WHEN v.at >= COALESCE(t.lastActivity, v.at) "
+				+ "THEN v.author ELSE t.lastAuthor END, "
+				+ "lastActivity = CASE WHEN v.at >= COALESCE(t.lastActivity, v.at) "
+				+ "THEN v.at ELSE t.lastActivity END "
+				+ "WHEN NOT MATCHED THEN INSERT (threadKey, thread, postCount, activeCount, "
+				+ "replyCount, lastActivity, lastAuthor) "
+				+ "VALUES (v.threadKey, v.thread, v.posts, v.active, v.replies, v.at, v.author)";
+		try (PreparedStatement pstmt = prepare("adjustThreadSummary", query)) {
+			pstmt.setString(1, thread);
+			pstmt.setString(2, thread);
+			pstmt.setInt(3, posts);
+			pstmt.setInt(4, active);
+			pstmt.setInt(5, replies);
+			pstmt.setTimestamp(6, at == null ? null : Timestamp.valueOf(at));
+			pstmt.setString(7, author);
+			pstmt.executeUpdate();
+		} catch (SQLException e) {
+			if (e.getErrorCode() != ErrorCode.DUPLICATE_KEY_1) throw e;
+			throw new SQLTransactionRollbackException("Another transaction created the summary "
+					+ "of thread " + thread, "40001", e);
+		}
+	}
+
+
+/*******
+ * <p> Method: void adjustCounter(String name, long delta) </p>
+ * 
+ * <p> Description: Add delta to a DashboardCounters row.  The addition is done by the database,
+ * so clients sharing the database do not overwrite one another's adjustments.  Callers make it
+ * in the same transaction as the change it counts, so the two are committed together.</p>
+ * 
+ * @param name is the counter, e.g. COUNTER_USERS or "users.Admin"
+ * 
+ * @param delta is the amount to add, negative to subtract
+ * 
+ * @throws SQLException when the counter cannot be updated
+ */
+	private void adjustCounter(String name, long delta) throws SQLException {
+		if (delta == 0) return;
+		String query = "UPDATE DashboardCounters SET amount = amount + ? WHERE name = ?";
+		try (PreparedStatement pstmt = prepare("adjustCounter", query)) {
+			pstmt.setLong(1, delta);
+			pstmt.setString(2, name);
+			pstmt.executeUpdate();
+		}
+	}
+
+
+/*******
+ * <p> Method: void adjustUserCounters(User user, int delta) </p>
+ * 
+ * <p> Description: Add delta to the user counter and to the counter of every role the user
+ * plays, e.g. 1 when the user is registered and -1 when the user is deleted.</p>
+ * 
+ * @param user is the user
+ * 
+ * @param delta is 1 or -1
+ * 
+ * @throws SQLException when a counter cannot be updated
+ */
+	private void adjustUserCounters(User user, int delta) throws SQLException {
+		adjustCounter(COUNTER_USERS, delta);
+		if (user.getAdminRole()) adjustCounter(COUNTER_USERS + ".Admin", delta);
+		if (user.getNewRole1()) adjustCounter(COUNTER_USERS + ".Role1", delta);
+		if (user.getNewRole2()) adjustCounter(COUNTER_USERS + ".Role2", delta);
+		if (user.getNewStudent()) adjustCounter(COUNTER_USERS + ".Student", delta);
+	}
+
+
+/*******
+ * <p> Method: long getCounter(String name) </p>
+ * 
+ * <p> Description: Read one DashboardCounters row, a primary key lookup whatever the size of the
+ * table it counts.</p>
+ * 
+ * @param name is the counter, e.g. COUNTER_USERS or "users.Admin"
+ * 
+ * @return the count, or 0 if it cannot be read
+ */
+	public long getCounter(String name) {
+		try (PreparedStatement pstmt = prepare("getCounter", SQL_GET_COUNTER)) {
+			pstmt.setString(1, name);
+			ResultSet rs = pstmt.executeQuery();
+			if (rs.next()) return rs.getLong(1);
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return 0;
+	}
+
+
+/*******
+ * <p> Method: Map&lt;String, Long&gt; getDashboardCounts() </p>
+ * 
+ * <p> Description: Every DashboardCounters row at once: "users", "users.Admin", "users.Role1",
+ * "users.Role2", "users.Student" and "invitations".  The invitation count includes invitations
+ * that have expired but have not been purged yet; getNumberOfInvitations leaves them out.</p>
+ * 
+ * @return the counts by name, in name order
+ */
+	public Map<String, Long> getDashboardCounts() {
+		Map<String, Long> counts = new LinkedHashMap<String, Long>();
+		String query = "SELECT name, amount FROM DashboardCounters ORDER BY name";
+		try (PreparedStatement pstmt = prepare("getDashboardCounts", query)) {
+			ResultSet rs = pstmt.executeQuery();
+			while (rs.next()) counts.put(rs.getString(1), rs.getLong(2));
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return counts;
 	}
 
 
@@ -144,8 +968,8 @@ public class Database {
  */
 	public boolean isDatabaseEmpty() {
 		String query = "SELECT COUNT(*) AS count FROM userDB";
-		try {
-			ResultSet resultSet = statement.executeQuery(query);
+		try (Statement countStatement = createStatement("isDatabaseEmpty")) {
+			ResultSet resultSet = countStatement.executeQuery(query);
 			if (resultSet.next()) {
 				return resultSet.getInt("count") == 0;
 			}
@@ -159,22 +983,46 @@ public class Database {
 /*******
  * <p> Method: getNumberOfUsers </p>
  * 
- * <p> Description: Returns an integer .of the number of users currently in the user database. </p>
+ * <p> Description: Returns an integer .of the number of users currently in the user database.
+ * The number is read from DashboardCounters rather than by counting userDB. </p>
  * 
  * @return the number of user records in the database.
  * 
  */
 	public int getNumberOfUsers() {
-		String query = "SELECT COUNT(*) AS count FROM userDB";
-		try {
-			ResultSet resultSet = statement.executeQuery(query);
-			if (resultSet.next()) {
-				return resultSet.getInt("count");
-			}
+		return (int) getCounter(COUNTER_USERS);
+	}
+
+
+/*******
+ * <p> Method: String getSessionStatistics() </p>
+ *
+ * <p> Description: A one-line summary of who is connected to the database, taken from H2's
+ * INFORMATION_SCHEMA.SESSIONS: the number of open sessions, how many of them are remote clients,
+ * and how many are executing a statement right now.  In embedded mode this is always this
+ * process alone.  When several clients share one database, it shows the admin how busy it is.</p>
+ *
+ * @return the summary, or a short note if the statistics are not available
+ */
+	public String getSessionStatistics() {
+		// This session is always executing (this query), so it is left out of the busy count
+		String query = "SELECT COUNT(*), COUNT(CLIENT_ADDR), "
+				+ "COUNT(CASE WHEN SESSION_ID <> SESSION_ID() THEN EXECUTING_STATEMENT END) "
+				+ "FROM INFORMATION_SCHEMA.SESSIONS";
+		try (PreparedStatement pstmt = prepare("getSessionStatistics", query);
+				ResultSet rs = pstmt.executeQuery()) {
+			if (!rs.next()) return "Database sessions: unavailable";
+			String summary = "Database sessions: " + rs.getInt(1) + " (" + rs.getInt(2)
+					+ " remote), " + rs.getInt(3) + " busy";
+			if (databaseServer != null && databaseServer.isRunning())
+				summary += ", hosting on port " + databaseServer.getPort();
+			else if (!config.getMode().equals(DatabaseConfig.MODE_EMBEDDED))
+				summary += ", " + config.getMode();
+			return summary;
 		} catch (SQLException e) {
-	        return 0;
-	    }
-		return 0;
+			e.printStackTrace();
+			return "Database sessions: unavailable";
+		}
 	}
 
 /*******
@@ -191,43 +1039,48 @@ public class Database {
 		String insertUser = "INSERT INTO userDB (userName, password, firstName, middleName, "
 				+ "lastName, preferredFirstName, emailAddress, adminRole, newRole1, newRole2, newStudent) "
 				+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-		try (PreparedStatement pstmt = connection.prepareStatement(insertUser)) {
-			currentUsername = user.getUserName();
-			pstmt.setString(1, currentUsername);
+		// The new row and the counters that count it are committed together
+		inTransaction("register", () -> {
+			try (PreparedStatement pstmt = prepare("register", insertUser)) {
+				currentUsername = user.getUserName();
+				pstmt.setString(1, currentUsername);
 			
-			currentPassword = user.getPassword();
-			pstmt.setString(2, currentPassword);
+				currentPassword = user.getPassword();
+				pstmt.setString(2, currentPassword);
 			
-			currentFirstName = user.getFirstName();
-			pstmt.setString(3, currentFirstName);
+				currentFirstName = user.getFirstName();
+				pstmt.setString(3, currentFirstName);
 			
-			currentMiddleName = user.getMiddleName();			
-			pstmt.setString(4, currentMiddleName);
+				currentMiddleName = user.getMiddleName();			
+				pstmt.setString(4, currentMiddleName);
 			
-			currentLastName = user.getLastName();
-			pstmt.setString(5, currentLastName);
+				currentLastName = user.getLastName();
+				pstmt.setString(5, currentLastName);
 			
-			currentPreferredFirstName = user.getPreferredFirstName();
-			pstmt.setString(6, currentPreferredFirstName);
+				currentPreferredFirstName = user.getPreferredFirstName();
+				pstmt.setString(6, currentPreferredFirstName);
 			
-			currentEmailAddress = user.getEmailAddress();
-			pstmt.setString(7, currentEmailAddress);
+				currentEmailAddress = user.getEmailAddress();
+				pstmt.setString(7, currentEmailAddress);
 			
-			currentAdminRole = user.getAdminRole();
-			pstmt.setBoolean(8, currentAdminRole);
+				currentAdminRole = user.getAdminRole();
+				pstmt.setBoolean(8, currentAdminRole);
 			
-			currentNewRole1 = user.getNewRole1();
-			pstmt.setBoolean(9, currentNewRole1);
+				currentNewRole1 = user.getNewRole1();
+				pstmt.setBoolean(9, currentNewRole1);
 			
-			currentNewRole2 = user.getNewRole2();
-			pstmt.setBoolean(10, currentNewRole2);
+				currentNewRole2 = user.getNewRole2();
+				pstmt.setBoolean(10, currentNewRole2);
 			
-			currentNewStudent = user.getNewStudent();
-			pstmt.setBoolean(11, currentNewStudent);
+				currentNewStudent = user.getNewStudent();
+				pstmt.setBoolean(11, currentNewStudent);
 			
-			pstmt.executeUpdate();
-		}
-		
+				pstmt.executeUpdate();
+			}
+			adjustUserCounters(user, 1);
+			return null;
+		});
+		userCache.invalidate(user.getUserName());
 	}
 	
 /*******
@@ -242,7 +1095,7 @@ public class Database {
 		List<String> userList = new ArrayList<String>();
 		userList.add("<Select a User>");
 		String query = "SELECT userName FROM userDB";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (PreparedStatement pstmt = prepare("getUserList", query)) {
 			ResultSet rs = pstmt.executeQuery();
 			while (rs.next()) {
 				userList.add(rs.getString("userName"));
@@ -254,6 +1107,54 @@ public class Database {
 		return userList;
 	}
 
+/*******
+ *  <p> Method: Map&lt;String, String&gt; searchUsers(String prefix, int limit) </p>
+ *  
+ *  <P> Description: The users whose username or email address starts with a prefix, in any
+ *  case, for a typeahead, in username order.  The username and email searches are each a range
+ *  scan of an index.  Each returns its first limit users in username order, so the first limit
+ *  of the two together are the first limit of all the matches.  It is meant to be run inside
+ *  withPooledConnection, off the JavaFX thread. </p>
+ *  
+ *  @param prefix is what has been typed so far
+ *  
+ *  @param limit is the most users to return
+ *  
+ *  @return the usernames in order, each with its email address
+ */
+	public Map<String, String> searchUsers(String prefix, int limit) {
+		Map<String, String> users = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+		if (prefix == null || prefix.isEmpty()) return users;
+		// Two queries rather than a UNION, since H2 does not use an index inside a derived table
+		// whose condition has a parameter
+		String pattern = escapeLike(prefix.toLowerCase(Locale.ROOT)) + "%";
+		searchUsers("searchUsersByName", "userNameKey", pattern, limit, users);
+		searchUsers("searchUsersByEmail", "emailKey", pattern, limit, users);
+		Map<String, String> first = new LinkedHashMap<String, String>();
+		for (Map.Entry<String, String> user : users.entrySet()) {
+			if (first.size() == limit) break;
+			first.put(user.getKey(), user.getValue());
+		}
+		return first;
+	}
+
+	// One half of searchUsers: the first limit users, by username, whose column matches the
+	// pattern.  The email half is ordered by username too, not by email address, or a user found
+	// only by email could be left out for later email addresses whose usernames come after it.
+	private void searchUsers(String op, String column, String pattern, int limit,
+			Map<String, String> users) {
+		String query = "SELECT userName, emailAddress FROM userDB WHERE " + column
+				+ " LIKE ? ESCAPE '\\' ORDER BY userNameKey LIMIT ?";
+		try (PreparedStatement pstmt = prepare(op, query)) {
+			pstmt.setString(1, pattern);
+			pstmt.setInt(2, limit);
+			ResultSet rs = pstmt.executeQuery();
+			while (rs.next()) users.put(rs.getString("userName"), rs.getString("emailAddress"));
+		} catch (SQLException e) {
+			log.error(op + " failed for prefix: " + pattern, e);
+		}
+	}
+
 /*******
  * <p> Method: boolean loginAdmin(User user) </p>
  * 
@@ -269,7 +1170,7 @@ public class Database {
 		// Validates an admin user's login credentials so the user can login in as an Admin.
 		String query = "SELECT * FROM userDB WHERE userName = ? AND password = ? AND "
 				+ "adminRole = TRUE";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (PreparedStatement pstmt = prepare("loginAdmin", query)) {
 			pstmt.setString(1, user.getUserName());
 			pstmt.setString(2, user.getPassword());
 			ResultSet rs = pstmt.executeQuery();
@@ -296,7 +1197,7 @@ public class Database {
 		// Validates a student user's login credentials.
 		String query = "SELECT * FROM userDB WHERE userName = ? AND password = ? AND "
 				+ "newRole1 = TRUE";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (PreparedStatement pstmt = prepare("loginRole1", query)) {
 			pstmt.setString(1, user.getUserName());
 			pstmt.setString(2, user.getPassword());
 			ResultSet rs = pstmt.executeQuery();
@@ -322,7 +1223,7 @@ public class Database {
 	public boolean loginRole2(User user) {
 		String query = "SELECT * FROM userDB WHERE userName = ? AND password = ? AND "
 				+ "newRole2 = TRUE";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (PreparedStatement pstmt = prepare("loginRole2", query)) {
 			pstmt.setString(1, user.getUserName());
 			pstmt.setString(2, user.getPassword());
 			ResultSet rs = pstmt.executeQuery();
@@ -348,7 +1249,7 @@ public class Database {
 	public boolean loginStudent(User user) {
 		String query = "SELECT * FROM userDB WHERE userName = ? AND password = ? AND "
 				+ "newStudent = TRUE";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (PreparedStatement pstmt = prepare("loginStudent", query)) {
 			pstmt.setString(1, user.getUserName());
 			pstmt.setString(2, user.getPassword());
 			ResultSet rs = pstmt.executeQuery();
@@ -372,8 +1273,7 @@ public class Database {
 	 */
 	// Checks if a user already exists in the database based on their userName.
 	public boolean doesUserExist(String userName) {
-	    String query = "SELECT COUNT(*) FROM userDB WHERE userName = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (PreparedStatement pstmt = prepare("doesUserExist", SQL_DOES_USER_EXIST)) {
 	        
 	        pstmt.setString(1, userName);
 	        ResultSet rs = pstmt.executeQuery();
@@ -416,7 +1316,7 @@ public class Database {
 	 * <p> Description: Given an email address and a roles, this method establishes and invitation
 	 * code and adds a record to the InvitationCodes table.  When the invitation code is used, the
 	 * stored email address is used to establish the new user and the record is removed from the
-	 * table.</p>
+	 * table.  The invitation expires INVITATION_TTL_MILLIS after it is issued.</p>
 	 * 
 	 * @param emailAddress specifies the email address for this new user.
 	 * 
@@ -427,37 +1327,116 @@ public class Database {
 	 */
 	// Generates a new invitation code and inserts it into the database.
 	public String generateInvitationCode(String emailAddress, String role) {
-	    String code = UUID.randomUUID().toString().substring(0, 6); // Generate a random 6-character code
-	    String query = "INSERT INTO InvitationCodes (code, emailaddress, role) VALUES (?, ?, ?)";
+		return generateInvitationCode(emailAddress, role, INVITATION_TTL_MILLIS);
+	}
 
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-	        pstmt.setString(1, code);
-	        pstmt.setString(2, emailAddress);
-	        pstmt.setString(3, role);
-	        pstmt.executeUpdate();
-	    } catch (SQLException e) {
+	
+	/*******
+	 * <p> Method: String generateInvitationCode(String emailAddress, String role, long ttlMillis)
+	 * </p>
+	 * 
+	 * <p> Description: Same as generateInvitationCode(emailAddress, role), but the caller decides
+	 * how long the invitation remains valid.</p>
+	 * 
+	 * @param emailAddress specifies the email address for this new user.
+	 * 
+	 * @param role specified the role that this new user will play.
+	 * 
+	 * @param ttlMillis specifies how many milliseconds the invitation may be redeemed for.
+	 * 
+	 * @return the code of six characters so the new user can use it to securely setup an account.
+	 * 
+	 */
+	public String generateInvitationCode(String emailAddress, String role, long ttlMillis) {
+	    String code = "";
+	    String query = "INSERT INTO InvitationCodes (code, emailaddress, role, createdAt, expiresAt) "
+	    		+ "VALUES (?, ?, ?, ?, ?)";
+
+	    // Six hex characters give about 16 million codes, so with many outstanding invitations a
+	    // new code occasionally matches an existing one.  Draw another code when that happens.
+	    for (int attempt = 0; attempt < 5; attempt++) {
+		    String candidate = UUID.randomUUID().toString().substring(0, 6);	// A random code
+		    try {
+		    	// The invitation and the counter that counts it are committed together
+		    	inTransaction("generateInvitationCode", () -> {
+		    		try (PreparedStatement pstmt = prepare("generateInvitationCode", query)) {
+		    			long now = System.currentTimeMillis();
+		    			pstmt.setString(1, candidate);
+		    			pstmt.setString(2, emailAddress);
+		    			pstmt.setString(3, role);
+		    			pstmt.setLong(4, now);
+		    			pstmt.setLong(5, now + ttlMillis);
+		    			pstmt.executeUpdate();
+		    		}
+		    		adjustCounter(COUNTER_INVITATIONS, 1);
+		    		return null;
+		    	});
+		    	code = candidate;
+		        break;
+		    } catch (SQLIntegrityConstraintViolationException e) {
+		    	continue;	// The code is already in use
+		    } catch (SQLException e) {
+		        e.printStackTrace();
+		        break;
+		    }
+	    }
+	    return code;
+	}
+
+	
+	/*******
+	 * <p> Method: int getNumberOfInvitations() </p>
+	 * 
+	 * <p> Description: Determine the number of outstanding (issued and not yet expired)
+	 * invitations in the table.  This is the invitations counter in DashboardCounters less the
+	 * expired rows the purge job has not yet removed, which are found with a range scan of the
+	 * expiresAt index.</p>
+	 *  
+	 * @return the number of outstanding invitations in the table.
+	 * 
+	 */
+	// Number of outstanding invitations in the database
+	public int getNumberOfInvitations() {
+		// The counter includes invitations that have expired but not yet been purged.  The purge
+		// job keeps those few, so counting them is a short range scan of the expiresAt index.
+		String query = "SELECT COUNT(*) AS count FROM InvitationCodes WHERE expiresAt <= ?";
+		try (PreparedStatement pstmt = prepare("getNumberOfInvitations", query)) {
+			pstmt.setLong(1, System.currentTimeMillis());
+			ResultSet resultSet = pstmt.executeQuery();
+			if (resultSet.next()) {
+				return (int) Math.max(0,
+						getCounter(COUNTER_INVITATIONS) - resultSet.getInt("count"));
+			}
+		} catch  (SQLException e) {
 	        e.printStackTrace();
 	    }
-	    return code;
+		return 0;
 	}
-
+	
 	
 	/*******
-	 * <p> Method: int getNumberOfInvitations() </p>
+	 * <p> Method: int purgeExpiredInvitations(int batchSize) </p>
+	 * 
+	 * <p> Description: Delete at most batchSize invitations whose expiry time has passed.  The
+	 * batch bound keeps each delete short so it never holds locks on the table for long.</p>
 	 * 
-	 * <p> Description: Determine the number of outstanding invitations in the table.</p>
+	 * @param batchSize is the maximum number of rows removed by this call
 	 *  
-	 * @return the number of invitations in the table.
+	 * @return the number of invitations that were removed
 	 * 
 	 */
-	// Number of invitations in the database
-	public int getNumberOfInvitations() {
-		String query = "SELECT COUNT(*) AS count FROM InvitationCodes";
+	public int purgeExpiredInvitations(int batchSize) {
+		String query = "DELETE FROM InvitationCodes WHERE expiresAt <= ? LIMIT ?";
 		try {
-			ResultSet resultSet = statement.executeQuery(query);
-			if (resultSet.next()) {
-				return resultSet.getInt("count");
-			}
+			return inTransaction("purgeExpiredInvitations", () -> {
+				try (PreparedStatement pstmt = prepare("purgeExpiredInvitations", query)) {
+					pstmt.setLong(1, System.currentTimeMillis());
+					pstmt.setInt(2, batchSize);
+					int removed = pstmt.executeUpdate();
+					adjustCounter(COUNTER_INVITATIONS, -removed);
+					return removed;
+				}
+			});
 		} catch  (SQLException e) {
 	        e.printStackTrace();
 	    }
@@ -468,7 +1447,7 @@ public class Database {
 	/*******
 	 * <p> Method: List<InvitationRecord> getAllInvitationRecords() </p>
 	 * 
-	 * <p> Description: Get all invitation records from the database.</p>
+	 * <p> Description: Get all outstanding (not expired) invitation records from the database.</p>
 	 * 
 	 * @return a list of all invitation records
 	 */
@@ -476,18 +1455,21 @@ public class Database {
 	    List<guiManageInvitations.ModelManageInvitations.InvitationRecord> invitations = 
 	        new ArrayList<>();
 	    
-	    String query = "SELECT code, emailAddress, role FROM InvitationCodes ORDER BY emailAddress";
+	    String query = "SELECT code, emailAddress, role, expiresAt FROM InvitationCodes "
+	    		+ "WHERE expiresAt > ? ORDER BY emailAddress";
 	    
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (PreparedStatement pstmt = prepare("getAllInvitationRecords", query)) {
+	    	pstmt.setLong(1, System.currentTimeMillis());
 	        ResultSet rs = pstmt.executeQuery();
 	        
 	        while (rs.next()) {
 	            String code = rs.getString("code");
 	            String email = rs.getString("emailAddress");
 	            String role = rs.getString("role");
+	            long expiresAt = rs.getLong("expiresAt");
 	            
 	            invitations.add(new guiManageInvitations.ModelManageInvitations.InvitationRecord(
-	                code, email, role));
+	                code, email, role, expiresAt));
 	        }
 	    } catch (SQLException e) {
 	        e.printStackTrace();
@@ -496,10 +1478,133 @@ public class Database {
 	    return invitations;
 	}
 	
+	
+	/*******
+	 * <p> Method: List<InvitationRecord> getInvitationPage(String role, String emailPrefix,
+	 *		SortKey sortKey, boolean ascending, InvitationRecord after, int limit) </p>
+	 * 
+	 * <p> Description: One page of the outstanding invitations, sorted and filtered by the
+	 * database.  Rows are ordered by the sort key and then by code, and a page continues from the
+	 * row after the last one of the page before, so an ascending page is a short range scan of
+	 * one of the InvitationCodes indexes rather than a skip over every earlier row.  H2 only reads
+	 * an index in ascending order, so a descending page is a top-N sort of the matching rows,
+	 * which still takes a few milliseconds for 100,000 invitations.  Email order and the email
+	 * filter ignore case.</p>
+	 * 
+	 * @param role is the only role to include, or null for every role
+	 * 
+	 * @param emailPrefix is how the email addresses must start, in any case, or null or empty for
+	 *		any
+	 * 
+	 * @param sortKey is the column to sort on
+	 * 
+	 * @param ascending is true for A to Z or soonest first
+	 * 
+	 * @param after is the last row of the page before, or null for the first page
+	 * 
+	 * @param limit is the most rows to return
+	 * 
+	 * @return the rows of the page, in order
+	 */
+	public List<guiManageInvitations.ModelManageInvitations.InvitationRecord> getInvitationPage(
+			String role, String emailPrefix, guiManageInvitations.ModelManageInvitations.SortKey sortKey,
+			boolean ascending, guiManageInvitations.ModelManageInvitations.InvitationRecord after,
+			int limit) {
+		boolean byExpiry = sortKey == guiManageInvitations.ModelManageInvitations.SortKey.EXPIRES;
+		String column = byExpiry ? "expiresAt" : "emailKey";
+		String value = byExpiry ? "?" : "LOWER(?)";
+		String direction = ascending ? "ASC" : "DESC";
+		String beyond = ascending ? ">" : "<";
+		
+		// H2 would rather use the expiresAt index for the "not expired" condition and sort every
+		// row, so an ascending page names the index that is already in the page's order
+		String index = "idx_InvitationCodes_" + (role != null ? "role_" : "")
+				+ (byExpiry ? "expires" : "emailKey") + "_code";
+		StringBuilder query = new StringBuilder(
+				"SELECT code, emailAddress, role, expiresAt FROM InvitationCodes ");
+		if (ascending) query.append("USE INDEX (").append(index).append(") ");
+		query.append("WHERE expiresAt > ?");
+		if (role != null) query.append(" AND role = ?");
+		boolean filterEmail = emailPrefix != null && !emailPrefix.isEmpty();
+		if (filterEmail) query.append(" AND emailKey LIKE LOWER(?) ESCAPE '\\'");
+		if (after != null) {
+			// The first condition bounds the index range, the second skips rows already shown
+			query.append(" AND ").append(column).append(' ').append(beyond).append("= ")
+					.append(value).append(" AND (").append(column).append(' ').append(beyond)
+					.append(' ').append(value).append(" OR code ").append(beyond).append(" ?)");
+		}
+		// With one role, ordering by the role as well lets H2 see the index is in order
+		query.append(" ORDER BY ");
+		if (role != null) query.append("role ").append(direction).append(", ");
+		query.append(column).append(' ').append(direction).append(", code ").append(direction)
+				.append(" LIMIT ?");
+		
+		List<guiManageInvitations.ModelManageInvitations.InvitationRecord> page =
+				new ArrayList<>();
+		try (PreparedStatement pstmt = prepare("getInvitationPage", query.toString())) {
+			int parameter = 1;
+			pstmt.setLong(parameter++, System.currentTimeMillis());
+			if (role != null) pstmt.setString(parameter++, role);
+			if (filterEmail) pstmt.setString(parameter++, escapeLike(emailPrefix) + "%");
+			if (after != null) {
+				for (int i = 0; i < 2; i++) {
+					if (byExpiry) pstmt.setLong(parameter++, after.getExpiresAt());
+					else pstmt.setString(parameter++, after.getEmailAddress());
+				}
+				pstmt.setString(parameter++, after.getCode());
+			}
+			pstmt.setInt(parameter, limit);
+			ResultSet rs = pstmt.executeQuery();
+			while (rs.next()) {
+				page.add(new guiManageInvitations.ModelManageInvitations.InvitationRecord(
+						rs.getString("code"), rs.getString("emailAddress"), rs.getString("role"),
+						rs.getLong("expiresAt")));
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return page;
+	}
+	
+	
+	/*******
+	 * <p> Method: InvitationRecord getInvitationRecord(String code) </p>
+	 * 
+	 * <p> Description: One outstanding invitation, e.g. one that has just been issued.</p>
+	 * 
+	 * @param code is the 6 character String invitation code
+	 * 
+	 * @return the invitation, or null if there is no such outstanding invitation
+	 */
+	public guiManageInvitations.ModelManageInvitations.InvitationRecord getInvitationRecord(
+			String code) {
+		String query = "SELECT code, emailAddress, role, expiresAt FROM InvitationCodes "
+				+ "WHERE code = ? AND expiresAt > ?";
+		try (PreparedStatement pstmt = prepare("getInvitationRecord", query)) {
+			pstmt.setString(1, code);
+			pstmt.setLong(2, System.currentTimeMillis());
+			ResultSet rs = pstmt.executeQuery();
+			if (rs.next()) {
+				return new guiManageInvitations.ModelManageInvitations.InvitationRecord(
+						rs.getString("code"), rs.getString("emailAddress"), rs.getString("role"),
+						rs.getLong("expiresAt"));
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+	
+	// A LIKE pattern that matches the text literally, for the ESCAPE '\' clause
+	private static String escapeLike(String text) {
+		return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+	
 	/*******
 	 * <p> Method: boolean emailaddressHasBeenUsed(String emailAddress) </p>
 	 * 
-	 * <p> Description: Determine if an email address has been user to establish a user.</p>
+	 * <p> Description: Determine if an email address already has an outstanding invitation.  An
+	 * expired invitation does not count, so the admin may invite that address again.</p>
 	 * 
 	 * @param emailAddress is a string that identifies a user in the table
 	 *  
@@ -508,14 +1613,12 @@ public class Database {
 	 */
 	// Check to see if an email address is already in the database
 	public boolean emailaddressHasBeenUsed(String emailAddress) {
-	    String query = "SELECT COUNT(*) AS count FROM InvitationCodes WHERE emailAddress = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (PreparedStatement pstmt = prepare("emailaddressHasBeenUsed", SQL_EMAIL_INVITED)) {
 	        pstmt.setString(1, emailAddress);
+	        pstmt.setLong(2, System.currentTimeMillis());
 	        ResultSet rs = pstmt.executeQuery();
-	        System.out.println(rs);
 	        if (rs.next()) {
-	            // Mark the code as used
-	        	return rs.getInt("count")>0;
+	        	return true;
 	        }
 	    } catch (SQLException e) {
 	        e.printStackTrace();
@@ -531,14 +1634,15 @@ public class Database {
 	 * 
 	 * @param code is the 6 character String invitation code
 	 *  
-	 * @return the role for the code or an empty string.
+	 * @return the role for the code or an empty string (also when the code has expired).
 	 * 
 	 */
 	// Obtain the roles associated with an invitation code.
 	public String getRoleGivenAnInvitationCode(String code) {
-	    String query = "SELECT * FROM InvitationCodes WHERE code = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    String query = "SELECT role FROM InvitationCodes WHERE code = ? AND expiresAt > ?";
+	    try (PreparedStatement pstmt = prepare("getRoleGivenAnInvitationCode", query)) {
 	        pstmt.setString(1, code);
+	        pstmt.setLong(2, System.currentTimeMillis());
 	        ResultSet rs = pstmt.executeQuery();
 	        if (rs.next()) {
 	            return rs.getString("role");
@@ -563,7 +1667,7 @@ public class Database {
 	// For a given invitation code, return the associated email address of an empty string
 	public String getEmailAddressUsingCode (String code ) {
 	    String query = "SELECT emailAddress FROM InvitationCodes WHERE code = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (PreparedStatement pstmt = prepare("getEmailAddressUsingCode", query)) {
 	        pstmt.setString(1, code);
 	        ResultSet rs = pstmt.executeQuery();
 	        if (rs.next()) {
@@ -586,23 +1690,16 @@ public class Database {
 	 */
 	// Remove an invitation using an email address once the user account has been setup
 	public void removeInvitationAfterUse(String code) {
-	    String query = "SELECT COUNT(*) AS count FROM InvitationCodes WHERE code = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-	        pstmt.setString(1, code);
-	        ResultSet rs = pstmt.executeQuery();
-	        if (rs.next()) {
-	        	int counter = rs.getInt(1);
-	            // Only do the remove if the code is still in the invitation table
-	        	if (counter > 0) {
-        			query = "DELETE FROM InvitationCodes WHERE code = ?";
-	        		try (PreparedStatement pstmt2 = connection.prepareStatement(query)) {
-	        			pstmt2.setString(1, code);
-	        			pstmt2.executeUpdate();
-	        		}catch (SQLException e) {
-	        	        e.printStackTrace();
-	        	    }
-	        	}
-	        }
+	    // Deleting a code that is no longer in the table removes nothing, so no check is needed
+	    String query = "DELETE FROM InvitationCodes WHERE code = ?";
+	    try {
+	    	inTransaction("removeInvitationAfterUse", () -> {
+	    		try (PreparedStatement pstmt = prepare("removeInvitationAfterUse", query)) {
+	    			pstmt.setString(1, code);
+	    			adjustCounter(COUNTER_INVITATIONS, -pstmt.executeUpdate());
+	    		}
+	    		return null;
+	    	});
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
@@ -610,6 +1707,62 @@ public class Database {
 	}
 	
 	
+	/*******
+	 * <p> Method: InvitationRecord redeemInvitation(String code, User user) </p>
+	 * 
+	 * <p> Description: Use an invitation to create an account, in one transaction.  The
+	 * invitation is deleted and its role and email address come back from the same statement, so
+	 * of two clients redeeming the same code at once only one gets it: the other's delete waits
+	 * for the first to commit and then finds no row.  The user is given the invitation's role
+	 * and email address and registered, and the counters are adjusted, before the commit.  If
+	 * anything fails, e.g. the username is taken, nothing is changed and the invitation can
+	 * still be used.</p>
+	 * 
+	 * @param code is the 6 character String invitation code
+	 * 
+	 * @param user is the new account, without a role or email address
+	 * 
+	 * @return the invitation that was used, or null if the code is unknown, expired or has just
+	 * 		been used
+	 * 
+	 * @throws SQLException when the account cannot be created
+	 */
+	public guiManageInvitations.ModelManageInvitations.InvitationRecord redeemInvitation(
+			String code, User user) throws SQLException {
+		String query = "SELECT code, emailAddress, role, expiresAt FROM OLD TABLE "
+				+ "(DELETE FROM InvitationCodes WHERE code = ? AND expiresAt > ?)";
+		guiManageInvitations.ModelManageInvitations.InvitationRecord invitation =
+				inTransaction("redeemInvitation", () -> {
+			guiManageInvitations.ModelManageInvitations.InvitationRecord redeemed = null;
+			try (PreparedStatement pstmt = prepare("redeemInvitation", query)) {
+				pstmt.setString(1, code);
+				pstmt.setLong(2, System.currentTimeMillis());
+				ResultSet rs = pstmt.executeQuery();
+				if (rs.next()) {
+					redeemed = new guiManageInvitations.ModelManageInvitations.InvitationRecord(
+							rs.getString("code"), rs.getString("emailAddress"), rs.getString("role"),
+							rs.getLong("expiresAt"));
+				}
+			}
+			if (redeemed == null) return null;
+			
+			String role = redeemed.getRole();
+			if (role.equals("Admin")) user.setAdminRole(true);
+			else if (role.equals("Role1")) user.setRole1User(true);
+			else if (role.equals("Role2")) user.setRole2User(true);
+			else if (role.equals("Student")) user.setStudentUser(true);
+			else throw new SQLException("Invitation " + code + " is for an unknown role: " + role);
+			user.setEmailAddress(redeemed.getEmailAddress());
+			
+			register(user);		// Joins this transaction
+			adjustCounter(COUNTER_INVITATIONS, -1);
+			return redeemed;
+		});
+		if (invitation != null) user.clearDirty();	// The row holds the role and email address
+		return invitation;
+	}
+	
+	
 	/*******
 	 * <p> Method: String getFirstName(String username) </p>
 	 * 
@@ -622,19 +1775,8 @@ public class Database {
 	 */
 	// Get the First Name
 	public String getFirstName(String username) {
-		String query = "SELECT firstName FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, username);
-	        ResultSet rs = pstmt.executeQuery();
-	        
-	        if (rs.next()) {
-	            return rs.getString("firstName"); // Return the first name if user exists
-	        }
-			
-	    } catch (SQLException e) {
-	        e.printStackTrace();
-	    }
-		return null;
+		User user = findUser("getFirstName", username);
+		return user == null ? null : user.getFirstName();
 	}
 	
 
@@ -652,11 +1794,12 @@ public class Database {
 	// update the first name
 	public void updateFirstName(String username, String firstName) {
 	    String query = "UPDATE userDB SET firstName = ? WHERE username = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (PreparedStatement pstmt = prepare("updateFirstName", query)) {
 	        pstmt.setString(1, firstName);
 	        pstmt.setString(2, username);
 	        pstmt.executeUpdate();
 	        currentFirstName = firstName;
+	        userCache.update(username, user -> user.setFirstName(firstName));
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
@@ -675,18 +1818,8 @@ public class Database {
 	 */
 	// get the middle name
 	public String getMiddleName(String username) {
-		String query = "SELECT MiddleName FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, username);
-	        ResultSet rs = pstmt.executeQuery();
-	        
-	        if (rs.next()) {
-	            return rs.getString("middleName"); // Return the middle name if user exists
-	        }
-	    } catch (SQLException e) {
-	        e.printStackTrace();
-	    }
-		return null;
+		User user = findUser("getMiddleName", username);
+		return user == null ? null : user.getMiddleName();
 	}
 
 	
@@ -704,11 +1837,12 @@ public class Database {
 	// update the middle name
 	public void updateMiddleName(String username, String middleName) {
 	    String query = "UPDATE userDB SET middleName = ? WHERE username = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (PreparedStatement pstmt = prepare("updateMiddleName", query)) {
 	        pstmt.setString(1, middleName);
 	        pstmt.setString(2, username);
 	        pstmt.executeUpdate();
 	        currentMiddleName = middleName;
+	        userCache.update(username, user -> user.setMiddleName(middleName));
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
@@ -727,18 +1861,8 @@ public class Database {
 	 */
 	// get he last name
 	public String getLastName(String username) {
-		String query = "SELECT LastName FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, username);
-	        ResultSet rs = pstmt.executeQuery();
-	        
-	        if (rs.next()) {
-	            return rs.getString("lastName"); // Return last name role if user exists
-	        }
-	    } catch (SQLException e) {
-	        e.printStackTrace();
-	    }
-		return null;
+		User user = findUser("getLastName", username);
+		return user == null ? null : user.getLastName();
 	}
 	
 	
@@ -756,11 +1880,12 @@ public class Database {
 	// update the last name
 	public void updateLastName(String username, String lastName) {
 	    String query = "UPDATE userDB SET lastName = ? WHERE username = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (PreparedStatement pstmt = prepare("updateLastName", query)) {
 	        pstmt.setString(1, lastName);
 	        pstmt.setString(2, username);
 	        pstmt.executeUpdate();
 	        currentLastName = lastName;
+	        userCache.update(username, user -> user.setLastName(lastName));
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
@@ -779,19 +1904,8 @@ public class Database {
 	 */
 	// get the preferred first name
 	public String getPreferredFirstName(String username) {
-		String query = "SELECT preferredFirstName FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, username);
-	        ResultSet rs = pstmt.executeQuery();
-	        
-	        if (rs.next()) {
-	            return rs.getString("firstName"); // Return the preferred first name if user exists
-	        }
-			
-	    } catch (SQLException e) {
-	        e.printStackTrace();
-	    }
-		return null;
+		User user = findUser("getPreferredFirstName", username);
+		return user == null ? null : user.getPreferredFirstName();
 	}
 	
 	
@@ -809,11 +1923,12 @@ public class Database {
 	// update the preferred first name of the user
 	public void updatePreferredFirstName(String username, String preferredFirstName) {
 	    String query = "UPDATE userDB SET preferredFirstName = ? WHERE username = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (PreparedStatement pstmt = prepare("updatePreferredFirstName", query)) {
 	        pstmt.setString(1, preferredFirstName);
 	        pstmt.setString(2, username);
 	        pstmt.executeUpdate();
 	        currentPreferredFirstName = preferredFirstName;
+	        userCache.update(username, user -> user.setPreferredFirstName(preferredFirstName));
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
@@ -832,19 +1947,8 @@ public class Database {
 	 */
 	// get the email address
 	public String getEmailAddress(String username) {
-		String query = "SELECT emailAddress FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, username);
-	        ResultSet rs = pstmt.executeQuery();
-	        
-	        if (rs.next()) {
-	            return rs.getString("emailAddress"); // Return the email address if user exists
-	        }
-			
-	    } catch (SQLException e) {
-	        e.printStackTrace();
-	    }
-		return null;
+		User user = findUser("getEmailAddress", username);
+		return user == null ? null : user.getEmailAddress();
 	}
 	
 	
@@ -862,20 +1966,323 @@ public class Database {
 	// update the email address
 	public void updateEmailAddress(String username, String emailAddress) {
 	    String query = "UPDATE userDB SET emailAddress = ? WHERE username = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (PreparedStatement pstmt = prepare("updateEmailAddress", query)) {
 	        pstmt.setString(1, emailAddress);
 	        pstmt.setString(2, username);
 	        pstmt.executeUpdate();
 	        currentEmailAddress = emailAddress;
+	        userCache.update(username, user -> user.setEmailAddress(emailAddress));
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
 	}
 	
 	
+	/*******
+	 * <p> Method: boolean saveChanges(User user) </p>
+	 * 
+	 * <p> Description: Write the attributes of a user that have been changed through its setters
+	 * with one UPDATE of just those columns, rather than one update method call, and one
+	 * autocommitted round trip, per attribute.  On success the user's changes are cleared, and the
+	 * user cache and the current user attributes are brought up to date.</p>
+	 * 
+	 * @param user is the user, whose userName says which row to update
+	 * 
+	 * @return true if the changes were saved or there were none, else false
+	 *  
+	 */
+	public boolean saveChanges(User user) {
+		Set<User.Field> fields = user.getDirtyFields();
+		if (!saveUserChanges(user)) return false;
+		currentUserChanged(user, fields);
+		return true;
+	}
+	
+	
+	/*******
+	 * <p> Method: boolean saveUserChanges(User user) </p>
+	 * 
+	 * <p> Description: saveChanges without the current user attributes, for callers that serve
+	 * many users from several threads at once, such as the HTTP service.  Only the database and
+	 * the user cache, which are safe to share, are brought up to date.</p>
+	 * 
+	 * @param user is the user, whose userName says which row to update
+	 * 
+	 * @return true if the changes were saved or there were none, else false
+	 *  
+	 */
+	public boolean saveUserChanges(User user) {
+		if (!user.isDirty()) return true;
+		Set<User.Field> fields = user.getDirtyFields();
+		try {
+			// A changed role also changes its counter, in the same transaction
+			boolean saved = inTransaction("saveChanges", () -> {
+				Map<User.Field, Boolean> before = lockRoles(user, fields);
+				try (PreparedStatement pstmt = prepare("saveChanges", updateSql(fields))) {
+					bindChanges(pstmt, user, fields);
+					if (pstmt.executeUpdate() != 1) return false;
+				}
+				adjustRoleCounters(user, fields, before);
+				return true;
+			});
+			if (!saved) return false;
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return false;
+		}
+		changesSaved(user, fields);
+		return true;
+	}
+	
+	
+	/*******
+	 * <p> Method: int saveChanges(List&lt;User&gt; users) </p>
+	 * 
+	 * <p> Description: The batch form of saveChanges for bulk edits, e.g. by an admin.  Users that
+	 * changed the same attributes share one UPDATE statement, run as a JDBC batch, and all of the
+	 * updates are made in a single transaction: either every change is saved or, if any statement
+	 * fails, none is and the users keep their changes so the save can be tried again.  When the
+	 * caller already has a transaction open on this thread's connection, the updates join it and
+	 * the caller commits.</p>
+	 * 
+	 * @param users are the users to save; those without changes are skipped
+	 * 
+	 * @return how many users' rows were updated, or -1 if the transaction failed
+	 *  
+	 */
+	public int saveChanges(List<User> users) {
+		List<Set<User.Field>> fields = new ArrayList<Set<User.Field>>();
+		for (User user : users) fields.add(user.getDirtyFields());
+		int saved = saveUserChanges(users);
+		// A user whose row was updated has had its changes cleared
+		for (int i = 0; i < users.size(); i++)
+			if (!fields.get(i).isEmpty() && !users.get(i).isDirty())
+				currentUserChanged(users.get(i), fields.get(i));
+		return saved;
+	}
+	
+	
+	/*******
+	 * <p> Method: int saveUserChanges(List&lt;User&gt; users) </p>
+	 * 
+	 * <p> Description: The batch form of saveUserChanges: saveChanges without the current user
+	 * attributes, for callers such as the HTTP service.</p>
+	 * 
+	 * @param users are the users to save; those without changes are skipped
+	 * 
+	 * @return how many users' rows were updated, or -1 if the transaction failed
+	 *  
+	 */
+	public int saveUserChanges(List<User> users) {
+		// Group the users by the columns they changed, keeping the order in which they came
+		Map<Set<User.Field>, List<User>> groups = new LinkedHashMap<Set<User.Field>, List<User>>();
+		for (User user : users) {
+			if (user.isDirty())
+				groups.computeIfAbsent(user.getDirtyFields(), f -> new ArrayList<User>()).add(user);
+		}
+		if (groups.isEmpty()) return 0;
+
+		List<User> saved = new ArrayList<User>();
+		// Each user's stored roles, kept up to date as the saved changes are counted so a user
+		// changed twice in the batch is counted from the first change's values the second time
+		Map<String, Map<User.Field, Boolean>> before =
+				new HashMap<String, Map<User.Field, Boolean>>();
+		try {
+			inTransaction("saveChangesBatch", () -> {
+				saved.clear();		// In case this is a retry
+				before.clear();
+				for (Map.Entry<Set<User.Field>, List<User>> group : groups.entrySet())
+					for (User user : group.getValue()) {
+						Map<User.Field, Boolean> roles = before.get(user.getUserName());
+						if (roles == null || roles.isEmpty())
+							before.put(user.getUserName(), lockRoles(user, group.getKey()));
+					}
+				for (Map.Entry<Set<User.Field>, List<User>> group : groups.entrySet()) {
+					try (PreparedStatement pstmt =
+							prepare("saveChangesBatch", updateSql(group.getKey()))) {
+						for (User user : group.getValue()) {
+							bindChanges(pstmt, user, group.getKey());
+							pstmt.addBatch();
+						}
+						int[] counts = pstmt.executeBatch();
+						for (int i = 0; i < counts.length; i++)
+							if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO)
+								saved.add(group.getValue().get(i));
+					}
+				}
+				for (User user : saved)
+					adjustRoleCounters(user, user.getDirtyFields(), before.get(user.getUserName()));
+				return null;
+			});
+		} catch (SQLException e) {
+			log.error("saveChanges failed for " + users.size() + " users; no changes were saved", e);
+			return -1;
+		}
+		for (User user : saved) changesSaved(user, user.getDirtyFields());
+		return saved.size();
+	}
+	
+	
+	// "UPDATE userDB SET firstName = ?, lastName = ? WHERE userName = ?" for the given attributes
+	private static String updateSql(Set<User.Field> fields) {
+		StringBuilder sql = new StringBuilder("UPDATE userDB SET ");
+		String separator = "";
+		for (User.Field field : fields) {
+			sql.append(separator).append(column(field)).append(" = ?");
+			separator = ", ";
+		}
+		return sql.append(" WHERE userName = ?").toString();
+	}
+	
+	
+	// Bind the new values of the attributes, in the order updateSql lists them, then the userName
+	private static void bindChanges(PreparedStatement pstmt, User user, Set<User.Field> fields)
+			throws SQLException {
+		int index = 1;
+		for (User.Field field : fields) {
+			Object value = value(user, field);
+			if (value instanceof Boolean) pstmt.setBoolean(index++, (Boolean) value);
+			else pstmt.setString(index++, (String) value);
+		}
+		pstmt.setString(index, user.getUserName());
+	}
+	
+	
+	private static String column(User.Field field) {
+		switch (field) {
+		case PASSWORD: return "password";
+		case FIRST_NAME: return "firstName";
+		case MIDDLE_NAME: return "middleName";
+		case LAST_NAME: return "lastName";
+		case PREFERRED_FIRST_NAME: return "preferredFirstName";
+		case EMAIL_ADDRESS: return "emailAddress";
+		case ADMIN_ROLE: return "adminRole";
+		case ROLE1: return "newRole1";
+		case ROLE2: return "newRole2";
+		default: return "newStudent";
+		}
+	}
+	
+	
+	private static Object value(User user, User.Field field) {
+		switch (field) {
+		case PASSWORD: return user.getPassword();
+		case FIRST_NAME: return user.getFirstName();
+		case MIDDLE_NAME: return user.getMiddleName();
+		case LAST_NAME: return user.getLastName();
+		case PREFERRED_FIRST_NAME: return user.getPreferredFirstName();
+		case EMAIL_ADDRESS: return user.getEmailAddress();
+		case ADMIN_ROLE: return user.getAdminRole();
+		case ROLE1: return user.getNewRole1();
+		case ROLE2: return user.getNewRole2();
+		default: return user.getNewStudent();
+		}
+	}
+	
+	
+	// The role name ("Admin", "Role1", ...) of a role attribute
+	private static String roleName(User.Field field) {
+		switch (field) {
+		case ADMIN_ROLE: return "Admin";
+		case ROLE1: return "Role1";
+		case ROLE2: return "Role2";
+		default: return "Student";
+		}
+	}
+	
+	
+	// Change one attribute of a user to the given value
+	private static void setValue(User user, User.Field field, Object value) {
+		switch (field) {
+		case PASSWORD: user.setPassword((String) value); break;
+		case FIRST_NAME: user.setFirstName((String) value); break;
+		case MIDDLE_NAME: user.setMiddleName((String) value); break;
+		case LAST_NAME: user.setLastName((String) value); break;
+		case PREFERRED_FIRST_NAME: user.setPreferredFirstName((String) value); break;
+		case EMAIL_ADDRESS: user.setEmailAddress((String) value); break;
+		case ADMIN_ROLE: user.setAdminRole((Boolean) value); break;
+		case ROLE1: user.setRole1User((Boolean) value); break;
+		case ROLE2: user.setRole2User((Boolean) value); break;
+		case STUDENT: user.setStudentUser((Boolean) value); break;
+		}
+	}
+	
+	
+	// The stored values of the roles among a user's changes, read before the changes are saved
+	// and locked until they are committed.  A role marked as changed may not differ from what is
+	// stored, e.g. when it was turned off and on again or the User was read before another save,
+	// so the counters are changed from these values rather than from the changes.  Empty when no
+	// role has changed or the user does not exist.
+	private Map<User.Field, Boolean> lockRoles(User user, Set<User.Field> fields)
+			throws SQLException {
+		Map<User.Field, Boolean> roles = new EnumMap<User.Field, Boolean>(User.Field.class);
+		if (!fields.contains(User.Field.ADMIN_ROLE) && !fields.contains(User.Field.ROLE1) &&
+				!fields.contains(User.Field.ROLE2) && !fields.contains(User.Field.STUDENT))
+			return roles;
+		String query = "SELECT adminRole, newRole1, newRole2, newStudent FROM userDB "
+				+ "WHERE userName = ? FOR UPDATE";
+		try (PreparedStatement pstmt = prepare("lockRoles", query)) {
+			pstmt.setString(1, user.getUserName());
+			try (ResultSet rs = pstmt.executeQuery()) {
+				if (!rs.next()) return roles;
+				roles.put(User.Field.ADMIN_ROLE, rs.getBoolean(1));
+				roles.put(User.Field.ROLE1, rs.getBoolean(2));
+				roles.put(User.Field.ROLE2, rs.getBoolean(3));
+				roles.put(User.Field.STUDENT, rs.getBoolean(4));
+			}
+		}
+		return roles;
+	}
+	
+	
+	// Count the roles a user's changes turn on or off, in the transaction that saves them, and
+	// record the saved values as the stored ones
+	private void adjustRoleCounters(User user, Set<User.Field> fields,
+			Map<User.Field, Boolean> before) throws SQLException {
+		for (User.Field field : fields) {
+			Boolean was = before.get(field);
+			Object value = value(user, field);
+			if (was == null || was.equals(value)) continue;
+			adjustCounter(COUNTER_USERS + "." + roleName(field), (Boolean) value ? 1 : -1);
+			before.put(field, (Boolean) value);
+		}
+	}
+	
+	
+	// Once a user's changes are committed: write them through to the cached account and clear
+	// them
+	private void changesSaved(User user, Set<User.Field> fields) {
+		userCache.update(user.getUserName(), cached -> {
+			for (User.Field field : fields) setValue(cached, field, value(user, field));
+		});
+		user.clearDirty();
+	}
+	
+	
+	// Copy a user's saved changes to the current user attributes, if it is the current user
+	private void currentUserChanged(User user, Set<User.Field> fields) {
+		if (user.getUserName().equals(currentUsername)) {
+			User current = new User(currentUsername, currentPassword, currentFirstName,
+					currentMiddleName, currentLastName, currentPreferredFirstName,
+					currentEmailAddress, currentAdminRole, currentNewRole1, currentNewRole2,
+					currentNewStudent);
+			for (User.Field field : fields) setValue(current, field, value(user, field));
+			currentPassword = current.getPassword();
+			currentFirstName = current.getFirstName();
+			currentMiddleName = current.getMiddleName();
+			currentLastName = current.getLastName();
+			currentPreferredFirstName = current.getPreferredFirstName();
+			currentEmailAddress = current.getEmailAddress();
+			currentAdminRole = current.getAdminRole();
+			currentNewRole1 = current.getNewRole1();
+			currentNewRole2 = current.getNewRole2();
+			currentNewStudent = current.getNewStudent();
+		}
+	}
+	
+	
 	public boolean userExistsByEmail(String emailAddress) {
-	    String q = "SELECT COUNT(*) FROM userDB WHERE emailAddress = ?";
-	    try (PreparedStatement ps = connection.prepareStatement(q)) {
+	    try (PreparedStatement ps = prepare("userExistsByEmail", SQL_USER_EXISTS_BY_EMAIL)) {
 	        ps.setString(1, emailAddress);
 	        ResultSet rs = ps.executeQuery();
 	        if (rs.next()) return rs.getInt(1) > 0;
@@ -885,8 +2292,7 @@ public class Database {
 
 	// Resolve username by email (handy for login flow / resets)
 	public String getUsernameByEmail(String emailAddress) {
-	    String q = "SELECT userName FROM userDB WHERE emailAddress = ? LIMIT 1";
-	    try (PreparedStatement ps = connection.prepareStatement(q)) {
+	    try (PreparedStatement ps = prepare("getUsernameByEmail", SQL_USERNAME_BY_EMAIL)) {
 	        ps.setString(1, emailAddress);
 	        ResultSet rs = ps.executeQuery();
 	        if (rs.next()) return rs.getString("userName");
@@ -899,9 +2305,7 @@ public class Database {
 	                                           String otp,
 	                                           long expiresAtEpochMillis,
 	                                           boolean mustResetOnNextLogin) {
-	    String q = "UPDATE userDB SET otp = ?, otpExpiresAt = ?, mustResetOnNextLogin = ? " +
-	               "WHERE emailAddress = ?";
-	    try (PreparedStatement ps = connection.prepareStatement(q)) {
+	    try (PreparedStatement ps = prepare("storeOneTimePasswordByEmail", SQL_STORE_OTP_BY_EMAIL)) {
 	        ps.setString(1, otp);                       // NOTE: for production, store a hash
 	        ps.setLong(2, expiresAtEpochMillis);
 	        ps.setBoolean(3, mustResetOnNextLogin);
@@ -913,26 +2317,30 @@ public class Database {
 
 	// Verify OTP by username and consume it (clear) if valid & not expired
 	public boolean verifyAndConsumeOtpByUsername(String userName, String otpCandidate) {
-	    String q = "SELECT otp, otpExpiresAt FROM userDB WHERE userName = ?";
-	    try (PreparedStatement ps = connection.prepareStatement(q)) {
-	        ps.setString(1, userName);
-	        ResultSet rs = ps.executeQuery();
-	        if (!rs.next()) return false;
-
-	        String otp = rs.getString("otp");
-	        long expiresAt = rs.getLong("otpExpiresAt");
-	        long now = System.currentTimeMillis();
+	    // The row is locked from the check to the clear, so a code can be used only once even
+	    // when two logins present it at the same time
+	    try {
+	        return inTransaction("verifyAndConsumeOtpByUsername", () -> {
+	            try (PreparedStatement ps = prepare("verifyAndConsumeOtpByUsername",
+	            		SQL_GET_OTP + " FOR UPDATE")) {
+	                ps.setString(1, userName);
+	                ResultSet rs = ps.executeQuery();
+	                if (!rs.next()) return false;
 
-	        if (otp != null && otp.equals(otpCandidate) && now <= expiresAt) {
+	                String otp = rs.getString("otp");
+	                long expiresAt = rs.getLong("otpExpiresAt");
+	                long now = System.currentTimeMillis();
+	                if (otp == null || !otp.equals(otpCandidate) || now > expiresAt) return false;
+	            }
 	            // clear OTP immediately so it cannot be reused
 	            String clear = "UPDATE userDB SET otp = NULL, otpExpiresAt = NULL WHERE userName = ?";
-	            try (PreparedStatement ps2 = connection.prepareStatement(clear)) {
+	            try (PreparedStatement ps2 = prepare("verifyAndConsumeOtpByUsername", clear)) {
 	                ps2.setString(1, userName);
 	                ps2.executeUpdate();
 	            }
 	            // keep mustResetOnNextLogin = true (set during admin action)
 	            return true;
-	        }
+	        });
 	    } catch (SQLException e) { e.printStackTrace(); }
 	    return false;
 	}
@@ -940,7 +2348,7 @@ public class Database {
 	// Force / clear the "must reset" flag
 	public boolean setMustResetOnNextLogin(String userName, boolean value) {
 	    String q = "UPDATE userDB SET mustResetOnNextLogin = ? WHERE userName = ?";
-	    try (PreparedStatement ps = connection.prepareStatement(q)) {
+	    try (PreparedStatement ps = prepare("setMustResetOnNextLogin", q)) {
 	        ps.setBoolean(1, value);
 	        ps.setString(2, userName);
 	        return ps.executeUpdate() == 1;
@@ -949,8 +2357,7 @@ public class Database {
 	}
 
 	public boolean isMustResetOnNextLogin(String userName) {
-	    String q = "SELECT mustResetOnNextLogin FROM userDB WHERE userName = ?";
-	    try (PreparedStatement ps = connection.prepareStatement(q)) {
+	    try (PreparedStatement ps = prepare("isMustResetOnNextLogin", SQL_IS_MUST_RESET)) {
 	        ps.setString(1, userName);
 	        ResultSet rs = ps.executeQuery();
 	        if (rs.next()) return rs.getBoolean(1);
@@ -961,10 +2368,12 @@ public class Database {
 	// Update the real password after OTP login
 	public boolean updatePassword(String userName, String newPassword) {
 	    String q = "UPDATE userDB SET password = ? WHERE userName = ?";
-	    try (PreparedStatement ps = connection.prepareStatement(q)) {
+	    try (PreparedStatement ps = prepare("updatePassword", q)) {
 	        ps.setString(1, newPassword);  // NOTE: store a hash in production
 	        ps.setString(2, userName);
-	        return ps.executeUpdate() == 1;
+	        boolean updated = ps.executeUpdate() == 1;
+	        userCache.update(userName, user -> user.setPassword(newPassword));
+	        return updated;
 	    } catch (SQLException e) { e.printStackTrace(); }
 	    return false;
 	}
@@ -982,124 +2391,146 @@ public class Database {
 	// get the attributes for a specified user
 
 	public boolean getUserAccountDetails(String username) {
-	    String query = "SELECT userName, password, firstName, middleName, lastName, preferredFirstName, "
-	                 + "emailAddress, adminRole, newRole1, newRole2, newStudent "
-	                 + "FROM userDB WHERE userName = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-	        pstmt.setString(1, username);
-	        ResultSet rs = pstmt.executeQuery();
+	    User user = findUser("getUserAccountDetails", username);
+	    if (user == null) return false;
 
-	        if (rs.next()) {
-	            currentUsername = rs.getString("userName");
-	            currentPassword = rs.getString("password");
-	            currentFirstName = rs.getString("firstName");
-	            currentMiddleName = rs.getString("middleName");
-	            currentLastName = rs.getString("lastName");
-	            currentPreferredFirstName = rs.getString("preferredFirstName");
-	            currentEmailAddress = rs.getString("emailAddress");
-	            currentAdminRole = rs.getBoolean("adminRole");
-	            currentNewRole1 = rs.getBoolean("newRole1");
-	            currentNewRole2 = rs.getBoolean("newRole2");
-	            currentNewStudent = rs.getBoolean("newStudent");
-
-	            // Optional debug line:
-	            System.out.println("*** Fetching account data for user: " + username);
-	            System.out.println("    Admin: " + currentAdminRole
-	                             + ", Role1: " + currentNewRole1
-	                             + ", Role2: " + currentNewRole2
-	                             + ", Student: " + currentNewStudent);
-	            return true;
-	        }
-	    } catch (SQLException e) {
-	        System.err.println("*** ERROR in getUserAccountDetails for user: " + username);
-	        e.printStackTrace();
-	    }
-	    return false;
+	    currentUsername = user.getUserName();
+	    currentPassword = user.getPassword();
+	    currentFirstName = user.getFirstName();
+	    currentMiddleName = user.getMiddleName();
+	    currentLastName = user.getLastName();
+	    currentPreferredFirstName = user.getPreferredFirstName();
+	    currentEmailAddress = user.getEmailAddress();
+	    currentAdminRole = user.getAdminRole();
+	    currentNewRole1 = user.getNewRole1();
+	    currentNewRole2 = user.getNewRole2();
+	    currentNewStudent = user.getNewStudent();
+
+	    // Optional debug line, built only when DEBUG is on for this class:
+	    log.debug(() -> "Fetching account data for user: " + username
+	                     + "; Admin: " + currentAdminRole
+	                     + ", Role1: " + currentNewRole1
+	                     + ", Role2: " + currentNewRole2
+	                     + ", Student: " + currentNewStudent);
+	    return true;
+	}
+	
+	
+	/*******
+	 * <p> Method: boolean updateUserRole(String username, String role, String value) </p>
+	 * 
+	 * <p> Description: Update a specified role for a specified user's and set and update all the
+	 * 		current user attributes.</p>
+	 * 
+	 * @param username is the username of the user
+	 *  
+	 * @param role is string that specifies the role to update
+	 * 
+	 * @param value is the string that specified TRUE or FALSE for the role
+	 * 
+	 * @return true if the update was successful, else false
+	 *  
+	 */
+	// Update a users role
+	public boolean updateUserRole(String username, String role, String value) {
+		boolean after = value.compareTo("true") == 0;
+		if (!setUserRole(username, role, after)) return false;
+		switch (role) {
+		case "Admin": currentAdminRole = after; break;
+		case "Role1": currentNewRole1 = after; break;
+		case "Role2": currentNewRole2 = after; break;
+		default: currentNewStudent = after; break;
+		}
+		return true;
+	}
+	
+	
+	/*******
+	 * <p> Method: boolean setUserRole(String username, String role, boolean after) </p>
+	 * 
+	 * <p> Description: updateUserRole without the current user attributes, for callers such as
+	 * the HTTP service.  The role and its counter are changed in one transaction.</p>
+	 * 
+	 * @param username is the username of the user
+	 *  
+	 * @param role is "Admin", "Role1", "Role2" or "Student"
+	 * 
+	 * @param after is whether the user is to have the role
+	 * 
+	 * @return true if the update was successful, else false
+	 *  
+	 */
+	public boolean setUserRole(String username, String role, boolean after) {
+		String column = roleColumn(role);
+		if (column == null) return false;
+		try {
+			// Read the role's present value first so the role counter changes only if the role
+			// does; the read locks the row until the counter has been changed too
+			inTransaction("updateUserRole", () -> {
+				Boolean before = null;
+				String query = "SELECT " + column + " FROM userDB WHERE userName = ? FOR UPDATE";
+				try (PreparedStatement pstmt = prepare("updateUserRole", query)) {
+					pstmt.setString(1, username);
+					ResultSet rs = pstmt.executeQuery();
+					if (rs.next()) before = rs.getBoolean(1);
+				}
+				query = "UPDATE userDB SET " + column + " = ? WHERE username = ?";
+				try (PreparedStatement pstmt = prepare("updateUserRole", query)) {
+					pstmt.setBoolean(1, after);
+					pstmt.setString(2, username);
+					pstmt.executeUpdate();
+				}
+				if (before != null && before != after)
+					adjustCounter(COUNTER_USERS + "." + role, after ? 1 : -1);
+				return null;
+			});
+		} catch (SQLException e) {
+			return false;
+		}
+		userCache.invalidate(username);
+		return true;
 	}
 	
 	
 	/*******
-	 * <p> Method: boolean updateUserRole(String username, String role, String value) </p>
+	 * <p> Method: Set&lt;String&gt; getUserRoles(String username) </p>
 	 * 
-	 * <p> Description: Update a specified role for a specified user's and set and update all the
-	 * 		current user attributes.</p>
+	 * <p> Description: The roles a user has now, read from the database rather than the user
+	 * cache, so a role just removed by another client is not reported.  The HTTP service checks
+	 * them on every request that needs a role.</p>
 	 * 
 	 * @param username is the username of the user
-	 *  
-	 * @param role is string that specifies the role to update
 	 * 
-	 * @param value is the string that specified TRUE or FALSE for the role
+	 * @return the names of the user's roles, as in ROLE_NAMES; empty if the user does not exist
 	 * 
-	 * @return true if the update was successful, else false
-	 *  
+	 * @throws SQLException when the roles cannot be read
 	 */
-	// Update a users role
-	public boolean updateUserRole(String username, String role, String value) {
-		if (role.compareTo("Admin") == 0) {
-			String query = "UPDATE userDB SET adminRole = ? WHERE username = ?";
-			try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-				pstmt.setString(1, value);
-				pstmt.setString(2, username);
-				pstmt.executeUpdate();
-				if (value.compareTo("true") == 0)
-					currentAdminRole = true;
-				else
-					currentAdminRole = false;
-				return true;
-			} catch (SQLException e) {
-				return false;
-			}
-		}
-		if (role.compareTo("Role1") == 0) {
-			String query = "UPDATE userDB SET newRole1 = ? WHERE username = ?";
-			try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-				pstmt.setString(1, value);
-				pstmt.setString(2, username);
-				pstmt.executeUpdate();
-				if (value.compareTo("true") == 0)
-					currentNewRole1 = true;
-				else
-					currentNewRole1 = false;
-				return true;
-			} catch (SQLException e) {
-				return false;
-			}
-		}
-		if (role.compareTo("Role2") == 0) {
-			String query = "UPDATE userDB SET newRole2 = ? WHERE username = ?";
-			try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-				pstmt.setString(1, value);
-				pstmt.setString(2, username);
-				pstmt.executeUpdate();
-				if (value.compareTo("true") == 0)
-					currentNewRole2 = true;
-				else
-					currentNewRole2 = false;
-				return true;
-			} catch (SQLException e) {
-				return false;
+	public Set<String> getUserRoles(String username) throws SQLException {
+		Set<String> roles = new LinkedHashSet<String>();
+		try (PreparedStatement pstmt = prepare("getUserRoles", SQL_GET_ROLES)) {
+			pstmt.setString(1, username);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				if (rs.next())
+					for (int i = 0; i < ROLE_NAMES.length; i++)
+						if (rs.getBoolean(i + 1)) roles.add(ROLE_NAMES[i]);
 			}
 		}
-		
-		if (role.compareTo("Student") == 0) {
-		    String query = "UPDATE userDB SET newStudent = ? WHERE username = ?";
-		    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-		        pstmt.setString(1, value);
-		        pstmt.setString(2, username);
-		        pstmt.executeUpdate();
-		        if (value.compareTo("true") == 0)
-		            currentNewStudent = true;
-		        else
-		            currentNewStudent = false;
-		        return true;
-		    } catch (SQLException e) {
-		        return false;
-		    }
+		return roles;
+	}
+	
+	
+	// The userDB column that holds a role, or null for an unknown role
+	private static String roleColumn(String role) {
+		switch (role) {
+		case "Admin": return "adminRole";
+		case "Role1": return "newRole1";
+		case "Role2": return "newRole2";
+		case "Student": return "newStudent";
+		default: return null;
 		}
-		
-		return false;
 	}
 	
+	
 	/** Returns true if a user with this username exists. */
 	public boolean userExists(String username) {
 	    // Reuse existing method to avoid duplication
@@ -1117,8 +2548,8 @@ public class Database {
 	    final String countAdminsSql = "SELECT COUNT(*) FROM userDB WHERE adminRole = TRUE";
 
 	    try (
-	        PreparedStatement isAdminStmt = connection.prepareStatement(isAdminSql);
-	        Statement countStmt = connection.createStatement()
+	        PreparedStatement isAdminStmt = prepare("isLastAdmin", isAdminSql);
+	        Statement countStmt = createStatement("isLastAdmin")
 	    ) {
 	        // Check whether target user is an admin
 	        isAdminStmt.setString(1, username);
@@ -1147,11 +2578,26 @@ public class Database {
 	 * @return true if a row was deleted; false otherwise.
 	 */
 	public boolean deleteUser(String username) {
-	    final String sql = "DELETE FROM userDB WHERE userName = ?";
-	    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-	        ps.setString(1, username);
-	        int rows = ps.executeUpdate();
-	        return rows > 0;
+	    // The roles of the deleted row come back from the delete itself, for the role counters
+	    final String sql = "SELECT adminRole, newRole1, newRole2, newStudent "
+	    		+ "FROM OLD TABLE (DELETE FROM userDB WHERE userName = ?)";
+	    try {
+	        int deleted = inTransaction("deleteUser", () -> {
+	            try (PreparedStatement ps = prepare("deleteUser", sql)) {
+	                ps.setString(1, username);
+	                ResultSet rs = ps.executeQuery();
+	                int rows = 0;
+	                while (rs.next()) {
+	                    rows++;
+	                    adjustUserCounters(new User(username, null, null, null, null, null, null,
+	                            rs.getBoolean(1), rs.getBoolean(2), rs.getBoolean(3),
+	                            rs.getBoolean(4)), -1);
+	                }
+	                return rows;
+	            }
+	        });
+	        userCache.invalidate(username);
+	        return deleted > 0;
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	        return false;
@@ -1164,7 +2610,7 @@ public class Database {
 	    final String sql = "SELECT userName, password, firstName, middleName, lastName, " +
 	            "preferredFirstName, emailAddress, adminRole, newRole1, newRole2, newStudent FROM userDB";
 	    
-	    try (java.sql.PreparedStatement ps = connection.prepareStatement(sql);
+	    try (java.sql.PreparedStatement ps = prepare("getAllUsersDetailed", sql);
 	         java.sql.ResultSet rs = ps.executeQuery()) {
 	        
 	        while (rs.next()) {
@@ -1191,6 +2637,620 @@ public class Database {
 	    return list;
 	}
 	
+	/*******
+	 * <p> Method: void savePost(Post post) </p>
+	 * 
+	 * <p> Description: Add a new post to the Posts table.</p>
+	 * 
+	 * @param post is the post to be stored
+	 * 
+	 * @throws SQLException when there is an issue creating the SQL command or executing it.
+	 * 
+	 */
+	public void savePost(Post post) throws SQLException {
+		String query = "INSERT INTO Posts (postId, authorUsername, title, content, thread, "
+				+ "createdAt, updatedAt, isDeleted, replyCount, hotScore) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+		double hotScore = HotPosts.eventScore(post.getCreatedAt(), 1 + post.getReplyCount());
+		// The post and its thread's summary are committed together
+		inTransaction("savePost", () -> {
+			try (PreparedStatement pstmt = prepare("savePost", query)) {
+				pstmt.setString(1, post.getPostId());
+				pstmt.setString(2, post.getAuthorUsername());
+				pstmt.setString(3, post.getTitle());
+				pstmt.setString(4, post.getContent());
+				pstmt.setString(5, post.getThread());
+				pstmt.setTimestamp(6, Timestamp.valueOf(post.getCreatedAt()));
+				pstmt.setTimestamp(7, Timestamp.valueOf(post.getUpdatedAt()));
+				pstmt.setBoolean(8, post.isDeleted());
+				pstmt.setInt(9, post.getReplyCount());
+				pstmt.setDouble(10, hotScore);
+				pstmt.executeUpdate();
+			}
+			adjustThreadSummary(post.getThread(), 1, post.isDeleted() ? 0 : 1,
+					post.getReplyCount(), post.getCreatedAt(), post.getAuthorUsername());
+			return null;
+		});
+		hotPosts.offer(post, hotScore);
+	}
+	
+	
+	/*******
+	 * <p> Method: List<Post> getAllPosts() </p>
+	 * 
+	 * <p> Description: Read every post, including soft deleted ones, in the order they were
+	 * created.</p>
+	 * 
+	 * @return a list of all the posts in the Posts table
+	 * 
+	 * @throws SQLException when there is an issue creating the SQL command or executing it.
+	 * 
+	 */
+	public List<Post> getAllPosts() throws SQLException {
+		List<Post> posts = new ArrayList<Post>();
+		String query = "SELECT postId, authorUsername, title, content, thread, createdAt, "
+				+ "updatedAt, isDeleted, replyCount FROM Posts ORDER BY createdAt";
+		try (PreparedStatement pstmt = prepare("getAllPosts", query);
+				ResultSet rs = pstmt.executeQuery()) {
+			while (rs.next()) {
+				posts.add(postFromRow(rs));
+			}
+		}
+		return posts;
+	}
+	
+	
+	// Rebuild a Post entity object from the current row of a query on the Posts table
+	private Post postFromRow(ResultSet rs) throws SQLException {
+		Post post = new Post();
+		post.__setPostId(rs.getString("postId"));
+		post.setAuthorUsername(rs.getString("authorUsername"));
+		post.setTitle(rs.getString("title"));
+		post.setContent(rs.getString("content"));
+		post.setThread(rs.getString("thread"));
+		post.__setCreatedAt(rs.getTimestamp("createdAt").toLocalDateTime());
+		post.__setUpdatedAt(rs.getTimestamp("updatedAt").toLocalDateTime());
+		post.__setDeleted(rs.getBoolean("isDeleted"));
+		post.__setReplyCount(rs.getInt("replyCount"));
+		return post;
+	}
+	
+	
+	/*******
+	 * <p> Method: void markPostDeleted(String postId) </p>
+	 * 
+	 * <p> Description: Soft delete a post.  The row is kept so its replies can still show that
+	 * the original post was deleted.  The post's thread summary counts one active post fewer.
+	 * Deleting a post that is already deleted changes nothing.</p>
+	 * 
+	 * @param postId is the ID of the post to be marked as deleted
+	 * 
+	 * @throws SQLException when there is an issue creating the SQL command or executing it.
+	 * 
+	 */
+	public void markPostDeleted(String postId) throws SQLException {
+		String query = "SELECT thread FROM FINAL TABLE (UPDATE Posts SET isDeleted = TRUE, "
+				+ "updatedAt = ? WHERE postId = ? AND isDeleted = FALSE)";
+		inTransaction("markPostDeleted", () -> {
+			try (PreparedStatement pstmt = prepare("markPostDeleted", query)) {
+				pstmt.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
+				pstmt.setString(2, postId);
+				try (ResultSet rs = pstmt.executeQuery()) {
+					if (rs.next()) adjustThreadSummary(rs.getString(1), 0, -1, 0, null, null);
+				}
+			}
+			return null;
+		});
+		hotPosts.remove(postId);
+	}
+	
+	
+	/*******
+	 * <p> Method: void saveReply(String replyId, String postId, String username, String content)
+	 * </p>
+	 * 
+	 * <p> Description: Add a new reply to the Replies table.</p>
+	 * 
+	 * @param replyId is the ID of the new reply
+	 * 
+	 * @param postId is the ID of the post being replied to
+	 * 
+	 * @param username is the username of the author of the reply
+	 * 
+	 * @param content is the text of the reply
+	 * 
+	 * @throws SQLException when there is an issue creating the SQL command or executing it.
+	 * 
+	 */
+	public void saveReply(String replyId, String postId, String username, String content) 
+			throws SQLException {
+		String query = "INSERT INTO Replies (replyId, postId, authorUsername, content, createdAt) "
+				+ "VALUES (?, ?, ?, ?, ?)";
+		try (PreparedStatement pstmt = prepare("saveReply", query)) {
+			pstmt.setString(1, replyId);
+			pstmt.setString(2, postId);
+			pstmt.setString(3, username);
+			pstmt.setString(4, content);
+			pstmt.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+			pstmt.executeUpdate();
+		}
+	}
+	
+	
+	/*******
+	 * <p> Method: int addReply(String replyId, String postId, String username, String content)
+	 * </p>
+	 * 
+	 * <p> Description: Add a reply to an active post and count it, in one transaction.  The
+	 * count is raised by the database (replyCount = replyCount + 1) rather than written back from
+	 * a copy of the post, so replies made at the same time are all counted.  The increment comes
+	 * first: it locks the post's row, so a reply is never saved for a post that is being deleted,
+	 * and it is the only row of the Posts table this reads or writes.  The same statement adds the
+	 * reply to the post's hot score, and the post is offered to the HotPosts lists once the reply
+	 * is saved.  The reply is also counted in the post's thread summary.</p>
+	 * 
+	 * @param replyId is the ID of the new reply
+	 * 
+	 * @param postId is the ID of the post being replied to
+	 * 
+	 * @param username is the username of the author of the reply
+	 * 
+	 * @param content is the text of the reply
+	 * 
+	 * @return the post's reply count including this reply, or 0 if there is no active post with
+	 *		that ID, in which case nothing is saved
+	 * 
+	 * @throws SQLException when there is an issue creating the SQL command or executing it.
+	 * 
+	 */
+	public int addReply(String replyId, String postId, String username, String content)
+			throws SQLException {
+		// The new hot score is the log of the sum of the old score's and the reply's weights
+		String query = "SELECT replyCount, hotScore, threadKey, thread FROM FINAL TABLE ("
+				+ "UPDATE Posts SET replyCount = replyCount + 1, "
+				+ "hotScore = GREATEST(hotScore, ?) + LN(1 + EXP(-ABS(hotScore - ?))) "
+				+ "WHERE postId = ? AND isDeleted = FALSE)";
+		double replyScore = HotPosts.eventScore(LocalDateTime.now(), 1);
+		Post[] hot = new Post[1];
+		double[] hotScore = new double[1];
+		int replyCount = inTransaction("addReply", () -> {
+			int count;
+			String threadKey;
+			String thread;
+			hot[0] = null;
+			try (PreparedStatement pstmt = prepare("addReply", query)) {
+				pstmt.setDouble(1, replyScore);
+				pstmt.setDouble(2, replyScore);
+				pstmt.setString(3, postId);
+				try (ResultSet rs = pstmt.executeQuery()) {
+					if (!rs.next()) return 0;
+					count = rs.getInt(1);
+					hotScore[0] = rs.getDouble(2);
+					threadKey = rs.getString(3);
+					thread = rs.getString(4);
+				}
+			}
+			saveReply(replyId, postId, username, content);
+			adjustThreadSummary(thread, 0, 0, 1, LocalDateTime.now(), username);
+			// The post is only read when it is, or now belongs, on a hot list
+			if (hotPosts.wants(threadKey, postId, hotScore[0])) hot[0] = getPost(postId);
+			return count;
+		});
+		if (hot[0] != null) hotPosts.offer(hot[0], hotScore[0]);
+		return replyCount;
+	}
+	
+	
+	/*******
+	 * <p> Method: List<Post> getHotPosts(String thread) </p>
+	 * 
+	 * <p> Description: The hottest active posts, overall or in one thread, from the HotPosts
+	 * lists.  A list that is not held or not current is read through the hot-score indexes,
+	 * which takes one short index scan rather than a sort of every post.</p>
+	 * 
+	 * @param thread is the thread, compared without regard to case, or null or blank for all
+	 *		threads
+	 * 
+	 * @return up to HotPosts.TOP_K posts, hottest first
+	 * 
+	 * @throws SQLException when there is an issue creating the SQL command or executing it.
+	 * 
+	 */
+	public List<Post> getHotPosts(String thread) throws SQLException {
+		String threadKey = HotPosts.threadKey(thread);
+		List<Post> posts = hotPosts.get(threadKey);
+		if (posts != null) return posts;
+		
+		String columns = "SELECT postId, authorUsername, title, content, thread, createdAt, "
+				+ "updatedAt, isDeleted, replyCount, hotScore FROM Posts ";
+		String query = threadKey == null
+				? columns + "WHERE isDeleted = FALSE ORDER BY hotScore DESC FETCH FIRST ? ROWS ONLY"
+				: columns + "WHERE threadKey = ? AND isDeleted = FALSE ORDER BY hotScore DESC "
+						+ "FETCH FIRST ? ROWS ONLY";
+		posts = new ArrayList<Post>();
+		List<Double> scores = new ArrayList<Double>();
+		try (PreparedStatement pstmt = prepare("getHotPosts", query)) {
+			int parameter = 1;
+			if (threadKey != null) pstmt.setString(parameter++, threadKey);
+			pstmt.setInt(parameter, HotPosts.TOP_K);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				while (rs.next()) {
+					posts.add(postFromRow(rs));
+					scores.add(rs.getDouble("hotScore"));
+				}
+			}
+		}
+		hotPosts.load(threadKey, posts, scores);
+		return posts;
+	}
+	
+	
+	/*******
+	 * <p> Method: List<ThreadSummary> getThreadSummaries() </p>
+	 * 
+	 * <p> Description: The summary of every thread, the most recently active first.  Only the
+	 * ThreadSummaries table is read, one row per thread, however many posts there are.</p>
+	 * 
+	 * @return the summaries, empty if there are no posts yet
+	 * 
+	 * @throws SQLException when there is an issue creating the SQL command or executing it.
+	 * 
+	 */
+	public List<ThreadSummary> getThreadSummaries() throws SQLException {
+		List<ThreadSummary> summaries = new ArrayList<ThreadSummary>();
+		String query = "SELECT thread, postCount, activeCount, replyCount, lastActivity, "
+				+ "lastAuthor FROM ThreadSummaries ORDER BY lastActivity DESC NULLS LAST, threadKey";
+		try (PreparedStatement pstmt = prepare("getThreadSummaries", query);
+				ResultSet rs = pstmt.executeQuery()) {
+			while (rs.next()) {
+				Timestamp lastActivity = rs.getTimestamp("lastActivity");
+				summaries.add(new ThreadSummary(rs.getString("thread"), rs.getLong("postCount"),
+						rs.getLong("activeCount"), rs.getLong("replyCount"),
+						lastActivity == null ? null : lastActivity.toLocalDateTime(),
+						rs.getString("lastAuthor")));
+			}
+		}
+		return summaries;
+	}
+	
+	
+	/*******
+	 * <p> Method: boolean postExists(String postId) </p>
+	 * 
+	 * <p> Description: Whether a post, deleted or not, has been saved.</p>
+	 * 
+	 * @param postId is the ID of the post
+	 * 
+	 * @return true if the Posts table has the post
+	 * 
+	 * @throws SQLException when there is an issue creating the SQL command or executing it.
+	 * 
+	 */
+	public boolean postExists(String postId) throws SQLException {
+		String query = "SELECT 1 FROM Posts WHERE postId = ?";
+		try (PreparedStatement pstmt = prepare("postExists", query)) {
+			pstmt.setString(1, postId);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				return rs.next();
+			}
+		}
+	}
+	
+	
+	/*******
+	 * <p> Method: boolean replyExists(String replyId) </p>
+	 * 
+	 * <p> Description: Whether a reply has been saved.</p>
+	 * 
+	 * @param replyId is the ID of the reply
+	 * 
+	 * @return true if the Replies table has the reply
+	 * 
+	 * @throws SQLException when there is an issue creating the SQL command or executing it.
+	 * 
+	 */
+	public boolean replyExists(String replyId) throws SQLException {
+		String query = "SELECT 1 FROM Replies WHERE replyId = ?";
+		try (PreparedStatement pstmt = prepare("replyExists", query)) {
+			pstmt.setString(1, replyId);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				return rs.next();
+			}
+		}
+	}
+	
+	
+	/*******
+	 * <p> Method: void submitPost(Post post) </p>
+	 * 
+	 * <p> Description: Save a new post, through the write-behind queue when it is on and
+	 * directly otherwise.  When queued, the post is in the queue's journal on return and is
+	 * committed shortly after.</p>
+	 * 
+	 * @param post is the post to be stored
+	 * 
+	 * @throws SQLException when the post cannot be saved or queued, e.g. an SQLTransientException
+	 *		when the queue stays full
+	 * 
+	 */
+	public void submitPost(Post post) throws SQLException {
+		WriteBehindQueue queue = writeBehind;
+		if (queue == null) {
+			savePost(post);
+			return;
+		}
+		queue.submit(WriteBehindQueue.CREATE_POST, post.getPostId(), post.getAuthorUsername(),
+				post.getTitle(), post.getContent(), post.getThread(), post.getCreatedAt().toString(),
+				post.getUpdatedAt().toString(), Integer.toString(post.getReplyCount()));
+	}
+	
+	
+	/*******
+	 * <p> Method: void submitPostDeleted(String postId) </p>
+	 * 
+	 * <p> Description: The same as markPostDeleted, through the write-behind queue when it is
+	 * on.</p>
+	 * 
+	 * @param postId is the ID of the post to be marked as deleted
+	 * 
+	 * @throws SQLException when the change cannot be saved or queued
+	 * 
+	 */
+	public void submitPostDeleted(String postId) throws SQLException {
+		WriteBehindQueue queue = writeBehind;
+		if (queue == null) markPostDeleted(postId);
+		else queue.submit(WriteBehindQueue.DELETE_POST, postId);
+	}
+	
+	
+	/*******
+	 * <p> Method: int submitReply(String replyId, String postId, String username, String content)
+	 * </p>
+	 * 
+	 * <p> Description: The same as addReply, through the write-behind queue when it is on.  A
+	 * queued reply is only accepted for an active post; a post that is itself still queued is
+	 * saved first so it can be found.</p>
+	 * 
+	 * @param replyId is the ID of the new reply
+	 * 
+	 * @param postId is the ID of the post being replied to
+	 * 
+	 * @param username is the username of the author of the reply
+	 * 
+	 * @param content is the text of the reply
+	 * 
+	 * @return the post's reply count including this reply, REPLY_QUEUED if the reply was queued,
+	 *		or 0 if there is no active post with that ID
+	 * 
+	 * @throws SQLException when the reply cannot be saved or queued
+	 * 
+	 */
+	public int submitReply(String replyId, String postId, String username, String content)
+			throws SQLException {
+		WriteBehindQueue queue = writeBehind;
+		if (queue == null) return addReply(replyId, postId, username, content);
+		Post post = getPost(postId);
+		if (post == null && queue.getDepth() > 0) {
+			queue.flush(WriteBehindQueue.CLOSE_TIMEOUT_MILLIS);
+			post = getPost(postId);
+		}
+		if (post == null || post.isDeleted()) return 0;
+		queue.submit(WriteBehindQueue.CREATE_REPLY, replyId, postId, username, content);
+		return REPLY_QUEUED;
+	}
+	
+	
+	/*******
+	 * <p> Method: boolean flushWrites() </p>
+	 * 
+	 * <p> Description: Wait until every post and reply queued so far has been committed, e.g.
+	 * before logging out or quitting, or before reading the posts back.  Returns at once when the
+	 * write-behind queue is off.</p>
+	 * 
+	 * @return true if the writes were committed, false if they were still queued after
+	 *		WriteBehindQueue.CLOSE_TIMEOUT_MILLIS
+	 * 
+	 */
+	public boolean flushWrites() {
+		WriteBehindQueue queue = writeBehind;
+		return queue == null || queue.flush(WriteBehindQueue.CLOSE_TIMEOUT_MILLIS);
+	}
+	
+	
+	/*******
+	 * <p> Method: WriteBehindQueue getWriteBehindQueue() </p>
+	 * 
+	 * <p> Description: The write-behind queue, e.g. for the metrics page.</p>
+	 * 
+	 * @return the queue, or null when writes are made directly
+	 * 
+	 */
+	public WriteBehindQueue getWriteBehindQueue() {
+		return writeBehind;
+	}
+	
+	
+	/*******
+	 * <p> Method: List<String> getRepliesForPost(String postId) </p>
+	 * 
+	 * <p> Description: Get a displayable summary of each active reply to a post, oldest first.
+	 * If the post itself has been deleted, each summary says so.</p>
+	 * 
+	 * @param postId is the ID of the post
+	 * 
+	 * @return a list of reply summaries, empty if the post has no replies
+	 * 
+	 * @throws SQLException when there is an issue creating the SQL command or executing it.
+	 * 
+	 */
+	public List<String> getRepliesForPost(String postId) throws SQLException {
+		List<String> replies = new ArrayList<String>();
+		String query = "SELECT r.replyId, r.authorUsername, r.content, r.createdAt, p.isDeleted "
+				+ "AS postDeleted FROM Replies r LEFT JOIN Posts p ON p.postId = r.postId "
+				+ "WHERE r.postId = ? AND r.isDeleted = FALSE ORDER BY r.createdAt";
+		try (PreparedStatement pstmt = prepare("getRepliesForPost", query)) {
+			pstmt.setString(1, postId);
+			ResultSet rs = pstmt.executeQuery();
+			while (rs.next()) {
+				StringBuilder sb = new StringBuilder();
+				sb.append("Reply ID: ").append(rs.getString("replyId")).append("\n");
+				sb.append("By: ").append(rs.getString("authorUsername")).append("\n");
+				sb.append("At: ").append(rs.getTimestamp("createdAt").toLocalDateTime()
+						.format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
+						.append("\n");
+				if (rs.getBoolean("postDeleted")) sb.append(" Original Post Deleted\n");
+				sb.append("\n").append(rs.getString("content"));
+				replies.add(sb.toString());
+			}
+		}
+		return replies;
+	}
+
+
+	/*******
+	 * <p> Method: List<Reply> getReplies(String postId) </p>
+	 *
+	 * <p> Description: Read the active replies to a post as entity objects, oldest first.  This
+	 * is the structured counterpart of getRepliesForPost for callers that do their own
+	 * formatting, such as the HTTP service.</p>
+	 *
+	 * @param postId is the ID of the post
+	 *
+	 * @return a list of replies, empty if the post has no replies
+	 *
+	 * @throws SQLException when there is an issue creating the SQL command or executing it.
+	 *
+	 */
+	public List<Reply> getReplies(String postId) throws SQLException {
+		List<Reply> replies = new ArrayList<Reply>();
+		String query = "SELECT r.replyId, r.authorUsername, r.content, r.createdAt, p.isDeleted "
+				+ "AS postDeleted FROM Replies r LEFT JOIN Posts p ON p.postId = r.postId "
+				+ "WHERE r.postId = ? AND r.isDeleted = FALSE ORDER BY r.createdAt";
+		try (PreparedStatement pstmt = prepare("getReplies", query)) {
+			pstmt.setString(1, postId);
+			ResultSet rs = pstmt.executeQuery();
+			while (rs.next()) {
+				Reply reply = new Reply(postId, rs.getString("authorUsername"),
+						rs.getString("content"));
+				reply.__setReplyId(rs.getString("replyId"));
+				reply.__setCreatedAt(rs.getTimestamp("createdAt").toLocalDateTime());
+				reply.__setUpdatedAt(rs.getTimestamp("createdAt").toLocalDateTime());
+				reply.setOriginalPostDeleted(rs.getBoolean("postDeleted"));
+				replies.add(reply);
+			}
+		}
+		return replies;
+	}
+
+
+	/*******
+	 * <p> Method: Post getPost(String postId) </p>
+	 *
+	 * <p> Description: Read a single post, deleted or not.</p>
+	 *
+	 * @param postId is the ID of the post
+	 *
+	 * @return the post, or null if there is no post with that ID
+	 *
+	 * @throws SQLException when there is an issue creating the SQL command or executing it.
+	 *
+	 */
+	public Post getPost(String postId) throws SQLException {
+		String query = "SELECT postId, authorUsername, title, content, thread, createdAt, "
+				+ "updatedAt, isDeleted, replyCount FROM Posts WHERE postId = ?";
+		try (PreparedStatement pstmt = prepare("getPost", query)) {
+			pstmt.setString(1, postId);
+			ResultSet rs = pstmt.executeQuery();
+			return rs.next() ? postFromRow(rs) : null;
+		}
+	}
+
+
+	/*******
+	 * <p> Method: List<Post> searchPosts(String keyword) </p>
+	 *
+	 * <p> Description: Find the active posts whose title or content contains the keyword,
+	 * ignoring case.  This applies the same rules as PostCollection.searchPosts, but in the
+	 * database, so the caller does not have to load every post to search them.</p>
+	 *
+	 * @param keyword is the text to look for; it must be at least two characters long
+	 *
+	 * @return the matching posts in the order they were created
+	 *
+	 * @throws SQLException when there is an issue creating the SQL command or executing it.
+	 *
+	 * @throws IllegalArgumentException when the keyword is missing or too short
+	 *
+	 */
+	public List<Post> searchPosts(String keyword) throws SQLException {
+		if (keyword == null || keyword.trim().length() < 2)
+			throw new IllegalArgumentException("Search keyword must be at least 2 characters long.");
+
+		// Escape the LIKE wildcards so they are matched literally
+		String pattern = "%" + escapeLike(keyword.trim().toLowerCase()) + "%";
+		List<Post> posts = new ArrayList<Post>();
+		String query = "SELECT postId, authorUsername, title, content, thread, createdAt, "
+				+ "updatedAt, isDeleted, replyCount FROM Posts WHERE isDeleted = FALSE AND "
+				+ "(LOWER(title) LIKE ? ESCAPE '\\' OR LOWER(content) LIKE ? ESCAPE '\\') "
+				+ "ORDER BY createdAt";
+		try (PreparedStatement pstmt = prepare("searchPosts", query)) {
+			pstmt.setString(1, pattern);
+			pstmt.setString(2, pattern);
+			ResultSet rs = pstmt.executeQuery();
+			while (rs.next()) {
+				posts.add(postFromRow(rs));
+			}
+		}
+		return posts;
+	}
+
+
+	/*******
+	 * <p> Method: User getUser(String username) </p>
+	 *
+	 * <p> Description: Read a user's account as an entity object.  Unlike getUserAccountDetails,
+	 * this does not touch the "current user" attributes, so it is safe to call for many users
+	 * at once (e.g., from the HTTP service).</p>
+	 *
+	 * @param username is the username of the user
+	 *
+	 * @return the user, or null if there is no such user
+	 *
+	 */
+	public User getUser(String username) {
+		return findUser("getUser", username);
+	}
+
+
+	/*
+	 * Read a user's account, from the user cache if it was read recently enough, else from userDB.
+	 * The operation names the statement's metrics after the public method that asked.  Returns
+	 * null if there is no such user or the read failed.
+	 */
+	private User findUser(String operation, String username) {
+		User user = userCache.get(username);
+		if (user != null) return user;
+
+		long stamp = userCache.stamp();
+		try (PreparedStatement pstmt = prepare(operation, SQL_FIND_USER)) {
+			pstmt.setString(1, username);
+			ResultSet rs = pstmt.executeQuery();
+			if (!rs.next()) return null;
+			user = new User(rs.getString("userName"), rs.getString("password"),
+					rs.getString("firstName"), rs.getString("middleName"),
+					rs.getString("lastName"), rs.getString("preferredFirstName"),
+					rs.getString("emailAddress"), rs.getBoolean("adminRole"),
+					rs.getBoolean("newRole1"), rs.getBoolean("newRole2"),
+					rs.getBoolean("newStudent"));
+		} catch (SQLException e) {
+			log.error(operation + " failed for user: " + username, e);
+			return null;
+		}
+		userCache.put(user, stamp);
+		return user;
+	}
+
+
 	// Attribute getters for the current user
 	/*******
 	 * <p> Method: String getCurrentUsername() </p>
@@ -1345,6 +3405,27 @@ public class Database {
 	 */
 	// Closes the database statement and connection.
 	public void closeConnection() {
+		WriteBehindQueue queue = writeBehind;
+		if (queue != null) {
+			writeBehind = null;		// Later writes are made directly
+			queue.close();			// Before the pool its writer uses
+			MetricsRegistry.removeGauge("db.writeBehind.depth");
+		}
+		if (invitationPurgeJob != null) invitationPurgeJob.stop();
+		if (databaseServer != null) databaseServer.stop();
+		if (slowQueryLog != null) slowQueryLog.close();	// Before the pool its EXPLAINs use
+		if (connectionPool != null) {
+			connectionPool.close();
+			MetricsRegistry.removeGauge("db.pool.size");
+			MetricsRegistry.removeGauge("db.pool.inUse");
+			MetricsRegistry.removeGauge("db.pool.waiting");
+		}
+		MetricsRegistry.removeGauge("db.userCache.size");
+		MetricsRegistry.removeGauge("db.userCache.hits");
+		MetricsRegistry.removeGauge("db.userCache.misses");
+		MetricsRegistry.removeGauge("db.userCache.evictions");
+		userCache.clear();
+		hotPosts.clear();
 		try{ 
 			if(statement!=null) statement.close(); 
 		} catch(SQLException se2) { 
@@ -0,0 +1,416 @@
+package database;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+
+/*******
+ * <p> Title: DatabaseConfig Class. </p>
+ *
+ * <p> Description: The storage settings used by the Database class: the JDBC URL, the credentials
+ * and the H2 engine options (cache size, lock timeout, write delay and compression).  These used to
+ * be constants in the Database class, so there was no way to tune H2 or to point a benchmark at an
+ * in-memory database without editing the code.
+ *
+ * Settings are resolved in this order, each layer overriding the one before it:</p>
+ * <ol>
+ * <li> the built-in defaults, which match the application's original behaviour </li>
+ * <li> the named profile, if one is selected </li>
+ * <li> the properties file "foundations-db.properties" in the working directory, or the file
+ * named by the system property "foundations.db.config" </li>
+ * <li> environment variables, e.g. FOUNDATIONS_DB_URL or FOUNDATIONS_DB_CACHE_SIZE_KB </li>
+ * <li> system properties, e.g. -Dfoundations.db.url=... or -Dfoundations.db.cacheSizeKb=... </li>
+ * </ol>
+ *
+ * <p> The profile itself is chosen with the key "profile" in any of the last three layers.  Known
+ * profiles are "durable-prod", "in-memory-bench" and "low-memory".</p>
+ *
+ * <p> The key "mode" decides how the database is shared between copies of the application:</p>
+ * <ul>
+ * <li> "embedded" (the default) opens the file directly, so only one process can use it </li>
+ * <li> "auto-server" lets H2 decide: the first process opens the file and starts a server, and
+ * later processes connect to it automatically </li>
+ * <li> "server" opens the file and hosts it on serverPort for other processes </li>
+ * <li> "client" connects to the process hosting the database on serverHost:serverPort </li>
+ * </ul>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-22 Initial version
+ * @version 1.01		2025-10-23 Sharing modes for running several clients against one database
+ * @version 1.02		2025-10-25 Connection pool size and acquire timeout
+ * @version 1.03		2025-10-26 Slow-query threshold and log file
+ * @version 1.04		2025-10-27 User cache size and time to live
+ * @version 1.05		2025-10-27 Write-behind queue for posts and replies
+ *
+ */
+
+public class DatabaseConfig {
+
+	// The names of the supported profiles
+	public static final String PROFILE_DEFAULT = "default";
+	public static final String PROFILE_DURABLE_PROD = "durable-prod";
+	public static final String PROFILE_IN_MEMORY_BENCH = "in-memory-bench";
+	public static final String PROFILE_LOW_MEMORY = "low-memory";
+
+	// The names of the supported sharing modes
+	public static final String MODE_EMBEDDED = "embedded";
+	public static final String MODE_AUTO_SERVER = "auto-server";
+	public static final String MODE_SERVER = "server";
+	public static final String MODE_CLIENT = "client";
+
+	// The setting keys.  The system property for a key is "foundations.db." + key and the environment
+	// variable is "FOUNDATIONS_DB_" + the key in upper case with underscores between words.
+	public static final String KEY_PROFILE = "profile";
+	public static final String KEY_URL = "url";
+	public static final String KEY_USER = "user";
+	public static final String KEY_PASSWORD = "password";
+	public static final String KEY_CACHE_SIZE_KB = "cacheSizeKb";
+	public static final String KEY_LOCK_TIMEOUT_MS = "lockTimeoutMs";
+	public static final String KEY_WRITE_DELAY_MS = "writeDelayMs";
+	public static final String KEY_COMPRESS = "compress";
+	public static final String KEY_MODE = "mode";
+	public static final String KEY_SERVER_HOST = "serverHost";
+	public static final String KEY_SERVER_PORT = "serverPort";
+	public static final String KEY_SERVER_ALLOW_OTHERS = "serverAllowOthers";
+	public static final String KEY_CONNECT_RETRIES = "connectRetries";
+	public static final String KEY_RETRY_BACKOFF_MS = "retryBackoffMs";
+	public static final String KEY_POOL_SIZE = "poolSize";
+	public static final String KEY_POOL_TIMEOUT_MS = "poolTimeoutMs";
+	public static final String KEY_SLOW_QUERY_MS = "slowQueryMs";
+	public static final String KEY_SLOW_QUERY_LOG = "slowQueryLog";
+	public static final String KEY_USER_CACHE_SIZE = "userCacheSize";
+	public static final String KEY_USER_CACHE_TTL_MS = "userCacheTtlMs";
+	public static final String KEY_WRITE_BEHIND = "writeBehind";
+	public static final String KEY_WRITE_BEHIND_QUEUE = "writeBehindQueue";
+	public static final String KEY_WRITE_BEHIND_FLUSH_MS = "writeBehindFlushMs";
+	public static final String KEY_WRITE_BEHIND_JOURNAL = "writeBehindJournal";
+
+	private static final String[] KEYS = {KEY_PROFILE, KEY_URL, KEY_USER, KEY_PASSWORD,
+			KEY_CACHE_SIZE_KB, KEY_LOCK_TIMEOUT_MS, KEY_WRITE_DELAY_MS, KEY_COMPRESS, KEY_MODE,
+			KEY_SERVER_HOST, KEY_SERVER_PORT, KEY_SERVER_ALLOW_OTHERS, KEY_CONNECT_RETRIES,
+			KEY_RETRY_BACKOFF_MS, KEY_POOL_SIZE, KEY_POOL_TIMEOUT_MS, KEY_SLOW_QUERY_MS,
+			KEY_SLOW_QUERY_LOG, KEY_USER_CACHE_SIZE, KEY_USER_CACHE_TTL_MS, KEY_WRITE_BEHIND,
+			KEY_WRITE_BEHIND_QUEUE, KEY_WRITE_BEHIND_FLUSH_MS, KEY_WRITE_BEHIND_JOURNAL};
+
+	private static final String SYSTEM_PROPERTY_PREFIX = "foundations.db.";
+	private static final String ENVIRONMENT_PREFIX = "FOUNDATIONS_DB_";
+	private static final String CONFIG_FILE_PROPERTY = "foundations.db.config";
+	private static final String DEFAULT_CONFIG_FILE = "foundations-db.properties";
+
+	private final Properties settings = new Properties();
+
+	/*******
+	 * <p> Method: DatabaseConfig() </p>
+	 *
+	 * <p> Description: A configuration holding only the built-in defaults.  Use load() or
+	 * forProfile() to obtain a configuration for actual use.</p>
+	 */
+	public DatabaseConfig() {
+		settings.setProperty(KEY_PROFILE, PROFILE_DEFAULT);
+		settings.setProperty(KEY_URL, "jdbc:h2:~/FoundationDatabase");
+		settings.setProperty(KEY_USER, "sa");
+		settings.setProperty(KEY_PASSWORD, "");
+		settings.setProperty(KEY_MODE, MODE_EMBEDDED);
+		settings.setProperty(KEY_SERVER_HOST, "localhost");
+		settings.setProperty(KEY_SERVER_PORT, Integer.toString(DatabaseServer.DEFAULT_PORT));
+		settings.setProperty(KEY_CONNECT_RETRIES, "4");
+		settings.setProperty(KEY_RETRY_BACKOFF_MS, "250");
+		settings.setProperty(KEY_POOL_SIZE, "10");
+		settings.setProperty(KEY_POOL_TIMEOUT_MS, "30000");
+		settings.setProperty(KEY_SLOW_QUERY_MS, "100");
+		settings.setProperty(KEY_SLOW_QUERY_LOG, "FoundationSlowQueries.log");
+		settings.setProperty(KEY_USER_CACHE_SIZE, "1000");
+		settings.setProperty(KEY_USER_CACHE_TTL_MS, "60000");
+		settings.setProperty(KEY_WRITE_BEHIND, "false");
+		settings.setProperty(KEY_WRITE_BEHIND_QUEUE, "1000");
+		settings.setProperty(KEY_WRITE_BEHIND_FLUSH_MS, "50");
+		settings.setProperty(KEY_WRITE_BEHIND_JOURNAL, "FoundationWriteBehind.journal");
+	}
+
+	/*******
+	 * <p> Method: DatabaseConfig load() </p>
+	 *
+	 * <p> Description: Resolve the configuration from the properties file, the environment and the
+	 * system properties, applying the selected profile underneath them.</p>
+	 *
+	 * @return the effective configuration
+	 *
+	 * @throws IllegalArgumentException when a profile name or a numeric setting is not valid
+	 */
+	public static DatabaseConfig load() {
+		Properties external = new Properties();
+		readConfigFile(external);
+		for (String key : KEYS) {
+			String value = System.getenv(environmentName(key));
+			if (value != null) external.setProperty(key, value);
+		}
+		for (String key : KEYS) {
+			String value = System.getProperty(SYSTEM_PROPERTY_PREFIX + key);
+			if (value != null) external.setProperty(key, value);
+		}
+
+		DatabaseConfig config = forProfile(external.getProperty(KEY_PROFILE, PROFILE_DEFAULT));
+		for (String key : external.stringPropertyNames())
+			if (!key.equals(KEY_PROFILE)) config.set(key, external.getProperty(key));
+		return config;
+	}
+
+	/*******
+	 * <p> Method: DatabaseConfig forProfile(String profile) </p>
+	 *
+	 * <p> Description: The built-in defaults with the named profile applied, ignoring any external
+	 * settings.  Benchmarks use this so a stray properties file cannot change what they measure.</p>
+	 *
+	 * @param profile is one of the PROFILE_ names
+	 *
+	 * @return the configuration for that profile
+	 *
+	 * @throws IllegalArgumentException when the profile is not known
+	 */
+	public static DatabaseConfig forProfile(String profile) {
+		DatabaseConfig config = new DatabaseConfig();
+		switch (profile) {
+		case PROFILE_DEFAULT:
+			// H2's own defaults, exactly as the application has always run
+			break;
+		case PROFILE_DURABLE_PROD:
+			// Every commit reaches the disk before it returns, with a larger page cache to make up
+			// for it and a lock timeout long enough to ride out the purge job and other writers
+			config.set(KEY_CACHE_SIZE_KB, "65536");
+			config.set(KEY_LOCK_TIMEOUT_MS, "10000");
+			config.set(KEY_WRITE_DELAY_MS, "0");
+			break;
+		case PROFILE_IN_MEMORY_BENCH:
+			// A private in-memory database that lives until the JVM exits, so nothing is read
+			// from or written to the disk during a measurement
+			config.set(KEY_URL, "jdbc:h2:mem:FoundationBench;DB_CLOSE_DELAY=-1");
+			config.set(KEY_CACHE_SIZE_KB, "131072");
+			config.set(KEY_LOCK_TIMEOUT_MS, "10000");
+			config.set(KEY_POOL_SIZE, "16");
+			config.set(KEY_SLOW_QUERY_LOG, "");
+			config.set(KEY_WRITE_BEHIND_JOURNAL, "");
+			break;
+		case PROFILE_LOW_MEMORY:
+			// A small page cache and compressed pages for machines that are short of memory
+			config.set(KEY_CACHE_SIZE_KB, "4096");
+			config.set(KEY_COMPRESS, "true");
+			config.set(KEY_POOL_SIZE, "4");
+			config.set(KEY_USER_CACHE_SIZE, "200");
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown database profile: \"" + profile + "\"");
+		}
+		config.settings.setProperty(KEY_PROFILE, profile);
+		return config;
+	}
+
+	/*******
+	 * <p> Method: void set(String key, String value) </p>
+	 *
+	 * <p> Description: Override one setting.  Numeric settings are checked here so a typo in a
+	 * properties file is reported at startup rather than as an obscure H2 error.</p>
+	 *
+	 * @param key is one of the KEY_ names
+	 *
+	 * @param value is the new value; an empty value for an engine option restores H2's default
+	 *
+	 * @throws IllegalArgumentException when the key is not known or the value is not valid
+	 */
+	public void set(String key, String value) {
+		switch (key) {
+		case KEY_CACHE_SIZE_KB:
+		case KEY_LOCK_TIMEOUT_MS:
+		case KEY_WRITE_DELAY_MS:
+			if (value.isBlank()) {
+				settings.remove(key);
+				return;
+			}
+			try {
+				if (Integer.parseInt(value.trim()) < 0) throw new NumberFormatException();
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Database setting " + key +
+						" must be a non-negative integer: \"" + value + "\"");
+			}
+			settings.setProperty(key, value.trim());
+			return;
+		case KEY_SERVER_PORT:
+		case KEY_POOL_SIZE:
+		case KEY_POOL_TIMEOUT_MS:
+		case KEY_CONNECT_RETRIES:
+		case KEY_RETRY_BACKOFF_MS:
+		case KEY_SLOW_QUERY_MS:
+		case KEY_USER_CACHE_SIZE:
+		case KEY_USER_CACHE_TTL_MS:
+		case KEY_WRITE_BEHIND_QUEUE:
+		case KEY_WRITE_BEHIND_FLUSH_MS:
+			try {
+				if (Integer.parseInt(value.trim()) < 0) throw new NumberFormatException();
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Database setting " + key +
+						" must be a non-negative integer: \"" + value + "\"");
+			}
+			settings.setProperty(key, value.trim());
+			return;
+		case KEY_MODE:
+			String mode = value.trim();
+			if (!mode.equals(MODE_EMBEDDED) && !mode.equals(MODE_AUTO_SERVER) &&
+					!mode.equals(MODE_SERVER) && !mode.equals(MODE_CLIENT))
+				throw new IllegalArgumentException("Unknown database mode: \"" + value + "\"");
+			settings.setProperty(key, mode);
+			return;
+		case KEY_SERVER_HOST:
+		case KEY_SERVER_ALLOW_OTHERS:
+		case KEY_COMPRESS:
+		case KEY_URL:
+		case KEY_USER:
+		case KEY_PASSWORD:
+		case KEY_SLOW_QUERY_LOG:
+		case KEY_WRITE_BEHIND:
+		case KEY_WRITE_BEHIND_JOURNAL:
+			settings.setProperty(key, value.trim());
+			return;
+		default:
+			throw new IllegalArgumentException("Unknown database setting: \"" + key + "\"");
+		}
+	}
+
+	public String getProfile() { return settings.getProperty(KEY_PROFILE); }
+
+	public String getUrl() { return settings.getProperty(KEY_URL); }
+
+	public String getUser() { return settings.getProperty(KEY_USER); }
+
+	public String getPassword() { return settings.getProperty(KEY_PASSWORD); }
+
+	public Integer getCacheSizeKb() { return getInteger(KEY_CACHE_SIZE_KB); }
+
+	public Integer getLockTimeoutMillis() { return getInteger(KEY_LOCK_TIMEOUT_MS); }
+
+	public Integer getWriteDelayMillis() { return getInteger(KEY_WRITE_DELAY_MS); }
+
+	public boolean isCompress() { return Boolean.parseBoolean(settings.getProperty(KEY_COMPRESS)); }
+
+	public String getMode() { return settings.getProperty(KEY_MODE); }
+
+	public String getServerHost() { return settings.getProperty(KEY_SERVER_HOST); }
+
+	public int getServerPort() { return getInteger(KEY_SERVER_PORT); }
+
+	public boolean isServerAllowOthers() {
+		return Boolean.parseBoolean(settings.getProperty(KEY_SERVER_ALLOW_OTHERS));
+	}
+
+	public int getConnectRetries() { return getInteger(KEY_CONNECT_RETRIES); }
+
+	public long getRetryBackoffMillis() { return getInteger(KEY_RETRY_BACKOFF_MS); }
+
+	public int getPoolSize() { return Math.max(1, getInteger(KEY_POOL_SIZE)); }
+
+	public long getPoolTimeoutMillis() { return getInteger(KEY_POOL_TIMEOUT_MS); }
+
+	// Statements slower than this are written to the slow-query log; 0 turns the log off
+	public long getSlowQueryMillis() { return getInteger(KEY_SLOW_QUERY_MS); }
+
+	// The slow-query log file, or an empty string to keep the entries in memory only
+	public String getSlowQueryLog() { return settings.getProperty(KEY_SLOW_QUERY_LOG); }
+
+	// How many user accounts the user cache holds; 0 turns the cache off
+	public int getUserCacheSize() { return getInteger(KEY_USER_CACHE_SIZE); }
+
+	// How long a cached user account is trusted before it is read again
+	public long getUserCacheTtlMillis() { return getInteger(KEY_USER_CACHE_TTL_MS); }
+
+	// Whether the Student Home page's posts and replies are saved by the write-behind queue
+	public boolean isWriteBehind() {
+		return Boolean.parseBoolean(settings.getProperty(KEY_WRITE_BEHIND));
+	}
+
+	// How many writes may wait in the write-behind queue before callers are held up
+	public int getWriteBehindQueueSize() { return getInteger(KEY_WRITE_BEHIND_QUEUE); }
+
+	// The longest a write waits in the queue for others to be committed with it
+	public long getWriteBehindFlushMillis() { return getInteger(KEY_WRITE_BEHIND_FLUSH_MS); }
+
+	// The write-behind journal file, or an empty string to keep queued writes in memory only
+	public String getWriteBehindJournal() { return settings.getProperty(KEY_WRITE_BEHIND_JOURNAL); }
+
+	/*******
+	 * <p> Method: String getEffectiveUrl() </p>
+	 *
+	 * <p> Description: The URL handed to the DriverManager: the configured URL, rewritten for the
+	 * sharing mode, followed by the H2 options for each engine setting that has been given a
+	 * value.  Settings that were not given a value are left out so H2 applies its own defaults.
+	 *
+	 * A client reaches the same database path through the host's TCP server, so the configured
+	 * URL is still the one the host uses (e.g., jdbc:h2:~/FoundationDatabase).</p>
+	 *
+	 * @return the JDBC URL including the engine options
+	 */
+	public String getEffectiveUrl() {
+		StringBuilder url = new StringBuilder();
+		if (getMode().equals(MODE_CLIENT)) {
+			String path = getUrl().substring("jdbc:h2:".length());
+			if (path.startsWith("file:")) path = path.substring("file:".length());
+			url.append("jdbc:h2:tcp://").append(getServerHost()).append(':')
+				.append(getServerPort()).append('/').append(path);
+		} else {
+			url.append(getUrl());
+		}
+		if (getMode().equals(MODE_AUTO_SERVER)) url.append(";AUTO_SERVER=TRUE");
+		if (getCacheSizeKb() != null) url.append(";CACHE_SIZE=").append(getCacheSizeKb());
+		if (getLockTimeoutMillis() != null) url.append(";LOCK_TIMEOUT=").append(getLockTimeoutMillis());
+		if (getWriteDelayMillis() != null) url.append(";WRITE_DELAY=").append(getWriteDelayMillis());
+		if (isCompress()) url.append(";COMPRESS=TRUE");
+		return url.toString();
+	}
+
+	/*******
+	 * <p> Method: String toString() </p>
+	 *
+	 * <p> Description: A one-line summary of the effective configuration for the startup log.  The
+	 * password is never included.</p>
+	 */
+	@Override
+	public String toString() {
+		return "profile=" + getProfile() + ", pool=" + getPoolSize() + ", mode=" + getMode() +
+				(getMode().equals(MODE_SERVER) ? " on port " + getServerPort() : "") + ", url=" + getEffectiveUrl() + ", user=" + getUser() +
+				", password=" + (getPassword().isEmpty() ? "(empty)" : "(set)");
+	}
+
+	private Integer getInteger(String key) {
+		String value = settings.getProperty(key);
+		return value == null ? null : Integer.valueOf(value);
+	}
+
+	/*
+	 * Read the properties file, if there is one.  A file named by the system property must exist;
+	 * the default file is optional.
+	 */
+	private static void readConfigFile(Properties into) {
+		String named = System.getProperty(CONFIG_FILE_PROPERTY);
+		Path path = Paths.get(named != null ? named : DEFAULT_CONFIG_FILE);
+		if (named == null && !Files.isRegularFile(path)) return;
+		try (InputStream in = new FileInputStream(path.toFile())) {
+			into.load(in);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to read database configuration " + path +
+					": " + e.getMessage());
+		}
+	}
+
+	/*
+	 * "cacheSizeKb" becomes "FOUNDATIONS_DB_CACHE_SIZE_KB"
+	 */
+	private static String environmentName(String key) {
+		return ENVIRONMENT_PREFIX +
+				key.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+	}
+}
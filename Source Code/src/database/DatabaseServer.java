@@ -0,0 +1,110 @@
+package database;
+
+import java.sql.SQLException;
+
+import org.h2.tools.Server;
+
+import logging.Log;
+
+/*******
+ * <p> Title: DatabaseServer Class. </p>
+ *
+ * <p> Description: Hosts the application's H2 database as a TCP server so that other copies of
+ * the application can use it at the same time.  An embedded H2 file database can only be opened
+ * by one process, so without a server every additional TA or admin who starts the application is
+ * turned away.
+ *
+ * The hosting process keeps its own embedded connection.  H2 shares one open database between the
+ * embedded connection and the server within a JVM, so the host is not slowed down by the network
+ * and the database file is created by the host on first use rather than by a remote client.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-23 Initial version
+ * @version 1.01		2025-10-26 The server status is logged instead of printed
+ *
+ */
+
+public class DatabaseServer {
+
+	// The port H2 listens on when none is configured
+	public static final int DEFAULT_PORT = 9092;
+
+	private final int port;
+	private final boolean allowOthers;
+	private Server server = null;
+
+	/*******
+	 * <p> Method: DatabaseServer(int port, boolean allowOthers) </p>
+	 *
+	 * <p> Description: Establish a server that has not yet been started.</p>
+	 *
+	 * @param port is the TCP port to listen on
+	 *
+	 * @param allowOthers is true to accept connections from other machines; when false only
+	 *		clients on this machine may connect
+	 */
+	public DatabaseServer(int port, boolean allowOthers) {
+		this.port = port;
+		this.allowOthers = allowOthers;
+	}
+
+	/*******
+	 * <p> Method: void start() </p>
+	 *
+	 * <p> Description: Start listening.  Calling start on a server that is already running has no
+	 * effect.</p>
+	 *
+	 * @throws SQLException when the port cannot be opened, usually because another process is
+	 *		already hosting on it
+	 */
+	public void start() throws SQLException {
+		if (server != null) return;
+		String portText = Integer.toString(port);
+		server = allowOthers
+				? Server.createTcpServer("-tcpPort", portText, "-tcpAllowOthers", "-tcpDaemon")
+				: Server.createTcpServer("-tcpPort", portText, "-tcpDaemon");
+		try {
+			server.start();
+		} catch (SQLException e) {
+			server = null;
+			throw e;
+		}
+		Log.get(DatabaseServer.class).info(server.getStatus());
+	}
+
+	/*******
+	 * <p> Method: void stop() </p>
+	 *
+	 * <p> Description: Stop listening and disconnect every remote client.</p>
+	 */
+	public void stop() {
+		if (server == null) return;
+		server.stop();
+		server = null;
+	}
+
+	/*******
+	 * <p> Method: boolean isRunning() </p>
+	 *
+	 * <p> Description: Report whether the server is accepting connections.</p>
+	 *
+	 * @return true if the server has been started and is still running
+	 */
+	public boolean isRunning() {
+		return server != null && server.isRunning(false);
+	}
+
+	/*******
+	 * <p> Method: int getPort() </p>
+	 *
+	 * <p> Description: The port this server listens on.</p>
+	 *
+	 * @return the TCP port
+	 */
+	public int getPort() {
+		return port;
+	}
+}
@@ -0,0 +1,278 @@
+package database;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import entityClasses.Post;
+
+/*******
+ * <p> Title: HotPosts Class. </p>
+ *
+ * <p> Description: The most active posts overall and in each thread, so the "Hot Posts" list
+ * is read from memory in the order it is shown rather than by sorting every post.
+ *
+ * A post's hotness is the sum of its events, a weight of 1 for the post itself and 1 for each
+ * reply, each halving every HALF_LIFE_HOURS since it happened.  Because every event decays at the
+ * same rate, two posts' order only changes when one of them has a new event.  The Posts table
+ * therefore keeps each post's hotScore, the natural log of that sum measured at a fixed epoch: a
+ * post's score is set when it is created and raised when it gets a reply, and never has to be
+ * recomputed as time passes.  The table has an index on hotScore and on (threadKey, hotScore), so
+ * the top posts can also be read from the database without a sort.
+ *
+ * This class holds the TOP_K highest-scoring active posts overall and for each thread that has
+ * been asked for (up to MAX_THREADS of them, the least recently used dropped first).  The Database
+ * offers every new post and every post that gets a reply, and a post that outscores the lowest
+ * one on a list takes its place.  A list is read again from the database when a post on it has
+ * been deleted (so a post can move up to fill the gap), and once it is REFRESH_MILLIS old, which
+ * bounds how long posts made by another process sharing the database go unseen.
+ *
+ * Callers get their own copies of the posts.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-27 Initial version
+ *
+ */
+
+public class HotPosts {
+
+	// How many posts each list holds
+	public static final int TOP_K = 20;
+
+	// An event counts half as much after this many hours
+	public static final double HALF_LIFE_HOURS = 12;
+
+	// How many threads' lists are kept
+	public static final int MAX_THREADS = 200;
+
+	// A list older than this is read from the database again
+	public static final long REFRESH_MILLIS = 60_000;
+
+	// Scores are measured at this moment, so they stay small for many years
+	static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+	// How much the log of an event's weight grows per second of its time
+	static final double GROWTH_PER_SECOND = Math.log(2) / (HALF_LIFE_HOURS * 3600);
+
+	// A post and its score
+	private static final class Entry {
+		final Post post;
+		final double score;
+
+		Entry(Post post, double score) {
+			this.post = post;
+			this.score = score;
+		}
+	}
+
+	// One list: the entries from highest to lowest score, and each entry by post ID
+	private static final class Ranking {
+		final TreeSet<Entry> entries = new TreeSet<Entry>((a, b) -> a.score != b.score
+				? Double.compare(b.score, a.score)
+				: a.post.getPostId().compareTo(b.post.getPostId()));
+		final Map<String, Entry> byId = new HashMap<String, Entry>();
+		long loadedNanos;
+		boolean stale = false;
+
+		Ranking(List<Post> posts, List<Double> scores) {
+			for (int i = 0; i < posts.size(); i++) put(new Entry(posts.get(i), scores.get(i)));
+			loadedNanos = System.nanoTime();
+		}
+
+		void put(Entry entry) {
+			Entry old = byId.put(entry.post.getPostId(), entry);
+			if (old != null) entries.remove(old);
+			entries.add(entry);
+		}
+
+		// Add or move a post if it belongs on the list, dropping the lowest if the list is full
+		void offer(Entry entry) {
+			if (!byId.containsKey(entry.post.getPostId()) && entries.size() >= TOP_K &&
+					entry.score <= entries.last().score) return;
+			put(entry);
+			if (entries.size() > TOP_K) byId.remove(entries.pollLast().post.getPostId());
+		}
+
+		boolean wants(String postId, double score) {
+			return byId.containsKey(postId) || entries.size() < TOP_K
+					|| score > entries.last().score;
+		}
+
+		boolean remove(String postId) {
+			Entry entry = byId.remove(postId);
+			if (entry == null) return false;
+			entries.remove(entry);
+			stale = true;
+			return true;
+		}
+
+		boolean isCurrent() {
+			return !stale && System.nanoTime() - loadedNanos
+					< TimeUnit.MILLISECONDS.toNanos(REFRESH_MILLIS);
+		}
+	}
+
+	private Ranking overall = null;
+	private final LinkedHashMap<String, Ranking> byThread =
+			new LinkedHashMap<String, Ranking>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Ranking> eldest) {
+					return size() > MAX_THREADS;
+				}
+			};
+
+	/*******
+	 * <p> Method: double eventScore(LocalDateTime at, int weight) </p>
+	 *
+	 * <p> Description: The score of a single event.</p>
+	 *
+	 * @param at is when the event happened
+	 *
+	 * @param weight is how much it counts, e.g. 1 for a reply
+	 *
+	 * @return the natural log of the event's weight at the epoch
+	 */
+	public static double eventScore(LocalDateTime at, int weight) {
+		return Math.log(Math.max(1, weight))
+				+ Duration.between(EPOCH, at).getSeconds() * GROWTH_PER_SECOND;
+	}
+
+	/*******
+	 * <p> Method: String threadKey(String thread) </p>
+	 *
+	 * <p> Description: The form of a thread name that lists are kept under; thread names are
+	 * compared without regard to case, as PostCollection does.</p>
+	 *
+	 * @param thread is the thread name
+	 *
+	 * @return the key, or null for a blank name, which stands for all threads
+	 */
+	public static String threadKey(String thread) {
+		return thread == null || thread.isBlank() ? null : thread.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/*******
+	 * <p> Method: List&lt;Post&gt; get(String threadKey) </p>
+	 *
+	 * <p> Description: A list, if it is held and current.</p>
+	 *
+	 * @param threadKey is the thread's key, or null for all threads
+	 *
+	 * @return copies of the posts from hottest down, or null if the list must be read from the
+	 *		database
+	 */
+	public synchronized List<Post> get(String threadKey) {
+		Ranking ranking = threadKey == null ? overall : byThread.get(threadKey);
+		if (ranking == null || !ranking.isCurrent()) return null;
+		List<Post> posts = new ArrayList<Post>(ranking.entries.size());
+		for (Entry entry : ranking.entries) posts.add(copy(entry.post));
+		return posts;
+	}
+
+	/*******
+	 * <p> Method: void load(String threadKey, List&lt;Post&gt; posts, List&lt;Double&gt; scores)
+	 * </p>
+	 *
+	 * <p> Description: Replace a list with the hottest posts just read from the database.</p>
+	 *
+	 * @param threadKey is the thread's key, or null for all threads
+	 *
+	 * @param posts are up to TOP_K active posts, hottest first
+	 *
+	 * @param scores are the posts' scores, in the same order
+	 */
+	public synchronized void load(String threadKey, List<Post> posts, List<Double> scores) {
+		List<Post> copies = new ArrayList<Post>(posts.size());
+		for (Post post : posts) copies.add(copy(post));
+		Ranking ranking = new Ranking(copies, scores);
+		if (threadKey == null) overall = ranking;
+		else byThread.put(threadKey, ranking);
+	}
+
+	/*******
+	 * <p> Method: boolean wants(String threadKey, String postId, double score) </p>
+	 *
+	 * <p> Description: Whether a post with a new score is on a list or would get onto one, so the
+	 * caller only reads the post when it is needed.</p>
+	 *
+	 * @param threadKey is the key of the post's thread
+	 *
+	 * @param postId is the ID of the post
+	 *
+	 * @param score is the post's new score
+	 *
+	 * @return true if offer() would change a list
+	 */
+	public synchronized boolean wants(String threadKey, String postId, double score) {
+		Ranking thread = byThread.get(threadKey);
+		return (overall != null && overall.wants(postId, score))
+				|| (thread != null && thread.wants(postId, score));
+	}
+
+	/*******
+	 * <p> Method: void offer(Post post, double score) </p>
+	 *
+	 * <p> Description: A post was created or has a new score: put it on the lists it belongs on.
+	 * Lists that have not been read yet are left alone.</p>
+	 *
+	 * @param post is the post as it is now stored
+	 *
+	 * @param score is its score as it is now stored
+	 */
+	public synchronized void offer(Post post, double score) {
+		if (post.isDeleted()) return;
+		Entry entry = new Entry(copy(post), score);
+		if (overall != null) overall.offer(entry);
+		Ranking thread = byThread.get(threadKey(post.getThread()));
+		if (thread != null) thread.offer(entry);
+	}
+
+	/*******
+	 * <p> Method: void remove(String postId) </p>
+	 *
+	 * <p> Description: A post was deleted: take it off every list, and read each list it was on
+	 * again next time.</p>
+	 *
+	 * @param postId is the ID of the post
+	 */
+	public synchronized void remove(String postId) {
+		if (overall != null) overall.remove(postId);
+		for (Ranking ranking : byThread.values()) ranking.remove(postId);
+	}
+
+	/*******
+	 * <p> Method: void clear() </p>
+	 *
+	 * <p> Description: Forget every list.</p>
+	 */
+	public synchronized void clear() {
+		overall = null;
+		byThread.clear();
+	}
+
+	private static Post copy(Post post) {
+		Post copy = new Post();
+		copy.__setPostId(post.getPostId());
+		copy.setAuthorUsername(post.getAuthorUsername());
+		copy.setTitle(post.getTitle());
+		copy.setContent(post.getContent());
+		copy.setThread(post.getThread());
+		copy.__setCreatedAt(post.getCreatedAt());
+		copy.__setUpdatedAt(post.getUpdatedAt());
+		copy.__setDeleted(post.isDeleted());
+		copy.__setReplyCount(post.getReplyCount());
+		return copy;
+	}
+}
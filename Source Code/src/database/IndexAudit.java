@@ -0,0 +1,172 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import logging.Log;
+import metrics.MetricsRegistry;
+
+/*******
+ * <p> Title: IndexAudit Class. </p>
+ *
+ * <p> Description: Checks that the Database's statements find their rows through an index.
+ * Each statement is given to H2's EXPLAIN, and a plan that reads a table from end to end (a
+ * "tableScan") is flagged: it is logged as a warning with the plan, counted in
+ * "db.indexAudit.tableScans" and kept for getTableScans().
+ *
+ * At startup the Database audits its catalogue of queries.  After that every statement is
+ * audited the first time it is prepared, so a new query that has no index is reported the first
+ * time it runs even if nobody added it to the catalogue.  Each distinct statement text is
+ * explained once per run.
+ *
+ * Some statements read a whole table on purpose, e.g. the list of all users.  Their operations
+ * are named when the audit is made and their scans are not flagged.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-27 Initial version
+ *
+ */
+
+public class IndexAudit {
+
+	private static final Log log = Log.get(IndexAudit.class);
+
+	/*******
+	 * <p> Title: Finding Class. </p>
+	 *
+	 * <p> Description: A statement whose plan scans a table.</p>
+	 */
+	public static final class Finding {
+		private final String operation;
+		private final String sql;
+		private final String plan;
+
+		Finding(String operation, String sql, String plan) {
+			this.operation = operation;
+			this.sql = sql;
+			this.plan = plan;
+		}
+
+		public String getOperation() { return operation; }
+
+		public String getSql() { return sql; }
+
+		public String getPlan() { return plan; }
+
+		@Override
+		public String toString() {
+			return operation + ": " + sql;
+		}
+	}
+
+	private final Set<String> expectedScans;
+	private final Map<String, Boolean> audited = new ConcurrentHashMap<String, Boolean>();
+	private final List<Finding> tableScans = new CopyOnWriteArrayList<Finding>();
+
+	/*******
+	 * <p> Method: IndexAudit(Set&lt;String&gt; expectedScans) </p>
+	 *
+	 * <p> Description: Establish an audit that has not seen any statements yet.</p>
+	 *
+	 * @param expectedScans are the operations that read a whole table on purpose
+	 */
+	public IndexAudit(Set<String> expectedScans) {
+		this.expectedScans = Set.copyOf(expectedScans);
+	}
+
+	/*******
+	 * <p> Method: int audit(Connection connection, Map&lt;String, String&gt; queries) </p>
+	 *
+	 * <p> Description: Audit a catalogue of statements and log how many were checked and how
+	 * many scan a table.</p>
+	 *
+	 * @param connection is used for the EXPLAINs
+	 *
+	 * @param queries are the statements keyed by the operation that runs them
+	 *
+	 * @return the number of table scans found in the catalogue
+	 */
+	public int audit(Connection connection, Map<String, String> queries) {
+		int before = tableScans.size();
+		for (Map.Entry<String, String> query : queries.entrySet())
+			check(connection, query.getKey(), query.getValue());
+		int found = tableScans.size() - before;
+		if (found == 0)
+			log.info(() -> "Index audit: all " + queries.size() + " catalogued queries use an "
+					+ "index");
+		else
+			log.warn("Index audit: " + found + " of " + queries.size() + " catalogued queries "
+					+ "scan a table");
+		return found;
+	}
+
+	/*******
+	 * <p> Method: void check(Connection connection, String operation, String sql) </p>
+	 *
+	 * <p> Description: Audit one statement, unless it has been audited already.  Only queries and
+	 * data changes are explained, and an INSERT has no rows to find.  A failure to explain is
+	 * logged and otherwise ignored.</p>
+	 *
+	 * @param connection is used for the EXPLAIN
+	 *
+	 * @param operation is the name of the Database method that runs the statement
+	 *
+	 * @param sql is the statement text, with its bind parameters unset
+	 */
+	public void check(Connection connection, String operation, String sql) {
+		if (audited.putIfAbsent(sql, Boolean.TRUE) != null) return;
+		String verb = sql.trim().split("\\s+", 2)[0].toUpperCase(Locale.ROOT);
+		if (!verb.equals("SELECT") && !verb.equals("UPDATE") && !verb.equals("DELETE") &&
+				!verb.equals("WITH")) return;
+
+		String plan;
+		try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql);
+				ResultSet rs = explain.executeQuery()) {
+			plan = rs.next() ? rs.getString(1) : "";
+		} catch (SQLException e) {
+			log.warn("Index audit could not explain " + operation + ": "
+					+ e.getMessage().split("\n")[0]);
+			return;
+		}
+		if (!plan.contains(".tableScan") || expectedScans.contains(operation)) return;
+
+		tableScans.add(new Finding(operation, sql, plan));
+		MetricsRegistry.counter("db.indexAudit.tableScans").increment();
+		log.warn("Index audit: " + operation + " scans a table\n" + plan);
+	}
+
+	/*******
+	 * <p> Method: List&lt;Finding&gt; getTableScans() </p>
+	 *
+	 * <p> Description: The statements found to scan a table so far, in the order they were
+	 * found.</p>
+	 *
+	 * @return a copy of the findings
+	 */
+	public List<Finding> getTableScans() {
+		return new ArrayList<Finding>(tableScans);
+	}
+
+	/*******
+	 * <p> Method: int getAuditedCount() </p>
+	 *
+	 * <p> Description: How many distinct statements have been seen so far.</p>
+	 *
+	 * @return the count
+	 */
+	public int getAuditedCount() {
+		return audited.size();
+	}
+}
@@ -0,0 +1,103 @@
+package database;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*******
+ * <p> Title: InvitationPurgeJob Class. </p>
+ *
+ * <p> Description: A background job that removes expired invitations from the InvitationCodes
+ * table.  Without it the table only shrinks when an admin deletes invitations one at a time from
+ * the Manage Invitations page.
+ *
+ * The job runs on a single daemon thread so it never keeps the application alive on its own.  Each
+ * pass deletes expired rows in bounded batches, so a large backlog of expired invitations is worked
+ * off as a sequence of short deletes rather than one long one that would hold table locks.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-20 Initial version
+ *
+ */
+
+public class InvitationPurgeJob implements Runnable {
+
+	// The largest number of rows one DELETE statement may remove
+	public static final int BATCH_SIZE = 500;
+
+	// The most batches one pass may run before yielding to the next scheduled pass
+	public static final int MAX_BATCHES_PER_PASS = 20;
+
+	// How long after startup the first pass runs, and the delay between the end of one pass and
+	// the start of the next
+	public static final long INITIAL_DELAY_SECONDS = 30;
+	public static final long PERIOD_SECONDS = 15 * 60;
+
+	private final Database database;
+	private ScheduledExecutorService scheduler = null;
+
+	/*******
+	 * <p> Method: InvitationPurgeJob(Database database) </p>
+	 *
+	 * <p> Description: Establish a purge job that works against the specified database.</p>
+	 *
+	 * @param database is the connected database whose expired invitations are to be removed
+	 */
+	public InvitationPurgeJob(Database database) {
+		this.database = database;
+	}
+
+	/*******
+	 * <p> Method: void start() </p>
+	 *
+	 * <p> Description: Schedule the periodic purge on a daemon thread.  Calling start on a job that
+	 * is already running has no effect.</p>
+	 */
+	public void start() {
+		if (scheduler != null) return;
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread t = new Thread(runnable, "invitation-purge");
+			t.setDaemon(true);
+			return t;
+		});
+		scheduler.scheduleWithFixedDelay(this, INITIAL_DELAY_SECONDS, PERIOD_SECONDS,
+				TimeUnit.SECONDS);
+	}
+
+	/*******
+	 * <p> Method: void stop() </p>
+	 *
+	 * <p> Description: Cancel any further passes.  A pass that is already running finishes its
+	 * current batch.</p>
+	 */
+	public void stop() {
+		if (scheduler == null) return;
+		scheduler.shutdownNow();
+		scheduler = null;
+	}
+
+	/*******
+	 * <p> Method: void run() </p>
+	 *
+	 * <p> Description: One purge pass.  Batches are deleted until a batch comes back short (there
+	 * is nothing left to remove) or the per-pass limit is reached.</p>
+	 */
+	@Override
+	public void run() {
+		try {
+			for (int batch = 0; batch < MAX_BATCHES_PER_PASS; batch++) {
+				if (Thread.currentThread().isInterrupted()) return;
+				// A pooled connection keeps the purge off the connection the user interface uses
+				int removed = database.withPooledConnection(
+						() -> database.purgeExpiredInvitations(BATCH_SIZE));
+				if (removed < BATCH_SIZE) return;
+			}
+		} catch (Exception e) {
+			// An exception escaping run() would silently cancel all future passes
+			e.printStackTrace();
+		}
+	}
+}
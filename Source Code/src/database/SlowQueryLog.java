@@ -0,0 +1,301 @@
+package database;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import metrics.MetricsRegistry;
+
+/*******
+ * <p> Title: SlowQueryLog Class. </p>
+ *
+ * <p> Description: Records every statement that takes longer than the configured threshold
+ * (DatabaseConfig slowQueryMs, 100 ms by default).  An entry holds the statement text, the types
+ * of its bind parameters (never their values), the elapsed time, the Database method that ran it,
+ * and the plan H2 reports for it with EXPLAIN.  A "tableScan" in a plan is the usual sign of a
+ * missing index.
+ *
+ * The newest entries are kept in a ring buffer for the admin home page.  They are also appended
+ * to a log file (DatabaseConfig slowQueryLog) that rolls over at 1 MB, keeping four older files
+ * named with .1 to .4 after the log name.
+ *
+ * The statement's own thread only adds the entry to the ring buffer.  The EXPLAIN and the file
+ * write are done on one background daemon thread, which borrows a pooled connection for the
+ * EXPLAIN.  If that thread falls behind, later entries still reach the ring buffer but are not
+ * written to the file, and are counted in "db.slowQueries.dropped".  The plan of each distinct
+ * statement is cached for a few minutes, so a statement that is slow every time is explained
+ * only once in that period.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-26 Initial version
+ *
+ */
+
+public class SlowQueryLog {
+
+	// How many entries the ring buffer keeps
+	public static final int CAPACITY = 200;
+
+	// The log file rolls over at this size, and this many older files are kept
+	public static final long MAX_FILE_BYTES = 1024 * 1024;
+	public static final int ROLLED_FILES = 4;
+
+	// How long an EXPLAIN result is reused for the same statement text
+	public static final long PLAN_CACHE_MILLIS = 5 * 60 * 1000;
+
+	// How many entries may wait for the background thread before new ones are not written
+	private static final int MAX_PENDING = 100;
+
+	private static final DateTimeFormatter TIME_FORMAT =
+			DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+	/*******
+	 * <p> Title: Entry Class. </p>
+	 *
+	 * <p> Description: One slow statement.  The plan is filled in by the background thread, so it
+	 * reads "(pending)" for a moment after the entry is made.</p>
+	 */
+	public static class Entry {
+		private final long timestamp;
+		private final String operation;
+		private final String sql;
+		private final String parameters;
+		private final long elapsedNanos;
+		private volatile String plan = "(pending)";
+
+		Entry(String operation, String sql, String parameters, long elapsedNanos) {
+			this.timestamp = System.currentTimeMillis();
+			this.operation = operation;
+			this.sql = sql;
+			this.parameters = parameters;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		public long getTimestamp() { return timestamp; }
+
+		public String getOperation() { return operation; }
+
+		public String getSql() { return sql; }
+
+		public String getParameters() { return parameters; }
+
+		public double getElapsedMillis() { return elapsedNanos / 1_000_000.0; }
+
+		public String getPlan() { return plan; }
+
+		public String getTime() {
+			return TIME_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp),
+					ZoneId.systemDefault()));
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s  %.1f ms  %s%n  SQL: %s%n  Parameters: %s%n  Plan: %s%n",
+					getTime(), getElapsedMillis(), operation, sql.trim(),
+					parameters.isEmpty() ? "(none)" : parameters, plan.replace("\n", "\n        "));
+		}
+	}
+
+	// A plan and when it was obtained
+	private static final class CachedPlan {
+		final String plan;
+		final long obtained;
+
+		CachedPlan(String plan, long obtained) {
+			this.plan = plan;
+			this.obtained = obtained;
+		}
+	}
+
+	private final long thresholdNanos;
+	private final Path file;
+	private final ConnectionPool pool;
+	private final Entry[] ring = new Entry[CAPACITY];
+	private long recorded = 0;
+	private final Map<String, CachedPlan> plans = new ConcurrentHashMap<String, CachedPlan>();
+	private final ThreadPoolExecutor writer;
+
+	/*******
+	 * <p> Method: SlowQueryLog(DatabaseConfig config, ConnectionPool pool) </p>
+	 *
+	 * <p> Description: Establish the log and its background thread.</p>
+	 *
+	 * @param config supplies the threshold and the log file name
+	 *
+	 * @param pool lends the background thread a connection for each EXPLAIN
+	 */
+	public SlowQueryLog(DatabaseConfig config, ConnectionPool pool) {
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowQueryMillis());
+		String name = config.getSlowQueryLog();
+		this.file = name == null || name.isBlank() ? null : Paths.get(name).toAbsolutePath();
+		this.pool = pool;
+		this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(MAX_PENDING), runnable -> {
+					Thread t = new Thread(runnable, "slow-query-log");
+					t.setDaemon(true);
+					return t;
+				}, (runnable, executor) -> MetricsRegistry.counter("db.slowQueries.dropped").increment());
+	}
+
+	/*******
+	 * <p> Method: boolean isSlow(long elapsedNanos) </p>
+	 *
+	 * <p> Description: Whether a statement that took this long should be recorded.</p>
+	 *
+	 * @param elapsedNanos is how long the statement took
+	 *
+	 * @return true if the log is on and the time reaches the threshold
+	 */
+	public boolean isSlow(long elapsedNanos) {
+		return thresholdNanos > 0 && elapsedNanos >= thresholdNanos;
+	}
+
+	/*******
+	 * <p> Method: void record(String operation, String sql, String parameters, long elapsedNanos) </p>
+	 *
+	 * <p> Description: Add a slow statement to the ring buffer and queue it to be explained and
+	 * written to the log file.</p>
+	 *
+	 * @param operation is the Database method that ran the statement
+	 *
+	 * @param sql is the statement text
+	 *
+	 * @param parameters describes the bind parameters' types, e.g. "1:String, 2:Long"
+	 *
+	 * @param elapsedNanos is how long the statement took
+	 */
+	public void record(String operation, String sql, String parameters, long elapsedNanos) {
+		Entry entry = new Entry(operation, sql, parameters, elapsedNanos);
+		synchronized (ring) {
+			ring[(int) (recorded++ % CAPACITY)] = entry;
+		}
+		MetricsRegistry.counter("db.slowQueries").increment();
+		if (!writer.isShutdown()) writer.execute(() -> explainAndWrite(entry));
+	}
+
+	/*******
+	 * <p> Method: List<Entry> getEntries() </p>
+	 *
+	 * <p> Description: The entries in the ring buffer, newest first.</p>
+	 *
+	 * @return a copy of the entries
+	 */
+	public List<Entry> getEntries() {
+		List<Entry> entries = new ArrayList<Entry>(CAPACITY);
+		synchronized (ring) {
+			for (long i = recorded - 1; i >= 0 && i >= recorded - CAPACITY; i--)
+				entries.add(ring[(int) (i % CAPACITY)]);
+		}
+		return entries;
+	}
+
+	public long getThresholdMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+	}
+
+	/*******
+	 * <p> Method: Path getFile() </p>
+	 *
+	 * <p> Description: The log file entries are written to.</p>
+	 *
+	 * @return the absolute path, or null when entries are kept in memory only
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/*******
+	 * <p> Method: void close() </p>
+	 *
+	 * <p> Description: Let the background thread finish the entries already queued, then stop
+	 * it.</p>
+	 */
+	public void close() {
+		writer.shutdown();
+		try {
+			writer.awaitTermination(2, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void explainAndWrite(Entry entry) {
+		entry.plan = explain(entry.sql);
+		if (file == null) return;
+		try {
+			byte[] text = entry.toString().getBytes(StandardCharsets.UTF_8);
+			if (Files.exists(file) && Files.size(file) + text.length > MAX_FILE_BYTES) roll();
+			Files.write(file, text, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/*
+	 * Ask H2 for the statement's plan.  Bind parameters do not need values for EXPLAIN.  Only
+	 * queries and data changes have plans.
+	 */
+	private String explain(String sql) {
+		String verb = sql.trim().split("\\s+", 2)[0].toUpperCase(Locale.ROOT);
+		if (!verb.equals("SELECT") && !verb.equals("UPDATE") && !verb.equals("DELETE") &&
+				!verb.equals("INSERT") && !verb.equals("MERGE") && !verb.equals("WITH"))
+			return "(" + verb + " statements have no plan)";
+
+		CachedPlan cached = plans.get(sql);
+		long now = System.currentTimeMillis();
+		if (cached != null && now - cached.obtained < PLAN_CACHE_MILLIS) return cached.plan;
+
+		String plan;
+		try {
+			Connection connection = pool.acquire();
+			try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql);
+					ResultSet rs = explain.executeQuery()) {
+				plan = rs.next() ? rs.getString(1) : "(no plan)";
+			} finally {
+				pool.release(connection);
+			}
+		} catch (SQLException e) {
+			return "(EXPLAIN failed: " + e.getMessage().split("\n")[0] + ")";
+		}
+		if (plans.size() >= CAPACITY) plans.clear();
+		plans.put(sql, new CachedPlan(plan, now));
+		return plan;
+	}
+
+	// FoundationSlowQueries.log becomes FoundationSlowQueries.log.1, .1 becomes .2, and so on
+	private void roll() throws IOException {
+		Files.deleteIfExists(rolled(ROLLED_FILES));
+		for (int i = ROLLED_FILES - 1; i >= 1; i--) {
+			if (Files.exists(rolled(i)))
+				Files.move(rolled(i), rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+		}
+		Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private Path rolled(int n) {
+		return file.resolveSibling(file.getFileName() + "." + n);
+	}
+}
@@ -0,0 +1,150 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+
+/*******
+ * <p> Title: TimedStatements Class. </p>
+ *
+ * <p> Description: Wraps JDBC statements so that every execute call is timed.  The time is
+ * recorded in the "db.&lt;operation&gt;" latency histogram, and a call that throws also counts in
+ * "db.&lt;operation&gt;.errors".  The operation is the Database method that prepared the
+ * statement, so the metrics line up one to one with the Database API.  An execution that reaches
+ * the slow-query threshold is also handed to the SlowQueryLog, together with the types of the bind
+ * parameters set on the statement.
+ *
+ * The wrapper is a dynamic proxy, so it works for Statement, PreparedStatement and any other
+ * statement interface without repeating their many methods.  Only the execute methods are timed.
+ * Reading a ResultSet afterwards is not, which for H2 is usually small next to the query
+ * itself.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-26 Initial version
+ * @version 1.01		2025-10-26 Slow executions go to the SlowQueryLog
+ *
+ */
+
+final class TimedStatements {
+
+	private TimedStatements() {
+	}
+
+	/*******
+	 * <p> Method: T wrap(Class<T> type, T statement, String operation, String sql,
+	 *		SlowQueryLog slowQueries) </p>
+	 *
+	 * <p> Description: Return a statement that times its execute calls and delegates everything
+	 * else.</p>
+	 *
+	 * @param type is the statement interface to expose, e.g. PreparedStatement.class
+	 *
+	 * @param statement is the statement from the JDBC driver
+	 *
+	 * @param operation names the metrics, e.g. "getPost"
+	 *
+	 * @param sql is the prepared statement text, or null for a plain Statement, whose text is
+	 *		passed to each execute call instead
+	 *
+	 * @param slowQueries receives slow executions; null when there is no slow-query log
+	 *
+	 * @return the timed statement
+	 */
+	static <T extends Statement> T wrap(Class<T> type, T statement, String operation, String sql,
+			SlowQueryLog slowQueries) {
+		Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				new Handler(statement, operation, sql, slowQueries));
+		return type.cast(proxy);
+	}
+
+	/*
+	 * One statement's handler.  A statement is used by one thread at a time, so the parameter
+	 * types need no synchronization.
+	 */
+	private static final class Handler implements InvocationHandler {
+		private final Statement statement;
+		private final String operation;
+		private final String sql;
+		private final SlowQueryLog slowQueries;
+		private final LatencyHistogram latency;
+		private final Counter errors;
+		private String[] parameterTypes = new String[0];
+
+		Handler(Statement statement, String operation, String sql, SlowQueryLog slowQueries) {
+			this.statement = statement;
+			this.operation = operation;
+			this.sql = sql;
+			this.slowQueries = slowQueries;
+			this.latency = MetricsRegistry.histogram("db." + operation);
+			this.errors = MetricsRegistry.counter("db." + operation + ".errors");
+		}
+
+		@Override
+		public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (!name.startsWith("execute")) {
+				if (name.startsWith("set") && args != null && args.length >= 2 &&
+						args[0] instanceof Integer)
+					noteParameter((Integer) args[0], name, args[1]);
+				else if (name.equals("clearParameters"))
+					parameterTypes = new String[0];
+				return call(method, args);
+			}
+
+			long start = System.nanoTime();
+			try {
+				return call(method, args);
+			} catch (Throwable e) {
+				errors.increment();
+				throw e;
+			} finally {
+				long elapsed = System.nanoTime() - start;
+				latency.record(elapsed);
+				if (slowQueries != null && slowQueries.isSlow(elapsed)) {
+					String text = sql != null ? sql
+							: args != null && args.length > 0 ? String.valueOf(args[0]) : "(batch)";
+					slowQueries.record(operation, text, describeParameters(), elapsed);
+				}
+			}
+		}
+
+		private Object call(Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(statement, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+
+		// Remember the type of a bind parameter, e.g. "String" for setString, but not its value
+		private void noteParameter(int index, String setter, Object value) {
+			if (index < 1) return;
+			if (index > parameterTypes.length) parameterTypes = Arrays.copyOf(parameterTypes, index);
+			String type = setter.substring(3);
+			if (setter.equals("setNull")) type = "null";
+			else if (value == null) type = type + " null";
+			else if (setter.equals("setObject")) type = value.getClass().getSimpleName();
+			parameterTypes[index - 1] = type;
+		}
+
+		private String describeParameters() {
+			StringBuilder description = new StringBuilder();
+			for (int i = 0; i < parameterTypes.length; i++) {
+				if (description.length() > 0) description.append(", ");
+				description.append(i + 1).append(':')
+						.append(parameterTypes[i] == null ? "unset" : parameterTypes[i]);
+			}
+			return description.toString();
+		}
+	}
+}
@@ -0,0 +1,211 @@
+package database;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import entityClasses.User;
+
+/*******
+ * <p> Title: UserCache Class. </p>
+ *
+ * <p> Description: The user accounts the Database has read recently, keyed by username, so that
+ * showing a home page or re-reading an account after an edit does not cost a full-row SELECT each
+ * time.
+ *
+ * The cache holds at most maxEntries accounts and drops the least recently used one to make room.
+ * An account is trusted for ttlMillis after it was read and is then read again, which bounds how
+ * long a change made by another process sharing the database (the "server" and "auto-server"
+ * modes) can go unseen.  Changes made through this Database are written through: each update
+ * method changes the cached account as well as the row, and deleteUser and updateUserRole drop
+ * the account so that it is read again.
+ *
+ * A read that misses takes a stamp before it goes to the database and passes it back to put().
+ * If any account changed in between, the row it read may be older than the change, so put()
+ * ignores it and the next read goes to the database again.
+ *
+ * Callers get their own copy of a cached account, so changing it has no effect on the cache.
+ * Hits, misses and evictions are counted for getHitRate() and reported as the "db.userCache.*"
+ * gauges.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-27 Initial version
+ *
+ */
+
+public class UserCache {
+
+	// An account and when it was read
+	private static final class Cached {
+		final User user;
+		final long loadedNanos;
+
+		Cached(User user, long loadedNanos) {
+			this.user = user;
+			this.loadedNanos = loadedNanos;
+		}
+	}
+
+	private final int maxEntries;
+	private final long ttlNanos;
+	private final LinkedHashMap<String, Cached> entries;
+	private long changes = 0;		// How many times an account has changed; guarded by this
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/*******
+	 * <p> Method: UserCache(int maxEntries, long ttlMillis) </p>
+	 *
+	 * <p> Description: Establish an empty cache.</p>
+	 *
+	 * @param maxEntries is the most accounts held at once; 0 turns the cache off
+	 *
+	 * @param ttlMillis is how long an account is trusted after it was read
+	 */
+	public UserCache(int maxEntries, long ttlMillis) {
+		this.maxEntries = Math.max(0, maxEntries);
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+		this.entries = new LinkedHashMap<String, Cached>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+				if (size() <= UserCache.this.maxEntries) return false;
+				evictions.increment();
+				return true;
+			}
+		};
+	}
+
+	/*******
+	 * <p> Method: User get(String username) </p>
+	 *
+	 * <p> Description: The cached account for a username, if it was read recently enough.</p>
+	 *
+	 * @param username is the username of the user
+	 *
+	 * @return a copy of the account, or null if it has to be read from the database
+	 */
+	public synchronized User get(String username) {
+		Cached cached = entries.get(username);
+		if (cached != null && System.nanoTime() - cached.loadedNanos < ttlNanos) {
+			hits.increment();
+			return copy(cached.user);
+		}
+		if (cached != null) {
+			entries.remove(username);
+			evictions.increment();
+		}
+		misses.increment();
+		return null;
+	}
+
+	/*******
+	 * <p> Method: long stamp() </p>
+	 *
+	 * <p> Description: Taken before reading an account from the database, to be passed to
+	 * put().</p>
+	 *
+	 * @return the current stamp
+	 */
+	public synchronized long stamp() {
+		return changes;
+	}
+
+	/*******
+	 * <p> Method: void put(User user, long stamp) </p>
+	 *
+	 * <p> Description: Remember an account just read from the database, unless some account has
+	 * changed since the stamp was taken.</p>
+	 *
+	 * @param user is the account as read
+	 *
+	 * @param stamp is the value stamp() returned before the read
+	 */
+	public synchronized void put(User user, long stamp) {
+		if (maxEntries == 0 || user == null || stamp != changes) return;
+		entries.put(user.getUserName(), new Cached(copy(user), System.nanoTime()));
+	}
+
+	/*******
+	 * <p> Method: void update(String username, Consumer&lt;User&gt; change) </p>
+	 *
+	 * <p> Description: Apply a change that has just been written to the database to the cached
+	 * account, if there is one.</p>
+	 *
+	 * @param username is the username of the user
+	 *
+	 * @param change makes the same change to the account that was made to the row
+	 */
+	public synchronized void update(String username, Consumer<User> change) {
+		changes++;
+		Cached cached = entries.get(username);
+		if (cached != null) change.accept(cached.user);
+	}
+
+	/*******
+	 * <p> Method: void invalidate(String username) </p>
+	 *
+	 * <p> Description: Forget an account, so the next read goes to the database.</p>
+	 *
+	 * @param username is the username of the user
+	 */
+	public synchronized void invalidate(String username) {
+		changes++;
+		entries.remove(username);
+	}
+
+	/*******
+	 * <p> Method: void clear() </p>
+	 *
+	 * <p> Description: Forget every account.</p>
+	 */
+	public synchronized void clear() {
+		changes++;
+		entries.clear();
+	}
+
+	public synchronized int size() { return entries.size(); }
+
+	public int getMaxEntries() { return maxEntries; }
+
+	public long getHits() { return hits.sum(); }
+
+	public long getMisses() { return misses.sum(); }
+
+	public long getEvictions() { return evictions.sum(); }
+
+	/*******
+	 * <p> Method: double getHitRate() </p>
+	 *
+	 * <p> Description: The share of reads answered from the cache so far.</p>
+	 *
+	 * @return a value from 0 to 1, or 0 before the first read
+	 */
+	public double getHitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0 : (double) h / total;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d of %d accounts cached, %d hits, %d misses (%.1f%% hit rate), "
+				+ "%d evictions", size(), maxEntries, getHits(), getMisses(), getHitRate() * 100,
+				getEvictions());
+	}
+
+	private static User copy(User user) {
+		return new User(user.getUserName(), user.getPassword(), user.getFirstName(),
+				user.getMiddleName(), user.getLastName(), user.getPreferredFirstName(),
+				user.getEmailAddress(), user.getAdminRole(), user.getNewRole1(), user.getNewRole2(),
+				user.getNewStudent());
+	}
+}
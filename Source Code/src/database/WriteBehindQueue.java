@@ -0,0 +1,499 @@
+package database;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import entityClasses.Post;
+import logging.Log;
+import metrics.MetricsRegistry;
+
+/*******
+ * <p> Title: WriteBehindQueue Class. </p>
+ *
+ * <p> Description: Saves new posts, deleted posts and new replies in the background, so the
+ * Student Home page does not wait for a commit each time.  It is used when the DatabaseConfig
+ * writeBehind setting is on.
+ *
+ * A write is accepted once it has been appended to a journal file and forced to the disk, and
+ * the caller returns straight away.  One daemon thread takes the writes off the queue in order
+ * and commits them in groups: it waits at most writeBehindFlushMs after the oldest write it holds
+ * and commits up to MAX_BATCH writes in one transaction.  Once it has caught up, the journal is
+ * emptied.  If the application stops before then, the writes still in the journal are applied
+ * when it next starts.  Applying a write twice does no harm: a post or reply that is already in
+ * the database is not added again.
+ *
+ * The journal is locked while the queue runs.  Clients that share the database from the same
+ * directory would otherwise empty each other's journal whenever they caught up, so a client that
+ * finds the journal locked does not use write-behind and saves its posts and replies directly.
+ *
+ * At most writeBehindQueue writes may be waiting at once.  When the queue is full a caller waits
+ * up to OFFER_TIMEOUT_MILLIS for room and is then refused with an SQLTransientException, so a
+ * stalled database slows the page down rather than using up memory.  flush() waits until every
+ * write accepted so far has been committed; the page calls it on logout and quit.
+ *
+ * If a group fails because the database cannot be reached, it is tried again until it succeeds.
+ * If it fails for any other reason, its writes are tried one at a time, and a write that still
+ * fails is logged and counted in "db.writeBehind.failed".  The time from a write being accepted
+ * to its commit goes into the "db.writeBehind.lag" histogram.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-27 Initial version
+ * @version 1.01		2025-10-27 Lock the journal so only one process uses it
+ *
+ */
+
+public class WriteBehindQueue {
+
+	private static final Log log = Log.get(WriteBehindQueue.class);
+
+	// The most writes committed in one transaction
+	public static final int MAX_BATCH = 200;
+
+	// How long a caller waits for room in a full queue before its write is refused
+	public static final long OFFER_TIMEOUT_MILLIS = 2000;
+
+	// How long close() waits for the queue to empty
+	public static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+	// The delay before a group that could not reach the database is tried again
+	private static final long RETRY_MILLIS = 500;
+
+	// The kinds of write
+	static final String CREATE_POST = "post";
+	static final String DELETE_POST = "delete";
+	static final String CREATE_REPLY = "reply";
+
+	// One accepted write and its place in the order of writes
+	private static final class Write {
+		final long sequence;
+		final String type;
+		final String[] fields;
+		final long acceptedNanos = System.nanoTime();
+
+		Write(long sequence, String type, String[] fields) {
+			this.sequence = sequence;
+			this.type = type;
+			this.fields = fields;
+		}
+
+		// The journal line: the type followed by each field in Base64, separated by spaces
+		String toJournalLine() {
+			StringBuilder line = new StringBuilder(type);
+			for (String field : fields)
+				line.append(' ').append(Base64.getEncoder().encodeToString(
+						field.getBytes(StandardCharsets.UTF_8)));
+			return line.append('\n').toString();
+		}
+
+		static Write fromJournalLine(long sequence, String line) {
+			String[] parts = line.split(" ");
+			String[] fields = new String[parts.length - 1];
+			for (int i = 1; i < parts.length; i++)
+				fields[i - 1] = new String(Base64.getDecoder().decode(parts[i]),
+						StandardCharsets.UTF_8);
+			return new Write(sequence, parts[0], fields);
+		}
+
+		@Override
+		public String toString() {
+			return type + " " + String.join(", ", fields);
+		}
+	}
+
+	private final Database database;
+	private final long flushNanos;
+	private final Path journal;
+	private final Semaphore room;
+	private final LinkedBlockingQueue<Write> queue = new LinkedBlockingQueue<Write>();
+
+	// Accepting a write appends it to the journal and the queue in one step, so both are in
+	// sequence order
+	private final Object journalLock = new Object();
+	private FileChannel journalChannel = null;		// Guarded by journalLock
+	private long accepted = 0;						// Guarded by journalLock
+
+	private final Object committedLock = new Object();
+	private long committed = 0;						// Guarded by committedLock
+
+	private Thread writer = null;
+
+	/*******
+	 * <p> Method: WriteBehindQueue(Database database, DatabaseConfig config) </p>
+	 *
+	 * <p> Description: Establish a queue that has not been started.</p>
+	 *
+	 * @param database is the connected database the writes are applied to
+	 *
+	 * @param config supplies the queue size, the flush delay and the journal file
+	 */
+	public WriteBehindQueue(Database database, DatabaseConfig config) {
+		this.database = database;
+		this.flushNanos = TimeUnit.MILLISECONDS.toNanos(config.getWriteBehindFlushMillis());
+		this.room = new Semaphore(Math.max(1, config.getWriteBehindQueueSize()));
+		String name = config.getWriteBehindJournal();
+		this.journal = name == null || name.isBlank() ? null : Paths.get(name).toAbsolutePath();
+	}
+
+	/*******
+	 * <p> Method: boolean start() </p>
+	 *
+	 * <p> Description: Lock the journal, apply any writes left in it by the last run, then start
+	 * the writer thread.  Calling start on a queue that is already running has no effect.</p>
+	 *
+	 * @return true if the queue is running, or false if another process or queue holds the
+	 *		journal, in which case the queue must not be used
+	 *
+	 * @throws SQLException when the journal cannot be opened or its writes cannot be applied
+	 */
+	public boolean start() throws SQLException {
+		if (writer != null) return true;
+		if (journal != null) {
+			FileChannel channel;
+			try {
+				channel = FileChannel.open(journal, StandardOpenOption.CREATE,
+						StandardOpenOption.READ, StandardOpenOption.WRITE);
+			} catch (IOException e) {
+				throw new SQLException("Could not open the write-behind journal " + journal, e);
+			}
+			try {
+				if (!lock(channel)) {
+					channel.close();
+					return false;
+				}
+				replayJournal(channel);
+				channel.truncate(0);
+			} catch (IOException | SQLException | RuntimeException e) {
+				try {
+					channel.close();
+				} catch (IOException ignored) {
+					// The failure being reported matters more
+				}
+				if (e instanceof SQLException) throw (SQLException) e;
+				throw new SQLException("Could not use the write-behind journal " + journal, e);
+			}
+			synchronized (journalLock) {
+				journalChannel = channel;
+			}
+		}
+		writer = new Thread(this::writeLoop, "write-behind");
+		writer.setDaemon(true);
+		writer.start();
+		return true;
+	}
+
+	/*******
+	 * <p> Method: void submit(String type, String... fields) </p>
+	 *
+	 * <p> Description: Accept a write.  It is in the journal when this returns.</p>
+	 *
+	 * @param type is CREATE_POST, DELETE_POST or CREATE_REPLY
+	 *
+	 * @param fields are the values the write needs, as text
+	 *
+	 * @throws SQLException when the queue stayed full for OFFER_TIMEOUT_MILLIS (an
+	 *		SQLTransientException) or the journal could not be written
+	 */
+	void submit(String type, String... fields) throws SQLException {
+		try {
+			if (!room.tryAcquire(OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+				MetricsRegistry.counter("db.writeBehind.refused").increment();
+				throw new SQLTransientException("Too many posts and replies are waiting to be "
+						+ "saved.  Please try again in a moment.");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting to save", e);
+		}
+		synchronized (journalLock) {
+			Write write = new Write(accepted + 1, type, fields);
+			if (journalChannel != null) {
+				try {
+					journalChannel.write(ByteBuffer.wrap(
+							write.toJournalLine().getBytes(StandardCharsets.UTF_8)));
+					journalChannel.force(false);
+				} catch (IOException e) {
+					room.release();
+					throw new SQLException("Could not write to the write-behind journal", e);
+				}
+			}
+			accepted = write.sequence;
+			queue.add(write);
+		}
+		MetricsRegistry.counter("db.writeBehind.accepted").increment();
+	}
+
+	/*******
+	 * <p> Method: boolean flush(long timeoutMillis) </p>
+	 *
+	 * <p> Description: Wait until every write accepted before this call has been committed.</p>
+	 *
+	 * @param timeoutMillis is the longest time to wait
+	 *
+	 * @return true if the writes were committed, false if the time ran out first
+	 */
+	public boolean flush(long timeoutMillis) {
+		long target;
+		synchronized (journalLock) {
+			target = accepted;
+		}
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		synchronized (committedLock) {
+			while (committed < target) {
+				long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if (remaining <= 0) return false;
+				try {
+					committedLock.wait(remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/*******
+	 * <p> Method: void close() </p>
+	 *
+	 * <p> Description: Commit the writes still queued, waiting up to CLOSE_TIMEOUT_MILLIS, then
+	 * stop the writer thread.  Writes that were not committed in time stay in the journal for the
+	 * next start.</p>
+	 */
+	public void close() {
+		if (writer == null) return;
+		if (!flush(CLOSE_TIMEOUT_MILLIS))
+			log.warn(getDepth() + " queued writes were not saved before closing; they will be "
+					+ "saved at the next start");
+		writer.interrupt();
+		try {
+			writer.join(CLOSE_TIMEOUT_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		writer = null;
+		synchronized (journalLock) {
+			if (journalChannel != null) {
+				try {
+					journalChannel.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+				journalChannel = null;
+			}
+		}
+	}
+
+	/*******
+	 * <p> Method: long getDepth() </p>
+	 *
+	 * <p> Description: How many accepted writes have not been committed yet.</p>
+	 *
+	 * @return the count
+	 */
+	public long getDepth() {
+		long total;
+		synchronized (journalLock) {
+			total = accepted;
+		}
+		synchronized (committedLock) {
+			return total - committed;
+		}
+	}
+
+	/*******
+	 * <p> Method: Path getJournal() </p>
+	 *
+	 * <p> Description: The journal file writes are appended to.</p>
+	 *
+	 * @return the absolute path, or null when writes are kept in memory only
+	 */
+	public Path getJournal() {
+		return journal;
+	}
+
+	// Take groups of writes off the queue and commit them, until interrupted
+	private void writeLoop() {
+		List<Write> batch = new ArrayList<Write>(MAX_BATCH);
+		boolean stopping = false;
+		while (!stopping) {
+			try {
+				Write first = queue.take();
+				batch.add(first);
+				long deadline = first.acceptedNanos + flushNanos;
+				queue.drainTo(batch, MAX_BATCH - batch.size());
+				while (batch.size() < MAX_BATCH) {
+					Write next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if (next == null) break;
+					batch.add(next);
+					queue.drainTo(batch, MAX_BATCH - batch.size());
+				}
+			} catch (InterruptedException e) {
+				// Commit what has been taken, then stop
+				stopping = true;
+			}
+			if (batch.isEmpty()) continue;
+			if (!writeBatch(batch)) return;
+			committed(batch);
+			batch.clear();
+		}
+	}
+
+	// Commit a group of writes in one transaction, falling back to one write at a time.  Returns
+	// false if the writer was stopped before the database could be reached.
+	private boolean writeBatch(List<Write> batch) {
+		while (true) {
+			try {
+				apply(batch);
+				return true;
+			} catch (Exception e) {
+				if (!isUnreachable(e)) {
+					log.warn("A group of " + batch.size() + " queued writes failed ("
+							+ e.getMessage().split("\n")[0] + "); saving them one at a time");
+					break;
+				}
+				log.warn("The database could not be reached to save " + batch.size()
+						+ " queued writes; trying again", e);
+				try {
+					Thread.sleep(RETRY_MILLIS);
+				} catch (InterruptedException ie) {
+					// Closing: the writes stay in the journal for the next start
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+		}
+		for (Write write : batch) {
+			try {
+				apply(List.of(write));
+			} catch (Exception e) {
+				MetricsRegistry.counter("db.writeBehind.failed").increment();
+				log.error("A queued write could not be saved and was dropped: " + write, e);
+			}
+		}
+		return true;
+	}
+
+	// Record a committed group: wake flush() and empty the journal once the queue has caught up
+	private void committed(List<Write> batch) {
+		long last = batch.get(batch.size() - 1).sequence;
+		synchronized (journalLock) {
+			if (last == accepted && journalChannel != null) {
+				try {
+					journalChannel.truncate(0);
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+		synchronized (committedLock) {
+			committed = last;
+			committedLock.notifyAll();
+		}
+		room.release(batch.size());
+		MetricsRegistry.counter("db.writeBehind.committed").add(batch.size());
+		for (Write write : batch) MetricsRegistry.recordSince("db.writeBehind.lag",
+				write.acceptedNanos);
+	}
+
+	// Apply writes in one transaction on a pooled connection, so the page's connection is free
+	private void apply(List<Write> writes) throws Exception {
+		database.withPooledConnection(() -> database.inTransaction("writeBehind", () -> {
+			for (Write write : writes) apply(write);
+			return null;
+		}));
+	}
+
+	// Apply one write, leaving out a post or reply that is already in the database
+	private void apply(Write write) throws SQLException {
+		String[] f = write.fields;
+		switch (write.type) {
+		case CREATE_POST:
+			if (database.postExists(f[0])) return;
+			Post post = new Post();
+			post.__setPostId(f[0]);
+			post.setAuthorUsername(f[1]);
+			post.setTitle(f[2]);
+			post.setContent(f[3]);
+			post.setThread(f[4]);
+			post.__setCreatedAt(LocalDateTime.parse(f[5]));
+			post.__setUpdatedAt(LocalDateTime.parse(f[6]));
+			post.__setReplyCount(Integer.parseInt(f[7]));
+			database.savePost(post);
+			return;
+		case DELETE_POST:
+			database.markPostDeleted(f[0]);
+			return;
+		case CREATE_REPLY:
+			if (database.replyExists(f[0])) return;
+			if (database.addReply(f[0], f[1], f[2], f[3]) == 0)
+				log.warn("A queued reply was dropped because its post has been deleted: " + write);
+			return;
+		default:
+			throw new SQLException("Unknown kind of queued write: " + write.type);
+		}
+	}
+
+	// Whether a failure means the database could not be reached, rather than a bad write
+	private static boolean isUnreachable(Exception e) {
+		return e instanceof SQLTransientException || e instanceof SQLRecoverableException
+				|| e instanceof SQLNonTransientConnectionException;
+	}
+
+	// Take the journal's lock, which is held until the channel is closed; false if another
+	// process, or another queue in this one, holds it
+	private static boolean lock(FileChannel channel) throws IOException {
+		try {
+			return channel.tryLock() != null;
+		} catch (OverlappingFileLockException e) {
+			return false;
+		}
+	}
+
+	// Apply the writes a previous run accepted but did not commit.  The journal is read through
+	// the locked channel, since some systems do not let another handle read a locked file.
+	private void replayJournal(FileChannel channel) throws SQLException {
+		List<Write> writes = new ArrayList<Write>();
+		try {
+			ByteBuffer contents = ByteBuffer.allocate((int) channel.size());
+			while (contents.hasRemaining())
+				if (channel.read(contents, contents.position()) < 0) break;
+			String text = new String(contents.array(), 0, contents.position(),
+					StandardCharsets.UTF_8);
+			for (String line : text.split("\n")) {
+				if (line.isBlank()) continue;
+				try {
+					writes.add(Write.fromJournalLine(writes.size() + 1, line));
+				} catch (IllegalArgumentException e) {
+					// The last line may be cut short if the application stopped while writing it
+					log.warn("Skipping an unreadable line in the write-behind journal: " + line);
+				}
+			}
+		} catch (IOException e) {
+			throw new SQLException("Could not read the write-behind journal " + journal, e);
+		}
+		if (writes.isEmpty()) return;
+		log.info("Saving " + writes.size() + " writes left in the write-behind journal");
+		for (int from = 0; from < writes.size(); from += MAX_BATCH)
+			writeBatch(writes.subList(from, Math.min(writes.size(), from + MAX_BATCH)));
+	}
+}
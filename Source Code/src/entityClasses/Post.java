@@ -4,6 +4,8 @@ import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+import logging.Log;
+
 /**
  * <p>Title: Post Class</p>
  *
@@ -39,6 +41,8 @@ public class Post {
     private boolean isDeleted;          // Soft delete flag
     private int replyCount;             // Number of replies to this post
 
+    private static final Log log = Log.get(Post.class);
+
     private static final String ID_PREFIX = "P-";
     private static final SecureRandom RNG = new SecureRandom();
     private static final char[] ALPHANUM =
@@ -59,7 +63,7 @@ public class Post {
         this.updatedAt = LocalDateTime.now();
         this.isDeleted = false;
         this.replyCount = 0;
-        System.out.println("New Post ID: " + this.postId);
+        log.trace(() -> "New Post ID: " + this.postId);
     }
 
     /** Parameterized constructor for creating a new post */
@@ -4,6 +4,8 @@ import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+import logging.Log;
+
 /**
  * <p>Title: Reply Class</p>
  *
@@ -32,6 +34,8 @@ public class Reply {
     // Optional field for showing message if original post was deleted
     private boolean originalPostDeleted = false;
 
+    private static final Log log = Log.get(Reply.class);
+
     private static final String ID_PREFIX = "R-";
     private static final java.util.Random RNG = new SecureRandom();
     private static final char[] ALPHANUM =
@@ -48,7 +52,7 @@ public class Reply {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
         this.isDeleted = false;
-        System.out.println("New Reply ID: " + this.replyId);
+        log.trace(() -> "New Reply ID: " + this.replyId);
     }
 
     public Reply(String postId, String authorUsername, String content) {
@@ -148,8 +152,8 @@ public class Reply {
     }
 
     // ===== Setters for DB hydration (package-private) =====
-    void __setReplyId(String id) { this.replyId = id; }
-    void __setCreatedAt(LocalDateTime t) { this.createdAt = t; }
-    void __setUpdatedAt(LocalDateTime t) { this.updatedAt = t; }
-    void __setDeleted(boolean d) { this.isDeleted = d; }
+    public void __setReplyId(String id) { this.replyId = id; }
+    public void __setCreatedAt(LocalDateTime t) { this.createdAt = t; }
+    public void __setUpdatedAt(LocalDateTime t) { this.updatedAt = t; }
+    public void __setDeleted(boolean d) { this.isDeleted = d; }
 }
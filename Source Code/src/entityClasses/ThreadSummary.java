@@ -0,0 +1,59 @@
+package entityClasses;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * <p>Title: ThreadSummary Class</p>
+ *
+ * <p>Description: How busy one discussion thread is: how many posts it has, how many of them
+ * are still active, how many replies they have had, and when and by whom it was last posted or
+ * replied to.  Thread names are free text and compared without regard to case, so the name shown
+ * is the one the thread's first post used.  The database keeps one summary per thread up to date
+ * as posts and replies are made, so the thread browser never has to read the posts.</p>
+ *
+ * <p>Copyright:
+ * Student Discussion System © 2025</p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00 — 2025-10-27 Initial version
+ */
+public class ThreadSummary {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final String thread;
+    private final long postCount;
+    private final long activeCount;
+    private final long replyCount;
+    private final LocalDateTime lastActivity;
+    private final String lastAuthor;
+
+    public ThreadSummary(String thread, long postCount, long activeCount, long replyCount,
+                         LocalDateTime lastActivity, String lastAuthor) {
+        this.thread = thread;
+        this.postCount = postCount;
+        this.activeCount = activeCount;
+        this.replyCount = replyCount;
+        this.lastActivity = lastActivity;
+        this.lastAuthor = lastAuthor;
+    }
+
+    public String getThread() { return thread; }
+    public long getPostCount() { return postCount; }
+    public long getActiveCount() { return activeCount; }
+    public long getReplyCount() { return replyCount; }
+    public LocalDateTime getLastActivity() { return lastActivity; }
+    public String getLastAuthor() { return lastAuthor == null ? "" : lastAuthor; }
+
+    public String getFormattedLastActivity() {
+        return lastActivity == null ? "" : lastActivity.format(FORMAT);
+    }
+
+    @Override
+    public String toString() {
+        return thread + ": " + activeCount + " of " + postCount + " posts active, " + replyCount
+                + " replies, last activity " + getFormattedLastActivity() + " by " + getLastAuthor();
+    }
+}
@@ -1,15 +1,26 @@
 package entityClasses;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
 /*******
  * <p> Title: User Class </p>
  * 
  * <p> Description: This User class represents a user entity in the system.  It contains the user's
  *  details such as userName, password, and roles being played. </p>
  * 
+ * <p> The object remembers which attributes have been changed by its setters since it was
+ *  constructed or last saved, so Database.saveChanges can write just those columns in one
+ *  UPDATE.  A setter that leaves the value as it was does not mark the attribute as changed.
+ *  The userName is the account's key and is not tracked. </p>
+ * 
  * <p> Copyright: Lynn Robert Carter © 2025 </p>
  * 
  * @author Lynn Robert Carter
  * 
+ * @version 1.01		2025-10-27 Changed attributes are tracked for Database.saveChanges
  * 
  */ 
 
@@ -30,6 +41,17 @@ public class User {
     private boolean role2;
     private boolean Student;
     
+    /*****
+     * <p> Title: Field Enumeration </p>
+     * 
+     * <p> Description: The attributes of a user that can be changed and saved. </p>
+     */
+    public enum Field { PASSWORD, FIRST_NAME, MIDDLE_NAME, LAST_NAME, PREFERRED_FIRST_NAME,
+    	EMAIL_ADDRESS, ADMIN_ROLE, ROLE1, ROLE2, STUDENT }
+    
+    // The attributes changed since this object was constructed or last saved
+    private final EnumSet<Field> dirty = EnumSet.noneOf(Field.class);
+    
     
     /*****
      * <p> Method: User() </p>
@@ -85,6 +107,7 @@ public class User {
      */
     // Sets the role of the Admin user.
     public void setAdminRole(boolean role) {
+    	if (adminRole != role) dirty.add(Field.ADMIN_ROLE);
     	this.adminRole=role;
     }
 
@@ -99,6 +122,7 @@ public class User {
      */
     // Sets the role1 user.
     public void setRole1User(boolean role) {
+    	if (role1 != role) dirty.add(Field.ROLE1);
     	this.role1=role;
     }
 
@@ -113,6 +137,7 @@ public class User {
      */
     // Sets the role2 user.
     public void setRole2User(boolean role) {
+    	if (role2 != role) dirty.add(Field.ROLE2);
     	this.role2=role;
     }
     
@@ -126,6 +151,7 @@ public class User {
      */
     // Sets the role2 user.
     public void setStudentUser(boolean role) {
+    	if (Student != role) dirty.add(Field.STUDENT);
     	this.Student=role;
     }
 
@@ -214,12 +240,52 @@ public class User {
     public String getEmailAddress() { return emailAddress; }
 
     public void setUserName(String s) { userName = s; }
-    public void setPassword(String s) { password = s; }
-    public void setFirstName(String s) { firstName = s; }
-    public void setMiddleName(String s) { middleName = s; }
-    public void setLastName(String s) { lastName = s; }
-    public void setPreferredFirstName(String s) { preferredFirstName = s; }
-    public void setEmailAddress(String s) { emailAddress = s; }
+    public void setPassword(String s) { mark(Field.PASSWORD, password, s); password = s; }
+    public void setFirstName(String s) { mark(Field.FIRST_NAME, firstName, s); firstName = s; }
+    public void setMiddleName(String s) { mark(Field.MIDDLE_NAME, middleName, s); middleName = s; }
+    public void setLastName(String s) { mark(Field.LAST_NAME, lastName, s); lastName = s; }
+    public void setPreferredFirstName(String s) {
+    	mark(Field.PREFERRED_FIRST_NAME, preferredFirstName, s);
+    	preferredFirstName = s;
+    }
+    public void setEmailAddress(String s) { mark(Field.EMAIL_ADDRESS, emailAddress, s); emailAddress = s; }
+    
+    private void mark(Field field, String oldValue, String newValue) {
+    	if (!Objects.equals(oldValue, newValue)) dirty.add(field);
+    }
+
+    
+    /*****
+     * <p> Method: Set&lt;Field&gt; getDirtyFields() </p>
+     * 
+     * <p> Description: The attributes changed since this object was constructed or last saved,
+     * in declaration order. </p>
+     * 
+     * @return an unmodifiable copy of the changed attributes
+     * 
+     */
+    public Set<Field> getDirtyFields() { return Collections.unmodifiableSet(EnumSet.copyOf(dirty)); }
+
+    
+    /*****
+     * <p> Method: boolean isDirty() </p>
+     * 
+     * <p> Description: Whether any attribute has been changed since this object was constructed
+     * or last saved. </p>
+     * 
+     * @return true if there are changes to save
+     * 
+     */
+    public boolean isDirty() { return !dirty.isEmpty(); }
+
+    
+    /*****
+     * <p> Method: void clearDirty() </p>
+     * 
+     * <p> Description: Forget the changes, e.g. once they have been saved. </p>
+     * 
+     */
+    public void clearDirty() { dirty.clear(); }
 
     
     /*****
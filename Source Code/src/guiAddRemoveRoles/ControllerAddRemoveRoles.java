@@ -24,14 +24,12 @@ public class ControllerAddRemoveRoles {
 	/**********
 	 * <p> Method: doSelectUser() </p>
 	 * 
-	 * <p> Description: This method uses the ComboBox widget, fetches which item in the ComboBox
-	 * was selected (a user in this case), and establishes that user and the current user, setting
-	 * easily accessible values without needing to do a query. </p>
+	 * <p> Description: This method takes the user picked in the user picker (or the prompt when
+	 * none has been picked) and establishes that user and the current user, setting easily
+	 * accessible values without needing to do a query. </p>
 	 * 
 	 */
 	protected static void doSelectUser() {
-		ViewAddRemoveRoles.theSelectedUser = 
-				(String) ViewAddRemoveRoles.combobox_SelectUser.getValue();
 		theDatabase.getUserAccountDetails(ViewAddRemoveRoles.theSelectedUser);
 		setupSelectedUser();
 	}
@@ -54,7 +52,7 @@ public class ControllerAddRemoveRoles {
 			ViewAddRemoveRoles.theRootPane.getChildren().addAll(
 					ViewAddRemoveRoles.label_PageTitle, ViewAddRemoveRoles.label_UserDetails, 
 					ViewAddRemoveRoles.button_UpdateThisUser, ViewAddRemoveRoles.line_Separator1,
-					ViewAddRemoveRoles.label_SelectUser, ViewAddRemoveRoles.combobox_SelectUser, 
+					ViewAddRemoveRoles.label_SelectUser, ViewAddRemoveRoles.text_SelectUser, 
 					ViewAddRemoveRoles.line_Separator4, ViewAddRemoveRoles.button_Return,
 					ViewAddRemoveRoles.button_Logout, ViewAddRemoveRoles.button_Quit);
 		}
@@ -64,7 +62,7 @@ public class ControllerAddRemoveRoles {
 					ViewAddRemoveRoles.label_PageTitle, ViewAddRemoveRoles.label_UserDetails,
 					ViewAddRemoveRoles.button_UpdateThisUser, ViewAddRemoveRoles.line_Separator1,
 					ViewAddRemoveRoles.label_SelectUser,
-					ViewAddRemoveRoles.combobox_SelectUser, 
+					ViewAddRemoveRoles.text_SelectUser, 
 					ViewAddRemoveRoles.label_CurrentRoles,
 					ViewAddRemoveRoles.label_SelectRoleToBeAdded,
 					ViewAddRemoveRoles.combobox_SelectRoleToAdd,
@@ -1,20 +1,58 @@
 package guiAddRemoveRoles;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import database.Database;
+
 /*******
  * <p> Title: ModelAddRemoveRoles Class. </p>
  * 
- * <p> Description: The AddRemoveRoles Page Model.  This class is not used as there is no
- * data manipulated by this MVC beyond accepting role information and saving it in the
- * database.</p>
+ * <p> Description: The AddRemoveRoles Page Model.  Beyond accepting role information and saving
+ * it in the database, the only data this MVC handles is the list of users matching what the
+ * admin has typed into the user picker.</p>
  * 
  * <p> Copyright: Lynn Robert Carter © 2025 </p>
  * 
  * @author Lynn Robert Carter
  * 
  * @version 1.00		2025-08-15 Initial version
+ * @version 1.01		2025-10-27 Find the users for the typeahead user picker
  *  
  */
 
 public class ModelAddRemoveRoles {
 
+	// The most users listed under the user picker
+	public static final int MAX_MATCHES = 12;
+
+	/**********
+	 * <p> Method: Map&lt;String, String&gt; findUsers(Database database, String prefix) </p>
+	 * 
+	 * <p> Description: The users whose username or email address starts with what has been
+	 * typed, each with the text to list it by.  This runs on the typeahead's lookup thread with
+	 * a pooled connection, so the JavaFX pages keep the main connection to themselves.</p>
+	 * 
+	 * @param database is the database to search
+	 * 
+	 * @param prefix is what has been typed so far
+	 * 
+	 * @return the usernames in order, each with its label, e.g. "alice  (alice@example.com)"
+	 */
+	public static Map<String, String> findUsers(Database database, String prefix) {
+		Map<String, String> users;
+		try {
+			users = database.withPooledConnection(() -> database.searchUsers(prefix, MAX_MATCHES));
+		} catch (Exception e) {
+			e.printStackTrace();
+			return new LinkedHashMap<String, String>();
+		}
+		Map<String, String> labels = new LinkedHashMap<String, String>();
+		for (Map.Entry<String, String> user : users.entrySet()) {
+			String email = user.getValue();
+			labels.put(user.getKey(), email == null || email.isEmpty() ? user.getKey()
+					: user.getKey() + "  (" + email + ")");
+		}
+		return labels;
+	}
 }
@@ -2,19 +2,21 @@ package guiAddRemoveRoles;
 
 import java.util.ArrayList;
 import java.util.List;
-import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
 import javafx.scene.layout.Pane;
 import javafx.scene.shape.Line;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import database.Database;
 import entityClasses.User;
+import guiTools.Typeahead;
+import guiTools.ViewRegistry;
 
 /*******
  * <p> Title: GUIAddRemoveRolesPage Class. </p>
@@ -26,6 +28,8 @@ import entityClasses.User;
  * @author Lynn Robert Carter
  * 
  * @version 1.00		2025-08-20 Initial version
+ * @version 1.01		2025-10-27 Built ahead of time by the ViewRegistry; navigation is timed
+ * @version 1.02		2025-10-27 The user is picked with a typeahead instead of a list of every user
  *  
  */
 
@@ -57,14 +61,16 @@ public class ViewAddRemoveRoles {
 	// This is a separator and it is used to partition the GUI for various tasks
 	protected static Line line_Separator1 = new Line(20, 95, width-20, 95);
 	
-	// When no user has been selected, only Area 2a is shown.  If a user in the ComboBox in Area 1a
-	// has been specified, then Area 2b is made visible.
+	// When no user has been selected, only Area 2a is shown.  If a user has been picked in Area
+	// 2a, then Area 2b is made visible.
 	
 	// Area 2a: This allows the admin to select a user of the system as the first step in adding or
-	// removing a role.  The act of selecting a user causes the change is the GUI.  The Admin does
-	// not need to push a button to make this happen.
+	// removing a role.  The admin types the start of a username or email address and picks one of
+	// the users listed under the field, which causes the change in the GUI.  The Admin does not
+	// need to push a button to make this happen.
 	protected static Label label_SelectUser = new Label("Select a user to be updated:");
-	protected static ComboBox <String> combobox_SelectUser = new ComboBox <String>();
+	protected static TextField text_SelectUser = new TextField();
+	private static Typeahead userPicker;
 	
 	// Area 2b: When a user has been selected these widgets are shown and can be used
 	protected static List<String> addList = new ArrayList<String>();
@@ -135,6 +141,7 @@ public class ViewAddRemoveRoles {
 	 *
 	 */
 	public static void displayAddRemoveRoles(Stage ps, User user) {
+		long start = System.nanoTime();
 		
 		// Establish the references to the GUI and the current user
 		theStage = ps;
@@ -148,9 +155,26 @@ public class ViewAddRemoveRoles {
 		// state of the system.  This page is different from the others.  Since there are two 
 		// modes (1: user has not been selected, and 2: user has been selected) there are two
 		// lists of widgets to be displayed.  For this reason, we have implemented the following 
-		// two controller methods to deal with this dynamic aspect.
+		// two controller methods to deal with this dynamic aspect.  The page may have been built
+		// before the user logged in, so the user's name is filled in and the picker emptied here.
+		label_UserDetails.setText("User: " + theUser.getUserName());
+		userPicker.clear();
+		theSelectedUser = "<Select a User>";
 		ControllerAddRemoveRoles.repaintTheWindow();
 		ControllerAddRemoveRoles.doSelectUser();
+		ViewRegistry.navigated("AddRemoveRoles", theAddRemoveRolesScene, start);
+	}
+
+	/**********
+	 * <p> Method: void buildView() </p>
+	 * 
+	 * <p> Description: Build this page's widgets and Scene without displaying it, so that the
+	 * first visit to the page is as quick as later ones.  The ViewRegistry calls this during
+	 * the warm-up after the login page appears.</p>
+	 * 
+	 */
+	public static void buildView() {
+		if (theView == null) theView = new ViewAddRemoveRoles();
 	}
 
 	
@@ -179,7 +203,6 @@ public class ViewAddRemoveRoles {
 		label_PageTitle.setText("Add/Removed Roles Page");
 		setupLabelUI(label_PageTitle, "Arial", 28, width, Pos.CENTER, 0, 5);
 
-		label_UserDetails.setText("User: " + theUser.getUserName());
 		setupLabelUI(label_UserDetails, "Arial", 20, width, Pos.BASELINE_LEFT, 20, 55);
 		
 		setupButtonUI(button_UpdateThisUser, "Dialog", 18, 170, Pos.CENTER, 610, 45);
@@ -189,13 +212,17 @@ public class ViewAddRemoveRoles {
 		// GUI Area 2a
 		setupLabelUI(label_SelectUser, "Arial", 20, 300, Pos.BASELINE_LEFT, 20, 130);
 		
-		setupComboBoxUI(combobox_SelectUser, "Dialog", 16, 250, 280, 125);
-		List<String> userList = theDatabase.getUserList();	
-		combobox_SelectUser.setItems(FXCollections.observableArrayList(userList));
-		combobox_SelectUser.getSelectionModel().select(0);
-		combobox_SelectUser.getSelectionModel().selectedItemProperty()
-    	.addListener((ObservableValue<? extends String> observable, 
-    		String oldvalue, String newValue) -> {ControllerAddRemoveRoles.doSelectUser();});
+		text_SelectUser.setFont(Font.font("Dialog", 16));
+		text_SelectUser.setPrefWidth(300);
+		text_SelectUser.setLayoutX(310);
+		text_SelectUser.setLayoutY(125);
+		text_SelectUser.setPromptText("Start of a username or email");
+		userPicker = new Typeahead(text_SelectUser, "userPicker",
+				(prefix) -> ModelAddRemoveRoles.findUsers(theDatabase, prefix),
+				(username) -> {
+					theSelectedUser = username;
+					ControllerAddRemoveRoles.doSelectUser();
+				});
 		
 		// GUI Area 2b
 		setupLabelUI(label_CurrentRoles, "Arial", 16, 300, Pos.BASELINE_LEFT, 50, 170);	
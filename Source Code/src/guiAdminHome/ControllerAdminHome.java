@@ -1,5 +1,7 @@
 package guiAdminHome;
 
+import java.util.Map;
+
 import database.Database;
 import validate.EmailValidator;
 import validate.EmailValidator.ValidationResult;
@@ -25,6 +27,8 @@ import validate.EmailValidator.ValidationResult;
  * @author Lynn Robert Carter
  * 
  * @version 1.00		2025-08-17 Initial version
+ * @version 1.01		2025-10-27 User and invitation counts come from the dashboard counters
+ * @version 1.02		2025-10-27 New invitations are passed on to the Manage Invitations page
  *  
  */
 
@@ -71,6 +75,7 @@ public class ControllerAdminHome {
 		String theSelectedRole = (String) ViewAdminHome.combobox_SelectRole.getValue();
 		String invitationCode = theDatabase.generateInvitationCode(emailAddress,
 				theSelectedRole);
+		guiManageInvitations.ModelManageInvitations.invitationIssued(theDatabase, invitationCode);
 		String msg = "Code: " + invitationCode + " for role " + theSelectedRole + 
 				" was sent to: " + emailAddress;
 		System.out.println(msg);
@@ -79,8 +84,33 @@ public class ControllerAdminHome {
 		
 		// Update the Admin Home pages status
 		ViewAdminHome.text_InvitationEmailAddress.setText("");
+		refreshCounts();
+	}
+	
+	/**********
+	 * <p> 
+	 * 
+	 * Title: refreshCounts () Method. </p>
+	 * 
+	 * <p> Description: Protected method to show the current number of outstanding invitations
+	 * and of users, with the users playing each role in the user count's tooltip.  Every figure
+	 * is a read of the database's dashboard counters, so this is cheap enough to do whenever the
+	 * page is shown or something changes. </p>
+	 */
+	protected static void refreshCounts() {
 		ViewAdminHome.label_NumberOfInvitations.setText("Number of outstanding invitations: " + 
 				theDatabase.getNumberOfInvitations());
+		
+		Map<String, Long> counts = theDatabase.getDashboardCounts();
+		ViewAdminHome.label_NumberOfUsers.setText("Number of users: " + 
+				counts.getOrDefault(Database.COUNTER_USERS, 0L));
+		StringBuilder byRole = new StringBuilder();
+		for (String role : Database.ROLE_NAMES) {
+			if (byRole.length() > 0) byRole.append("\n");
+			byRole.append(role).append(": ")
+					.append(counts.getOrDefault(Database.COUNTER_USERS + "." + role, 0L));
+		}
+		ViewAdminHome.tooltip_UsersByRole.setText(byRole.toString());
 	}
 	
 	/**********
@@ -237,8 +267,7 @@ public class ControllerAdminHome {
 	            done.showAndWait();
 
 	            // Refresh UI to show updated user count
-	            ViewAdminHome.label_NumberOfUsers.setText("Number of users: " + 
-	                    theDatabase.getNumberOfUsers());
+	            refreshCounts();
 	        } else {
 	            javafx.scene.control.Alert a = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.ERROR);
 	            a.setTitle("Delete User Error");
@@ -366,6 +395,81 @@ public class ControllerAdminHome {
 				ViewAdminHome.theUser);
 	}
 	
+	/**********
+	 * <p> 
+	 * 
+	 * Title: slowQueries () Method. </p>
+	 * 
+	 * <p> Description: Protected method that shows the recent entries of the database's slow-query
+	 * log, newest first.  Selecting an entry shows its full statement, the types of its bind
+	 * parameters and the plan H2 chose for it.  A "tableScan" in the plan of a statement that
+	 * filters on a column usually means that column needs an index.</p>
+	 */
+	@SuppressWarnings("unchecked")
+	protected static void slowQueries() {
+		database.SlowQueryLog log = theDatabase.getSlowQueryLog();
+		if (log == null) return;
+		java.util.List<database.SlowQueryLog.Entry> entries = log.getEntries();
+
+		javafx.scene.control.TableView<database.SlowQueryLog.Entry> table =
+				new javafx.scene.control.TableView<>();
+		javafx.scene.control.TableColumn<database.SlowQueryLog.Entry, String> cTime =
+				new javafx.scene.control.TableColumn<>("Time");
+		javafx.scene.control.TableColumn<database.SlowQueryLog.Entry, String> cElapsed =
+				new javafx.scene.control.TableColumn<>("ms");
+		javafx.scene.control.TableColumn<database.SlowQueryLog.Entry, String> cOperation =
+				new javafx.scene.control.TableColumn<>("Operation");
+		javafx.scene.control.TableColumn<database.SlowQueryLog.Entry, String> cSql =
+				new javafx.scene.control.TableColumn<>("Statement");
+
+		cTime.setCellValueFactory(cd -> new javafx.beans.property.SimpleStringProperty(cd.getValue().getTime()));
+		cElapsed.setCellValueFactory(cd -> new javafx.beans.property.SimpleStringProperty(
+				String.format("%.1f", cd.getValue().getElapsedMillis())));
+		cOperation.setCellValueFactory(cd -> new javafx.beans.property.SimpleStringProperty(cd.getValue().getOperation()));
+		cSql.setCellValueFactory(cd -> new javafx.beans.property.SimpleStringProperty(
+				cd.getValue().getSql().trim().replaceAll("\\s+", " ")));
+
+		cTime.setPrefWidth(170);
+		cElapsed.setPrefWidth(70);
+		cOperation.setPrefWidth(170);
+		cSql.setPrefWidth(420);
+
+		table.getColumns().addAll(cTime, cElapsed, cOperation, cSql);
+		table.setItems(javafx.collections.FXCollections.observableArrayList(entries));
+		table.setColumnResizePolicy(javafx.scene.control.TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+		table.setPlaceholder(new javafx.scene.control.Label("No statement has been slower than "
+				+ log.getThresholdMillis() + " ms."));
+
+		// The details of the selected entry, including its plan
+		javafx.scene.control.TextArea details = new javafx.scene.control.TextArea();
+		details.setEditable(false);
+		details.setFont(javafx.scene.text.Font.font("Monospaced", 12));
+		details.setPrefRowCount(10);
+		table.getSelectionModel().selectedItemProperty().addListener((obs, was, entry) ->
+				details.setText(entry == null ? "" : entry.toString()));
+		if (!entries.isEmpty()) table.getSelectionModel().select(0);
+
+		javafx.scene.control.Button closeBtn = new javafx.scene.control.Button("Close");
+		closeBtn.setOnAction(e -> ((javafx.stage.Stage) closeBtn.getScene().getWindow()).close());
+
+		javafx.scene.layout.HBox buttons = new javafx.scene.layout.HBox(10, closeBtn);
+		buttons.setAlignment(javafx.geometry.Pos.CENTER_RIGHT);
+
+		String threshold = log.getThresholdMillis() == 0 ? "The slow-query log is off"
+				: "Statements slower than " + log.getThresholdMillis() + " ms (" + entries.size()
+						+ " shown" + (log.getFile() == null ? ")" : ", full log in " + log.getFile() + ")");
+		javafx.scene.layout.VBox root = new javafx.scene.layout.VBox(12,
+				new javafx.scene.control.Label(threshold), table, details, buttons);
+		root.setPadding(new javafx.geometry.Insets(12));
+
+		javafx.stage.Stage dialog = new javafx.stage.Stage();
+		dialog.setTitle("Slow Queries");
+		dialog.initOwner(ViewAdminHome.theStage);
+		dialog.initModality(javafx.stage.Modality.WINDOW_MODAL);
+		dialog.setScene(new javafx.scene.Scene(root, 900, 600));
+		dialog.showAndWait();
+	}
+	
 	/**********
 	 * <p> 
 	 * 
@@ -11,6 +11,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
+import javafx.scene.control.Tooltip;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.layout.Pane;
 import javafx.scene.shape.Line;
@@ -18,6 +19,7 @@ import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import database.Database;
 import entityClasses.User;
+import guiTools.ViewRegistry;
 import guiUserUpdate.ViewUserUpdate;
 
 /*******
@@ -43,6 +45,8 @@ import guiUserUpdate.ViewUserUpdate;
  * @author Lynn Robert Carter
  * 
  * @version 1.00		2025-08-17 Initial version
+ * @version 1.01		2025-10-27 The counts are refreshed each time the page is shown
+ * @version 1.02		2025-10-27 Built ahead of time by the ViewRegistry; navigation is timed
  *  
  */
 
@@ -76,6 +80,8 @@ public class ViewAdminHome {
 	protected static Label label_NumberOfInvitations = 
 			new Label("Number of Oustanding Invitations: x");
 	protected static Label label_NumberOfUsers = new Label("Number of Users: x");
+	protected static Label label_DatabaseSessions = new Label("Database sessions: x");
+	protected static Tooltip tooltip_UsersByRole = new Tooltip();
 	
 	// This is a separator and it is used to partition the GUI for various tasks
 	private static Line line_Separator2 = new Line(20, 165, width-20, 165);
@@ -103,6 +109,7 @@ public class ViewAdminHome {
 	protected static Button button_DeleteUser = new Button("Delete a User");
 	protected static Button button_ListUsers = new Button("List All Users");
 	protected static Button button_AddRemoveRoles = new Button("Add/Remove Roles");
+	protected static Button button_SlowQueries = new Button("Slow Queries");
 	protected static Alert alertNotImplemented = new Alert(AlertType.INFORMATION);
 
 	// This is a separator and it is used to partition the GUI for various tasks
@@ -159,6 +166,7 @@ public class ViewAdminHome {
 	 * 
 	 */
 	public static void displayAdminHome(Stage ps, User user) {
+		long start = System.nanoTime();
 		
 		// Establish the references to the GUI and the current user
 		theStage = ps;
@@ -170,15 +178,34 @@ public class ViewAdminHome {
 		// Populate the dynamic aspects of the GUI with the data from the user and the current
 		// state of the system.
 		theDatabase.getUserAccountDetails(user.getUserName());		// Fetch this user's data
+		label_UserDetails.setText("User: " + theUser.getUserName());
 		applicationMain.FoundationsMain.activeHomePage = theRole;	// Set this as the active Home																	// UserUpdate page
 
 		// Set the role for potential users to the default (No role selected)
 		combobox_SelectRole.getSelectionModel().select(0);
+		
+		// Other clients may have connected or disconnected, and users and invitations may have
+		// come and gone, since this page was last shown.  The counts are cheap counter reads.
+		label_DatabaseSessions.setText(theDatabase.getSessionStatistics());
+		ControllerAdminHome.refreshCounts();
 				
 		// Set the title for the window, display the page, and wait for the Admin to do something
 		theStage.setTitle("CSE 360 Foundation Code: Admin Home Page");
 		theStage.setScene(theAdminHomeScene);						// Set this page onto the stage
 		theStage.show();											// Display it to the user
+		ViewRegistry.navigated("AdminHome", theAdminHomeScene, start);
+	}
+
+	/**********
+	 * <p> Method: void buildView() </p>
+	 * 
+	 * <p> Description: Build this page's widgets and Scene without displaying it, so that the
+	 * first visit to the page is as quick as later ones.  The ViewRegistry calls this during
+	 * the warm-up after the login page appears.</p>
+	 * 
+	 */
+	public static void buildView() {
+		if (theView == null) theView = new ViewAdminHome();
 	}
 	
 	/**********
@@ -204,7 +231,6 @@ public class ViewAdminHome {
 		label_PageTitle.setText("Admin Home Page");
 		setupLabelUI(label_PageTitle, "Arial", 28, width, Pos.CENTER, 0, 5);
 
-		label_UserDetails.setText("User: " + theUser.getUserName());
 		setupLabelUI(label_UserDetails, "Arial", 20, width, Pos.BASELINE_LEFT, 20, 55);
 		
 		setupButtonUI(button_UpdateThisUser, "Dialog", 18, 170, Pos.CENTER, 610, 45);
@@ -213,12 +239,11 @@ public class ViewAdminHome {
 			
 		// GUI Area 2
 		setupLabelUI(label_NumberOfInvitations, "Arial", 20, 200, Pos.BASELINE_LEFT, 20, 105);
-		label_NumberOfInvitations.setText("Number of outstanding invitations: " + 
-				theDatabase.getNumberOfInvitations());
 	
 		setupLabelUI(label_NumberOfUsers, "Arial", 20, 200, Pos.BASELINE_LEFT, 20, 135);
-		label_NumberOfUsers.setText("Number of users: " + 
-				theDatabase.getNumberOfUsers());
+		label_NumberOfUsers.setTooltip(tooltip_UsersByRole);
+	
+		setupLabelUI(label_DatabaseSessions, "Arial", 16, 380, Pos.BASELINE_RIGHT, 400, 138);
 	
 		// GUI Area 3
 		setupLabelUI(label_Invitations, "Arial", 20, width, Pos.BASELINE_LEFT, 20, 175);
@@ -260,6 +285,9 @@ public class ViewAdminHome {
 
 		setupButtonUI(button_AddRemoveRoles, "Dialog", 16, 250, Pos.CENTER, 20, 470);
 		button_AddRemoveRoles.setOnAction((event) -> {ControllerAdminHome.addRemoveRoles(); });
+
+		setupButtonUI(button_SlowQueries, "Dialog", 16, 250, Pos.CENTER, 300, 270);
+		button_SlowQueries.setOnAction((event) -> {ControllerAdminHome.slowQueries(); });
 		
 		// GUI Area 5
 		setupButtonUI(button_Logout, "Dialog", 18, 250, Pos.CENTER, 20, 540);
@@ -273,7 +301,7 @@ public class ViewAdminHome {
 		// Place all of the widget items into the Root Pane's list of children
 		theRootPane.getChildren().addAll(
 			label_PageTitle, label_UserDetails, button_UpdateThisUser, line_Separator1,
-    		label_NumberOfInvitations, label_NumberOfUsers,
+    		label_NumberOfInvitations, label_NumberOfUsers, label_DatabaseSessions,
     		line_Separator2,
     		label_Invitations, 
     		label_InvitationEmailAddress, text_InvitationEmailAddress,
@@ -283,6 +311,7 @@ public class ViewAdminHome {
     		button_DeleteUser,
     		button_ListUsers,
     		button_AddRemoveRoles,
+    		button_SlowQueries,
     		line_Separator4, 
     		button_Logout,
     		button_Quit
@@ -1,10 +1,16 @@
 package guiManageInvitations;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import database.Database;
 import javafx.scene.control.ButtonType;
+import logging.Level;
+import logging.Log;
 
 /*******
  * <p> Title: ControllerManageInvitations Class. </p>
@@ -18,6 +24,9 @@ import javafx.scene.control.ButtonType;
  * @author Mahith
  * 
  * @version 1.00		2025-09-30 Initial version
+ * @version 1.01		2025-10-26 Debug output goes through the logging package
+ * @version 1.02		2025-10-27 Page, sort and filter in the database; change the rows shown
+ * 							in place after a delete or a new invitation
  *  
  */
 
@@ -33,33 +42,171 @@ public class ControllerManageInvitations {
     
     // Reference for the in-memory database so this package has access
     private static Database theDatabase = applicationMain.FoundationsMain.database;
+
+    private static final Log log = Log.get(ControllerManageInvitations.class);
+    
+    // The most invitations shown at once
+    private static final int PAGE_SIZE = 50;
+    
+    // The order and filter the database applies
+    private static ModelManageInvitations.SortKey sortKey = ModelManageInvitations.SortKey.EMAIL;
+    private static boolean ascending = true;
+    private static String roleFilter = null;        // null for every role
+    private static String emailFilter = "";
+    
+    // The page shown starts after pageStart (null on the first page).  Going to the next page
+    // pushes pageStart here, and going back pops it.
+    private static ModelManageInvitations.InvitationRecord pageStart = null;
+    private static final List<ModelManageInvitations.InvitationRecord> earlierPageStarts =
+        new ArrayList<>();
+    private static boolean hasNextPage = false;
+    private static boolean pageLoaded = false;
+    
+    /**********
+     * <p> Method: showInvitations() </p>
+     * 
+     * <p> Description: Protected method called each time the page is displayed.  The first time
+     * the first page is read.  After that the rows already shown are kept: expired invitations
+     * are removed and invitations issued since then are added where they belong.</p>
+     */
+    protected static void showInvitations() {
+        if (!pageLoaded) {
+            refreshInvitationList();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        ViewManageInvitations.invitationData.removeIf(inv -> inv.getExpiresAt() <= now);
+        for (ModelManageInvitations.InvitationRecord inv :
+                ModelManageInvitations.takeIssuedInvitations()) {
+            addToPage(inv);
+        }
+        updatePaging();
+    }
     
     /**********
      * <p> Method: refreshInvitationList() </p>
      * 
-     * <p> Description: Protected method to refresh the invitation list by fetching 
-     * all invitations from the database and updating the table view.</p>
+     * <p> Description: Protected method to read the current page of invitations from the
+     * database again.  Only this page's rows are read: the database sorts and filters them and
+     * continues from the row before the page, so this takes the same time however many
+     * invitations there are.</p>
      */
     protected static void refreshInvitationList() {
-        // Clear the current data
-        ViewManageInvitations.invitationData.clear();
+        long start = System.nanoTime();
+        List<ModelManageInvitations.InvitationRecord> invitations =
+            ModelManageInvitations.getInvitationPage(theDatabase, roleFilter, emailFilter,
+                sortKey, ascending, pageStart, PAGE_SIZE + 1);
+        hasNextPage = invitations.size() > PAGE_SIZE;
+        if (hasNextPage) invitations = invitations.subList(0, PAGE_SIZE);
         
-        // Get all invitations from database
-        List<ModelManageInvitations.InvitationRecord> invitations = 
-            ModelManageInvitations.getAllInvitations(theDatabase);
+        // The page now reflects the database, including anything issued since it was last read
+        ModelManageInvitations.takeIssuedInvitations();
+        ViewManageInvitations.invitationData.setAll(invitations);
+        pageLoaded = true;
+        updatePaging();
         
-        // Debug output
-        System.out.println("Invitation list refreshed. Total invitations: " + invitations.size());
-        for (ModelManageInvitations.InvitationRecord inv : invitations) {
-            System.out.println("  Code: " + inv.getCode() + ", Email: " + 
-                inv.getEmailAddress() + ", Role: " + inv.getRole());
+        // Debug output; the per-invitation lines are only built when tracing
+        int shown = invitations.size();
+        log.debug(() -> "Invitation page " + (earlierPageStarts.size() + 1) + " read in " +
+            (System.nanoTime() - start) / 1000 + " us. Invitations shown: " + shown);
+        if (log.isEnabled(Level.TRACE)) {
+            for (ModelManageInvitations.InvitationRecord inv : invitations) {
+                log.trace("  Code: " + inv.getCode() + ", Email: " + 
+                    inv.getEmailAddress() + ", Role: " + inv.getRole());
+            }
         }
-        
-        // Add to observable list for display
-        ViewManageInvitations.invitationData.addAll(invitations);
-        
-        // Force table refresh
-        ViewManageInvitations.table_Invitations.refresh();
+    }
+    
+    /**********
+     * <p> Method: nextPage() </p>
+     * 
+     * <p> Description: Protected method to show the invitations after the last one shown.</p>
+     */
+    protected static void nextPage() {
+        List<ModelManageInvitations.InvitationRecord> rows = ViewManageInvitations.invitationData;
+        if (!hasNextPage || rows.isEmpty()) return;
+        earlierPageStarts.add(pageStart);
+        pageStart = rows.get(rows.size() - 1);
+        refreshInvitationList();
+    }
+    
+    /**********
+     * <p> Method: previousPage() </p>
+     * 
+     * <p> Description: Protected method to show the page before this one.</p>
+     */
+    protected static void previousPage() {
+        if (earlierPageStarts.isEmpty()) return;
+        pageStart = earlierPageStarts.remove(earlierPageStarts.size() - 1);
+        refreshInvitationList();
+    }
+    
+    /**********
+     * <p> Method: applyFilter(String role, String emailPrefix) </p>
+     * 
+     * <p> Description: Protected method to show only the invitations for one role, or whose
+     * email addresses start a certain way, from the first page.</p>
+     * 
+     * @param role The only role to include, or null for every role
+     * @param emailPrefix How the email addresses must start, or empty for any
+     */
+    protected static void applyFilter(String role, String emailPrefix) {
+        String prefix = emailPrefix == null ? "" : emailPrefix.trim();
+        if (Objects.equals(role, roleFilter) && prefix.equals(emailFilter)) return;
+        roleFilter = role;
+        emailFilter = prefix;
+        firstPage();
+    }
+    
+    /**********
+     * <p> Method: sortBy(ModelManageInvitations.SortKey key, boolean ascendingOrder) </p>
+     * 
+     * <p> Description: Protected method to have the database sort the invitations on another
+     * column, from the first page.  The table calls this from its sort policy when a column
+     * heading is clicked.</p>
+     * 
+     * @param key The column to sort on
+     * @param ascendingOrder True for A to Z or soonest first
+     */
+    protected static void sortBy(ModelManageInvitations.SortKey key, boolean ascendingOrder) {
+        if (key == sortKey && ascendingOrder == ascending) return;
+        sortKey = key;
+        ascending = ascendingOrder;
+        if (pageLoaded) firstPage();
+    }
+    
+    // Read the first page with the current order and filter
+    private static void firstPage() {
+        earlierPageStarts.clear();
+        pageStart = null;
+        refreshInvitationList();
+    }
+    
+    // Put a new invitation in its place on this page, if it passes the filter and falls within
+    // the page.  A full page passes its last row on to the next page.
+    private static void addToPage(ModelManageInvitations.InvitationRecord inv) {
+        if (!ModelManageInvitations.matches(inv, roleFilter, emailFilter)) return;
+        Comparator<ModelManageInvitations.InvitationRecord> order =
+            ModelManageInvitations.order(sortKey, ascending);
+        List<ModelManageInvitations.InvitationRecord> rows = ViewManageInvitations.invitationData;
+        if (pageStart != null && order.compare(inv, pageStart) <= 0) return;
+        if (hasNextPage && !rows.isEmpty() && order.compare(inv, rows.get(rows.size() - 1)) > 0)
+            return;
+        int position = Collections.binarySearch(rows, inv, order);
+        if (position >= 0) return;                  // Already shown
+        rows.add(-position - 1, inv);
+        if (rows.size() > PAGE_SIZE) {
+            rows.remove(rows.size() - 1);
+            hasNextPage = true;
+        }
+    }
+    
+    // Show the page number and enable the buttons that lead somewhere
+    private static void updatePaging() {
+        ViewManageInvitations.label_Page.setText("Page " + (earlierPageStarts.size() + 1) +
+            " (" + theDatabase.getNumberOfInvitations() + " outstanding)");
+        ViewManageInvitations.button_PreviousPage.setDisable(earlierPageStarts.isEmpty());
+        ViewManageInvitations.button_NextPage.setDisable(!hasNextPage);
     }
     
     /**********
@@ -95,15 +242,21 @@ public class ControllerManageInvitations {
                 theDatabase, selected.getCode());
             
             if (success) {
+                // Remove just this row.  An emptied page is replaced by its neighbour.
+                ViewManageInvitations.invitationData.remove(selected);
+                if (ViewManageInvitations.invitationData.isEmpty() && !earlierPageStarts.isEmpty())
+                    previousPage();
+                else if (ViewManageInvitations.invitationData.isEmpty() && hasNextPage)
+                    refreshInvitationList();
+                else
+                    updatePaging();
+                
                 // Show success message
                 ViewManageInvitations.alertDeleteSuccess.setContentText(
                     "Invitation successfully deleted for: " + selected.getEmailAddress());
                 ViewManageInvitations.alertDeleteSuccess.showAndWait();
                 
-                // Refresh the list to show updated data
-                refreshInvitationList();
-                
-                System.out.println("Deleted invitation: " + selected.getCode() + 
+                log.info("Deleted invitation: " + selected.getCode() + 
                     " for " + selected.getEmailAddress());
             } else {
                 // Show error message
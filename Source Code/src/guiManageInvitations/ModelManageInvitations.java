@@ -1,6 +1,9 @@
 package guiManageInvitations;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 
 import database.Database;
 
@@ -8,14 +11,17 @@ import database.Database;
  * <p> Title: ModelManageInvitations Class. </p>
  * 
  * <p> Description: The Manage Invitations Page Model. This class provides data 
- * handling methods for managing invitations including fetching all invitations 
- * and deleting selected invitations.</p>
+ * handling methods for managing invitations including fetching a page of invitations 
+ * and deleting selected invitations.  Invitations issued elsewhere are noted here so the page
+ * can add them to the rows it shows without reading the page again.</p>
  * 
  * <p> Copyright: Lynn Robert Carter © 2025 </p>
  * 
  * @author Mahith
  * 
  * @version 1.00		2025-09-30 Initial version
+ * @version 1.01		2025-10-27 Read a sorted, filtered page at a time; note issued invitations
+ * @version 1.02		2025-10-27 Email order and the email filter ignore case, as the database's do
  *  
  */
 
@@ -25,17 +31,29 @@ public class ModelManageInvitations {
     Inner Classes
     */
     
+    /**********
+     * <p> Enum: SortKey </p>
+     * 
+     * <p> Description: The columns the database can sort the invitations on.  Ties are broken by
+     * the invitation code.</p>
+     */
+    public enum SortKey { EMAIL, EXPIRES }
+    
+    // Invitations issued since the page last read its rows; used on the JavaFX thread only
+    private static final List<InvitationRecord> issued = new ArrayList<>();
+    
     /**********
      * <p> Class: InvitationRecord </p>
      * 
      * <p> Description: Inner class to represent a single invitation record with 
-     * code, email address, and role. This class is used by the TableView to display 
-     * invitation data.</p>
+     * code, email address, role, and expiry time. This class is used by the TableView to 
+     * display invitation data.</p>
      */
     public static class InvitationRecord {
         private String code;
         private String emailAddress;
         private String role;
+        private long expiresAt;
         
         /**
          * Constructor for InvitationRecord
@@ -45,9 +63,22 @@ public class ModelManageInvitations {
          * @param role The role assigned to this invitation
          */
         public InvitationRecord(String code, String emailAddress, String role) {
+            this(code, emailAddress, role, 0);
+        }
+        
+        /**
+         * Constructor for InvitationRecord that includes the expiry time
+         * 
+         * @param code The invitation code
+         * @param emailAddress The email address associated with the invitation
+         * @param role The role assigned to this invitation
+         * @param expiresAt When the invitation expires (epoch milliseconds, 0 if unknown)
+         */
+        public InvitationRecord(String code, String emailAddress, String role, long expiresAt) {
             this.code = code;
             this.emailAddress = emailAddress;
             this.role = role;
+            this.expiresAt = expiresAt;
         }
         
         /**
@@ -73,6 +104,25 @@ public class ModelManageInvitations {
         public String getRole() {
             return role;
         }
+        
+        /**
+         * Get the expiry time
+         * @return when the invitation expires (epoch milliseconds, 0 if unknown)
+         */
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+        
+        /**
+         * Get the expiry time formatted for display
+         * @return the expiry date and time, or an empty string if unknown
+         */
+        public String getExpires() {
+            if (expiresAt <= 0) return "";
+            return java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+                .format(java.time.LocalDateTime.ofInstant(
+                    java.time.Instant.ofEpochMilli(expiresAt), java.time.ZoneId.systemDefault()));
+        }
     }
     
     /*-*******************************************************************************************
@@ -80,15 +130,94 @@ public class ModelManageInvitations {
     */
     
     /**********
-     * <p> Method: getAllInvitations(Database database) </p>
+     * <p> Method: getInvitationPage(Database database, String role, String emailPrefix,
+     *		SortKey sortKey, boolean ascending, InvitationRecord after, int limit) </p>
+     * 
+     * <p> Description: Get one page of the outstanding invitations, sorted and filtered by the
+     * database.</p>
+     * 
+     * @param database The database instance to query
+     * @param role The only role to include, or null for every role
+     * @param emailPrefix How the email addresses must start, in any case, or empty for any
+     * @param sortKey The column to sort on
+     * @param ascending True for A to Z or soonest first
+     * @param after The last row of the page before, or null for the first page
+     * @param limit The most rows to return
+     * @return the invitation records of the page, in order
+     */
+    public static List<InvitationRecord> getInvitationPage(Database database, String role,
+            String emailPrefix, SortKey sortKey, boolean ascending, InvitationRecord after,
+            int limit) {
+        return database.getInvitationPage(role, emailPrefix, sortKey, ascending, after, limit);
+    }
+    
+    /**********
+     * <p> Method: invitationIssued(Database database, String code) </p>
      * 
-     * <p> Description: Get all invitations from the database.</p>
+     * <p> Description: Note an invitation that has just been issued, so the Manage Invitations
+     * page can add it to its rows when it is next shown.</p>
      * 
      * @param database The database instance to query
-     * @return a list of all invitation records
+     * @param code The code of the new invitation
+     */
+    public static void invitationIssued(Database database, String code) {
+        InvitationRecord record = database.getInvitationRecord(code);
+        if (record != null) issued.add(record);
+    }
+    
+    /**********
+     * <p> Method: takeIssuedInvitations() </p>
+     * 
+     * <p> Description: The invitations noted by invitationIssued since the last call.</p>
+     * 
+     * @return the new invitations, oldest first
+     */
+    public static List<InvitationRecord> takeIssuedInvitations() {
+        List<InvitationRecord> taken = new ArrayList<>(issued);
+        issued.clear();
+        return taken;
+    }
+    
+    /**********
+     * <p> Method: order(SortKey sortKey, boolean ascending) </p>
+     * 
+     * <p> Description: The order the database returns invitations in, for placing an
+     * invitation among rows already shown.</p>
+     * 
+     * @param sortKey The column sorted on
+     * @param ascending True for A to Z or soonest first
+     * @return the comparator
+     */
+    public static Comparator<InvitationRecord> order(SortKey sortKey, boolean ascending) {
+        Comparator<InvitationRecord> order = sortKey == SortKey.EXPIRES
+            ? Comparator.comparingLong(InvitationRecord::getExpiresAt)
+            : Comparator.comparing(ModelManageInvitations::emailKey,
+                Comparator.nullsFirst(Comparator.naturalOrder()));
+        order = order.thenComparing(InvitationRecord::getCode);
+        return ascending ? order : order.reversed();
+    }
+    
+    /**********
+     * <p> Method: matches(InvitationRecord record, String role, String emailPrefix) </p>
+     * 
+     * <p> Description: Whether an invitation passes the page's filter.</p>
+     * 
+     * @param record The invitation
+     * @param role The only role to include, or null for every role
+     * @param emailPrefix How the email addresses must start, in any case, or empty for any
+     * @return true if the invitation belongs in the filtered list
      */
-    public static List<InvitationRecord> getAllInvitations(Database database) {
-        return database.getAllInvitationRecords();
+    public static boolean matches(InvitationRecord record, String role, String emailPrefix) {
+        if (role != null && !role.equals(record.getRole())) return false;
+        return emailPrefix == null || emailPrefix.isEmpty() ||
+            (record.getEmailAddress() != null &&
+                emailKey(record).startsWith(emailPrefix.toLowerCase(Locale.ROOT)));
+    }
+    
+    // The email address in the form the database sorts and filters on, which ignores case
+    private static String emailKey(InvitationRecord record) {
+        String email = record.getEmailAddress();
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
     }
     
     /**********
@@ -1,35 +1,44 @@
 package guiManageInvitations;
 
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableColumn.SortType;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.Pane;
 import javafx.scene.shape.Line;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import database.Database;
 import entityClasses.User;
+import guiTools.ViewRegistry;
 
 /*******
  * <p> Title: ViewManageInvitations Class. </p>
  * 
  * <p> Description: The Java/FX-based Manage Invitations Page. This class provides 
  * the JavaFX GUI widgets that enable an admin to view and manage outstanding 
- * invitations.</p>
+ * invitations.  The table shows one page at a time; the database sorts and filters the
+ * invitations, so clicking a column heading or changing the filter reads a new first page.</p>
  * 
  * <p> Copyright: Lynn Robert Carter © 2025 </p>
  * 
  * @author Mahith
  * 
  * @version 1.00		2025-09-30 Initial version
+ * @version 1.01		2025-10-27 Built ahead of time by the ViewRegistry; navigation is timed
+ * @version 1.02		2025-10-27 Paging, sorting in the database and a role and email filter
  *  
  */
 
@@ -47,15 +56,26 @@ public class ViewManageInvitations {
     protected static Label label_Instructions = new Label();
     private static Line line_Separator1 = new Line(20, 95, width-20, 95);
     
-    // GUI Area 2: Table to display invitations
+    // GUI Area 2: Filter and table to display invitations
+    private static final String ALL_ROLES = "All roles";
+    protected static Label label_RoleFilter = new Label("Role:");
+    protected static ComboBox<String> combobox_RoleFilter = new ComboBox<String>();
+    protected static Label label_EmailFilter = new Label("Email starts with:");
+    protected static TextField text_EmailFilter = new TextField();
+    private static PauseTransition emailFilterPause = new PauseTransition(Duration.millis(250));
     protected static TableView<ModelManageInvitations.InvitationRecord> table_Invitations = 
         new TableView<>();
     protected static ObservableList<ModelManageInvitations.InvitationRecord> invitationData = 
         FXCollections.observableArrayList();
+    protected static TableColumn<ModelManageInvitations.InvitationRecord, String> emailColumn;
+    protected static TableColumn<ModelManageInvitations.InvitationRecord, String> expiresColumn;
     
-    // GUI Area 3: Action buttons
-    protected static Button button_DeleteInvitation = new Button("Delete Selected Invitation");
-    protected static Button button_Refresh = new Button("Refresh List");
+    // GUI Area 3: Action buttons and paging
+    protected static Button button_DeleteInvitation = new Button("Delete Selected");
+    protected static Button button_Refresh = new Button("Refresh");
+    protected static Button button_PreviousPage = new Button("< Previous");
+    protected static Label label_Page = new Label();
+    protected static Button button_NextPage = new Button("Next >");
     
     // GUI Area 4: Navigation
     private static Line line_Separator2 = new Line(20, 525, width-20, 525);
@@ -88,19 +108,33 @@ public class ViewManageInvitations {
      * @param user specifies the User for this GUI and its methods
      */
     public static void displayManageInvitations(Stage ps, User user) {
+        long start = System.nanoTime();
         theStage = ps;
         theUser = user;
         
         // If not yet established, populate the static aspects of the GUI
         if (theView == null) theView = new ViewManageInvitations();
         
-        // Refresh the invitation list
-        ControllerManageInvitations.refreshInvitationList();
+        // Read the first page, or bring the rows already shown up to date
+        ControllerManageInvitations.showInvitations();
         
         // Set the title for the window and display the page
         theStage.setTitle("CSE 360 Foundation Code: Manage Invitations");
         theStage.setScene(theManageInvitationsScene);
         theStage.show();
+        ViewRegistry.navigated("ManageInvitations", theManageInvitationsScene, start);
+    }
+
+    /**********
+     * <p> Method: void buildView() </p>
+     * 
+     * <p> Description: Build this page's widgets and Scene without displaying it, so that the
+     * first visit to the page is as quick as later ones.  The ViewRegistry calls this during
+     * the warm-up after the login page appears.</p>
+     * 
+     */
+    public static void buildView() {
+        if (theView == null) theView = new ViewManageInvitations();
     }
     
     /**********
@@ -123,18 +157,45 @@ public class ViewManageInvitations {
         label_Instructions.setText("Select an invitation and click 'Delete' to revoke it");
         setupLabelUI(label_Instructions, "Arial", 16, width, Pos.CENTER, 0, 55);
         
-        // GUI Area 2: Table setup
+        // GUI Area 2: Filter and table setup.  Typing in the email filter waits for a pause
+        // before reading the database.
+        setupLabelUI(label_RoleFilter, "Arial", 16, 50, Pos.BASELINE_LEFT, 20, 110);
+        combobox_RoleFilter.setItems(FXCollections.observableArrayList(
+            ALL_ROLES, "Admin", "Role1", "Role2", "Student"));
+        combobox_RoleFilter.getSelectionModel().select(0);
+        combobox_RoleFilter.setLayoutX(75);
+        combobox_RoleFilter.setLayoutY(105);
+        combobox_RoleFilter.setOnAction((event) -> {applyFilter();});
+        
+        setupLabelUI(label_EmailFilter, "Arial", 16, 140, Pos.BASELINE_LEFT, 250, 110);
+        text_EmailFilter.setFont(Font.font("Arial", 16));
+        text_EmailFilter.setLayoutX(390);
+        text_EmailFilter.setLayoutY(105);
+        text_EmailFilter.setPrefWidth(width - 410);
+        text_EmailFilter.setPromptText("Any email address");
+        emailFilterPause.setOnFinished((event) -> {applyFilter();});
+        text_EmailFilter.textProperty().addListener((observable, oldValue, newValue) ->
+            {emailFilterPause.playFromStart();});
+        
         setupInvitationsTable();
         
-        // GUI Area 3: Action buttons
-        setupButtonUI(button_DeleteInvitation, "Dialog", 16, 250, Pos.CENTER, 20, 470);
+        // GUI Area 3: Action buttons and paging
+        setupButtonUI(button_DeleteInvitation, "Dialog", 16, 180, Pos.CENTER, 20, 470);
         button_DeleteInvitation.setOnAction((event) -> 
             {ControllerManageInvitations.deleteSelectedInvitation();});
         
-        setupButtonUI(button_Refresh, "Dialog", 16, 250, Pos.CENTER, 290, 470);
+        setupButtonUI(button_Refresh, "Dialog", 16, 120, Pos.CENTER, 210, 470);
         button_Refresh.setOnAction((event) -> 
             {ControllerManageInvitations.refreshInvitationList();});
         
+        setupButtonUI(button_PreviousPage, "Dialog", 16, 110, Pos.CENTER, 400, 470);
+        button_PreviousPage.setOnAction((event) -> {ControllerManageInvitations.previousPage();});
+        
+        setupLabelUI(label_Page, "Arial", 14, 150, Pos.CENTER, 510, 476);
+        
+        setupButtonUI(button_NextPage, "Dialog", 16, 110, Pos.CENTER, 670, 470);
+        button_NextPage.setOnAction((event) -> {ControllerManageInvitations.nextPage();});
+        
         // GUI Area 4: Return button
         setupButtonUI(button_Return, "Dialog", 18, 250, Pos.CENTER, 20, 540);
         button_Return.setOnAction((event) -> 
@@ -155,9 +216,16 @@ public class ViewManageInvitations {
             label_PageTitle,
             label_Instructions,
             line_Separator1,
+            label_RoleFilter,
+            combobox_RoleFilter,
+            label_EmailFilter,
+            text_EmailFilter,
             table_Invitations,
             button_DeleteInvitation,
             button_Refresh,
+            button_PreviousPage,
+            label_Page,
+            button_NextPage,
             line_Separator2,
             button_Return
         );
@@ -170,14 +238,16 @@ public class ViewManageInvitations {
     /**********
      * <p> Method: setupInvitationsTable() </p>
      * 
-     * <p> Description: Setup the invitations table with columns for code, email, and role.</p>
+     * <p> Description: Setup the invitations table with columns for code, email, role, and 
+     * expiry.  The email and expiry columns can be sorted on.  The table's sort policy hands the
+     * sort to the database instead of sorting the rows of one page.</p>
      */
     @SuppressWarnings("unchecked")
     private void setupInvitationsTable() {
         table_Invitations.setLayoutX(20);
-        table_Invitations.setLayoutY(110);
+        table_Invitations.setLayoutY(145);
         table_Invitations.setPrefWidth(width - 40);
-        table_Invitations.setPrefHeight(340);
+        table_Invitations.setPrefHeight(310);
         table_Invitations.setEditable(false);
         
         // Create columns with proper sizing
@@ -187,10 +257,10 @@ public class ViewManageInvitations {
         codeColumn.setMinWidth(150);
         codeColumn.setMaxWidth(250);
         codeColumn.setCellValueFactory(new PropertyValueFactory<>("code"));
+        codeColumn.setSortable(false);
         
-        TableColumn<ModelManageInvitations.InvitationRecord, String> emailColumn = 
-            new TableColumn<>("Email Address");
-        emailColumn.setPrefWidth(350);
+        emailColumn = new TableColumn<>("Email Address");
+        emailColumn.setPrefWidth(250);
         emailColumn.setMinWidth(250);
         emailColumn.setCellValueFactory(new PropertyValueFactory<>("emailAddress"));
         
@@ -200,9 +270,38 @@ public class ViewManageInvitations {
         roleColumn.setMinWidth(100);
         roleColumn.setMaxWidth(200);
         roleColumn.setCellValueFactory(new PropertyValueFactory<>("role"));
+        roleColumn.setSortable(false);
+        
+        expiresColumn = new TableColumn<>("Expires");
+        expiresColumn.setPrefWidth(150);
+        expiresColumn.setMinWidth(120);
+        expiresColumn.setCellValueFactory(new PropertyValueFactory<>("expires"));
         
         table_Invitations.setItems(invitationData);
-        table_Invitations.getColumns().addAll(codeColumn, emailColumn, roleColumn);
+        table_Invitations.getColumns().addAll(codeColumn, emailColumn, roleColumn, expiresColumn);
+        
+        table_Invitations.setSortPolicy((table) -> {
+            // With no column chosen the invitations are in email order
+            TableColumn<ModelManageInvitations.InvitationRecord, ?> column =
+                table.getSortOrder().isEmpty() ? null : table.getSortOrder().get(0);
+            ControllerManageInvitations.sortBy(column == expiresColumn
+                ? ModelManageInvitations.SortKey.EXPIRES : ModelManageInvitations.SortKey.EMAIL,
+                column == null || column.getSortType() == SortType.ASCENDING);
+            return true;
+        });
+        table_Invitations.getSortOrder().add(emailColumn);
+    }
+    
+    /**********
+     * <p> Method: applyFilter() </p>
+     * 
+     * <p> Description: Pass the role and email filter to the controller.</p>
+     */
+    private static void applyFilter() {
+        emailFilterPause.stop();
+        String role = combobox_RoleFilter.getValue();
+        ControllerManageInvitations.applyFilter(ALL_ROLES.equals(role) ? null : role,
+            text_EmailFilter.getText());
     }
     
     /**********
@@ -14,6 +14,7 @@ import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import database.Database;
 import entityClasses.User;
+import guiTools.ViewRegistry;
 
 /*******
  * <p> Title: GUIMultipleRoleDispatchPage Class. </p>
@@ -25,6 +26,7 @@ import entityClasses.User;
  * @author Lynn Robert Carter
  * 
  * @version 1.00		2025-08-20 Initial version
+ * @version 1.01		2025-10-27 Built ahead of time by the ViewRegistry; navigation is timed
  *  
  */
 
@@ -91,6 +93,7 @@ public class ViewMultipleRoleDispatch {
 	 */
 
 	public static void displayMultipleRoleDispatch(Stage ps, User user) {
+		long start = System.nanoTime();
 		
 		// Establish the references to the GUI and the current user
 		theStage = ps;
@@ -99,12 +102,40 @@ public class ViewMultipleRoleDispatch {
 		if (theView == null) theView = new ViewMultipleRoleDispatch();
 		
 		// Populate the dynamic aspects of the GUI with the data from the user and the current
+		// state of the system.  The page is built once, so the user's name and roles are filled
+		// in on every display.
+		label_UserDetails.setText("User: " + theUser.getUserName());
+
+		List<String> list = new ArrayList<String>();	// Create a new list empty list
+		theDatabase.getUserAccountDetails(theUser.getUserName());
+
+		System.out.println("*** Getting multiple role details for user: " + theUser.getUserName());
+		list = new ArrayList<String>();
+		list.add("<Select a role>");
+		if (theDatabase.getCurrentAdminRole()) list.add("Admin");
+		if (theDatabase.getCurrentNewRole1()) list.add("Role1");
+		if (theDatabase.getCurrentNewRole2()) list.add("Student");
+		if (theDatabase.getCurrentNewRole2()) list.add("Student");
+		combobox_SelectRole.setItems(FXCollections.observableArrayList(list));
 		combobox_SelectRole.getSelectionModel().select(0);
 		
 		// Set the title for the window, display the page, and wait for the Admin to do something
 		theStage.setTitle("CSE 360 Foundation Code: Multiple Role Dispatch");	
 		theStage.setScene(theMultipleRoleDispatchScene);		// Set this page onto the stage
 		theStage.show();										// Display it to the user
+		ViewRegistry.navigated("MultipleRoleDispatch", theMultipleRoleDispatchScene, start);
+	}
+
+	/**********
+	 * <p> Method: void buildView() </p>
+	 * 
+	 * <p> Description: Build this page's widgets and Scene without displaying it, so that the
+	 * first visit to the page is as quick as later ones.  The ViewRegistry calls this during
+	 * the warm-up after the login page appears.</p>
+	 * 
+	 */
+	public static void buildView() {
+		if (theView == null) theView = new ViewMultipleRoleDispatch();
 	}
 
 
@@ -131,10 +162,6 @@ public class ViewMultipleRoleDispatch {
 		// GUI Area 1
 		setupLabelUI(label_PageTitle, "Arial", 28, width, Pos.CENTER, 0, 5);
 
-		label_UserDetails.setText("User: " + theUser.getUserName() + "   Select which role");
-		setupLabelUI(label_UserDetails, "Arial", 20, width, Pos.CENTER, 0, 50);
-
-		label_UserDetails.setText("User: " + theUser.getUserName());
 		setupLabelUI(label_UserDetails, "Arial", 20, width, Pos.BASELINE_LEFT, 20, 55);			
 
 		// GUI Area 2
@@ -142,18 +169,6 @@ public class ViewMultipleRoleDispatch {
 
 		setupComboBoxUI(combobox_SelectRole, "Dialog", 16, 100, 305, 105);
 
-		List<String> list = new ArrayList<String>();	// Create a new list empty list
-		theDatabase.getUserAccountDetails(theUser.getUserName());
-
-		System.out.println("*** Getting multiple role details for user: " + theUser.getUserName());
-		list = new ArrayList<String>();
-		list.add("<Select a role>");
-		if (theDatabase.getCurrentAdminRole()) list.add("Admin");
-		if (theDatabase.getCurrentNewRole1()) list.add("Role1");
-		if (theDatabase.getCurrentNewRole2()) list.add("Student");
-		if (theDatabase.getCurrentNewRole2()) list.add("Student");
-		combobox_SelectRole.setItems(FXCollections.observableArrayList(list));
-
 		setupButtonUI(button_PerformRole, "Dialog", 16, 100, Pos.CENTER, 495, 105);
 		button_PerformRole.setOnAction((event) -> 
 		{guiMultipleRoleDispatch.ControllerMultipleRoleDispatch.performRole(); });
@@ -4,6 +4,7 @@ import java.sql.SQLException;
 
 import database.Database;
 import entityClasses.User;
+import guiManageInvitations.ModelManageInvitations.InvitationRecord;
 import validate.UserNameRecognizer;
 import validate.PasswordValidator;
 import javafx.scene.control.Alert;
@@ -69,53 +70,43 @@ public class ControllerNewAccount {
 				ViewNewAccount.theInvitationCode + "; email address: " + 
 				ViewNewAccount.emailAddress + "; Role: " + ViewNewAccount.theRole);
 		
-		// Initialize local variables that will be created during this process
-		int roleCode = 0;
-		User user = null;
-
 		// Make sure the two passwords are the same.	
 		if (ViewNewAccount.text_Password1.getText().
 				compareTo(ViewNewAccount.text_Password2.getText()) == 0) {
 			
-			// The passwords match so we will set up the role and the User object base on the 
-			// information provided in the invitation
-			if (ViewNewAccount.theRole.compareTo("Admin") == 0) {
-				roleCode = 1;
-				user = new User(username, password, "", "", "", "", "", true, false, false, false);
-			} else if (ViewNewAccount.theRole.compareTo("Role1") == 0) {
-				roleCode = 2;
-				user = new User(username, password, "", "", "", "", "", false, true, false, false);
-			} else if (ViewNewAccount.theRole.compareTo("Role2") == 0) {
-				roleCode = 3;
-				user = new User(username, password, "", "", "", "", "", false, false, true, false);
-			} else if (ViewNewAccount.theRole.compareTo("Student") == 0) {
-				roleCode = 4;
-				user = new User(username, password, "", "", "", "", "", false, false, false, true);
-			} else {
-				System.out.println(
-						"**** Trying to create a New Account for a role that does not exist!");
-				System.exit(0);
-			}
-			
-			// Unlike the FirstAdmin, we know the email address, so set that into the user as well.
-        	user.setEmailAddress(ViewNewAccount.emailAddress);
-
-        	// Inform the system about which role will be played
-			applicationMain.FoundationsMain.activeHomePage = roleCode;
-			
-        	// Create the account based on user and proceed to the user account update page
+			// The passwords match, so create the account.  The role and email address are those
+			// of the invitation, which is used up in the same transaction that adds the account.
+			User user = new User(username, password, "", "", "", "", "", false, false, false,
+					false);
+			InvitationRecord invitation;
             try {
-            	// Create a new User object with the pre-set role and register in the database
-            	theDatabase.register(user);
+            	invitation = theDatabase.redeemInvitation(ViewNewAccount.theInvitationCode, user);
             } catch (SQLException e) {
+            	if (theDatabase.doesUserExist(username)) {
+            		// Nothing was changed, so the user can pick another name and try again
+            		showError("Username taken", "The username " + username + " is already in "
+            				+ "use.  Please choose another one.");
+            		return;
+            	}
                 System.err.println("*** ERROR *** Database error: " + e.getMessage());
                 e.printStackTrace();
                 System.exit(0);
+                return;
             }
             
-            // The account has been set, so remove the invitation from the system
-            theDatabase.removeInvitationAfterUse(
-            		ViewNewAccount.text_Invitation.getText());
+            if (invitation == null) {
+            	// The invitation expired or was used by someone else since the page was shown
+            	ViewNewAccount.alertInvitationCodeIsInvalid.showAndWait();
+            	guiUserLogin.ViewUserLogin.displayUserLogin(ViewNewAccount.theStage);
+            	return;
+            }
+
+        	// Inform the system about which role will be played
+            String role = invitation.getRole();
+			if (role.equals("Admin")) applicationMain.FoundationsMain.activeHomePage = 1;
+			else if (role.equals("Role1")) applicationMain.FoundationsMain.activeHomePage = 2;
+			else if (role.equals("Role2")) applicationMain.FoundationsMain.activeHomePage = 3;
+			else applicationMain.FoundationsMain.activeHomePage = 4;
             
             // Set the database so it has this user and the current user
             theDatabase.getUserAccountDetails(username);
@@ -13,6 +13,7 @@ import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import database.Database;
 import entityClasses.User;
+import guiManageInvitations.ModelManageInvitations.InvitationRecord;
 
 /*******
  * <p> Title: ViewNewAccount Class. </p>
@@ -26,6 +27,7 @@ import entityClasses.User;
  * @author Lynn Robert Carter
  * 
  * @version 1.00		2025-08-19 Initial version
+ * @version 1.01		2025-10-27 Read the invitation's role and email address with one query
  *  
  */
 
@@ -122,16 +124,16 @@ public class ViewNewAccount {
 		text_Password1.setText("");	// appear for a new user
 		text_Password2.setText("");
 		
-		// Fetch the role for this user
-		theRole = theDatabase.getRoleGivenAnInvitationCode(theInvitationCode);
+		// Fetch the role and email address for this user with one read.  The invitation is only
+		// used up when the account is created.
+		InvitationRecord invitation = theDatabase.getInvitationRecord(theInvitationCode);
 		
-		if (theRole.length() == 0) {// If there is an issue with the invitation code, display a
+		if (invitation == null) {	// If there is an issue with the invitation code, display a
 			alertInvitationCodeIsInvalid.showAndWait();	// dialog box saying that are when it it
 			return;					// acknowledged, return so the proper code can be entered
 		}
-		
-		// Get the email address associated with the invitation code
-		emailAddress = theDatabase.getEmailAddressUsingCode(theInvitationCode);
+		theRole = invitation.getRole();
+		emailAddress = invitation.getEmailAddress();
 		
     	// Place all of the established GUI elements into the pane
     	theRootPane.getChildren().clear();
@@ -10,6 +10,7 @@ import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import database.Database;
 import entityClasses.User;
+import guiTools.ViewRegistry;
 import guiUserUpdate.ViewUserUpdate;
 
 
@@ -25,6 +26,7 @@ import guiUserUpdate.ViewUserUpdate;
  * @author Lynn Robert Carter
  * 
  * @version 1.00		2025-08-20 Initial version
+ * @version 1.01		2025-10-27 Built ahead of time by the ViewRegistry; navigation is timed
  *  
  */
 
@@ -112,6 +114,7 @@ public class ViewRole1Home {
 	 * 
 	 */
 	public static void displayRole1Home(Stage ps, User user) {
+		long start = System.nanoTime();
 		
 		// Establish the references to the GUI and the current user
 		theStage = ps;
@@ -131,6 +134,19 @@ public class ViewRole1Home {
 		theStage.setTitle("CSE 360 Foundations: Role1 Home Page");
 		theStage.setScene(theViewRole1HomeScene);
 		theStage.show();
+		ViewRegistry.navigated("Role1Home", theViewRole1HomeScene, start);
+	}
+
+	/**********
+	 * <p> Method: void buildView() </p>
+	 * 
+	 * <p> Description: Build this page's widgets and Scene without displaying it, so that the
+	 * first visit to the page is as quick as later ones.  The ViewRegistry calls this during
+	 * the warm-up after the login page appears.</p>
+	 * 
+	 */
+	public static void buildView() {
+		if (theView == null) theView = new ViewRole1Home();
 	}
 	
 	/**********
@@ -158,7 +174,6 @@ public class ViewRole1Home {
 		label_PageTitle.setText("Role1 Home Page");
 		setupLabelUI(label_PageTitle, "Arial", 28, width, Pos.CENTER, 0, 5);
 
-		label_UserDetails.setText("User: " + theUser.getUserName());
 		setupLabelUI(label_UserDetails, "Arial", 20, width, Pos.BASELINE_LEFT, 20, 55);
 		
 		setupButtonUI(button_UpdateThisUser, "Dialog", 18, 170, Pos.CENTER, 610, 45);
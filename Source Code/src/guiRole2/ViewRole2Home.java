@@ -11,6 +11,7 @@ import javafx.stage.Stage;
 import database.Database;
 //import database.Database;
 import entityClasses.User;
+import guiTools.ViewRegistry;
 
 
 /*******
@@ -25,6 +26,7 @@ import entityClasses.User;
  * @author Lynn Robert Carter
  * 
  * @version 1.00		2025-04-20 Initial version
+ * @version 1.01		2025-10-27 Built ahead of time by the ViewRegistry; navigation is timed
  *  
  */
 
@@ -110,6 +112,7 @@ public class ViewRole2Home {
 	 * 
 	 */
 	public static void displayRole2Home(Stage ps, User user) {
+		long start = System.nanoTime();
 		
 		// Establish the references to the GUI and the current user
 		theStage = ps;
@@ -129,6 +132,19 @@ public class ViewRole2Home {
 		theStage.setTitle("CSE 360 Foundations: Role2 Home Page");
 		theStage.setScene(theRole2HomeScene);						// Set this page onto the stage
 		theStage.show();											// Display it to the user
+		ViewRegistry.navigated("Role2Home", theRole2HomeScene, start);
+	}
+
+	/**********
+	 * <p> Method: void buildView() </p>
+	 * 
+	 * <p> Description: Build this page's widgets and Scene without displaying it, so that the
+	 * first visit to the page is as quick as later ones.  The ViewRegistry calls this during
+	 * the warm-up after the login page appears.</p>
+	 * 
+	 */
+	public static void buildView() {
+		if (theView == null) theView = new ViewRole2Home();
 	}
 	
 	/**********
@@ -156,7 +172,6 @@ public class ViewRole2Home {
 		label_PageTitle.setText("Role2 Home Page");
 		setupLabelUI(label_PageTitle, "Arial", 28, width, Pos.CENTER, 0, 5);
 
-		label_UserDetails.setText("User: " + theUser.getUserName());
 		setupLabelUI(label_UserDetails, "Arial", 20, width, Pos.BASELINE_LEFT, 20, 55);
 		
 		setupButtonUI(button_UpdateThisUser, "Dialog", 18, 170, Pos.CENTER, 610, 45);
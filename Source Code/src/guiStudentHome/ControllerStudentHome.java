@@ -3,9 +3,11 @@ package guiStudentHome;
 import database.Database;
 import entityClasses.Post;
 import entityClasses.PostCollection;
+import metrics.MetricsRegistry;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonType;
+import java.sql.SQLException;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -35,9 +37,16 @@ public class ControllerStudentHome {
         String username = ViewStudentHome.theUser.getUserName();
 
         try {
+            long start = System.nanoTime();
             Post newPost = new Post(username, title, content, thread);
+            try {
+                theDatabase.submitPost(newPost);
+            } catch (SQLException ex) {
+                new Alert(AlertType.ERROR, "The post could not be saved: " + ex.getMessage()).showAndWait();
+                return;
+            }
             allPosts.addPost(newPost);
-            try { theDatabase.savePost(newPost); } catch (Exception ex) { ex.printStackTrace(); }
+            MetricsRegistry.recordSince("op.createPost", start);
 
             new Alert(AlertType.INFORMATION, "Post created successfully!\nPost ID: " + newPost.getPostId()).showAndWait();
 
@@ -56,7 +65,7 @@ public class ControllerStudentHome {
 
     protected static void viewAllPosts() {
         try {
-            allPosts = new PostCollection(theDatabase.getAllPosts());
+            allPosts = loadPosts();
         } catch (Exception ex) {
             new Alert(AlertType.ERROR, "Error loading posts from database.").showAndWait();
             return;
@@ -86,7 +95,7 @@ public class ControllerStudentHome {
 
     protected static void viewMyPosts() {
         try {
-            allPosts = new PostCollection(theDatabase.getAllPosts());
+            allPosts = loadPosts();
         } catch (Exception ex) {
             new Alert(AlertType.ERROR, "Error loading posts from database.").showAndWait();
             return;
@@ -128,8 +137,10 @@ public class ControllerStudentHome {
         String keyword = result.get().trim();
 
         try {
-            allPosts = new PostCollection(theDatabase.getAllPosts());
+            long start = System.nanoTime();
+            allPosts = loadPosts();
             PostCollection found = allPosts.searchPosts(keyword);
+            MetricsRegistry.recordSince("op.search", start);
 
             if (found.isEmpty()) {
                 new Alert(AlertType.INFORMATION, "No posts found matching \"" + keyword + "\".").showAndWait();
@@ -153,6 +164,55 @@ public class ControllerStudentHome {
         }
     }
 
+    // =====================================================
+    // ================ HOT POSTS ==========================
+    // =====================================================
+
+    protected static void viewHotPosts() {
+        javafx.scene.control.TextInputDialog dialog = new javafx.scene.control.TextInputDialog();
+        dialog.setTitle("Hot Posts");
+        dialog.setHeaderText("The Most Active Posts");
+        dialog.setContentText("Thread (leave blank for all threads):");
+        Optional<String> result = dialog.showAndWait();
+
+        if (!result.isPresent()) return;
+
+        showHotPosts(result.get().trim());
+    }
+
+    // Show the hottest posts in a thread, or in every thread when it is blank
+    protected static void showHotPosts(String thread) {
+        try {
+            long start = System.nanoTime();
+            theDatabase.flushWrites();
+            java.util.List<Post> hot = theDatabase.getHotPosts(thread);
+            MetricsRegistry.recordSince("op.hotPosts", start);
+
+            if (hot.isEmpty()) {
+                new Alert(AlertType.INFORMATION, thread.isEmpty() ? "No posts have been created yet."
+                        : "No posts found in thread \"" + thread + "\".").showAndWait();
+                return;
+            }
+
+            StringBuilder sb = new StringBuilder(thread.isEmpty() ? "Hot Posts:\n\n"
+                    : "Hot Posts in \"" + thread + "\":\n\n");
+            int rank = 1;
+            for (Post p : hot) {
+                sb.append("=".repeat(60)).append("\n");
+                sb.append("#").append(rank++).append("  ID: ").append(p.getPostId()).append("\n");
+                sb.append("Title: ").append(p.getTitle()).append("\n");
+                sb.append("Author: ").append(p.getAuthorUsername()).append("\n");
+                sb.append("Thread: ").append(p.getThread()).append("\n");
+                sb.append("Replies: ").append(p.getReplyCount()).append("\n\n");
+            }
+
+            new Alert(AlertType.INFORMATION, sb.toString()).showAndWait();
+
+        } catch (Exception e) {
+            new Alert(AlertType.ERROR, "Error loading hot posts: " + e.getMessage()).showAndWait();
+        }
+    }
+
     // =====================================================
     // ================ DELETE POST ========================
     // =====================================================
@@ -165,7 +225,7 @@ public class ControllerStudentHome {
         }
 
         try {
-            allPosts = new PostCollection(theDatabase.getAllPosts());
+            allPosts = loadPosts();
             Post post = allPosts.findPostById(postId);
             if (post == null) throw new IllegalArgumentException("No post found with ID " + postId);
             if (!post.getAuthorUsername().equals(ViewStudentHome.theUser.getUserName()))
@@ -176,7 +236,7 @@ public class ControllerStudentHome {
 
             if (r.isPresent() && r.get() == ButtonType.OK) {
                 post.markAsDeleted();
-                theDatabase.markPostDeleted(post.getPostId());
+                theDatabase.submitPostDeleted(post.getPostId());
                 new Alert(AlertType.INFORMATION, "Post deleted successfully.").showAndWait();
             }
 
@@ -200,16 +260,17 @@ public class ControllerStudentHome {
         }
 
         try {
-            allPosts = new PostCollection(theDatabase.getAllPosts());
-            Post post = allPosts.findPostById(postId);
-            if (post == null) throw new IllegalArgumentException("No post found with ID " + postId);
-
-            post.incrementReplyCount();
             String replyId = "R-" + UUID.randomUUID().toString().substring(0, 5).toUpperCase();
-            theDatabase.saveReply(replyId, postId, username, content);
-            theDatabase.updateReplyCount(postId, post.getReplyCount());
+            // The database counts the reply as it saves it, touching only this post
+            int replyCount = theDatabase.submitReply(replyId, postId, username, content);
+            if (replyCount == 0) throw new IllegalArgumentException("No post found with ID " + postId);
+
+            Post post = allPosts.findPostById(postId);
+            if (post != null && replyCount > 0) post.__setReplyCount(replyCount);
 
-            new Alert(AlertType.INFORMATION, "Reply added successfully!").showAndWait();
+            new Alert(AlertType.INFORMATION, replyCount > 0
+                    ? "Reply added successfully!\nThe post now has " + replyCount + " replies."
+                    : "Reply added successfully!").showAndWait();
 
             ViewStudentHome.text_ReplyPostId.clear();
             ViewStudentHome.text_ReplyContent.clear();
@@ -231,6 +292,7 @@ public class ControllerStudentHome {
         }
 
         try {
+            theDatabase.flushWrites();
             java.util.List<String> replies = theDatabase.getRepliesForPost(postId);
             if (replies.isEmpty()) {
                 new Alert(AlertType.INFORMATION, "No replies found for this post.").showAndWait();
@@ -246,15 +308,32 @@ public class ControllerStudentHome {
         }
     }
 
+    // =====================================================
+    // ================ BROWSE THREADS =====================
+    // =====================================================
+
+    protected static void browseThreads() {
+        ViewThreadBrowser.displayThreadBrowser(ViewStudentHome.theStage, ViewStudentHome.theUser);
+    }
+
     // =====================================================
     // ================ LOGOUT / QUIT ======================
     // =====================================================
 
+    // Posts and replies still in the write-behind queue are saved before the user leaves
     protected static void performLogout() {
+        theDatabase.flushWrites();
         guiUserLogin.ViewUserLogin.displayUserLogin(ViewStudentHome.theStage);
     }
 
     protected static void performQuit() {
+        theDatabase.flushWrites();
         System.exit(0);
     }
+
+    // Read the posts, once the user's own queued posts and replies have been saved
+    private static PostCollection loadPosts() throws SQLException {
+        theDatabase.flushWrites();
+        return new PostCollection(theDatabase.getAllPosts());
+    }
 }
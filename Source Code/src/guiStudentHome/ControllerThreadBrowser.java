@@ -0,0 +1,133 @@
+package guiStudentHome;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import database.Database;
+import entityClasses.ThreadSummary;
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
+import logging.Log;
+import metrics.MetricsRegistry;
+
+/*******
+ * <p> Title: ControllerThreadBrowser Class. </p>
+ *
+ * <p> Description: The Java/FX-based Thread Browser Controller. This class provides the
+ * controller actions based on the user's use of the JavaFX GUI widgets defined by the View
+ * class.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-27 Initial version
+ * @version 1.01		2025-10-27 The summaries are read on a background thread
+ *
+ */
+
+public class ControllerThreadBrowser {
+
+    /*-*******************************************************************************************
+    User Interface Actions for this page
+
+    This controller is not a class that gets instantiated. Rather, it is a collection of protected
+    static methods that can be called by the View (which is a singleton instantiated object).
+    */
+
+    // Reference for the in-memory database so this package has access
+    private static Database theDatabase = applicationMain.FoundationsMain.database;
+
+    private static final Log log = Log.get(ControllerThreadBrowser.class);
+
+    // Flushing the write-behind queue can take seconds, so the summaries are read on this thread
+    // rather than the JavaFX thread
+    private static final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread t = new Thread(runnable, "thread-browser");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Counts the refreshes started, so only the latest one's summaries are shown; only used on
+    // the JavaFX thread
+    private static long generation = 0;
+
+    /**********
+     * <p> Method: refreshThreadList() </p>
+     *
+     * <p> Description: Protected method to read the thread summaries again.  Posts and replies
+     * still waiting in the write-behind queue are saved first, so the user's own recent posts are
+     * counted.  Both are done on a background thread with a pooled connection, and the table is
+     * filled in on the JavaFX thread when they are done.</p>
+     */
+    protected static void refreshThreadList() {
+        long start = System.nanoTime();
+        long thisGeneration = ++generation;
+        ViewThreadBrowser.label_Totals.setText("Loading threads...");
+        loader.execute(() -> {
+            List<ThreadSummary> summaries;
+            try {
+                summaries = theDatabase.withPooledConnection(() -> {
+                    theDatabase.flushWrites();
+                    return theDatabase.getThreadSummaries();
+                });
+            } catch (Exception e) {
+                log.error("Could not read the thread summaries", e);
+                Platform.runLater(() -> {
+                    if (thisGeneration != generation) return;
+                    ViewThreadBrowser.label_Totals.setText("");
+                    new Alert(AlertType.ERROR, "Error loading threads: " + e.getMessage())
+                        .showAndWait();
+                });
+                return;
+            }
+            Platform.runLater(() -> {
+                if (thisGeneration != generation) return;  // A later refresh is running
+                showThreadList(summaries);
+                MetricsRegistry.recordSince("op.threadSummaries", start);
+            });
+        });
+    }
+
+    // Fill the table and the totals line from the summaries
+    private static void showThreadList(List<ThreadSummary> summaries) {
+        ViewThreadBrowser.threadData.setAll(summaries);
+        long posts = 0;
+        long replies = 0;
+        for (ThreadSummary summary : summaries) {
+            posts += summary.getActiveCount();
+            replies += summary.getReplyCount();
+        }
+        ViewThreadBrowser.label_Totals.setText(summaries.size() + " threads, " + posts
+            + " active posts, " + replies + " replies");
+    }
+
+    /**********
+     * <p> Method: showHotPostsInThread() </p>
+     *
+     * <p> Description: Protected method to list the most active posts in the selected
+     * thread.</p>
+     */
+    protected static void showHotPostsInThread() {
+        ThreadSummary selected = ViewThreadBrowser.table_Threads.getSelectionModel()
+            .getSelectedItem();
+        if (selected == null) {
+            new Alert(AlertType.WARNING, "Please select a thread first.").showAndWait();
+            return;
+        }
+        ControllerStudentHome.showHotPosts(selected.getThread());
+    }
+
+    /**********
+     * <p> Method: returnToStudentHome() </p>
+     *
+     * <p> Description: Protected method to return to the Student Home page.</p>
+     */
+    protected static void returnToStudentHome() {
+        ViewStudentHome.displayStudentHome(
+            ViewThreadBrowser.theStage,
+            ViewThreadBrowser.theUser);
+    }
+}
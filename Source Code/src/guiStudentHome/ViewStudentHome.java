@@ -2,6 +2,7 @@ package guiStudentHome;
 
 import applicationMain.FoundationsMain;
 import entityClasses.User;
+import guiTools.ViewRegistry;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -20,6 +21,10 @@ import javafx.stage.Stage;
  * Student Discussion System © 2025 </p>
  *
  * @version 3.00 — 2025-10-17
+ * @version 3.01 — 2025-10-27 A singleton like the other pages, built ahead of time by the
+ *                            ViewRegistry; navigation is timed
+ * @version 3.02 — 2025-10-27 Hot Posts button
+ * @version 3.03 — 2025-10-27 Browse Threads button
  */
 public class ViewStudentHome {
 
@@ -31,6 +36,9 @@ public class ViewStudentHome {
     protected static Pane theRootPane;
     protected static User theUser;
 
+    private static ViewStudentHome theView;         // The singleton, built once
+    private static Scene theStudentHomeScene;       // The Scene each display reuses
+
     // Labels
     protected static Label label_PageTitle = new Label("Student Discussion System");
     protected static Label label_PostTitle = new Label("Post Title:");
@@ -51,6 +59,8 @@ public class ViewStudentHome {
     protected static Button button_ViewAllPosts = new Button("View All Posts");
     protected static Button button_ViewMyPosts = new Button("View My Posts");
     protected static Button button_SearchPosts = new Button("Search Posts");
+    protected static Button button_HotPosts = new Button("Hot Posts");
+    protected static Button button_BrowseThreads = new Button("Browse Threads");
     protected static Button button_CreateReply = new Button("Add Reply");
     protected static Button button_ViewReplies = new Button("View Replies");
     protected static Button button_DeletePost = new Button("Delete My Post");
@@ -62,13 +72,42 @@ public class ViewStudentHome {
     // =====================================================
 
     public static void displayStudentHome(Stage stage, User user) {
+        long start = System.nanoTime();
         theStage = stage;
         theUser = user;
 
-        theRootPane = new Pane();
-        Scene scene = new Scene(theRootPane, 750, 600);
+        // The widgets are built once; later displays only reload the posts
+        if (theView == null) theView = new ViewStudentHome();
+
         theStage.setTitle("Student Home");
-        theStage.setScene(scene);
+        theStage.setScene(theStudentHomeScene);
+
+        try {
+            ControllerStudentHome.allPosts = new entityClasses.PostCollection(
+                    FoundationsMain.database.getAllPosts());
+        } catch (Exception e) {
+            System.err.println("Could not load saved posts: " + e.getMessage());
+        }
+
+        theStage.show();
+        ViewRegistry.navigated("StudentHome", theStudentHomeScene, start);
+    }
+
+    /**
+     * Builds the page's widgets and Scene without displaying it, so the first visit is as quick
+     * as later ones.  The ViewRegistry calls this after the login page appears.
+     */
+    public static void buildView() {
+        if (theView == null) theView = new ViewStudentHome();
+    }
+
+    // =====================================================
+    // ================   CONSTRUCTOR   ====================
+    // =====================================================
+
+    private ViewStudentHome() {
+        theRootPane = new Pane();
+        theStudentHomeScene = new Scene(theRootPane, 750, 600);
 
         label_PageTitle.setLayoutX(210);
         label_PageTitle.setLayoutY(20);
@@ -134,6 +173,14 @@ public class ViewStudentHome {
         button_DeletePost.setLayoutY(480);
         button_DeletePost.setOnAction(e -> ControllerStudentHome.deletePost());
 
+        button_HotPosts.setLayoutX(540);
+        button_HotPosts.setLayoutY(480);
+        button_HotPosts.setOnAction(e -> ControllerStudentHome.viewHotPosts());
+
+        button_BrowseThreads.setLayoutX(130);
+        button_BrowseThreads.setLayoutY(540);
+        button_BrowseThreads.setOnAction(e -> ControllerStudentHome.browseThreads());
+
         button_Logout.setLayoutX(540);
         button_Logout.setLayoutY(540);
         button_Logout.setOnAction(e -> ControllerStudentHome.performLogout());
@@ -147,17 +194,8 @@ public class ViewStudentHome {
                 label_PostThread, text_PostThread, label_PostContent, text_PostContent,
                 button_CreatePost, button_ViewAllPosts, button_ViewMyPosts, button_SearchPosts,
                 label_ReplyPostId, text_ReplyPostId, label_ReplyContent, text_ReplyContent,
-                button_CreateReply, button_ViewReplies, button_DeletePost,
-                button_Logout, button_Quit
+                button_CreateReply, button_ViewReplies, button_DeletePost, button_HotPosts,
+                button_BrowseThreads, button_Logout, button_Quit
         );
-
-        try {
-            ControllerStudentHome.allPosts = new entityClasses.PostCollection(
-                    FoundationsMain.database.getAllPosts());
-        } catch (Exception e) {
-            System.err.println("Could not load saved posts: " + e.getMessage());
-        }
-
-        theStage.show();
     }
 }
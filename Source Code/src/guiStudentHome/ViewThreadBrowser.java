@@ -0,0 +1,254 @@
+package guiStudentHome;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Line;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
+import entityClasses.ThreadSummary;
+import entityClasses.User;
+import guiTools.ViewRegistry;
+
+/*******
+ * <p> Title: ViewThreadBrowser Class. </p>
+ *
+ * <p> Description: The Java/FX-based Thread Browser Page.  It lists every discussion thread
+ * with how many posts and replies it has and when it was last active, most recently active
+ * first.  The rows come from the thread summaries the database keeps, so showing the page does
+ * not read the posts.  Selecting a thread and clicking "Hot Posts in Thread" lists its most
+ * active posts.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-27 Initial version
+ *
+ */
+
+public class ViewThreadBrowser {
+
+    /*-*******************************************************************************************
+    Attributes
+    */
+
+    private static double width = applicationMain.FoundationsMain.WINDOW_WIDTH;
+    private static double height = applicationMain.FoundationsMain.WINDOW_HEIGHT;
+
+    // GUI Area 1: Page title and instructions
+    protected static Label label_PageTitle = new Label();
+    protected static Label label_Instructions = new Label();
+    private static Line line_Separator1 = new Line(20, 95, width-20, 95);
+
+    // GUI Area 2: Table of threads
+    protected static TableView<ThreadSummary> table_Threads = new TableView<>();
+    protected static ObservableList<ThreadSummary> threadData =
+        FXCollections.observableArrayList();
+    protected static Label label_Totals = new Label();
+
+    // GUI Area 3: Action buttons
+    protected static Button button_HotPosts = new Button("Hot Posts in Thread");
+    protected static Button button_Refresh = new Button("Refresh");
+
+    // GUI Area 4: Navigation
+    private static Line line_Separator2 = new Line(20, 525, width-20, 525);
+    protected static Button button_Return = new Button("Return to Student Home");
+
+    // Singleton and shared attributes
+    private static ViewThreadBrowser theView;
+    protected static Stage theStage;
+    private static Pane theRootPane;
+    protected static User theUser;
+    private static Scene theThreadBrowserScene;
+
+    /*-*******************************************************************************************
+    Constructors
+    */
+
+    /**********
+     * <p> Method: displayThreadBrowser(Stage ps, User user) </p>
+     *
+     * <p> Description: This method is the single entry point from outside this package to cause
+     * the Thread Browser page to be displayed.</p>
+     *
+     * @param ps specifies the JavaFX Stage to be used for this GUI and its methods
+     * @param user specifies the User for this GUI and its methods
+     */
+    public static void displayThreadBrowser(Stage ps, User user) {
+        long start = System.nanoTime();
+        theStage = ps;
+        theUser = user;
+
+        // If not yet established, populate the static aspects of the GUI
+        if (theView == null) theView = new ViewThreadBrowser();
+
+        // Read the summaries as they are now; the table is filled in when they arrive
+        ControllerThreadBrowser.refreshThreadList();
+
+        // Set the title for the window and display the page
+        theStage.setTitle("CSE 360 Foundation Code: Browse Threads");
+        theStage.setScene(theThreadBrowserScene);
+        theStage.show();
+        ViewRegistry.navigated("ThreadBrowser", theThreadBrowserScene, start);
+    }
+
+    /**********
+     * <p> Method: void buildView() </p>
+     *
+     * <p> Description: Build this page's widgets and Scene without displaying it, so that the
+     * first visit to the page is as quick as later ones.  The ViewRegistry calls this during
+     * the warm-up after the login page appears.</p>
+     *
+     */
+    public static void buildView() {
+        if (theView == null) theView = new ViewThreadBrowser();
+    }
+
+    /**********
+     * <p> Method: ViewThreadBrowser() </p>
+     *
+     * <p> Description: This method initializes all the elements of the graphical user interface.
+     * This method determines the location, size, font, color, and change and event handlers for
+     * each GUI object.</p>
+     *
+     */
+    private ViewThreadBrowser() {
+        // Create the Pane for the list of widgets and the Scene for the window
+        theRootPane = new Pane();
+        theThreadBrowserScene = new Scene(theRootPane, width, height);
+
+        // GUI Area 1: Title and instructions
+        label_PageTitle.setText("Browse Threads");
+        setupLabelUI(label_PageTitle, "Arial", 28, width, Pos.CENTER, 0, 5);
+
+        label_Instructions.setText("Select a thread and click 'Hot Posts in Thread' to see its "
+            + "most active posts");
+        setupLabelUI(label_Instructions, "Arial", 16, width, Pos.CENTER, 0, 55);
+
+        // GUI Area 2: Table setup
+        setupThreadsTable();
+        setupLabelUI(label_Totals, "Arial", 14, width - 40, Pos.BASELINE_LEFT, 20, 440);
+
+        // GUI Area 3: Action buttons
+        setupButtonUI(button_HotPosts, "Dialog", 16, 200, Pos.CENTER, 20, 470);
+        button_HotPosts.setOnAction((event) ->
+            {ControllerThreadBrowser.showHotPostsInThread();});
+
+        setupButtonUI(button_Refresh, "Dialog", 16, 120, Pos.CENTER, 230, 470);
+        button_Refresh.setOnAction((event) -> {ControllerThreadBrowser.refreshThreadList();});
+
+        // GUI Area 4: Return button
+        setupButtonUI(button_Return, "Dialog", 18, 250, Pos.CENTER, 20, 540);
+        button_Return.setOnAction((event) -> {ControllerThreadBrowser.returnToStudentHome();});
+
+        // Add all elements to pane
+        theRootPane.getChildren().addAll(
+            label_PageTitle,
+            label_Instructions,
+            line_Separator1,
+            table_Threads,
+            label_Totals,
+            button_HotPosts,
+            button_Refresh,
+            line_Separator2,
+            button_Return
+        );
+    }
+
+    /*-*******************************************************************************************
+    Helper methods
+    */
+
+    /**********
+     * <p> Method: setupThreadsTable() </p>
+     *
+     * <p> Description: Setup the threads table with columns for the thread's name, its post,
+     * active post and reply counts, and when and by whom it was last active.</p>
+     */
+    @SuppressWarnings("unchecked")
+    private void setupThreadsTable() {
+        table_Threads.setLayoutX(20);
+        table_Threads.setLayoutY(110);
+        table_Threads.setPrefWidth(width - 40);
+        table_Threads.setPrefHeight(320);
+        table_Threads.setEditable(false);
+        table_Threads.setPlaceholder(new Label("No posts have been created yet"));
+
+        TableColumn<ThreadSummary, String> threadColumn = new TableColumn<>("Thread");
+        threadColumn.setPrefWidth(190);
+        threadColumn.setMinWidth(120);
+        threadColumn.setCellValueFactory(new PropertyValueFactory<>("thread"));
+
+        TableColumn<ThreadSummary, Long> postsColumn = new TableColumn<>("Posts");
+        postsColumn.setPrefWidth(70);
+        postsColumn.setCellValueFactory(new PropertyValueFactory<>("postCount"));
+
+        TableColumn<ThreadSummary, Long> activeColumn = new TableColumn<>("Active");
+        activeColumn.setPrefWidth(70);
+        activeColumn.setCellValueFactory(new PropertyValueFactory<>("activeCount"));
+
+        TableColumn<ThreadSummary, Long> repliesColumn = new TableColumn<>("Replies");
+        repliesColumn.setPrefWidth(70);
+        repliesColumn.setCellValueFactory(new PropertyValueFactory<>("replyCount"));
+
+        TableColumn<ThreadSummary, String> lastActivityColumn =
+            new TableColumn<>("Last Activity");
+        lastActivityColumn.setPrefWidth(150);
+        lastActivityColumn.setCellValueFactory(
+            new PropertyValueFactory<>("formattedLastActivity"));
+
+        TableColumn<ThreadSummary, String> lastAuthorColumn = new TableColumn<>("Last Author");
+        lastAuthorColumn.setPrefWidth(140);
+        lastAuthorColumn.setCellValueFactory(new PropertyValueFactory<>("lastAuthor"));
+
+        table_Threads.setItems(threadData);
+        table_Threads.getColumns().addAll(threadColumn, postsColumn, activeColumn, repliesColumn,
+            lastActivityColumn, lastAuthorColumn);
+    }
+
+    /**********
+     * Private local method to initialize the standard fields for a label
+     *
+     * @param l		The Label object to be initialized
+     * @param ff	The font to be used
+     * @param f		The size of the font to be used
+     * @param w		The width of the Label
+     * @param p		The alignment (e.g. left, centered, or right)
+     * @param x		The location from the left edge (x axis)
+     * @param y		The location from the top (y axis)
+     */
+    private void setupLabelUI(Label l, String ff, double f, double w, Pos p, double x, double y){
+        l.setFont(Font.font(ff, f));
+        l.setMinWidth(w);
+        l.setAlignment(p);
+        l.setLayoutX(x);
+        l.setLayoutY(y);
+    }
+
+    /**********
+     * Private local method to initialize the standard fields for a button
+     *
+     * @param b		The Button object to be initialized
+     * @param ff	The font to be used
+     * @param f		The size of the font to be used
+     * @param w		The width of the Button
+     * @param p		The alignment (e.g. left, centered, or right)
+     * @param x		The location from the left edge (x axis)
+     * @param y		The location from the top (y axis)
+     */
+    private void setupButtonUI(Button b, String ff, double f, double w, Pos p, double x, double y){
+        b.setFont(Font.font(ff, f));
+        b.setMinWidth(w);
+        b.setAlignment(p);
+        b.setLayoutX(x);
+        b.setLayoutY(y);
+    }
+}
@@ -0,0 +1,161 @@
+package guiTools;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javafx.application.Platform;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.CustomMenuItem;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import logging.Log;
+import metrics.MetricsRegistry;
+
+/*******
+ * <p> Title: Typeahead Class. </p>
+ *
+ * <p> Description: Turns a TextField into a search box that lists matches under the field as
+ * the user types, e.g. the user picker on the Add/Remove Roles page.
+ *
+ * Every keystroke starts a lookup on a background thread, so a slow lookup never holds up
+ * typing.  Lookups run one at a time.  A lookup still waiting to run when the next keystroke
+ * arrives is cancelled, and the result of one that was already running is thrown away, so the
+ * list always matches what is in the field.  The time from a keystroke to its matches being
+ * shown is recorded in the "op.typeahead.&lt;name&gt;" histogram.
+ *
+ * The lookup returns the matches in order, each value with the text to show for it.  Choosing a
+ * match puts its value in the field and passes it to the chosen action.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-27 Initial version
+ *
+ */
+
+public class Typeahead {
+
+	private static final Log log = Log.get(Typeahead.class);
+
+	// All typeaheads share one lookup thread, since only one page is shown at a time
+	private static final ExecutorService lookups = Executors.newSingleThreadExecutor(runnable -> {
+		Thread t = new Thread(runnable, "typeahead");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private final TextField field;
+	private final String name;
+	private final Function<String, Map<String, String>> lookup;
+	private final Consumer<String> chosen;
+	private final ContextMenu matches = new ContextMenu();
+
+	// The latest keystroke's lookup; only used on the JavaFX thread
+	private Future<?> pending = null;
+	private long generation = 0;
+	private boolean choosing = false;
+
+	/*******
+	 * <p> Method: Typeahead(TextField field, String name, Function lookup, Consumer chosen) </p>
+	 *
+	 * <p> Description: Attach a typeahead to a text field.</p>
+	 *
+	 * @param field is the field the user types in
+	 *
+	 * @param name names the latency histogram, e.g. "userPicker"
+	 *
+	 * @param lookup finds the matches for what has been typed, on the lookup thread; it returns
+	 *		each match's value with the text to show for it, in order
+	 *
+	 * @param chosen is called on the JavaFX thread with the value of the match the user chose
+	 */
+	public Typeahead(TextField field, String name, Function<String, Map<String, String>> lookup,
+			Consumer<String> chosen) {
+		this.field = field;
+		this.name = name;
+		this.lookup = lookup;
+		this.chosen = chosen;
+		field.textProperty().addListener((observable, oldValue, newValue) -> typed(newValue));
+		field.focusedProperty().addListener((observable, oldValue, focused) -> {
+			if (!focused) matches.hide();
+		});
+	}
+
+	/*******
+	 * <p> Method: void clear() </p>
+	 *
+	 * <p> Description: Empty the field and forget any lookup in progress, e.g. when the page is
+	 * shown again.</p>
+	 */
+	public void clear() {
+		choosing = true;
+		field.setText("");
+		choosing = false;
+		cancelPending();
+		matches.hide();
+	}
+
+	// A keystroke: cancel the lookup for the last one and start one for this one
+	private void typed(String text) {
+		if (choosing) return;
+		cancelPending();
+		String prefix = text == null ? "" : text.trim();
+		if (prefix.isEmpty()) {
+			matches.hide();
+			return;
+		}
+		long start = System.nanoTime();
+		long thisGeneration = generation;
+		pending = lookups.submit(() -> {
+			Map<String, String> found;
+			try {
+				found = lookup.apply(prefix);
+			} catch (RuntimeException e) {
+				log.warn("The " + name + " lookup failed for: " + prefix, e);
+				return;
+			}
+			Platform.runLater(() -> {
+				if (thisGeneration != generation) return;		// A later keystroke has a lookup
+				show(found);
+				MetricsRegistry.recordSince("op.typeahead." + name, start);
+			});
+		});
+	}
+
+	private void cancelPending() {
+		generation++;
+		if (pending != null) pending.cancel(false);
+		pending = null;
+	}
+
+	// Replace the list under the field with these matches
+	private void show(Map<String, String> found) {
+		matches.getItems().clear();
+		if (found.isEmpty() || !field.isFocused()) {
+			matches.hide();
+			return;
+		}
+		for (Map.Entry<String, String> match : found.entrySet()) {
+			CustomMenuItem item = new CustomMenuItem(new Label(match.getValue()), true);
+			item.setOnAction((event) -> choose(match.getKey()));
+			matches.getItems().add(item);
+		}
+		if (!matches.isShowing()) matches.show(field, Side.BOTTOM, 0, 0);
+	}
+
+	private void choose(String value) {
+		choosing = true;
+		field.setText(value);
+		field.positionCaret(value.length());
+		choosing = false;
+		cancelPending();
+		matches.hide();
+		chosen.accept(value);
+	}
+}
@@ -0,0 +1,133 @@
+package guiTools;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import logging.Log;
+import metrics.MetricsRegistry;
+
+
+/*******
+ * <p> Title: ViewRegistry Class. </p>
+ *
+ * <p> Description: Builds the application's pages ahead of time and measures how long it takes
+ * to move from one page to another.
+ *
+ * Every page is a singleton: its widgets and Scene are built the first time it is displayed and
+ * its display method only fills in the user's data after that.  The first visit to a page
+ * therefore pays for building it.  Each page registers a builder here, and warmUp() builds the
+ * pages that have not been built yet while the user is busy with the login page, one page per
+ * turn of the JavaFX event loop so typing and clicking are not held up.  The time to build each
+ * page is recorded in the "view.build.&lt;page&gt;" histogram.
+ *
+ * A page's display method calls navigated() with the time it started.  The time from then until
+ * JavaFX has laid out the page's Scene, which is when the user can see it, is recorded in the
+ * "nav.&lt;page&gt;" histogram.  With the pages prebuilt these times should be short and about
+ * the same on every visit.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-27 Initial version
+ *
+ */
+
+public class ViewRegistry {
+
+	private static final Log log = Log.get(ViewRegistry.class);
+
+	// The builder of each page, in the order the pages are warmed up; all use is on the FX thread
+	private static final Map<String, Runnable> builders = new LinkedHashMap<String, Runnable>();
+	private static final Map<String, Boolean> built = new LinkedHashMap<String, Boolean>();
+
+	private ViewRegistry() {
+	}
+
+
+	/**********
+	 * <p> Method: void register(String page, Runnable builder) </p>
+	 *
+	 * <p> Description: Make a page known to warmUp().</p>
+	 *
+	 * @param page is the page's name in the metrics, e.g. "AdminHome"
+	 *
+	 * @param builder builds the page's singleton if it does not exist yet, without displaying it
+	 */
+	public static void register(String page, Runnable builder) {
+		builders.put(page, builder);
+	}
+
+
+	/**********
+	 * <p> Method: void warmUp() </p>
+	 *
+	 * <p> Description: Build every registered page that has not been built yet, one per turn of
+	 * the JavaFX event loop.  Call it on the JavaFX thread once the first page is showing.</p>
+	 */
+	public static void warmUp() {
+		Deque<String> pending = new ArrayDeque<String>();
+		for (String page : builders.keySet()) if (!built.containsKey(page)) pending.add(page);
+		Platform.runLater(() -> buildNext(pending));
+	}
+
+
+	/**********
+	 * <p> Method: void build(String page) </p>
+	 *
+	 * <p> Description: Build one registered page now, timing it.  A page that has been built
+	 * already is not built again.</p>
+	 *
+	 * @param page is the page's name
+	 */
+	public static void build(String page) {
+		Runnable builder = builders.get(page);
+		if (builder == null || built.containsKey(page)) return;
+		long start = System.nanoTime();
+		try {
+			builder.run();
+		} catch (RuntimeException e) {
+			// The page will be built when it is first displayed instead
+			log.warn("Could not build the " + page + " page ahead of time", e);
+		}
+		built.put(page, Boolean.TRUE);
+		MetricsRegistry.recordSince("view.build." + page, start);
+		log.debug(() -> "Built the " + page + " page in "
+				+ (System.nanoTime() - start) / 1000 + " us");
+	}
+
+
+	/**********
+	 * <p> Method: void navigated(String page, Scene scene, long startNanos) </p>
+	 *
+	 * <p> Description: Record a move to a page once its Scene has been laid out.</p>
+	 *
+	 * @param page is the page's name
+	 *
+	 * @param scene is the page's Scene, which has just been set on the stage
+	 *
+	 * @param startNanos is the System.nanoTime() when the display method started
+	 */
+	public static void navigated(String page, Scene scene, long startNanos) {
+		built.put(page, Boolean.TRUE);
+		Runnable[] listener = new Runnable[1];
+		listener[0] = () -> {
+			scene.removePostLayoutPulseListener(listener[0]);
+			MetricsRegistry.recordSince("nav." + page, startNanos);
+		};
+		scene.addPostLayoutPulseListener(listener[0]);
+		Platform.requestNextPulse();
+	}
+
+
+	private static void buildNext(Deque<String> pending) {
+		String page = pending.poll();
+		if (page == null) return;
+		build(page);
+		if (!pending.isEmpty()) Platform.runLater(() -> buildNext(pending));
+	}
+}
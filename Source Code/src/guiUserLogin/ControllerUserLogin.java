@@ -2,6 +2,8 @@ package guiUserLogin;
 
 import database.Database;
 import entityClasses.User;
+import logging.Log;
+import metrics.MetricsRegistry;
 import javafx.stage.Stage;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
@@ -24,6 +26,9 @@ public class ControllerUserLogin {
 	private static Database theDatabase = applicationMain.FoundationsMain.database;
 
 	private static Stage theStage;	
+
+	// The login trace is written at DEBUG level, which is off unless asked for
+	private static final Log log = Log.get(ControllerUserLogin.class);
 	
 	/**********
 	 * <p> Method: public doLogin() </p>
@@ -41,17 +46,19 @@ public class ControllerUserLogin {
 		String username = ViewUserLogin.text_Username.getText();
 		String password = ViewUserLogin.text_Password.getText();
     	boolean loginResult = false;
+    	long loginStart = System.nanoTime();	// Timed as op.login until the home page is chosen
     	
 		// Fetch the user and verify the username
      	if (theDatabase.getUserAccountDetails(username) == false) {
      		// Don't provide too much information.  Don't say the username is invalid or the
      		// password is invalid.  Just say the pair is invalid.
+    		MetricsRegistry.counter("op.login.failed").increment();
     		ViewUserLogin.alertUsernamePasswordError.setContentText(
     				"Incorrect username/password. Try again!");
     		ViewUserLogin.alertUsernamePasswordError.showAndWait();
     		return;
     	}
-		System.out.println("*** Username is valid");
+		log.debug("Username is valid");
 		// === BEGIN OTP HANDLING ===
 		// Trying OTP first: If the user typed an OTP into the password box, accept it once and force reset
 		if (theDatabase.verifyAndConsumeOtpByUsername(username, password)) {
@@ -86,12 +93,13 @@ public class ControllerUserLogin {
     	String actualPassword = theDatabase.getCurrentPassword();
     	
     	if (password.compareTo(actualPassword) != 0) {
+    		MetricsRegistry.counter("op.login.failed").increment();
     		ViewUserLogin.alertUsernamePasswordError.setContentText(
     				"Incorrect username/password. Try again!");
     		ViewUserLogin.alertUsernamePasswordError.showAndWait();
     		return;
     	}
-		System.out.println("*** Password is valid for this user");
+		log.debug("Password is valid for this user");
 		
 		// Establish this user's details
     	User user = new User(username, password, theDatabase.getCurrentFirstName(), 
@@ -102,7 +110,8 @@ public class ControllerUserLogin {
     	
     	// See which home page dispatch to use
 		int numberOfRoles = theDatabase.getNumberOfRoles(user);		
-		System.out.println("*** The number of roles: "+ numberOfRoles);
+		MetricsRegistry.recordSince("op.login", loginStart);
+		log.debug(() -> "The number of roles: " + numberOfRoles);
 		if (numberOfRoles == 1) {
 			// Single Account Home Page - The user has no choice here
 			
@@ -129,11 +138,11 @@ public class ControllerUserLogin {
 				}
 				// Other roles
 			} else {
-				System.out.println("***** UserLogin goToUserHome request has an invalid role");
+				log.warn("UserLogin goToUserHome request has an invalid role");
 			}
 		} else if (numberOfRoles > 1) {
 			// Multiple Account Home Page - The user chooses which role to play
-			System.out.println("*** Going to displayMultipleRoleDispatch");
+			log.debug("Going to displayMultipleRoleDispatch");
 			guiMultipleRoleDispatch.ViewMultipleRoleDispatch.
 				displayMultipleRoleDispatch(theStage, user);
 		}
@@ -23,6 +23,8 @@ import javafx.stage.Stage;
  * @author Lynn Robert Carter
  * 
  * @version 1.00		2025-04-20 Initial version
+ * @version 1.01		2025-10-27 Shown while the database opens, with the buttons that need it
+ * 							disabled until it is ready
  *  
  */
 
@@ -42,7 +44,8 @@ public class ViewUserLogin {
 	private static Label label_ApplicationTitle = new Label("Foundation Application Startup Page");
 
 	// This set is for all subsequent starts of the system
-	private static Label label_OperationalStartTitle = new Label("Log In or Invited User Account Setup ");
+	private static final String OPERATIONAL_START_TITLE = "Log In or Invited User Account Setup ";
+	private static Label label_OperationalStartTitle = new Label(OPERATIONAL_START_TITLE);
 	private static Label label_LogInInsrtuctions = new Label("Enter your user name and password and "+	
 			"then click on the LogIn button");
 	protected static Alert alertUsernamePasswordError = new Alert(AlertType.INFORMATION);
@@ -94,6 +97,22 @@ public class ViewUserLogin {
 		theStage.show();
 	}
 
+	/**********
+	 * <p> Method: void setDatabaseReady(boolean ready) </p>
+	 * 
+	 * <p> Description: The application shows this page as soon as it starts and opens the
+	 * database behind it.  Until the database is ready, the Log In and Setup buttons are
+	 * disabled and the subtitle says why.</p>
+	 * 
+	 * @param ready is true once the database can be used
+	 */
+	public static void setDatabaseReady(boolean ready) {
+		button_Login.setDisable(!ready);
+		button_SetupAccount.setDisable(!ready);
+		label_OperationalStartTitle.setText(ready ? OPERATIONAL_START_TITLE
+				: "Opening the database...");
+	}
+
 	/**********
 	 * <p> Method: ViewUserLoginPage() </p>
 	 * 
@@ -12,6 +12,7 @@ import javafx.scene.layout.Pane;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import entityClasses.User;
+import guiTools.ViewRegistry;
 
 /*******
  * <p> Title: ViewUserUpdate Class. </p>
@@ -33,6 +34,7 @@ import entityClasses.User;
  * @author Lynn Robert Carter
  * 
  * @version 1.01		2025-08-19 Initial version plus new internal documentation
+ * @version 1.02		2025-10-27 Built ahead of time by the ViewRegistry; navigation is timed
  *  
  */
 
@@ -146,6 +148,7 @@ public class ViewUserUpdate {
 	 *
 	 */
 	public static void displayUserUpdate(Stage ps, User user) {
+		long start = System.nanoTime();
 		
 		// Establish the references to the GUI and the current user
 		theUser = user;
@@ -193,6 +196,19 @@ public class ViewUserUpdate {
     	theStage.setTitle("CSE 360 Foundation Code: Update User Account Details");
         theStage.setScene(theUserUpdateScene);
 		theStage.show();
+		ViewRegistry.navigated("UserUpdate", theUserUpdateScene, start);
+	}
+
+	/**********
+	 * <p> Method: void buildView() </p>
+	 * 
+	 * <p> Description: Build this page's widgets and Scene without displaying it, so that the
+	 * first visit to the page is as quick as later ones.  The ViewRegistry calls this during
+	 * the warm-up after the login page appears.</p>
+	 * 
+	 */
+	public static void buildView() {
+		if (theView == null) theView = new ViewUserUpdate();
 	}
 
 	
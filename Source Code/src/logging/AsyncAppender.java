@@ -0,0 +1,161 @@
+package logging;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import metrics.MetricsRegistry;
+
+/*******
+ * <p> Title: AsyncAppender Class. </p>
+ *
+ * <p> Description: Writes log messages to the console on a background thread, so the code that
+ * logs never waits for the console.  Messages pass through a bounded ring buffer of
+ * CAPACITY entries.  Each line has the time, the level, the thread and the logger, e.g.
+ *
+ *     2025-10-26 10:15:30.123 INFO  [JavaFX Application Thread] database.Database - message
+ *
+ * If messages arrive faster than the console takes them and the buffer fills, new TRACE, DEBUG
+ * and INFO messages are dropped at once.  WARN and ERROR messages wait up to WARN_WAIT_MILLIS for
+ * space before they are dropped too.  Dropped messages are counted in "log.dropped", and the
+ * writer reports how many were lost as soon as it catches up.
+ *
+ * WARN and ERROR lines go to System.err and the rest to System.out.  Whatever is still in the
+ * buffer is written when the JVM exits.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-26 Initial version
+ *
+ */
+
+public final class AsyncAppender {
+
+	// The most messages that can wait to be written
+	public static final int CAPACITY = 8192;
+
+	// How long a WARN or ERROR message waits for space in a full buffer
+	public static final long WARN_WAIT_MILLIS = 50;
+
+	// The most messages the writer takes from the buffer at once
+	private static final int BATCH = 256;
+
+	private static final DateTimeFormatter TIME_FORMAT =
+			DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+	// One message, captured on the caller's thread and formatted on the writer's
+	private static final class Entry {
+		final long timestamp = System.currentTimeMillis();
+		final String thread = Thread.currentThread().getName();
+		final Level level;
+		final String logger;
+		final String message;
+		final Throwable cause;
+
+		Entry(Level level, String logger, String message, Throwable cause) {
+			this.level = level;
+			this.logger = logger;
+			this.message = message;
+			this.cause = cause;
+		}
+	}
+
+	private static final BlockingQueue<Entry> buffer = new ArrayBlockingQueue<Entry>(CAPACITY);
+	private static final AtomicLong dropped = new AtomicLong();
+
+	static {
+		Thread writer = new Thread(AsyncAppender::drain, "log-writer");
+		writer.setDaemon(true);
+		writer.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(AsyncAppender::flush, "log-flush"));
+	}
+
+	private AsyncAppender() {
+	}
+
+	/*******
+	 * <p> Method: void append(Level level, String logger, String message, Throwable cause) </p>
+	 *
+	 * <p> Description: Queue a message to be written.  Log calls this once the level has been
+	 * checked.</p>
+	 *
+	 * @param level is the message's level
+	 *
+	 * @param logger is the name of the logger
+	 *
+	 * @param message is the message
+	 *
+	 * @param cause is an exception whose stack trace follows the message, or null
+	 */
+	static void append(Level level, String logger, String message, Throwable cause) {
+		Entry entry = new Entry(level, logger, message, cause);
+		boolean queued = buffer.offer(entry);
+		if (!queued && level.compareTo(Level.WARN) >= 0) {
+			try {
+				queued = buffer.offer(entry, WARN_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (!queued) {
+			dropped.incrementAndGet();
+			MetricsRegistry.counter("log.dropped").increment();
+		}
+	}
+
+	/*******
+	 * <p> Method: void flush() </p>
+	 *
+	 * <p> Description: Write every queued message now, on the calling thread.</p>
+	 */
+	public static void flush() {
+		List<Entry> batch = new ArrayList<Entry>(BATCH);
+		while (buffer.drainTo(batch, BATCH) > 0) {
+			write(batch);
+			batch.clear();
+		}
+	}
+
+	// The writer thread: wait for a message, then write it and whatever else has arrived
+	private static void drain() {
+		List<Entry> batch = new ArrayList<Entry>(BATCH);
+		while (true) {
+			try {
+				batch.add(buffer.take());
+			} catch (InterruptedException e) {
+				return;
+			}
+			buffer.drainTo(batch, BATCH - 1);
+			write(batch);
+			batch.clear();
+		}
+	}
+
+	private static synchronized void write(List<Entry> batch) {
+		long lost = dropped.getAndSet(0);
+		if (lost > 0)
+			System.err.println(format(new Entry(Level.WARN, AsyncAppender.class.getName(),
+					lost + " log messages were dropped because the log buffer was full", null)));
+		for (Entry entry : batch) {
+			PrintStream out = entry.level.compareTo(Level.WARN) >= 0 ? System.err : System.out;
+			out.println(format(entry));
+			if (entry.cause != null) entry.cause.printStackTrace(out);
+		}
+	}
+
+	private static String format(Entry entry) {
+		return TIME_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.timestamp),
+				ZoneId.systemDefault())) + " " + String.format("%-5s", entry.level) + " ["
+				+ entry.thread + "] " + entry.logger + " - " + entry.message;
+	}
+}
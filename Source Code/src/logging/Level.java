@@ -0,0 +1,25 @@
+package logging;
+
+/*******
+ * <p> Title: Level Enum. </p>
+ *
+ * <p> Description: How important a log message is, from the most detailed to the most severe.
+ * A logger writes the messages at its level and above.  OFF turns a logger off entirely.
+ *
+ *      • TRACE - step by step detail, such as the validators' per-character traces
+ *      • DEBUG - details of one operation, such as the account fetched at login
+ *      • INFO  - what the application is doing, such as the database it opened
+ *      • WARN  - something went wrong but the application carries on
+ *      • ERROR - an operation failed</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-26 Initial version
+ *
+ */
+
+public enum Level {
+	TRACE, DEBUG, INFO, WARN, ERROR, OFF
+}
@@ -0,0 +1,164 @@
+package logging;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*******
+ * <p> Title: Log Class. </p>
+ *
+ * <p> Description: A named logger.  Each class that logs keeps one in a static field:
+ *
+ *     private static final Log log = Log.get(Database.class);
+ *
+ * A message below the logger's level costs only a comparison.  For a message that has to be
+ * built, pass a lambda, e.g. log.trace(() -&gt; "state " + state), and the string is only built
+ * when the message will be written.  Messages that pass the level are handed to the
+ * AsyncAppender, so the caller never waits for the console.
+ *
+ * Levels are set with system properties.  foundations.log.level sets the level for everything
+ * (INFO by default, so TRACE and DEBUG messages are off).  foundations.log.level.NAME sets it for
+ * the package or class NAME and everything in it, the most specific setting winning, e.g.
+ *
+ *     -Dfoundations.log.level.validate=TRACE  -Dfoundations.log.level.database.Database=DEBUG</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-26 Initial version
+ *
+ */
+
+public final class Log {
+
+	private static final String LEVEL_PROPERTY = "foundations.log.level";
+
+	// Levels set by setLevel, which take precedence over the system properties
+	private static final Map<String, Level> overrides = new ConcurrentHashMap<String, Level>();
+	private static final Map<String, Log> loggers = new ConcurrentHashMap<String, Log>();
+
+	private final String name;
+	private volatile Level level;
+
+	private Log(String name) {
+		this.name = name;
+		this.level = resolveLevel(name);
+	}
+
+	/*******
+	 * <p> Method: Log get(Class&lt;?&gt; owner) </p>
+	 *
+	 * <p> Description: The logger named after a class.</p>
+	 *
+	 * @param owner is the class doing the logging
+	 *
+	 * @return the logger
+	 */
+	public static Log get(Class<?> owner) {
+		return get(owner.getName());
+	}
+
+	/*******
+	 * <p> Method: Log get(String name) </p>
+	 *
+	 * <p> Description: The logger with a given name, created on first use.</p>
+	 *
+	 * @param name is the logger name, usually a class name
+	 *
+	 * @return the logger
+	 */
+	public static Log get(String name) {
+		return loggers.computeIfAbsent(name, Log::new);
+	}
+
+	/*******
+	 * <p> Method: void setLevel(String prefix, Level level) </p>
+	 *
+	 * <p> Description: Change the level of every logger whose name starts with prefix, now and
+	 * for loggers made later.  An empty prefix changes every logger.</p>
+	 *
+	 * @param prefix is the start of the logger names, e.g. "validate"
+	 *
+	 * @param level is the new level
+	 */
+	public static void setLevel(String prefix, Level level) {
+		overrides.put(prefix, level);
+		for (Log log : loggers.values()) log.level = resolveLevel(log.name);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/*******
+	 * <p> Method: boolean isEnabled(Level level) </p>
+	 *
+	 * <p> Description: Whether messages at this level are written.  Use it to skip a block of
+	 * work that only exists to produce log messages.</p>
+	 *
+	 * @param level is the level of the intended message
+	 *
+	 * @return true if the message would be written
+	 */
+	public boolean isEnabled(Level level) {
+		return level != Level.OFF && level.compareTo(this.level) >= 0;
+	}
+
+	public void trace(String message) { log(Level.TRACE, message, null); }
+
+	public void trace(Supplier<String> message) { log(Level.TRACE, message); }
+
+	public void debug(String message) { log(Level.DEBUG, message, null); }
+
+	public void debug(Supplier<String> message) { log(Level.DEBUG, message); }
+
+	public void info(String message) { log(Level.INFO, message, null); }
+
+	public void info(Supplier<String> message) { log(Level.INFO, message); }
+
+	public void warn(String message) { log(Level.WARN, message, null); }
+
+	public void warn(String message, Throwable cause) { log(Level.WARN, message, cause); }
+
+	public void error(String message) { log(Level.ERROR, message, null); }
+
+	public void error(String message, Throwable cause) { log(Level.ERROR, message, cause); }
+
+	private void log(Level level, Supplier<String> message) {
+		if (isEnabled(level)) AsyncAppender.append(level, name, message.get(), null);
+	}
+
+	private void log(Level level, String message, Throwable cause) {
+		if (isEnabled(level)) AsyncAppender.append(level, name, message, cause);
+	}
+
+	/*
+	 * The level for a logger name: the longest matching setLevel prefix, else the longest matching
+	 * foundations.log.level.PREFIX property, else foundations.log.level, else INFO
+	 */
+	private static Level resolveLevel(String name) {
+		String best = null;
+		for (String prefix : overrides.keySet()) {
+			if (name.startsWith(prefix) && (best == null || prefix.length() > best.length()))
+				best = prefix;
+		}
+		if (best != null) return overrides.get(best);
+
+		for (String candidate = name; !candidate.isEmpty();
+				candidate = candidate.contains(".") ? candidate.substring(0, candidate.lastIndexOf('.')) : "") {
+			String value = System.getProperty(LEVEL_PROPERTY + "." + candidate);
+			if (value != null) return parse(value);
+		}
+		return parse(System.getProperty(LEVEL_PROPERTY, Level.INFO.name()));
+	}
+
+	private static Level parse(String value) {
+		try {
+			return Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			return Level.INFO;
+		}
+	}
+}
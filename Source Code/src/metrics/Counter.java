@@ -0,0 +1,58 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/*******
+ * <p> Title: Counter Class. </p>
+ *
+ * <p> Description: A count that only goes up, such as the number of failed logins.  It is backed
+ * by a LongAdder, so many threads can increment it at once without contending on one memory
+ * location.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-26 Initial version
+ *
+ */
+
+public class Counter {
+
+	private final LongAdder count = new LongAdder();
+
+	/*******
+	 * <p> Method: void increment() </p>
+	 *
+	 * <p> Description: Add one to the count.</p>
+	 */
+	public void increment() {
+		count.increment();
+	}
+
+	/*******
+	 * <p> Method: void add(long amount) </p>
+	 *
+	 * <p> Description: Add an amount to the count.</p>
+	 *
+	 * @param amount is the amount to add; it should not be negative
+	 */
+	public void add(long amount) {
+		count.add(amount);
+	}
+
+	/*******
+	 * <p> Method: long get() </p>
+	 *
+	 * <p> Description: The current count.</p>
+	 *
+	 * @return the count
+	 */
+	public long get() {
+		return count.sum();
+	}
+
+	void reset() {
+		count.reset();
+	}
+}
@@ -0,0 +1,172 @@
+package metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*******
+ * <p> Title: LatencyHistogram Class. </p>
+ *
+ * <p> Description: Records durations in nanoseconds and reports their percentiles, in the style
+ * of HdrHistogram.  Bucket boundaries are log-linear.  Each power of two is split into 32 buckets
+ * of equal width, so a reported percentile is never more than about 3% above the true value, from
+ * nanoseconds up to 18 minutes.  Longer durations are counted as 18 minutes, but the maximum is
+ * kept exactly.
+ *
+ * Recording is one array increment plus two adders, with no locks, so it is cheap enough to do
+ * on every database call.  The counts are cumulative from the start of the process, or from the
+ * last reset.  A snapshot copies the counts while recording goes on, so it may be a few samples
+ * out of step with the count, but it never blocks a recording thread.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-26 Initial version
+ *
+ */
+
+public class LatencyHistogram {
+
+	// Each power of two is split into 2^SUB_BUCKET_BITS buckets
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	// Durations of 2^MAX_MAGNITUDE nanoseconds (about 18 minutes) or more share the last bucket
+	private static final int MAX_MAGNITUDE = 40;
+	private static final long MAX_TRACKED = (1L << MAX_MAGNITUDE) - 1;
+	private static final int BUCKETS = SUB_BUCKETS + (MAX_MAGNITUDE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder total = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/*******
+	 * <p> Method: void record(long nanos) </p>
+	 *
+	 * <p> Description: Record one duration.</p>
+	 *
+	 * @param nanos is the duration in nanoseconds; negative values are counted as zero
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) nanos = 0;
+		buckets.incrementAndGet(indexOf(Math.min(nanos, MAX_TRACKED)));
+		count.increment();
+		total.add(nanos);
+		max.accumulate(nanos);
+	}
+
+	/*******
+	 * <p> Method: void recordSince(long startNanos) </p>
+	 *
+	 * <p> Description: Record the time from a start taken with System.nanoTime() until now.</p>
+	 *
+	 * @param startNanos is the System.nanoTime() value at the start of the timed work
+	 */
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+
+	/*******
+	 * <p> Method: Snapshot snapshot() </p>
+	 *
+	 * <p> Description: Copy the current counts so percentiles can be read from them.</p>
+	 *
+	 * @return the copy
+	 */
+	public Snapshot snapshot() {
+		long[] copy = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) copy[i] = buckets.get(i);
+		return new Snapshot(copy, count.sum(), total.sum(), max.get());
+	}
+
+	void reset() {
+		for (int i = 0; i < BUCKETS; i++) buckets.set(i, 0);
+		count.reset();
+		total.reset();
+		max.reset();
+	}
+
+	/*
+	 * Values below 2 * SUB_BUCKETS get a bucket each.  Above that, a value whose highest set bit is
+	 * bit m falls in one of the SUB_BUCKETS buckets that split [2^m, 2^(m+1)), each 2^(m-5) wide.
+	 */
+	private static int indexOf(long value) {
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		if (magnitude < SUB_BUCKET_BITS) return (int) value;
+		int shift = magnitude - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+		return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+	}
+
+	// The largest value that falls in a bucket
+	private static long highestValueIn(int index) {
+		if (index < SUB_BUCKETS) return index;
+		int shift = index / SUB_BUCKETS - 1;
+		long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/*******
+	 * <p> Title: Snapshot Class. </p>
+	 *
+	 * <p> Description: The counts of a histogram at one moment.</p>
+	 */
+	public static class Snapshot {
+		private final long[] buckets;
+		private final long count;
+		private final long total;
+		private final long max;
+
+		Snapshot(long[] buckets, long count, long total, long max) {
+			this.buckets = buckets;
+			this.count = count;
+			this.total = total;
+			this.max = max;
+		}
+
+		public long getCount() { return count; }
+
+		public long getMaxNanos() { return max; }
+
+		public double getMeanNanos() { return count == 0 ? 0 : (double) total / count; }
+
+		/*******
+		 * <p> Method: long getPercentileNanos(double percentile) </p>
+		 *
+		 * <p> Description: The duration that the given percentage of the recorded durations did
+		 * not exceed.</p>
+		 *
+		 * @param percentile is between 0 and 100, e.g. 99.9
+		 *
+		 * @return the duration in nanoseconds, or 0 if nothing has been recorded
+		 */
+		public long getPercentileNanos(double percentile) {
+			long recorded = 0;
+			for (long n : buckets) recorded += n;
+			if (recorded == 0) return 0;
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * recorded));
+			long seen = 0;
+			for (int i = 0; i < buckets.length; i++) {
+				seen += buckets[i];
+				if (seen >= rank) return Math.min(highestValueIn(i), max);
+			}
+			return max;
+		}
+
+		/*******
+		 * <p> Method: double getPercentileMicros(double percentile) </p>
+		 *
+		 * <p> Description: getPercentileNanos expressed in microseconds.</p>
+		 *
+		 * @param percentile is between 0 and 100
+		 *
+		 * @return the duration in microseconds
+		 */
+		public double getPercentileMicros(double percentile) {
+			return getPercentileNanos(percentile) / (double) TimeUnit.MICROSECONDS.toNanos(1);
+		}
+	}
+}
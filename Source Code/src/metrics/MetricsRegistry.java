@@ -0,0 +1,209 @@
+package metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/*******
+ * <p> Title: MetricsRegistry Class. </p>
+ *
+ * <p> Description: The process-wide set of named metrics.
+ *
+ *      • Counters count events, e.g. "op.login.failed"
+ *      • Gauges report a current value when read, e.g. "db.pool.inUse"
+ *      • Latency histograms record durations, e.g. "db.getPost" or "op.search"
+ *
+ * Names are dotted.  "db.<method>" times the statements run by each Database method, "op.<name>"
+ * times a user-level operation from start to finish, and "http.<METHOD> <route>" times a service
+ * request.  A metric is created the first time its name is used, so code only has to record.
+ *
+ * snapshot() returns every metric as nested maps and numbers, ready to be written as JSON, and
+ * snapshotText() as a table for people.  Durations in both are in microseconds.  The HTTP service
+ * serves both at /metrics, and the desktop application prints the table at exit when run with
+ * -Dfoundations.metrics.dump=true.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-26 Initial version
+ *
+ */
+
+public final class MetricsRegistry {
+
+	// The percentiles reported for every histogram
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+	private static final Map<String, Counter> counters = new ConcurrentHashMap<String, Counter>();
+	private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<String, LongSupplier>();
+	private static final Map<String, LatencyHistogram> histograms =
+			new ConcurrentHashMap<String, LatencyHistogram>();
+
+	static {
+		Runtime runtime = Runtime.getRuntime();
+		gauge("jvm.heap.usedBytes", () -> runtime.totalMemory() - runtime.freeMemory());
+		gauge("jvm.heap.maxBytes", runtime::maxMemory);
+	}
+
+	private MetricsRegistry() {
+	}
+
+	/*******
+	 * <p> Method: Counter counter(String name) </p>
+	 *
+	 * <p> Description: The counter with the given name, created if it does not exist yet.</p>
+	 *
+	 * @param name is the metric name
+	 *
+	 * @return the counter
+	 */
+	public static Counter counter(String name) {
+		Counter counter = counters.get(name);
+		return counter != null ? counter : counters.computeIfAbsent(name, n -> new Counter());
+	}
+
+	/*******
+	 * <p> Method: LatencyHistogram histogram(String name) </p>
+	 *
+	 * <p> Description: The latency histogram with the given name, created if it does not exist
+	 * yet.</p>
+	 *
+	 * @param name is the metric name
+	 *
+	 * @return the histogram
+	 */
+	public static LatencyHistogram histogram(String name) {
+		LatencyHistogram histogram = histograms.get(name);
+		return histogram != null ? histogram
+				: histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+	}
+
+	/*******
+	 * <p> Method: void gauge(String name, LongSupplier value) </p>
+	 *
+	 * <p> Description: Register a gauge, replacing any gauge with the same name.  The supplier is
+	 * called each time a snapshot is taken, from the thread taking it.</p>
+	 *
+	 * @param name is the metric name
+	 *
+	 * @param value supplies the current value
+	 */
+	public static void gauge(String name, LongSupplier value) {
+		gauges.put(name, value);
+	}
+
+	/*******
+	 * <p> Method: void removeGauge(String name) </p>
+	 *
+	 * <p> Description: Remove a gauge whose source has gone away, e.g. a closed connection
+	 * pool.</p>
+	 *
+	 * @param name is the metric name
+	 */
+	public static void removeGauge(String name) {
+		gauges.remove(name);
+	}
+
+	/*******
+	 * <p> Method: void recordSince(String name, long startNanos) </p>
+	 *
+	 * <p> Description: Record the time since startNanos, a System.nanoTime() value, in the named
+	 * histogram.</p>
+	 *
+	 * @param name is the histogram name
+	 *
+	 * @param startNanos is when the timed work started
+	 */
+	public static void recordSince(String name, long startNanos) {
+		histogram(name).recordSince(startNanos);
+	}
+
+	/*******
+	 * <p> Method: void reset() </p>
+	 *
+	 * <p> Description: Zero every counter and histogram, e.g. between benchmark runs.  Gauges are
+	 * kept.</p>
+	 */
+	public static void reset() {
+		for (Counter counter : counters.values()) counter.reset();
+		for (LatencyHistogram histogram : histograms.values()) histogram.reset();
+	}
+
+	/*******
+	 * <p> Method: Map<String, Object> snapshot() </p>
+	 *
+	 * <p> Description: Every metric's current value, as {"counters": {name: n}, "gauges":
+	 * {name: n}, "latencies": {name: {"count", "meanUs", "p50Us", "p90Us", "p99Us", "p99_9Us",
+	 * "maxUs"}}}, with names in alphabetical order.</p>
+	 *
+	 * @return the values
+	 */
+	public static Map<String, Object> snapshot() {
+		Map<String, Object> counterValues = new TreeMap<String, Object>();
+		for (Map.Entry<String, Counter> e : counters.entrySet())
+			counterValues.put(e.getKey(), e.getValue().get());
+
+		Map<String, Object> gaugeValues = new TreeMap<String, Object>();
+		for (Map.Entry<String, LongSupplier> e : gauges.entrySet())
+			gaugeValues.put(e.getKey(), e.getValue().getAsLong());
+
+		Map<String, Object> latencies = new TreeMap<String, Object>();
+		for (Map.Entry<String, LatencyHistogram> e : histograms.entrySet()) {
+			LatencyHistogram.Snapshot s = e.getValue().snapshot();
+			Map<String, Object> values = new LinkedHashMap<String, Object>();
+			values.put("count", s.getCount());
+			values.put("meanUs", round(s.getMeanNanos() / 1000));
+			for (double p : PERCENTILES)
+				values.put("p" + label(p) + "Us", round(s.getPercentileMicros(p)));
+			values.put("maxUs", round(s.getMaxNanos() / 1000.0));
+			latencies.put(e.getKey(), values);
+		}
+
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		result.put("counters", counterValues);
+		result.put("gauges", gaugeValues);
+		result.put("latencies", latencies);
+		return result;
+	}
+
+	/*******
+	 * <p> Method: String snapshotText() </p>
+	 *
+	 * <p> Description: The same values as snapshot(), as a plain-text table.</p>
+	 *
+	 * @return the table
+	 */
+	public static String snapshotText() {
+		StringBuilder out = new StringBuilder();
+		for (Map.Entry<String, Counter> e : new TreeMap<String, Counter>(counters).entrySet())
+			out.append(String.format("%-40s %12d%n", e.getKey(), e.getValue().get()));
+		for (Map.Entry<String, LongSupplier> e : new TreeMap<String, LongSupplier>(gauges).entrySet())
+			out.append(String.format("%-40s %12d%n", e.getKey(), e.getValue().getAsLong()));
+
+		out.append(String.format("%n%-40s %10s %10s", "latency (us)", "count", "mean"));
+		for (double p : PERCENTILES) out.append(String.format(" %10s", "p" + label(p)));
+		out.append(String.format(" %10s%n", "max"));
+		for (Map.Entry<String, LatencyHistogram> e :
+				new TreeMap<String, LatencyHistogram>(histograms).entrySet()) {
+			LatencyHistogram.Snapshot s = e.getValue().snapshot();
+			out.append(String.format("%-40s %10d %10.1f", e.getKey(), s.getCount(),
+					s.getMeanNanos() / 1000));
+			for (double p : PERCENTILES) out.append(String.format(" %10.1f", s.getPercentileMicros(p)));
+			out.append(String.format(" %10.1f%n", s.getMaxNanos() / 1000.0));
+		}
+		return out.toString();
+	}
+
+	// 99.9 becomes "99_9" so it can be part of a JSON field name
+	private static String label(double percentile) {
+		return percentile == Math.rint(percentile) ? String.valueOf((long) percentile)
+				: String.valueOf(percentile).replace('.', '_');
+	}
+
+	private static double round(double micros) {
+		return Math.round(micros * 10) / 10.0;
+	}
+}
@@ -0,0 +1,140 @@
+package service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import entityClasses.User;
+import metrics.MetricsRegistry;
+import validate.EmailValidator;
+
+/*******
+ * <p> Title: AccountEndpoints Class. </p>
+ *
+ * <p> Description: Logging in and out of the HTTP service.
+ *
+ *     POST /api/login      {"username": ..., "password": ...}  returns a token and the roles
+ *     POST /api/logout     ends the caller's session
+ *     GET  /api/me         the caller's account
+ *     PUT  /api/me         {"firstName", "middleName", "lastName", "preferredFirstName",
+ *                          "emailAddress"}, any of them, changes the caller's profile</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-24 Initial version
+ * @version 1.01		2025-10-26 Login is timed as op.login
+ * @version 1.02		2025-10-27 Profile changes, saved with one UPDATE
+ * @version 1.03		2025-10-27 Saves leave the Database's current user attributes alone
+ *
+ */
+
+public class AccountEndpoints {
+
+	private AccountEndpoints() {
+	}
+
+	/*******
+	 * <p> Method: void register(FoundationsService service) </p>
+	 *
+	 * <p> Description: Add this class's routes to the service.</p>
+	 *
+	 * @param service is the service being set up
+	 */
+	public static void register(FoundationsService service) {
+		service.route("POST", "/api/login", null, request -> {
+			long start = System.nanoTime();
+			try {
+				return login(service, request);
+			} finally {
+				MetricsRegistry.recordSince("op.login", start);
+			}
+		});
+		service.route("POST", "/api/logout", FoundationsService.ANY_USER, request -> {
+			service.getSessions().remove(request.session().getToken());
+			return new LinkedHashMap<String, Object>();
+		});
+		service.route("GET", "/api/me", FoundationsService.ANY_USER, request -> {
+			User user = service.getDatabase().getUser(request.session().getUsername());
+			if (user == null) throw new ServiceException(404, "This account no longer exists");
+			return userToJson(user);
+		});
+		service.route("PUT", "/api/me", FoundationsService.ANY_USER, request -> {
+			User user = service.getDatabase().getUser(request.session().getUsername());
+			if (user == null) throw new ServiceException(404, "This account no longer exists");
+			applyProfile(user, request.body());
+			if (!service.getDatabase().saveUserChanges(user))
+				throw new ServiceException(500, "The profile could not be updated");
+			return userToJson(user);
+		});
+	}
+
+	/*
+	 * Check the credentials the same way the login page does and start a session
+	 */
+	private static Object login(FoundationsService service, Request request) throws Exception {
+		String username = request.requireString("username");
+		String password = request.requireString("password");
+
+		User user = service.getDatabase().getUser(username);
+		if (user == null || !password.equals(user.getPassword())) {
+			MetricsRegistry.counter("op.login.failed").increment();
+			throw new ServiceException(401, "Incorrect username/password");
+		}
+
+		// One-time passwords and the forced change that follows them are handled by the desktop
+		// login page, which can prompt for the new password
+		if (service.getDatabase().isMustResetOnNextLogin(username))
+			throw new ServiceException(403, "A password change is required before logging in");
+		if (user.getNumRoles() == 0)
+			throw new ServiceException(403, "This account has no roles");
+
+		SessionManager.Session session = service.getSessions().create(user);
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		result.put("token", session.getToken());
+		result.put("username", session.getUsername());
+		result.put("roles", session.getRoles());
+		return result;
+	}
+
+	/*
+	 * Copy the profile fields present in a request body to a user, leaving the others as they
+	 * were.  The user then knows which of its attributes changed.
+	 */
+	static void applyProfile(User user, Map<String, Object> fields) {
+		if (fields.containsKey("firstName")) user.setFirstName(text(fields, "firstName"));
+		if (fields.containsKey("middleName")) user.setMiddleName(text(fields, "middleName"));
+		if (fields.containsKey("lastName")) user.setLastName(text(fields, "lastName"));
+		if (fields.containsKey("preferredFirstName"))
+			user.setPreferredFirstName(text(fields, "preferredFirstName"));
+		if (fields.containsKey("emailAddress")) {
+			String email = text(fields, "emailAddress");
+			EmailValidator.ValidationResult check = EmailValidator.validateEmail(email);
+			if (!check.isValid()) throw new ServiceException(400, check.getErrorMessage());
+			user.setEmailAddress(email);
+		}
+	}
+
+	private static String text(Map<String, Object> fields, String field) {
+		Object value = fields.get(field);
+		return value == null ? "" : value.toString().trim();
+	}
+
+	/*
+	 * The public attributes of an account.  The password is never returned.
+	 */
+	static Map<String, Object> userToJson(User user) {
+		Map<String, Object> json = new LinkedHashMap<String, Object>();
+		json.put("username", user.getUserName());
+		json.put("firstName", user.getFirstName());
+		json.put("middleName", user.getMiddleName());
+		json.put("lastName", user.getLastName());
+		json.put("preferredFirstName", user.getPreferredFirstName());
+		json.put("emailAddress", user.getEmailAddress());
+		json.put("admin", user.getAdminRole());
+		json.put("role1", user.getNewRole1());
+		json.put("role2", user.getNewRole2());
+		json.put("student", user.getNewStudent());
+		return json;
+	}
+}
@@ -0,0 +1,178 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import database.Database;
+import entityClasses.User;
+import guiManageInvitations.ModelManageInvitations.InvitationRecord;
+import validate.EmailValidator;
+
+/*******
+ * <p> Title: AdminEndpoints Class. </p>
+ *
+ * <p> Description: Invitation and user administration over HTTP, applying the same rules as the
+ * Admin Home page.  Every route requires the Admin role.
+ *
+ *     GET    /api/dashboard                 the numbers of invitations, users and users by role
+ *     GET    /api/invitations               outstanding invitations
+ *     POST   /api/invitations               {"emailAddress", "role"} invites someone
+ *     DELETE /api/invitations/{code}        withdraws an invitation
+ *     GET    /api/users                     every account
+ *     PUT    /api/users                     {"users": [{"username", "firstName", ...}]} changes the
+ *                                           profiles of several accounts, all or none
+ *     DELETE /api/users/{username}          deletes an account
+ *     PUT    /api/users/{username}/roles    {"role", "value": true|false} adds or removes a role</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-24 Initial version
+ * @version 1.01		2025-10-27 Bulk profile changes
+ * @version 1.02		2025-10-27 Dashboard counts
+ * @version 1.03		2025-10-27 Saves leave the Database's current user attributes alone
+ *
+ */
+
+public class AdminEndpoints {
+
+	// The roles an invitation may grant and an admin may add or remove
+	private static final List<String> ROLES = Arrays.asList("Admin", "Role1", "Role2", "Student");
+
+	private AdminEndpoints() {
+	}
+
+	/*******
+	 * <p> Method: void register(FoundationsService service) </p>
+	 *
+	 * <p> Description: Add this class's routes to the service.</p>
+	 *
+	 * @param service is the service being set up
+	 */
+	public static void register(FoundationsService service) {
+		String admin = "Admin";
+		service.route("GET", "/api/dashboard", admin, request -> dashboard(service));
+		service.route("GET", "/api/invitations", admin, request -> listInvitations(service));
+		service.route("POST", "/api/invitations", admin, request -> invite(service, request));
+		service.route("DELETE", "/api/invitations/{code}", admin, request -> {
+			service.getDatabase().removeInvitationAfterUse(request.path("code"));
+			return new LinkedHashMap<String, Object>();
+		});
+		service.route("GET", "/api/users", admin, request -> {
+			List<Object> users = new ArrayList<Object>();
+			for (User user : service.getDatabase().getAllUsersDetailed())
+				users.add(AccountEndpoints.userToJson(user));
+			return users;
+		});
+		service.route("PUT", "/api/users", admin, request -> updateUsers(service, request));
+		service.route("DELETE", "/api/users/{username}", admin, request -> deleteUser(service, request));
+		service.route("PUT", "/api/users/{username}/roles", admin, request -> updateRole(service, request));
+	}
+
+	/*
+	 * The figures on the Admin Home page, all read from the dashboard counters
+	 */
+	private static Object dashboard(FoundationsService service) {
+		Map<String, Long> counts = service.getDatabase().getDashboardCounts();
+		Map<String, Object> byRole = new LinkedHashMap<String, Object>();
+		for (String role : Database.ROLE_NAMES)
+			byRole.put(role, counts.getOrDefault(Database.COUNTER_USERS + "." + role, 0L));
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		result.put("invitations", service.getDatabase().getNumberOfInvitations());
+		result.put("users", counts.getOrDefault(Database.COUNTER_USERS, 0L));
+		result.put("usersByRole", byRole);
+		return result;
+	}
+
+	private static Object listInvitations(FoundationsService service) {
+		List<Object> invitations = new ArrayList<Object>();
+		for (InvitationRecord record : service.getDatabase().getAllInvitationRecords()) {
+			Map<String, Object> json = new LinkedHashMap<String, Object>();
+			json.put("code", record.getCode());
+			json.put("emailAddress", record.getEmailAddress());
+			json.put("role", record.getRole());
+			json.put("expiresAt", record.getExpiresAt());
+			invitations.add(json);
+		}
+		return invitations;
+	}
+
+	private static Object invite(FoundationsService service, Request request) throws Exception {
+		String emailAddress = request.requireString("emailAddress");
+		String role = requireRole(request);
+		EmailValidator.ValidationResult check = EmailValidator.validateEmail(emailAddress);
+		if (!check.isValid()) throw new ServiceException(400, check.getErrorMessage());
+		if (service.getDatabase().emailaddressHasBeenUsed(emailAddress))
+			throw new ServiceException(409, "An invitation has already been sent to this email address.");
+
+		String code = service.getDatabase().generateInvitationCode(emailAddress, role);
+		Map<String, Object> json = new LinkedHashMap<String, Object>();
+		json.put("code", code);
+		json.put("emailAddress", emailAddress);
+		json.put("role", role);
+		request.setStatus(201);
+		return json;
+	}
+
+	private static Object deleteUser(FoundationsService service, Request request) throws Exception {
+		String username = request.path("username");
+		if (username.equalsIgnoreCase(request.session().getUsername()))
+			throw new ServiceException(409, "You cannot delete the account you are currently logged in as.");
+		if (!service.getDatabase().userExists(username))
+			throw new ServiceException(404, "No user exists with username: " + username);
+		if (service.getDatabase().isLastAdmin(username))
+			throw new ServiceException(409, "This user is the last Admin. Add another Admin before deleting.");
+		if (!service.getDatabase().deleteUser(username))
+			throw new ServiceException(500, "The user could not be deleted");
+		return new LinkedHashMap<String, Object>();
+	}
+
+	/*
+	 * Apply each entry's profile fields to its account and save them all in one transaction
+	 */
+	private static Object updateUsers(FoundationsService service, Request request) throws Exception {
+		Object entries = request.body().get("users");
+		if (!(entries instanceof List))
+			throw new ServiceException(400, "The field \"users\" must be a list of accounts");
+		List<User> users = new ArrayList<User>();
+		for (Object entry : (List<?>) entries) {
+			if (!(entry instanceof Map))
+				throw new ServiceException(400, "Each entry of \"users\" must be an object");
+			@SuppressWarnings("unchecked")
+			Map<String, Object> fields = (Map<String, Object>) entry;
+			Object username = fields.get("username");
+			User user = username == null ? null : service.getDatabase().getUser(username.toString());
+			if (user == null) throw new ServiceException(404, "No user exists with username: " + username);
+			AccountEndpoints.applyProfile(user, fields);
+			users.add(user);
+		}
+		int updated = service.getDatabase().saveUserChanges(users);
+		if (updated < 0) throw new ServiceException(500, "The users could not be updated; nothing was changed");
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		result.put("updated", updated);
+		return result;
+	}
+
+	private static Object updateRole(FoundationsService service, Request request) throws Exception {
+		String username = request.path("username");
+		String role = requireRole(request);
+		boolean value = request.requireBoolean("value");
+		if (!service.getDatabase().userExists(username))
+			throw new ServiceException(404, "No user exists with username: " + username);
+		if (role.equals("Admin") && !value && service.getDatabase().isLastAdmin(username))
+			throw new ServiceException(409, "This user is the last Admin. Add another Admin first.");
+		if (!service.getDatabase().setUserRole(username, role, value))
+			throw new ServiceException(500, "The role could not be updated");
+		return AccountEndpoints.userToJson(service.getDatabase().getUser(username));
+	}
+
+	private static String requireRole(Request request) throws Exception {
+		String role = request.requireString("role");
+		if (!ROLES.contains(role)) throw new ServiceException(400, "The role must be one of " + ROLES);
+		return role;
+	}
+}
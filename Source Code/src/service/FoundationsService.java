@@ -0,0 +1,311 @@
+package service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.ExecutorService;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import database.Database;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+
+/*******
+ * <p> Title: FoundationsService Class. </p>
+ *
+ * <p> Description: A headless HTTP/JSON front end to the same Database and entity classes the
+ * JavaFX pages use.  One service process can stand in for many desktop clients: a user logs in
+ * once, receives a bearer token, and sends it with every later request.
+ *
+ * Concurrency model: the JDK HttpServer accepts connections on one dispatcher thread and hands
+ * each request to an executor chosen by RequestExecutors.Mode: a bounded pool of platform
+ * threads, or a virtual thread per request.  A session is only an entry in the SessionManager's
+ * map, not a thread, so hundreds of logged-in users cost almost nothing while they are idle.
+ * Every request runs inside Database.withPooledConnection, so the connection pool is what bounds
+ * the number of requests using the database at once.  A request that cannot get a connection
+ * within the pool timeout is answered with 503.
+ *
+ * Each route is timed in the "http.METHOD pattern" latency histogram, and responses are counted
+ * by status in "http.status.N".  GET /metrics returns every metric in the MetricsRegistry, as a
+ * text table or, with ?format=json, as JSON.  It is only answered for connections from this
+ * machine.
+ *
+ * A route that needs a role checks it against the database on every request, not against the
+ * roles the session was given at login, so removing a role takes effect at once.
+ *
+ * Endpoints must only use the Database methods that do not touch its "current user" attributes
+ * or its shared Statement, because those are not safe to use from several threads at once; e.g.
+ * saveUserChanges rather than saveChanges, and setUserRole rather than updateUserRole.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-24 Initial version
+ * @version 1.01		2025-10-25 Virtual-thread execution and pooled connections per request
+ * @version 1.02		2025-10-26 Request metrics and the /metrics endpoint
+ * @version 1.03		2025-10-27 Routes are added when the service starts
+ * @version 1.04		2025-10-27 Roles are checked against the database on every request
+ *
+ */
+
+public class FoundationsService {
+
+	// The port and platform worker count used when none are given
+	public static final int DEFAULT_PORT = 8080;
+	public static final int DEFAULT_WORKERS = Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+
+	// How many connections the operating system may hold for the dispatcher to accept.  The usual
+	// default of 50 resets connections when hundreds of clients connect at once.
+	public static final int ACCEPT_BACKLOG = 1024;
+
+	// The requiredRole of a route that any logged-in user may call
+	public static final String ANY_USER = "*";
+
+	/*******
+	 * <p> Interface: Endpoint </p>
+	 *
+	 * <p> Description: The code behind one route.  The returned value is written as the JSON
+	 * response body.</p>
+	 */
+	public interface Endpoint {
+		Object handle(Request request) throws Exception;
+	}
+
+	/*
+	 * A method, a path pattern such as /api/posts/{id}/replies, the role needed to call it, and the
+	 * endpoint that serves it
+	 */
+	private static final class Route {
+		final String method;
+		final String[] segments;
+		final String requiredRole;
+		final Endpoint endpoint;
+		final LatencyHistogram latency;
+
+		Route(String method, String pattern, String requiredRole, Endpoint endpoint) {
+			this.method = method;
+			this.segments = pattern.substring(1).split("/");
+			this.requiredRole = requiredRole;
+			this.endpoint = endpoint;
+			this.latency = MetricsRegistry.histogram("http." + method + " " + pattern);
+		}
+
+		// The path parameters if the path fits this route's pattern, otherwise null
+		Map<String, String> match(String[] path) {
+			if (path.length != segments.length) return null;
+			Map<String, String> parameters = new HashMap<String, String>();
+			for (int i = 0; i < segments.length; i++) {
+				if (segments[i].startsWith("{"))
+					parameters.put(segments[i].substring(1, segments[i].length() - 1),
+							Request.decode(path[i]));
+				else if (!segments[i].equals(path[i]))
+					return null;
+			}
+			return parameters;
+		}
+	}
+
+	private final Database database;
+	private final SessionManager sessions = new SessionManager();
+	private final List<Route> routes = new ArrayList<Route>();
+	private HttpServer server = null;
+	private ExecutorService workers = null;
+
+	/*******
+	 * <p> Method: FoundationsService(Database database) </p>
+	 *
+	 * <p> Description: Establish the service over a connected database.  Its routes are added
+	 * when it is started, so the endpoint classes never see a service that is still being
+	 * constructed.</p>
+	 *
+	 * @param database is the database the endpoints read and write
+	 */
+	public FoundationsService(Database database) {
+		this.database = database;
+	}
+
+	public Database getDatabase() {
+		return database;
+	}
+
+	public SessionManager getSessions() {
+		return sessions;
+	}
+
+	/*******
+	 * <p> Method: void route(String method, String pattern, String requiredRole, Endpoint endpoint) </p>
+	 *
+	 * <p> Description: Add a route.  Path segments written as {name} match any value and are
+	 * available to the endpoint through Request.path(name).</p>
+	 *
+	 * @param method is the HTTP method, e.g. "GET"
+	 *
+	 * @param pattern is the path pattern, e.g. "/api/posts/{id}"
+	 *
+	 * @param requiredRole is null for a public route, ANY_USER for any logged-in user, or the
+	 *		name of the role the caller must have (e.g. "Admin")
+	 *
+	 * @param endpoint serves the route
+	 */
+	public void route(String method, String pattern, String requiredRole, Endpoint endpoint) {
+		routes.add(new Route(method, pattern, requiredRole, endpoint));
+	}
+
+	/*******
+	 * <p> Method: void start(int port, RequestExecutors.Mode mode, int workerThreads) </p>
+	 *
+	 * <p> Description: Add the endpoints' routes and start accepting requests.</p>
+	 *
+	 * @param port is the TCP port to listen on
+	 *
+	 * @param mode says whether requests run on platform threads or virtual threads
+	 *
+	 * @param workerThreads is the number of platform threads; it is ignored for virtual threads
+	 *		unless the JVM does not support them
+	 *
+	 * @throws IOException when the port cannot be opened
+	 */
+	public void start(int port, RequestExecutors.Mode mode, int workerThreads) throws IOException {
+		if (routes.isEmpty()) {
+			AccountEndpoints.register(this);
+			PostEndpoints.register(this);
+			AdminEndpoints.register(this);
+		}
+		workers = RequestExecutors.create(mode, workerThreads);
+		server = HttpServer.create(new InetSocketAddress(port), ACCEPT_BACKLOG);
+		server.createContext("/api/", this::dispatch);
+		server.createContext("/metrics", this::metrics);
+		server.setExecutor(workers);
+		sessions.start();
+		MetricsRegistry.gauge("service.sessions", sessions::size);
+		server.start();
+	}
+
+	/*******
+	 * <p> Method: int getPort() </p>
+	 *
+	 * <p> Description: The port the service is listening on, which is useful when it was started
+	 * on port 0 to let the system choose a free one.</p>
+	 *
+	 * @return the port, or -1 if the service is not running
+	 */
+	public int getPort() {
+		return server == null ? -1 : server.getAddress().getPort();
+	}
+
+	/*******
+	 * <p> Method: void stop() </p>
+	 *
+	 * <p> Description: Stop accepting requests, give those in progress a moment to finish, and
+	 * end every session.</p>
+	 */
+	public void stop() {
+		if (server != null) server.stop(1);
+		if (workers != null) workers.shutdown();
+		sessions.stop();
+		MetricsRegistry.removeGauge("service.sessions");
+		server = null;
+		workers = null;
+	}
+
+	/*
+	 * Find the route for a request, check the caller may use it, run it, and write the result
+	 */
+	private void dispatch(HttpExchange exchange) throws IOException {
+		long start = System.nanoTime();
+		Route matched = null;
+		try {
+			String[] path = exchange.getRequestURI().getRawPath().substring(1).split("/");
+			String method = exchange.getRequestMethod();
+			boolean pathMatched = false;
+			for (Route route : routes) {
+				Map<String, String> parameters = route.match(path);
+				if (parameters == null) continue;
+				pathMatched = true;
+				if (!route.method.equals(method)) continue;
+				matched = route;
+
+				SessionManager.Session session = sessions.lookup(Request.bearerToken(exchange));
+				if (route.requiredRole != null && session == null)
+					throw new ServiceException(401, "Please log in first");
+				Request request = new Request(exchange, parameters, session);
+				Object result = database.withPooledConnection(() -> {
+					// The roles are read again on every such request, so a role an admin has
+					// removed cannot be used for the rest of the session
+					if (route.requiredRole != null && !route.requiredRole.equals(ANY_USER) &&
+							!database.getUserRoles(session.getUsername()).contains(route.requiredRole))
+						throw new ServiceException(403, "This requires the " + route.requiredRole + " role");
+					return route.endpoint.handle(request);
+				});
+				respond(exchange, request.getStatus(), result);
+				return;
+			}
+			if (pathMatched) throw new ServiceException(405, "Method " + method + " is not allowed here");
+			throw new ServiceException(404, "No such endpoint");
+		} catch (ServiceException e) {
+			respond(exchange, e.getStatus(), error(e.getMessage()));
+		} catch (SQLTransientConnectionException e) {
+			// Every pooled connection stayed busy for the whole pool timeout
+			respond(exchange, 503, error("The service is busy; please try again"));
+		} catch (IllegalArgumentException e) {
+			// The entity classes and validators report bad input this way
+			respond(exchange, 400, error(e.getMessage()));
+		} catch (Exception e) {
+			e.printStackTrace();
+			respond(exchange, 500, error("Internal error"));
+		} finally {
+			exchange.close();
+			if (matched != null) matched.latency.recordSince(start);
+		}
+	}
+
+	/*
+	 * Serve the metrics snapshot to a client on this machine
+	 */
+	private void metrics(HttpExchange exchange) throws IOException {
+		try {
+			if (!exchange.getRemoteAddress().getAddress().isLoopbackAddress()) {
+				respond(exchange, 403, error("Metrics are only served to local clients"));
+			} else if (!exchange.getRequestMethod().equals("GET")) {
+				respond(exchange, 405, error("Method " + exchange.getRequestMethod() + " is not allowed here"));
+			} else if ("format=json".equals(exchange.getRequestURI().getRawQuery())) {
+				respond(exchange, 200, MetricsRegistry.snapshot());
+			} else {
+				byte[] bytes = MetricsRegistry.snapshotText().getBytes(StandardCharsets.UTF_8);
+				exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+				exchange.sendResponseHeaders(200, bytes.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(bytes);
+				}
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private static Map<String, Object> error(String message) {
+		Map<String, Object> body = new LinkedHashMap<String, Object>();
+		body.put("error", message);
+		return body;
+	}
+
+	private static void respond(HttpExchange exchange, int status, Object result) throws IOException {
+		MetricsRegistry.counter("http.status." + status).increment();
+		byte[] bytes = Json.write(result).getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*******
+ * <p> Title: Json Class. </p>
+ *
+ * <p> Description: A minimal JSON reader and writer for the HTTP service, so the service does not
+ * need a third-party library.  Values are represented with plain Java types: a JSON object is a
+ * Map&lt;String, Object&gt;, an array is a List&lt;Object&gt;, and strings, numbers, booleans and
+ * null map to String, Long or Double, Boolean and null.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-24 Initial version
+ *
+ */
+
+public final class Json {
+
+	private Json() {
+	}
+
+	/*******
+	 * <p> Method: String write(Object value) </p>
+	 *
+	 * <p> Description: Serialize a value built from maps, collections, strings, numbers, booleans
+	 * and nulls.  Any other object is written as its toString() value.</p>
+	 *
+	 * @param value is the value to serialize
+	 *
+	 * @return the JSON text
+	 */
+	public static String write(Object value) {
+		StringBuilder out = new StringBuilder();
+		write(value, out);
+		return out.toString();
+	}
+
+	private static void write(Object value, StringBuilder out) {
+		if (value == null) {
+			out.append("null");
+		} else if (value instanceof Boolean || value instanceof Number) {
+			out.append(value);
+		} else if (value instanceof Map) {
+			out.append('{');
+			boolean first = true;
+			for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+				if (!first) out.append(',');
+				first = false;
+				writeString(String.valueOf(e.getKey()), out);
+				out.append(':');
+				write(e.getValue(), out);
+			}
+			out.append('}');
+		} else if (value instanceof Collection) {
+			out.append('[');
+			boolean first = true;
+			for (Object item : (Collection<?>) value) {
+				if (!first) out.append(',');
+				first = false;
+				write(item, out);
+			}
+			out.append(']');
+		} else {
+			writeString(value.toString(), out);
+		}
+	}
+
+	private static void writeString(String s, StringBuilder out) {
+		out.append('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+			case '"': out.append("\\\""); break;
+			case '\\': out.append("\\\\"); break;
+			case '\n': out.append("\\n"); break;
+			case '\r': out.append("\\r"); break;
+			case '\t': out.append("\\t"); break;
+			default:
+				if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+				else out.append(c);
+			}
+		}
+		out.append('"');
+	}
+
+	/*******
+	 * <p> Method: Object parse(String text) </p>
+	 *
+	 * <p> Description: Parse a JSON document.</p>
+	 *
+	 * @param text is the JSON text
+	 *
+	 * @return the value the text represents
+	 *
+	 * @throws IllegalArgumentException when the text is not valid JSON
+	 */
+	public static Object parse(String text) {
+		Parser parser = new Parser(text);
+		parser.skipWhitespace();
+		Object value = parser.readValue();
+		parser.skipWhitespace();
+		if (parser.pos != text.length()) throw parser.error("Unexpected text after the value");
+		return value;
+	}
+
+	/*
+	 * A recursive descent parser over the text, one value at a time
+	 */
+	private static final class Parser {
+		private final String text;
+		private int pos = 0;
+
+		Parser(String text) {
+			this.text = text;
+		}
+
+		Object readValue() {
+			if (pos >= text.length()) throw error("Unexpected end of text");
+			char c = text.charAt(pos);
+			switch (c) {
+			case '{': return readObject();
+			case '[': return readArray();
+			case '"': return readString();
+			case 't': return readLiteral("true", Boolean.TRUE);
+			case 'f': return readLiteral("false", Boolean.FALSE);
+			case 'n': return readLiteral("null", null);
+			default:
+				if (c == '-' || (c >= '0' && c <= '9')) return readNumber();
+				throw error("Unexpected character '" + c + "'");
+			}
+		}
+
+		private Map<String, Object> readObject() {
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			pos++;
+			skipWhitespace();
+			if (peek() == '}') {
+				pos++;
+				return map;
+			}
+			while (true) {
+				skipWhitespace();
+				if (peek() != '"') throw error("Expected a field name");
+				String key = readString();
+				skipWhitespace();
+				expect(':');
+				skipWhitespace();
+				map.put(key, readValue());
+				skipWhitespace();
+				if (peek() == ',') {
+					pos++;
+				} else {
+					expect('}');
+					return map;
+				}
+			}
+		}
+
+		private List<Object> readArray() {
+			List<Object> list = new ArrayList<Object>();
+			pos++;
+			skipWhitespace();
+			if (peek() == ']') {
+				pos++;
+				return list;
+			}
+			while (true) {
+				skipWhitespace();
+				list.add(readValue());
+				skipWhitespace();
+				if (peek() == ',') {
+					pos++;
+				} else {
+					expect(']');
+					return list;
+				}
+			}
+		}
+
+		private String readString() {
+			StringBuilder sb = new StringBuilder();
+			pos++;
+			while (true) {
+				if (pos >= text.length()) throw error("Unterminated string");
+				char c = text.charAt(pos++);
+				if (c == '"') return sb.toString();
+				if (c != '\\') {
+					sb.append(c);
+					continue;
+				}
+				if (pos >= text.length()) throw error("Unterminated string");
+				char e = text.charAt(pos++);
+				switch (e) {
+				case '"': case '\\': case '/': sb.append(e); break;
+				case 'b': sb.append('\b'); break;
+				case 'f': sb.append('\f'); break;
+				case 'n': sb.append('\n'); break;
+				case 'r': sb.append('\r'); break;
+				case 't': sb.append('\t'); break;
+				case 'u':
+					if (pos + 4 > text.length()) throw error("Bad unicode escape");
+					try {
+						sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+					} catch (NumberFormatException ex) {
+						throw error("Bad unicode escape");
+					}
+					pos += 4;
+					break;
+				default:
+					throw error("Bad escape '\\" + e + "'");
+				}
+			}
+		}
+
+		private Object readNumber() {
+			int start = pos;
+			if (peek() == '-') pos++;
+			boolean integral = true;
+			while (pos < text.length()) {
+				char c = text.charAt(pos);
+				if (c >= '0' && c <= '9') {
+					pos++;
+				} else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+					integral = false;
+					pos++;
+				} else {
+					break;
+				}
+			}
+			String number = text.substring(start, pos);
+			try {
+				return integral ? (Object) Long.valueOf(number) : (Object) Double.valueOf(number);
+			} catch (NumberFormatException e) {
+				throw error("Bad number \"" + number + "\"");
+			}
+		}
+
+		private Object readLiteral(String literal, Object value) {
+			if (!text.startsWith(literal, pos)) throw error("Unexpected text");
+			pos += literal.length();
+			return value;
+		}
+
+		void skipWhitespace() {
+			while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+		}
+
+		private char peek() {
+			return pos < text.length() ? text.charAt(pos) : '\0';
+		}
+
+		private void expect(char c) {
+			if (peek() != c) throw error("Expected '" + c + "'");
+			pos++;
+		}
+
+		IllegalArgumentException error(String message) {
+			return new IllegalArgumentException("Invalid JSON at position " + pos + ": " + message);
+		}
+	}
+}
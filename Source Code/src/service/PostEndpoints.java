@@ -0,0 +1,160 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import entityClasses.Post;
+import entityClasses.PostCollection;
+import entityClasses.Reply;
+import metrics.MetricsRegistry;
+
+/*******
+ * <p> Title: PostEndpoints Class. </p>
+ *
+ * <p> Description: The discussion board over HTTP, mirroring what ControllerStudentHome offers on
+ * the desktop.  Every route requires a logged-in user.
+ *
+ *     GET    /api/posts                 active posts; ?thread= and ?author= narrow the list
+ *     POST   /api/posts                 {"title", "content", "thread"} creates a post
+ *     GET    /api/posts/{id}            one post
+ *     DELETE /api/posts/{id}            deletes one of the caller's own posts
+ *     GET    /api/posts/{id}/replies    the replies to a post
+ *     POST   /api/posts/{id}/replies    {"content"} replies to a post
+ *     GET    /api/search?q=keyword      active posts whose title or content contains keyword</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-24 Initial version
+ * @version 1.01		2025-10-26 Post creation and search are timed as op.createPost and op.search
+ * @version 1.02		2025-10-27 A reply and its post's reply count are saved in one transaction
+ * @version 1.03		2025-10-27 The database counts a new reply, and the response includes the
+ *							post's new reply count
+ *
+ */
+
+public class PostEndpoints {
+
+	private PostEndpoints() {
+	}
+
+	/*******
+	 * <p> Method: void register(FoundationsService service) </p>
+	 *
+	 * <p> Description: Add this class's routes to the service.</p>
+	 *
+	 * @param service is the service being set up
+	 */
+	public static void register(FoundationsService service) {
+		String user = FoundationsService.ANY_USER;
+		service.route("GET", "/api/posts", user, request -> listPosts(service, request));
+		service.route("POST", "/api/posts", user, request -> createPost(service, request));
+		service.route("GET", "/api/posts/{id}", user,
+				request -> postToJson(findPost(service, request.path("id"))));
+		service.route("DELETE", "/api/posts/{id}", user, request -> deletePost(service, request));
+		service.route("GET", "/api/posts/{id}/replies", user, request -> listReplies(service, request));
+		service.route("POST", "/api/posts/{id}/replies", user, request -> createReply(service, request));
+		service.route("GET", "/api/search", user, request -> {
+			String keyword = request.query("q");
+			if (keyword == null) throw new ServiceException(400, "The query parameter \"q\" is required");
+			long start = System.nanoTime();
+			try {
+				return postsToJson(service.getDatabase().searchPosts(keyword));
+			} finally {
+				MetricsRegistry.recordSince("op.search", start);
+			}
+		});
+	}
+
+	private static Object listPosts(FoundationsService service, Request request) throws Exception {
+		PostCollection posts = new PostCollection(service.getDatabase().getAllPosts());
+		String thread = request.query("thread");
+		String author = request.query("author");
+		if (thread != null) posts = posts.getActivePostsByThread(thread);
+		if (author != null) posts = posts.getPostsByAuthor(author);
+		return postsToJson(posts.getActivePosts());
+	}
+
+	private static Object createPost(FoundationsService service, Request request) throws Exception {
+		long start = System.nanoTime();
+		Post post = new Post(request.session().getUsername(), request.requireString("title"),
+				request.requireString("content"), request.optionalString("thread", Post.DEFAULT_THREAD));
+		service.getDatabase().savePost(post);
+		MetricsRegistry.recordSince("op.createPost", start);
+		request.setStatus(201);
+		return postToJson(post);
+	}
+
+	private static Object deletePost(FoundationsService service, Request request) throws Exception {
+		Post post = findPost(service, request.path("id"));
+		if (!post.getAuthorUsername().equals(request.session().getUsername()))
+			throw new ServiceException(403, "You can only delete your own posts.");
+		service.getDatabase().markPostDeleted(post.getPostId());
+		post.markAsDeleted();
+		return postToJson(post);
+	}
+
+	private static Object listReplies(FoundationsService service, Request request) throws Exception {
+		String postId = request.path("id");
+		if (service.getDatabase().getPost(postId) == null)
+			throw new ServiceException(404, "No post found with ID " + postId);
+		List<Object> replies = new ArrayList<Object>();
+		for (Reply reply : service.getDatabase().getReplies(postId)) replies.add(replyToJson(reply));
+		return replies;
+	}
+
+	private static Object createReply(FoundationsService service, Request request) throws Exception {
+		String postId = request.path("id");
+
+		// The Reply constructor applies the content rules; its ID is the one stored
+		Reply reply = new Reply(postId, request.session().getUsername(),
+				request.requireString("content"));
+		int replyCount = service.getDatabase().addReply(reply.getReplyId(), postId,
+				reply.getAuthorUsername(), reply.getContent());
+		if (replyCount == 0) throw new ServiceException(404, "No post found with ID " + postId);
+		request.setStatus(201);
+		Map<String, Object> json = replyToJson(reply);
+		json.put("postReplyCount", replyCount);
+		return json;
+	}
+
+	private static Post findPost(FoundationsService service, String postId) throws Exception {
+		Post post = service.getDatabase().getPost(postId);
+		if (post == null) throw new ServiceException(404, "No post found with ID " + postId);
+		return post;
+	}
+
+	private static List<Object> postsToJson(List<Post> posts) {
+		List<Object> json = new ArrayList<Object>();
+		for (Post post : posts) json.add(postToJson(post));
+		return json;
+	}
+
+	static Map<String, Object> postToJson(Post post) {
+		Map<String, Object> json = new LinkedHashMap<String, Object>();
+		json.put("postId", post.getPostId());
+		json.put("author", post.getAuthorUsername());
+		json.put("title", post.getTitle());
+		json.put("content", post.getContent());
+		json.put("thread", post.getThread());
+		json.put("createdAt", post.getCreatedAt());
+		json.put("updatedAt", post.getUpdatedAt());
+		json.put("deleted", post.isDeleted());
+		json.put("replyCount", post.getReplyCount());
+		return json;
+	}
+
+	static Map<String, Object> replyToJson(Reply reply) {
+		Map<String, Object> json = new LinkedHashMap<String, Object>();
+		json.put("replyId", reply.getReplyId());
+		json.put("postId", reply.getPostId());
+		json.put("author", reply.getAuthorUsername());
+		json.put("content", reply.getContent());
+		json.put("createdAt", reply.getCreatedAt());
+		json.put("originalPostDeleted", reply.isOriginalPostDeleted());
+		return json;
+	}
+}
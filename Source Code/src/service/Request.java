@@ -0,0 +1,206 @@
+package service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import com.sun.net.httpserver.HttpExchange;
+
+/*******
+ * <p> Title: Request Class. </p>
+ *
+ * <p> Description: What an endpoint sees of one HTTP request: the path parameters matched by its
+ * route, the query string, the JSON body and the caller's session.  Helpers that read a required
+ * field throw a ServiceException with status 400, so endpoints can read their input without
+ * checking every value themselves.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-24 Initial version
+ *
+ */
+
+public class Request {
+
+	// Bodies larger than this are refused; no endpoint needs more than a post's content
+	public static final int MAX_BODY_BYTES = 64 * 1024;
+
+	private final HttpExchange exchange;
+	private final Map<String, String> pathParameters;
+	private final SessionManager.Session session;
+	private Map<String, Object> body = null;
+	private int status = 200;
+
+	Request(HttpExchange exchange, Map<String, String> pathParameters,
+			SessionManager.Session session) {
+		this.exchange = exchange;
+		this.pathParameters = pathParameters;
+		this.session = session;
+	}
+
+	/*******
+	 * <p> Method: SessionManager.Session session() </p>
+	 *
+	 * <p> Description: The caller's session.</p>
+	 *
+	 * @return the session, or null for a public endpoint called without a valid token
+	 */
+	public SessionManager.Session session() {
+		return session;
+	}
+
+	/*******
+	 * <p> Method: String path(String name) </p>
+	 *
+	 * <p> Description: A parameter from the route's path, e.g. "id" for /api/posts/{id}.</p>
+	 *
+	 * @param name is the parameter name used in the route pattern
+	 *
+	 * @return the decoded value
+	 */
+	public String path(String name) {
+		return pathParameters.get(name);
+	}
+
+	/*******
+	 * <p> Method: String query(String name) </p>
+	 *
+	 * <p> Description: A parameter from the query string.</p>
+	 *
+	 * @param name is the parameter name
+	 *
+	 * @return the decoded value, or null if the parameter is not present
+	 */
+	public String query(String name) {
+		String raw = exchange.getRequestURI().getRawQuery();
+		if (raw == null) return null;
+		for (String pair : raw.split("&")) {
+			int eq = pair.indexOf('=');
+			String key = decode(eq < 0 ? pair : pair.substring(0, eq));
+			if (key.equals(name)) return eq < 0 ? "" : decode(pair.substring(eq + 1));
+		}
+		return null;
+	}
+
+	/*******
+	 * <p> Method: Map<String, Object> body() </p>
+	 *
+	 * <p> Description: The request body, which must be a JSON object.  An empty body is treated
+	 * as an empty object.</p>
+	 *
+	 * @return the fields of the body
+	 *
+	 * @throws IOException when the body cannot be read
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, Object> body() throws IOException {
+		if (body != null) return body;
+		byte[] bytes;
+		try (InputStream in = exchange.getRequestBody()) {
+			bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+		}
+		if (bytes.length > MAX_BODY_BYTES)
+			throw new ServiceException(413, "The request body is larger than " + MAX_BODY_BYTES + " bytes");
+		String text = new String(bytes, StandardCharsets.UTF_8).trim();
+		if (text.isEmpty()) {
+			body = Collections.emptyMap();
+			return body;
+		}
+		Object parsed;
+		try {
+			parsed = Json.parse(text);
+		} catch (IllegalArgumentException e) {
+			throw new ServiceException(400, e.getMessage());
+		}
+		if (!(parsed instanceof Map)) throw new ServiceException(400, "The request body must be a JSON object");
+		body = (Map<String, Object>) parsed;
+		return body;
+	}
+
+	/*******
+	 * <p> Method: String requireString(String field) </p>
+	 *
+	 * <p> Description: A field of the body that must be present and must not be blank.</p>
+	 *
+	 * @param field is the field name
+	 *
+	 * @return the trimmed value
+	 *
+	 * @throws IOException when the body cannot be read
+	 */
+	public String requireString(String field) throws IOException {
+		Object value = body().get(field);
+		if (value == null || value.toString().trim().isEmpty())
+			throw new ServiceException(400, "The field \"" + field + "\" is required");
+		return value.toString().trim();
+	}
+
+	/*******
+	 * <p> Method: String optionalString(String field, String defaultValue) </p>
+	 *
+	 * <p> Description: A field of the body that may be left out.</p>
+	 *
+	 * @param field is the field name
+	 *
+	 * @param defaultValue is returned when the field is missing or blank
+	 *
+	 * @return the trimmed value or the default
+	 *
+	 * @throws IOException when the body cannot be read
+	 */
+	public String optionalString(String field, String defaultValue) throws IOException {
+		Object value = body().get(field);
+		if (value == null || value.toString().trim().isEmpty()) return defaultValue;
+		return value.toString().trim();
+	}
+
+	/*******
+	 * <p> Method: boolean requireBoolean(String field) </p>
+	 *
+	 * <p> Description: A field of the body that must be a JSON true or false.</p>
+	 *
+	 * @param field is the field name
+	 *
+	 * @return the value
+	 *
+	 * @throws IOException when the body cannot be read
+	 */
+	public boolean requireBoolean(String field) throws IOException {
+		Object value = body().get(field);
+		if (!(value instanceof Boolean))
+			throw new ServiceException(400, "The field \"" + field + "\" must be true or false");
+		return (Boolean) value;
+	}
+
+	/*******
+	 * <p> Method: void setStatus(int status) </p>
+	 *
+	 * <p> Description: Change the status of a successful response, e.g. to 201 after creating
+	 * something.  The default is 200.</p>
+	 *
+	 * @param status is the HTTP status code
+	 */
+	public void setStatus(int status) {
+		this.status = status;
+	}
+
+	int getStatus() {
+		return status;
+	}
+
+	// The token from an "Authorization: Bearer <token>" header
+	static String bearerToken(HttpExchange exchange) {
+		String header = exchange.getRequestHeaders().getFirst("Authorization");
+		if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) return null;
+		return header.substring(7).trim();
+	}
+
+	static String decode(String s) {
+		return URLDecoder.decode(s, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,114 @@
+package service;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import logging.Log;
+
+/*******
+ * <p> Title: RequestExecutors Class. </p>
+ *
+ * <p> Description: The two ways the HTTP service can run requests.
+ *
+ * PLATFORM uses a fixed pool of ordinary threads.  The pool size caps concurrency, and a worker
+ * blocked on JDBC or on a row lock holds an operating system thread while it waits.
+ *
+ * VIRTUAL starts a virtual thread for every request.  A request that blocks only parks its
+ * virtual thread, so thousands can be in flight at little cost.  The real limit is then the
+ * database connection pool, which every request passes through.
+ *
+ * Virtual threads need Java 21.  They are looked up by reflection, so the application still
+ * builds and runs on older JDKs.  On those JDKs VIRTUAL falls back to PLATFORM and says so.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-25 Initial version
+ * @version 1.01		2025-10-26 The fallback notice is logged instead of printed
+ *
+ */
+
+public final class RequestExecutors {
+
+	/*******
+	 * <p> Title: Mode Enum. </p>
+	 *
+	 * <p> Description: How requests are run.</p>
+	 */
+	public enum Mode { PLATFORM, VIRTUAL }
+
+	// How many requests may wait for a platform worker before the caller runs them itself
+	public static final int QUEUE_CAPACITY = 1024;
+
+	private RequestExecutors() {
+	}
+
+	/*******
+	 * <p> Method: boolean virtualThreadsAvailable() </p>
+	 *
+	 * <p> Description: Report whether this JVM supports virtual threads.</p>
+	 *
+	 * @return true on Java 21 and later
+	 */
+	public static boolean virtualThreadsAvailable() {
+		return virtualFactory() != null;
+	}
+
+	/*******
+	 * <p> Method: ExecutorService create(Mode mode, int platformThreads) </p>
+	 *
+	 * <p> Description: Make an executor for the requested mode.</p>
+	 *
+	 * @param mode is PLATFORM or VIRTUAL
+	 *
+	 * @param platformThreads is the pool size for PLATFORM, also used when VIRTUAL is not
+	 *		available
+	 *
+	 * @return the executor
+	 */
+	public static ExecutorService create(Mode mode, int platformThreads) {
+		if (mode == Mode.VIRTUAL) {
+			Method factory = virtualFactory();
+			if (factory != null) {
+				try {
+					return (ExecutorService) factory.invoke(null);
+				} catch (ReflectiveOperationException e) {
+					e.printStackTrace();
+				}
+			}
+			Log.get(RequestExecutors.class).warn("Virtual threads need Java 21 or later; using "
+					+ platformThreads + " platform threads instead");
+		}
+		return platform(platformThreads);
+	}
+
+	/*
+	 * A fixed pool of daemon threads behind a bounded queue.  When the queue is full the caller
+	 * (the HttpServer dispatcher) runs the request itself, which slows the accepting of new
+	 * connections instead of letting work pile up without limit.
+	 */
+	private static ExecutorService platform(int threads) {
+		AtomicInteger threadNumber = new AtomicInteger();
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY), runnable -> {
+					Thread t = new Thread(runnable, "http-worker-" + threadNumber.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	private static Method virtualFactory() {
+		try {
+			return java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+}
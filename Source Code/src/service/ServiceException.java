@@ -0,0 +1,41 @@
+package service;
+
+/*******
+ * <p> Title: ServiceException Class. </p>
+ *
+ * <p> Description: Thrown by an endpoint to end a request with a specific HTTP status and a
+ * message for the client, e.g. 404 when a post does not exist or 403 when a student calls an
+ * admin endpoint.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-24 Initial version
+ *
+ */
+
+public class ServiceException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int status;
+
+	/*******
+	 * <p> Method: ServiceException(int status, String message) </p>
+	 *
+	 * <p> Description: Establish the exception.</p>
+	 *
+	 * @param status is the HTTP status code to respond with
+	 *
+	 * @param message is the explanation returned to the client in the "error" field
+	 */
+	public ServiceException(int status, String message) {
+		super(message);
+		this.status = status;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+}
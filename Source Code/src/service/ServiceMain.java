@@ -0,0 +1,76 @@
+package service;
+
+import java.sql.SQLException;
+
+import database.Database;
+import database.DatabaseConfig;
+
+/*******
+ * <p> Title: ServiceMain Class. </p>
+ *
+ * <p> Description: Runs the HTTP/JSON service without the JavaFX user interface.
+ *
+ *     java ... service.ServiceMain [--port=8080] [--threads=platform|virtual] [--workers=N]
+ *
+ * With --threads=virtual (Java 21 and later) every request runs on its own virtual thread and
+ * the database connection pool (foundations.db.poolSize) is the only concurrency limit.  With
+ * --threads=platform, the default, --workers platform threads serve the requests.
+ *
+ * The database is opened with the same external configuration as the desktop application (see
+ * DatabaseConfig).  To run the service next to desktop clients, start one of them with
+ * foundations.db.mode=server, or all of them with foundations.db.mode=auto-server, so they can
+ * share the database file.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-24 Initial version
+ * @version 1.01		2025-10-25 The --threads option
+ *
+ */
+
+public class ServiceMain {
+
+	/*******
+	 * <p> Method: main(String[] args) </p>
+	 *
+	 * <p> Description: Open the database, start the service, and keep running until the process
+	 * is stopped.  The service and the database are shut down cleanly on exit.</p>
+	 *
+	 * @param args are the optional --port=, --threads= and --workers= settings
+	 *
+	 * @throws Exception when the database cannot be opened or the port cannot be bound
+	 */
+	public static void main(String[] args) throws Exception {
+		int port = FoundationsService.DEFAULT_PORT;
+		int workers = FoundationsService.DEFAULT_WORKERS;
+		RequestExecutors.Mode mode = RequestExecutors.Mode.PLATFORM;
+		for (String arg : args) {
+			if (arg.startsWith("--port=")) port = Integer.parseInt(arg.substring(7));
+			else if (arg.startsWith("--threads="))
+				mode = RequestExecutors.Mode.valueOf(arg.substring(10).toUpperCase());
+			else if (arg.startsWith("--workers=")) workers = Integer.parseInt(arg.substring(10));
+			else throw new IllegalArgumentException("Unknown option: " + arg);
+		}
+
+		Database database = new Database(DatabaseConfig.load());
+		try {
+			database.connectToDatabase();
+		} catch (SQLException e) {
+			System.err.println("*** Unable to open the database: " + e.getMessage());
+			System.exit(1);
+		}
+
+		FoundationsService service = new FoundationsService(database);
+		service.start(port, mode, workers);
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			service.stop();
+			database.closeConnection();
+		}, "service-shutdown"));
+		System.out.println("*** Service listening on http://localhost:" + port + "/api/ using "
+				+ (mode == RequestExecutors.Mode.VIRTUAL && RequestExecutors.virtualThreadsAvailable()
+						? "virtual threads" : workers + " platform threads")
+				+ " and " + database.getConnectionPool().getSize() + " database connections");
+	}
+}
@@ -0,0 +1,176 @@
+package service;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import entityClasses.User;
+
+/*******
+ * <p> Title: SessionManager Class. </p>
+ *
+ * <p> Description: The logged-in sessions of the HTTP service.  A successful login is given a
+ * random bearer token, which the client sends with every later request.
+ *
+ * Sessions live in a ConcurrentHashMap keyed by token.  Looking up a session on every request
+ * therefore never blocks, and hundreds of sessions cost only a small object each.  A session that
+ * has not been used for IDLE_TIMEOUT_MILLIS is expired.  Expired sessions are refused when they
+ * are looked up and are swept out of the map periodically by a daemon thread.</p>
+ *
+ * <p> Copyright: Lynn Robert Carter © 2025 </p>
+ *
+ * @author Mahith
+ *
+ * @version 1.00		2025-10-24 Initial version
+ * @version 1.01		2025-10-27 Roles are checked by FoundationsService, not kept for the session
+ *
+ */
+
+public class SessionManager {
+
+	// A session expires after this long without a request
+	public static final long IDLE_TIMEOUT_MILLIS = 30L * 60 * 1000;	// 30 minutes
+
+	// How often expired sessions are removed from the map
+	private static final long SWEEP_PERIOD_SECONDS = 60;
+
+	private static final SecureRandom RNG = new SecureRandom();
+
+	private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+	private ScheduledExecutorService sweeper = null;
+
+	/*******
+	 * <p> Title: Session Class. </p>
+	 *
+	 * <p> Description: One logged-in user.  The roles are those the user had at login, as
+	 * reported to the client; FoundationsService checks a route's role against the database
+	 * instead, so a role change made by an admin takes effect at once.</p>
+	 */
+	public static class Session {
+		private final String token;
+		private final String username;
+		private final Set<String> roles;
+		private volatile long lastAccess;
+
+		Session(String token, String username, Set<String> roles) {
+			this.token = token;
+			this.username = username;
+			this.roles = Collections.unmodifiableSet(roles);
+			this.lastAccess = System.currentTimeMillis();
+		}
+
+		public String getToken() { return token; }
+
+		public String getUsername() { return username; }
+
+		public Set<String> getRoles() { return roles; }
+
+		public boolean hasRole(String role) { return roles.contains(role); }
+
+		boolean isExpired(long now) { return now - lastAccess > IDLE_TIMEOUT_MILLIS; }
+	}
+
+	/*******
+	 * <p> Method: Session create(User user) </p>
+	 *
+	 * <p> Description: Start a session for a user whose credentials have been checked.</p>
+	 *
+	 * @param user is the logged-in user
+	 *
+	 * @return the new session, holding its token
+	 */
+	public Session create(User user) {
+		Set<String> roles = new LinkedHashSet<String>();
+		if (user.getAdminRole()) roles.add("Admin");
+		if (user.getNewRole1()) roles.add("Role1");
+		if (user.getNewRole2()) roles.add("Role2");
+		if (user.getNewStudent()) roles.add("Student");
+
+		byte[] bytes = new byte[32];
+		RNG.nextBytes(bytes);
+		String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+		Session session = new Session(token, user.getUserName(), roles);
+		sessions.put(token, session);
+		return session;
+	}
+
+	/*******
+	 * <p> Method: Session lookup(String token) </p>
+	 *
+	 * <p> Description: Find the session for a token and record that it has been used.</p>
+	 *
+	 * @param token is the bearer token from the request
+	 *
+	 * @return the session, or null if the token is unknown or the session has expired
+	 */
+	public Session lookup(String token) {
+		if (token == null) return null;
+		Session session = sessions.get(token);
+		if (session == null) return null;
+		long now = System.currentTimeMillis();
+		if (session.isExpired(now)) {
+			sessions.remove(token, session);
+			return null;
+		}
+		session.lastAccess = now;
+		return session;
+	}
+
+	/*******
+	 * <p> Method: void remove(String token) </p>
+	 *
+	 * <p> Description: End a session (logout).</p>
+	 *
+	 * @param token is the session's token
+	 */
+	public void remove(String token) {
+		sessions.remove(token);
+	}
+
+	/*******
+	 * <p> Method: int size() </p>
+	 *
+	 * <p> Description: The number of sessions currently held, including any that have expired
+	 * but not yet been swept.</p>
+	 *
+	 * @return the number of sessions
+	 */
+	public int size() {
+		return sessions.size();
+	}
+
+	/*******
+	 * <p> Method: void start() </p>
+	 *
+	 * <p> Description: Start sweeping expired sessions on a daemon thread.</p>
+	 */
+	public void start() {
+		if (sweeper != null) return;
+		sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread t = new Thread(runnable, "session-sweeper");
+			t.setDaemon(true);
+			return t;
+		});
+		sweeper.scheduleWithFixedDelay(() -> {
+			long now = System.currentTimeMillis();
+			sessions.values().removeIf(s -> s.isExpired(now));
+		}, SWEEP_PERIOD_SECONDS, SWEEP_PERIOD_SECONDS, TimeUnit.SECONDS);
+	}
+
+	/*******
+	 * <p> Method: void stop() </p>
+	 *
+	 * <p> Description: Stop sweeping and forget every session.</p>
+	 */
+	public void stop() {
+		if (sweeper != null) sweeper.shutdownNow();
+		sweeper = null;
+		sessions.clear();
+	}
+}
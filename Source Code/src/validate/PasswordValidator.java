@@ -1,29 +1,27 @@
 package validate;
 
+import logging.Log;
+
 public class PasswordValidator {
+	// The per-character trace is written at TRACE level, which is off unless asked for
+	private static final Log log = Log.get(PasswordValidator.class);
+
 	 public static int passwordIndexofError = 0;
 	 public static String passwordErrorMessage = "";
 	 public static String passwordInput = "";
 
-	    // Internal working fields 
-	    private static String inputLine;
-	    private static int currentCharNdx;
-	    private static char currentChar;
-	    private static boolean running;
-
-	    private static boolean foundUpperCase;
-	    private static boolean foundLowerCase;
-	    private static boolean foundNumericDigit;
-	    private static boolean foundSpecialChar;
-	    private static boolean foundLongEnough;
-	    
-
+	// The scan works only with local variables, so any number of threads can validate at once;
+	// the returned message is each call's own result.  The result fields above are set by every
+	// call, so they describe the latest call and are only meaningful to a single-threaded caller
+	// such as the GUI.
 	public static String evaluatePassword(String input) {
 		// The following are the local variable used to perform the Directed Graph simulation
 		passwordErrorMessage = "";
 		passwordIndexofError = 0;			// Initialize the IndexofError
-		inputLine = input;					// Save the reference to the input line as a global
-		currentCharNdx = 0;					// The index of the current character
+		String inputLine = input;			// The input line being scanned
+		int currentCharNdx = 0;				// The index of the current character
+		char currentChar;					// The current character
+		boolean running;					// Whether the directed graph loop is operating
 		
 		if(input.length() <= 0) {
 			return "*** Error *** The password is empty!";
@@ -43,11 +41,11 @@ public class PasswordValidator {
 		passwordInput = input;				// Save a copy of the input
 		
 		// The following are the attributes associated with each of the requirements
-		foundUpperCase = false;				// Reset the Boolean flag
-		foundLowerCase = false;				// Reset the Boolean flag
-		foundNumericDigit = false;			// Reset the Boolean flag
-		foundSpecialChar = false;			// Reset the Boolean flag
-		foundLongEnough = false;			// Reset the Boolean flag
+		boolean foundUpperCase = false;		// Reset the Boolean flag
+		boolean foundLowerCase = false;		// Reset the Boolean flag
+		boolean foundNumericDigit = false;	// Reset the Boolean flag
+		boolean foundSpecialChar = false;	// Reset the Boolean flag
+		boolean foundLongEnough = false;	// Reset the Boolean flag
 		
 		// This flag determines whether the directed graph (FSM) loop is operating or not
 		running = true;						// Start the loop
@@ -58,23 +56,23 @@ public class PasswordValidator {
 			// The cascading if statement sequentially tries the current character against all of
 			// the valid transitions, each associated with one of the requirements
 			if (currentChar >= 'A' && currentChar <= 'Z') {
-				System.out.println("Upper case letter found");
+				log.trace("Upper case letter found");
 				foundUpperCase = true;
 			} else if (currentChar >= 'a' && currentChar <= 'z') {
-				System.out.println("Lower case letter found");
+				log.trace("Lower case letter found");
 				foundLowerCase = true;
 			} else if (currentChar >= '0' && currentChar <= '9') {
-				System.out.println("Digit found");
+				log.trace("Digit found");
 				foundNumericDigit = true;
 			} else if ("~`!@#$%^&*()_-+={}[]|\\:;\"'<>,.?/".indexOf(currentChar) >= 0) {
-				System.out.println("Special character found");
+				log.trace("Special character found");
 				foundSpecialChar = true;
 			} else {
 				passwordIndexofError = currentCharNdx;
 				return "*** Error *** An invalid character has been found!";
 			}
 			if (currentCharNdx >= 7) {
-				System.out.println("At least 8 characters found");
+				log.trace("At least 8 characters found");
 				foundLongEnough = true;
 			}
 			
@@ -84,8 +82,6 @@ public class PasswordValidator {
 				running = false;
 			else
 				currentChar = input.charAt(currentCharNdx);
-			
-			System.out.println();
 		}
 		
 		// Construct a String with a list of the requirement elements that were found.
@@ -1,5 +1,7 @@
 package validate;
 
+import logging.Level;
+import logging.Log;
 
 public class UserNameRecognizer {
 	/**
@@ -16,6 +18,9 @@ public class UserNameRecognizer {
 	 * @version 1.00		2024-09-13	Initial baseline derived from the Even Recognizer
 	 * @version 1.01		2024-09-17	Correction to address UNChar coding error, improper error
 	 * 									message, and improve internal documentation
+	 * @version 1.02		2025-10-26	The FSM trace is logged at TRACE level instead of printed
+	 * @version 1.03		2025-10-27	Each call runs the FSM in its own instance, so calls can run
+	 * 									in parallel
 	 * 
 	 */
 
@@ -29,32 +34,45 @@ public class UserNameRecognizer {
 	public static String userNameRecognizerErrorMessage = "";	// The error message text
 	public static String userNameRecognizerInput = "";			// The input being processed
 	public static int userNameRecognizerIndexofError = -1;		// The index of error location
-	private static int state = 0;						// The current state value
-	private static int nextState = 0;					// The next state value
-	private static boolean finalState = false;			// Is this state a final state?
-	private static String inputLine = "";				// The input line
-	private static char currentChar;					// The current character in the line
-	private static int currentCharNdx;					// The index of the current character
-	private static boolean running;						// The flag that specifies if the FSM is 
+
+	/**********************************************************************************************
+	 * 
+	 * The working attributes of one run of the FSM.  Each call to checkForValidUserName uses its
+	 * own instance, so concurrent callers do not share them.
+	 * 
+	 */
+	private int state = 0;								// The current state value
+	private int nextState = 0;							// The next state value
+	private boolean finalState = false;					// Is this state a final state?
+	private String inputLine = "";						// The input line
+	private char currentChar;							// The current character in the line
+	private int currentCharNdx;							// The index of the current character
+	private boolean running;							// The flag that specifies if the FSM is 
 														// running
-	private static int userNameSize = 0;			// A numeric value may not exceed 16 characters
+	private int userNameSize = 0;					// A numeric value may not exceed 16 characters
+	private String errorMessage = "";					// The error message text
+	private int indexOfError = -1;						// The index of error location
+
+	// The FSM trace is written at TRACE level, which is off unless asked for
+	private static final Log log = Log.get(UserNameRecognizer.class);
 
 	// Private method to display debugging data
-	private static void displayDebuggingInfo() {
+	private void displayDebuggingInfo() {
 		// Display the current state of the FSM as part of an execution trace
+		if (!log.isEnabled(Level.TRACE)) return;
 		if (currentCharNdx >= inputLine.length())
 			// display the line with the current state numbers aligned
-			System.out.println(((state > 99) ? " " : (state > 9) ? "  " : "   ") + state + 
+			log.trace(((state > 99) ? " " : (state > 9) ? "  " : "   ") + state + 
 					((finalState) ? "       F   " : "           ") + "None");
 		else
-			System.out.println(((state > 99) ? " " : (state > 9) ? "  " : "   ") + state + 
+			log.trace(((state > 99) ? " " : (state > 9) ? "  " : "   ") + state + 
 				((finalState) ? "       F   " : "           ") + "  " + currentChar + " " + 
 				((nextState > 99) ? "" : (nextState > 9) || (nextState == -1) ? "   " : "    ") + 
 				nextState + "     " + userNameSize);
 	}
 	
 	// Private method to move to the next character within the limits of the input line
-	private static void moveToNextCharacter() {
+	private void moveToNextCharacter() {
 		currentCharNdx++;
 		if (currentCharNdx < inputLine.length())
 			currentChar = inputLine.charAt(currentCharNdx);
@@ -71,11 +89,29 @@ public class UserNameRecognizer {
 	 * @param input		The input string for the Finite State Machine
 	 * @return			An output string that is empty if every things is okay or it is a String
 	 * 						with a helpful description of the error
+	 * 
+	 * Each call runs the FSM in its own instance, so any number of threads can check usernames
+	 * at once and the returned message is each call's own result.  The result attributes are
+	 * set by every call, so they describe the latest call and are only meaningful to a
+	 * single-threaded caller such as the GUI.
 	 */
 	public static String checkForValidUserName(String input) {
+		UserNameRecognizer fsm = new UserNameRecognizer();
+		String message = fsm.recognize(input);
+		userNameRecognizerInput = input;
+		userNameRecognizerIndexofError = fsm.indexOfError;
+		userNameRecognizerErrorMessage = message;
+		return message;
+	}
+
+	private UserNameRecognizer() {
+	}
+
+	// One run of the FSM over the input
+	private String recognize(String input) {
 		// Check to ensure that there is input to process
 		if(input.length() <= 0) {
-			userNameRecognizerIndexofError = 0;	// Error at first character;
+			indexOfError = 0;	// Error at first character;
 			return "\n*** ERROR *** The input is empty";
 		}
 		
@@ -88,10 +124,9 @@ public class UserNameRecognizer {
 		// The Finite State Machines continues until the end of the input is reached or at some 
 		// state the current character does not match any valid transition to a next state
 
-		userNameRecognizerInput = input;	// Save a copy of the input
 		running = true;						// Start the loop
 		nextState = -1;						// There is no next state
-		System.out.println("\nCurrent Final Input  Next  Date\nState   State Char  State  Size");
+		log.trace("\nCurrent Final Input  Next  Date\nState   State Char  State  Size");
 		
 		// This is the place where semantic actions for a transition to the initial state occur
 		
@@ -206,22 +241,22 @@ public class UserNameRecognizer {
 		}
 		displayDebuggingInfo();
 		
-		System.out.println("The loop has ended.");
+		log.trace("The loop has ended.");
 		
 		// When the FSM halts, we must determine if the situation is an error or not.  That depends
 		// of the current state of the FSM and whether or not the whole string has been consumed.
 		// This switch directs the execution to separate code for each of the FSM states and that
 		// makes it possible for this code to display a very specific error message to improve the
 		// user experience.
-		userNameRecognizerIndexofError = currentCharNdx;	// Set index of a possible error;
-		userNameRecognizerErrorMessage = "\n*** ERROR *** ";
+		indexOfError = currentCharNdx;	// Set index of a possible error;
+		errorMessage = "\n*** ERROR *** ";
 		
 		// The following code is a slight variation to support just console output.
 		switch (state) {
 		case 0:
 			// State 0 is not a final state, so we can return a very specific error message
-			userNameRecognizerErrorMessage += "A UserName must start with A-Z, a-z.\n";
-			return userNameRecognizerErrorMessage;
+			errorMessage += "A UserName must start with A-Z, a-z.\n";
+			return errorMessage;
 
 		case 1:
 			// State 1 is a final state.  Check to see if the UserName length is valid.  If so we
@@ -229,33 +264,33 @@ public class UserNameRecognizer {
 
 			if (userNameSize < 4) {
 				// UserName is too small
-				userNameRecognizerErrorMessage += "A UserName must have at least 4 characters.\n";
-				return userNameRecognizerErrorMessage;
+				errorMessage += "A UserName must have at least 4 characters.\n";
+				return errorMessage;
 			}
 			else if (userNameSize > 16) {
 				// UserName is too long
-				userNameRecognizerErrorMessage += 
+				errorMessage += 
 					"A UserName must have no more than 16 characters.\n";
-				return userNameRecognizerErrorMessage;
+				return errorMessage;
 			}
 			else if (currentCharNdx < input.length()) {
 				// There are characters remaining in the input, so the input is not valid
-				userNameRecognizerErrorMessage += 
+				errorMessage += 
 					"A UserName character may only contain the characters A-Z, a-z, 0-9.\n";
-				return userNameRecognizerErrorMessage;
+				return errorMessage;
 			}
 			else {
 					// UserName is valid
-					userNameRecognizerIndexofError = -1;
-					userNameRecognizerErrorMessage = "";
-					return userNameRecognizerErrorMessage;
+					indexOfError = -1;
+					errorMessage = "";
+					return errorMessage;
 			}
 
 		case 2:
 			// State 2 is not a final state, so we can return a very specific error message
-			userNameRecognizerErrorMessage +=
+			errorMessage +=
 				"A UserName character after a special character must be A-Z, a-z, 0-9.\n";
-			return userNameRecognizerErrorMessage;
+			return errorMessage;
 			
 		default:
 			// This is for the case where we have a state that is outside of the valid range.